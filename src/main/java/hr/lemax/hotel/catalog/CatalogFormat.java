@@ -0,0 +1,78 @@
+package hr.lemax.hotel.catalog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+
+public enum CatalogFormat {
+    // One JSON object per line, for inspection and external tools
+    NDJSON(".ndjson", "application/x-ndjson") {
+        @Override
+        public CatalogWriter writer(final OutputStream out, final long catalogVersion) throws IOException {
+            return new NdjsonCatalogWriter(out);
+        }
+
+        @Override
+        public CatalogReader reader(final InputStream in) throws IOException {
+            return new NdjsonCatalogReader(in);
+        }
+    },
+    // Compact binary snapshot with catalog version, see SnapshotCatalogWriter
+    SNAPSHOT(".snapshot", "application/vnd.hotel-catalog-snapshot") {
+        @Override
+        public CatalogWriter writer(final OutputStream out, final long catalogVersion) throws IOException {
+            return new SnapshotCatalogWriter(out, catalogVersion);
+        }
+
+        @Override
+        public CatalogReader reader(final InputStream in) throws IOException {
+            return new SnapshotCatalogReader(in);
+        }
+    };
+
+    private final String extension;
+    private final String mediaType;
+
+    CatalogFormat(final String extension, final String mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param out stream to write to
+     * @param catalogVersion catalog version recorded in formats that support it
+     * @return writer of the format
+     */
+    public abstract CatalogWriter writer(OutputStream out, long catalogVersion) throws IOException;
+
+    /**
+     * @param in stream to read from
+     * @return reader of the format
+     */
+    public abstract CatalogReader reader(InputStream in) throws IOException;
+
+    /**
+     * Get format by file extension.
+     *
+     * @param fileName catalog file name
+     * @return format of the file
+     */
+    public static CatalogFormat fromFileName(final String fileName) {
+        final String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(format -> lowerCaseName.endsWith(format.extension))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown catalog format of file: " + fileName
+                        + ", expected one of " + Arrays.toString(Arrays.stream(values()).map(CatalogFormat::getExtension).toArray())));
+    }
+}
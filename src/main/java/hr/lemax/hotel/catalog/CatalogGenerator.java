@@ -0,0 +1,205 @@
+package hr.lemax.hotel.catalog;
+
+import hr.lemax.hotel.model.Hotel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic generator of a synthetic hotel catalog. Hotels are clustered around world cities
+ * weighted by their share of hotels, with a normally distributed spread around the city center and
+ * a small share of hotels in the wider region. Prices follow a lognormal distribution around the
+ * price level of the city, scaled by the tier of the hotel (budget to luxury). Names are
+ * {@code "<brand> <city> <id>"}, so hotels of the same brand in a city share a name prefix.
+ * <p>
+ * The same seed always produces the same sequence of hotels, and a shorter catalog is a prefix of
+ * a longer one. Hotels are generated lazily, so catalogs of tens of millions of hotels can be
+ * streamed to a file or into the service without holding them in memory.
+ * <p>
+ * Can be run from the command line to write a catalog file, configured with system properties
+ * {@code catalog.count} (default 10000), {@code catalog.seed} (default 42) and
+ * {@code catalog.output} (required, format chosen by {@link CatalogFormat#fromFileName(String)}).
+ */
+@Slf4j
+public class CatalogGenerator {
+    // Share of hotels outside of the city, in its wider region
+    private static final double REGIONAL_SHARE = 0.05;
+    private static final double REGIONAL_SPREAD_FACTOR = 12;
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final double PRICE_SIGMA = 0.35;
+    private static final double MIN_PRICE = 15;
+
+    /**
+     * City around which hotels are generated.
+     *
+     * @param name city name, used in hotel names
+     * @param longitude longitude of city center
+     * @param latitude latitude of city center
+     * @param weight relative number of hotels in the city
+     * @param priceLevel typical price of a midscale hotel
+     * @param spreadKm standard deviation of hotel distance from city center in kilometers
+     */
+    public record City(String name, double longitude, double latitude, double weight, double priceLevel, double spreadKm) {
+    }
+
+    private record Tier(double share, double priceFactor, List<String> brands) {
+    }
+
+    public static final List<City> CITIES = List.of(
+            new City("London", -0.13, 51.51, 100, 180, 12),
+            new City("Paris", 2.35, 48.86, 100, 170, 10),
+            new City("New York", -73.94, 40.73, 90, 220, 12),
+            new City("Tokyo", 139.69, 35.69, 90, 140, 15),
+            new City("Bangkok", 100.50, 13.76, 70, 60, 15),
+            new City("Rome", 12.50, 41.90, 70, 150, 8),
+            new City("Istanbul", 28.98, 41.01, 60, 90, 15),
+            new City("Barcelona", 2.17, 41.39, 60, 140, 7),
+            new City("Berlin", 13.40, 52.52, 60, 110, 10),
+            new City("Los Angeles", -118.24, 34.05, 60, 180, 20),
+            new City("Dubai", 55.27, 25.20, 50, 200, 15),
+            new City("Amsterdam", 4.90, 52.37, 50, 170, 6),
+            new City("Madrid", -3.70, 40.42, 50, 120, 9),
+            new City("Las Vegas", -115.14, 36.17, 50, 130, 8),
+            new City("Beijing", 116.41, 39.90, 50, 90, 18),
+            new City("Shanghai", 121.47, 31.23, 50, 100, 18),
+            new City("Vienna", 16.37, 48.21, 45, 130, 7),
+            new City("Prague", 14.42, 50.08, 45, 100, 7),
+            new City("Singapore", 103.82, 1.35, 45, 190, 10),
+            new City("Hong Kong", 114.17, 22.32, 45, 170, 8),
+            new City("Seoul", 126.98, 37.57, 45, 110, 12),
+            new City("Sydney", 151.21, -33.87, 40, 170, 12),
+            new City("Miami", -80.19, 25.76, 40, 200, 10),
+            new City("Mexico City", -99.13, 19.43, 40, 70, 15),
+            new City("Lisbon", -9.14, 38.72, 40, 120, 7),
+            new City("Mumbai", 72.88, 19.08, 40, 60, 15),
+            new City("Athens", 23.73, 37.98, 35, 100, 8),
+            new City("San Francisco", -122.42, 37.77, 35, 230, 8),
+            new City("Rio de Janeiro", -43.17, -22.91, 35, 90, 12),
+            new City("Buenos Aires", -58.38, -34.60, 30, 70, 10),
+            new City("Toronto", -79.38, 43.65, 30, 150, 10),
+            new City("Cape Town", 18.42, -33.92, 25, 90, 10),
+            new City("Cairo", 31.24, 30.04, 25, 60, 12),
+            new City("Split", 16.44, 43.51, 20, 130, 5),
+            new City("Dubrovnik", 18.09, 42.65, 20, 180, 4),
+            new City("Zagreb", 15.98, 45.81, 15, 90, 6),
+            new City("Honolulu", -157.86, 21.31, 15, 250, 6),
+            new City("Reykjavik", -21.94, 64.15, 8, 160, 4));
+
+    private static final List<Tier> TIERS = List.of(
+            new Tier(0.35, 0.55, List.of("Ibis", "Motel One", "Premier Inn", "Hostel", "Pension")),
+            new Tier(0.45, 1.0, List.of("Holiday Inn", "Novotel", "Best Western", "Mercure", "Hotel Central", "Hotel Panorama")),
+            new Tier(0.15, 1.8, List.of("Hilton", "Marriott", "Radisson Blu", "Sheraton", "Grand Hotel")),
+            new Tier(0.05, 3.5, List.of("Four Seasons", "Ritz-Carlton", "Mandarin Oriental", "Park Hyatt")));
+
+    private static final double[] CITY_CUMULATIVE_WEIGHTS = cumulative(CITIES.stream().mapToDouble(City::weight).toArray());
+    private static final double[] TIER_CUMULATIVE_SHARES = cumulative(TIERS.stream().mapToDouble(Tier::share).toArray());
+
+    private final SplittableRandom random;
+
+    /**
+     * @param seed random seed, the same seed always generates the same catalog
+     */
+    public CatalogGenerator(final long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Lazily generate hotels with IDs from 1 to {@code count}. The generator keeps its state
+     * between calls, so each instance should be used for a single catalog.
+     *
+     * @param count number of hotels
+     * @return sequential {@link Stream} of hotels
+     */
+    public Stream<Hotel> hotels(final long count) {
+        return LongStream.rangeClosed(1, count).mapToObj(this::next);
+    }
+
+    /**
+     * Generate the next hotel.
+     *
+     * @param id ID of the hotel
+     * @return new hotel
+     */
+    public Hotel next(final long id) {
+        final City city = CITIES.get(pick(CITY_CUMULATIVE_WEIGHTS));
+        final Tier tier = TIERS.get(pick(TIER_CUMULATIVE_SHARES));
+        final String brand = tier.brands().get(random.nextInt(tier.brands().size()));
+
+        final double spreadKm = random.nextDouble() < REGIONAL_SHARE ? city.spreadKm() * REGIONAL_SPREAD_FACTOR : city.spreadKm();
+        final double latitude = Math.max(-89.9, Math.min(89.9, city.latitude() + random.nextGaussian() * spreadKm / KM_PER_DEGREE));
+        final double longitude = wrapLongitude(city.longitude()
+                + random.nextGaussian() * spreadKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(latitude))));
+
+        final double price = Math.max(MIN_PRICE, city.priceLevel() * tier.priceFactor() * Math.exp(random.nextGaussian() * PRICE_SIGMA));
+        return new Hotel(id,
+                brand + " " + city.name() + " " + id,
+                Math.round(price * 100) / 100.0,
+                Math.round(longitude * 1e6) / 1e6,
+                Math.round(latitude * 1e6) / 1e6);
+    }
+
+    /**
+     * Pick a random city weighted by its share of hotels.
+     *
+     * @param random source of randomness
+     * @return city
+     */
+    public static City randomCity(final SplittableRandom random) {
+        return CITIES.get(pick(random, CITY_CUMULATIVE_WEIGHTS));
+    }
+
+    private int pick(final double[] cumulativeWeights) {
+        return pick(random, cumulativeWeights);
+    }
+
+    private static int pick(final SplittableRandom random, final double[] cumulativeWeights) {
+        final double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        final int index = Arrays.binarySearch(cumulativeWeights, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static double[] cumulative(final double[] weights) {
+        final double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static double wrapLongitude(final double longitude) {
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final long count = Long.getLong("catalog.count", 10_000L);
+        final long seed = Long.getLong("catalog.seed", 42L);
+        final String output = System.getProperty("catalog.output");
+        if (output == null) {
+            throw new IllegalArgumentException("System property catalog.output is required");
+        }
+
+        final CatalogFormat format = CatalogFormat.fromFileName(output);
+        final long start = System.nanoTime();
+        try (OutputStream out = Files.newOutputStream(Path.of(output));
+             CatalogWriter writer = format.writer(out, 0)) {
+            new CatalogGenerator(seed).hotels(count).forEach(writer::write);
+        }
+        log.info("Generated {} hotels with seed {} to {} in {} ms", count, seed, output, (System.nanoTime() - start) / 1_000_000);
+    }
+}
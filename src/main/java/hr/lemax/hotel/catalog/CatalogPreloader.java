@@ -0,0 +1,57 @@
+package hr.lemax.hotel.catalog;
+
+import hr.lemax.hotel.config.CatalogPreloadProperties;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.service.HotelService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Loads a catalog file or a generated catalog into {@link HotelService} on startup, before the
+ * web server starts accepting requests.
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class CatalogPreloader implements SmartInitializingSingleton {
+    private final HotelService hotelService;
+    private final CatalogPreloadProperties properties;
+
+    public CatalogPreloader(final HotelService hotelService, final CatalogPreloadProperties properties) {
+        this.hotelService = hotelService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        final long start = System.nanoTime();
+        if (properties.getFile() != null && !properties.getFile().isBlank()) {
+            final long count = loadFile(Path.of(properties.getFile()));
+            log.info("Preloaded {} hotels from {} in {} ms", count, properties.getFile(), (System.nanoTime() - start) / 1_000_000);
+        } else if (properties.getCount() > 0) {
+            final long count;
+            try (Stream<Hotel> hotels = new CatalogGenerator(properties.getSeed()).hotels(properties.getCount())) {
+                count = hotelService.importHotels(hotels);
+            }
+            log.info("Preloaded {} generated hotels with seed {} in {} ms", count, properties.getSeed(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private long loadFile(final Path file) {
+        final CatalogFormat format = CatalogFormat.fromFileName(file.getFileName().toString());
+        try (CatalogReader reader = format.reader(Files.newInputStream(file))) {
+            return hotelService.importHotels(reader.hotels());
+        } catch (final IOException e) {
+            log.error("Error while preloading catalog from {}: {}", file, e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+}
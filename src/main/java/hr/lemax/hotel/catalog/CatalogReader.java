@@ -0,0 +1,24 @@
+package hr.lemax.hotel.catalog;
+
+import hr.lemax.hotel.model.Hotel;
+
+import java.io.Closeable;
+import java.util.stream.Stream;
+
+/**
+ * Reads hotels of a catalog written by a {@link CatalogWriter}. Closing the reader closes the
+ * underlying stream.
+ */
+public interface CatalogReader extends Closeable {
+    /**
+     * @return catalog version the catalog was written at, or 0 if the format does not record it
+     */
+    long getCatalogVersion();
+
+    /**
+     * Lazily read hotels. Can be consumed only once.
+     *
+     * @return sequential {@link Stream} of hotels
+     */
+    Stream<Hotel> hotels();
+}
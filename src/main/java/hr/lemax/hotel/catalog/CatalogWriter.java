@@ -0,0 +1,19 @@
+package hr.lemax.hotel.catalog;
+
+import hr.lemax.hotel.model.Hotel;
+
+import java.io.Closeable;
+
+/**
+ * Writes hotels of a catalog to a stream in one of the {@link CatalogFormat}s. Closing the writer
+ * completes the catalog and closes the underlying stream.
+ */
+public interface CatalogWriter extends Closeable {
+    /**
+     * Append hotel to the catalog.
+     *
+     * @param hotel hotel to write
+     * @throws java.io.UncheckedIOException if writing fails
+     */
+    void write(Hotel hotel);
+}
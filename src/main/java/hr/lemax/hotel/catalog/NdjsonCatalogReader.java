@@ -0,0 +1,76 @@
+package hr.lemax.hotel.catalog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import hr.lemax.hotel.model.Hotel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads catalogs written by {@link NdjsonCatalogWriter} with the streaming parser. Unknown fields
+ * are ignored.
+ */
+public class NdjsonCatalogReader implements CatalogReader {
+    private final JsonParser parser;
+
+    public NdjsonCatalogReader(final InputStream in) throws IOException {
+        this.parser = new JsonFactory().createParser(in);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return 0;
+    }
+
+    @Override
+    public Stream<Hotel> hotels() {
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Hotel>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super Hotel> action) {
+                try {
+                    final JsonToken token = parser.nextToken();
+                    if (token == null) {
+                        return false;
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new IOException("Expected hotel object at " + parser.currentLocation());
+                    }
+                    action.accept(readHotel());
+                    return true;
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }, false);
+    }
+
+    private Hotel readHotel() throws IOException {
+        final Hotel hotel = new Hotel();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> hotel.setId(parser.getLongValue());
+                case "name" -> hotel.setName(parser.getValueAsString());
+                case "price" -> hotel.setPrice(parser.getDoubleValue());
+                case "longitude" -> hotel.setLongitude(parser.getDoubleValue());
+                case "latitude" -> hotel.setLatitude(parser.getDoubleValue());
+                default -> parser.skipChildren();
+            }
+        }
+        return hotel;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,42 @@
+package hr.lemax.hotel.catalog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import hr.lemax.hotel.model.Hotel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes one JSON object per hotel and line: {@code {"id":1,"name":"...","price":1.0,"longitude":1.0,"latitude":1.0}}.
+ */
+public class NdjsonCatalogWriter implements CatalogWriter {
+    private final JsonGenerator generator;
+
+    public NdjsonCatalogWriter(final OutputStream out) throws IOException {
+        this.generator = new JsonFactory().createGenerator(out);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(final Hotel hotel) {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", hotel.getId());
+            generator.writeStringField("name", hotel.getName());
+            generator.writeNumberField("price", hotel.getPrice());
+            generator.writeNumberField("longitude", hotel.getLongitude());
+            generator.writeNumberField("latitude", hotel.getLatitude());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,80 @@
+package hr.lemax.hotel.catalog;
+
+import hr.lemax.hotel.model.Hotel;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads snapshots written by {@link SnapshotCatalogWriter}. A snapshot without the end marker is
+ * reported as truncated.
+ */
+public class SnapshotCatalogReader implements CatalogReader {
+    private final DataInputStream in;
+    private final long catalogVersion;
+
+    public SnapshotCatalogReader(final InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        if (this.in.readInt() != SnapshotCatalogWriter.MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        final int formatVersion = this.in.readInt();
+        if (formatVersion != SnapshotCatalogWriter.FORMAT_VERSION) {
+            throw new IOException("Unsupported catalog snapshot format version: " + formatVersion);
+        }
+        this.catalogVersion = this.in.readLong();
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    @Override
+    public Stream<Hotel> hotels() {
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Hotel>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean ended;
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super Hotel> action) {
+                if (ended) {
+                    return false;
+                }
+                try {
+                    final byte marker = in.readByte();
+                    if (marker == SnapshotCatalogWriter.END) {
+                        ended = true;
+                        return false;
+                    }
+                    if (marker != SnapshotCatalogWriter.HOTEL) {
+                        throw new IOException("Corrupted catalog snapshot, unexpected marker: " + marker);
+                    }
+                    final Hotel hotel = new Hotel();
+                    hotel.setId(in.readLong());
+                    hotel.setVersion(in.readLong());
+                    hotel.setPrice(in.readDouble());
+                    hotel.setLongitude(in.readDouble());
+                    hotel.setLatitude(in.readDouble());
+                    hotel.setName(in.readBoolean() ? in.readUTF() : null);
+                    action.accept(hotel);
+                    return true;
+                } catch (final IOException e) {
+                    throw new UncheckedIOException("Truncated or corrupted catalog snapshot", e);
+                }
+            }
+        }, false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,62 @@
+package hr.lemax.hotel.catalog;
+
+import hr.lemax.hotel.model.Hotel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes catalog as a binary snapshot:
+ * <pre>
+ * header:  int magic "HCAT", int format version, long catalog version
+ * hotel:   byte 1, long id, long version, double price, double longitude, double latitude,
+ *          boolean has name, modified UTF-8 name if present
+ * end:     byte 0
+ * </pre>
+ * All numbers are big-endian, as written by {@link DataOutputStream}.
+ */
+public class SnapshotCatalogWriter implements CatalogWriter {
+    static final int MAGIC = 0x48434154;
+    static final int FORMAT_VERSION = 1;
+    static final byte HOTEL = 1;
+    static final byte END = 0;
+
+    private final DataOutputStream out;
+
+    public SnapshotCatalogWriter(final OutputStream out, final long catalogVersion) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(FORMAT_VERSION);
+        this.out.writeLong(catalogVersion);
+    }
+
+    @Override
+    public void write(final Hotel hotel) {
+        try {
+            out.writeByte(HOTEL);
+            out.writeLong(hotel.getId());
+            out.writeLong(hotel.getVersion());
+            out.writeDouble(hotel.getPrice());
+            out.writeDouble(hotel.getLongitude());
+            out.writeDouble(hotel.getLatitude());
+            out.writeBoolean(hotel.getName() != null);
+            if (hotel.getName() != null) {
+                out.writeUTF(hotel.getName());
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.writeByte(END);
+        } finally {
+            out.close();
+        }
+    }
+}
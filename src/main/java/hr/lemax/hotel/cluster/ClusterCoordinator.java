@@ -0,0 +1,233 @@
+package hr.lemax.hotel.cluster;
+
+import hr.lemax.hotel.common.exception.HotelNotFoundException;
+import hr.lemax.hotel.dto.HotelDTO;
+import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.dto.HotelSearchDTO;
+import hr.lemax.hotel.dto.UserGeoModificationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Routes hotel requests to the shards of a geo-sharded cluster. Hotels are added to the shard
+ * of their location and found by the shard encoded in their global ID, see {@link ShardRouter}.
+ * <p>
+ * Searches are scattered to the nearest shards in parallel and their top results merged by
+ * distance and price. Shards are queried in two rounds: first the shards nearest to the user, then,
+ * in parallel, only those other shards whose nearest cell is closer than the K-th hotel found in
+ * the first round, as hotels of shards further away cannot make it into the top K.
+ */
+@Slf4j
+public class ClusterCoordinator implements AutoCloseable {
+    private static final ParameterizedTypeReference<List<HotelSearchDTO>> SEARCH_RESULTS = new ParameterizedTypeReference<>() {
+    };
+    // Distances returned by shards are rounded to hundredths
+    private static final double DISTANCE_ROUNDING = 0.01;
+    private static final Comparator<HotelSearchDTO> DISTANCE_AND_PRICE = Comparator
+            .comparing(HotelSearchDTO::getDistance)
+            .thenComparing(HotelSearchDTO::getPrice);
+
+    private final ShardRouter router;
+    private final List<RestClient> nodes;
+    private final ExecutorService executor;
+
+    public ClusterCoordinator(final ShardRouter router, final List<RestClient> nodes) {
+        this.router = router;
+        this.nodes = nodes;
+        this.executor = Executors.newFixedThreadPool(Math.max(2, nodes.size()), runnable -> {
+            final Thread thread = new Thread(runnable, "cluster-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Add hotel to the shard of its location.
+     *
+     * @return added hotel with its global ID
+     */
+    public HotelDTO addHotel(final HotelModificationDTO hotelDto) {
+        final int shard = router.shardOf(hotelDto.getLongitude(), hotelDto.getLatitude());
+        log.debug("Adding hotel to shard {}", shard);
+        final HotelDTO hotel = nodes.get(shard).post()
+                .uri("/hotels")
+                .body(hotelDto)
+                .retrieve()
+                .body(HotelDTO.class);
+        return toGlobal(shard, hotel);
+    }
+
+    /**
+     * Get hotel by global ID from its shard.
+     */
+    public Optional<HotelDTO> getHotel(final long id) {
+        final int shard = shardOfId(id);
+        final ResponseEntity<HotelDTO> response = nodes.get(shard).get()
+                .uri("/hotels/{id}", router.localId(id))
+                .retrieve()
+                .toEntity(HotelDTO.class);
+        return Optional.ofNullable(response.getBody()).map(hotel -> toGlobal(shard, hotel));
+    }
+
+    /**
+     * Update hotel. A hotel moved into a cell of another shard is added to that shard and deleted
+     * from its old one, so its global ID changes. If it cannot be deleted from its old shard, the
+     * copy added to the new shard is deleted again, so the hotel is not left on both.
+     *
+     * @return updated hotel with its global ID
+     */
+    public HotelDTO updateHotel(final long id, final HotelModificationDTO hotelDto) {
+        final int shard = shardOfId(id);
+        final int targetShard = router.shardOf(hotelDto.getLongitude(), hotelDto.getLatitude());
+        try {
+            if (shard == targetShard) {
+                final HotelDTO hotel = nodes.get(shard).put()
+                        .uri("/hotels/{id}", router.localId(id))
+                        .body(hotelDto)
+                        .retrieve()
+                        .body(HotelDTO.class);
+                return toGlobal(shard, hotel);
+            }
+            if (getHotel(id).isEmpty()) {
+                throw new HotelNotFoundException(id);
+            }
+            log.debug("Moving hotel {} from shard {} to shard {}", id, shard, targetShard);
+            final HotelDTO moved = addHotel(hotelDto);
+            try {
+                deleteHotel(id);
+            } catch (final RuntimeException e) {
+                log.warn("Hotel {} could not be deleted from shard {}, deleting its copy {}", id, shard, moved.getId());
+                try {
+                    deleteHotel(moved.getId());
+                } catch (final RuntimeException rollback) {
+                    log.error("Copy {} of hotel {} could not be deleted: {}", moved.getId(), id, rollback.getMessage());
+                    e.addSuppressed(rollback);
+                }
+                throw e;
+            }
+            return moved;
+        } catch (final HttpClientErrorException.NotFound e) {
+            throw new HotelNotFoundException(id);
+        }
+    }
+
+    /**
+     * Delete hotel by global ID from its shard.
+     */
+    public void deleteHotel(final long id) {
+        final int shard = shardOfId(id);
+        try {
+            nodes.get(shard).delete()
+                    .uri("/hotels/{id}", router.localId(id))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (final HttpClientErrorException.NotFound e) {
+            throw new HotelNotFoundException(id);
+        }
+    }
+
+    /**
+     * Search the nearest and cheapest hotels across shards.
+     *
+     * @param longitude Longitude of the user's current location (X axis).
+     * @param latitude Latitude of the user's current location (Y axis).
+     * @param limit number of hotels to return
+     * @return at most {@code limit} hotels sorted by distance and price, with global IDs
+     */
+    public List<HotelSearchDTO> search(final double longitude, final double latitude, final int limit) {
+        final double[] minDistances = router.minDistances(longitude, latitude);
+        double nearest = Double.POSITIVE_INFINITY;
+        for (final double distance : minDistances) {
+            nearest = Math.min(nearest, distance);
+        }
+
+        final List<Integer> firstRound = new ArrayList<>();
+        for (int shard = 0; shard < minDistances.length; shard++) {
+            if (minDistances[shard] == nearest) {
+                firstRound.add(shard);
+            }
+        }
+        final List<HotelSearchDTO> results = gather(firstRound, longitude, latitude, limit);
+
+        final double bound = results.size() < limit
+                ? Double.POSITIVE_INFINITY
+                : results.get(limit - 1).getDistance() + DISTANCE_ROUNDING;
+        final List<Integer> secondRound = new ArrayList<>();
+        for (int shard = 0; shard < minDistances.length; shard++) {
+            if (minDistances[shard] != nearest && minDistances[shard] <= bound) {
+                secondRound.add(shard);
+            }
+        }
+        log.debug("Searched shards {}, then {} of {} within {} km", firstRound, secondRound, minDistances.length, bound);
+        if (!secondRound.isEmpty()) {
+            results.addAll(gather(secondRound, longitude, latitude, limit));
+            results.sort(DISTANCE_AND_PRICE);
+        }
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Query shards in parallel and merge their results.
+     */
+    private List<HotelSearchDTO> gather(
+            final List<Integer> shards,
+            final double longitude,
+            final double latitude,
+            final int limit) {
+        final List<CompletableFuture<List<HotelSearchDTO>>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> searchShard(shard, longitude, latitude, limit), executor))
+                .toList();
+        final List<HotelSearchDTO> results = new ArrayList<>();
+        try {
+            futures.forEach(future -> results.addAll(future.join()));
+        } catch (final CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        results.sort(DISTANCE_AND_PRICE);
+        return results;
+    }
+
+    private List<HotelSearchDTO> searchShard(final int shard, final double longitude, final double latitude, final int limit) {
+        final List<HotelSearchDTO> hotels = nodes.get(shard).post()
+                .uri(uri -> uri.path("/hotels/search").queryParam("limit", limit).build())
+                .body(new UserGeoModificationDTO(longitude, latitude))
+                .retrieve()
+                .body(SEARCH_RESULTS);
+        if (hotels == null) {
+            return List.of();
+        }
+        hotels.forEach(hotel -> hotel.setId(router.globalId(shard, hotel.getId())));
+        return hotels;
+    }
+
+    private int shardOfId(final long id) {
+        try {
+            return router.shardOfId(id);
+        } catch (final IllegalArgumentException e) {
+            throw new HotelNotFoundException(id);
+        }
+    }
+
+    private HotelDTO toGlobal(final int shard, final HotelDTO hotel) {
+        hotel.setId(router.globalId(shard, hotel.getId()));
+        return hotel;
+    }
+}
@@ -0,0 +1,184 @@
+package hr.lemax.hotel.cluster;
+
+import hr.lemax.hotel.common.util.GeoUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static java.lang.Math.atan2;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+import static java.lang.Math.toDegrees;
+import static java.lang.Math.toRadians;
+
+/**
+ * Maps locations and hotel IDs to shards of a geo-sharded catalog. The globe is divided into a
+ * grid of cells of {@code cellSize} degrees, numbered row by row from the south-west corner
+ * ({@code cell = row * columns + column}). Each cell belongs to one shard: cells listed in the
+ * overrides to the given shard, other cells to contiguous longitude bands of equal width.
+ * <p>
+ * Hotel IDs seen by clients of the cluster are global IDs, which carry the shard in their lowest
+ * {@link #SHARD_BITS} bits and the ID of the hotel within the shard in the remaining bits.
+ */
+public class ShardRouter {
+    public static final int SHARD_BITS = 8;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    private static final long SHARD_MASK = MAX_SHARDS - 1;
+
+    private final int shardCount;
+    private final double cellSize;
+    private final int rows;
+    private final int columns;
+    private final int[] cellShards;
+
+    /**
+     * @param shardCount number of shards
+     * @param cellSize size of grid cells in degrees
+     * @param cellOverrides shards of individual cells, by cell number
+     */
+    public ShardRouter(final int shardCount, final double cellSize, final Map<Integer, Integer> cellOverrides) {
+        if (shardCount <= 0 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("Number of shards must be between 1 and " + MAX_SHARDS + ": " + shardCount);
+        }
+        if (!(cellSize > 0 && cellSize <= 180)) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 180 degrees: " + cellSize);
+        }
+        this.shardCount = shardCount;
+        this.cellSize = cellSize;
+        this.rows = (int) Math.ceil(180 / cellSize);
+        this.columns = (int) Math.ceil(360 / cellSize);
+        this.cellShards = new int[rows * columns];
+        for (int cell = 0; cell < cellShards.length; cell++) {
+            cellShards[cell] = (int) ((long) (cell % columns) * shardCount / columns);
+        }
+        cellOverrides.forEach((cell, shard) -> {
+            if (cell < 0 || cell >= cellShards.length) {
+                throw new IllegalArgumentException("Cell must be between 0 and " + (cellShards.length - 1) + ": " + cell);
+            }
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalArgumentException("Shard of cell " + cell + " must be between 0 and " + (shardCount - 1) + ": " + shard);
+            }
+            cellShards[cell] = shard;
+        });
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return number of the grid cell containing the location
+     */
+    public int cellOf(final double longitude, final double latitude) {
+        final int row = Math.min(rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellSize)));
+        final int column = Math.min(columns - 1, Math.max(0, (int) Math.floor((longitude + 180) / cellSize)));
+        return row * columns + column;
+    }
+
+    /**
+     * @return shard holding hotels at the location
+     */
+    public int shardOf(final double longitude, final double latitude) {
+        return cellShards[cellOf(longitude, latitude)];
+    }
+
+    /**
+     * @param shard shard of the hotel
+     * @param localId ID of the hotel within the shard
+     * @return global ID of the hotel
+     */
+    public long globalId(final int shard, final long localId) {
+        if (localId <= 0 || localId > Long.MAX_VALUE >>> SHARD_BITS) {
+            throw new IllegalArgumentException("Local hotel ID out of range: " + localId);
+        }
+        return localId << SHARD_BITS | shard;
+    }
+
+    /**
+     * @return shard holding the hotel with given global ID
+     * @throws IllegalArgumentException if the ID does not belong to any shard
+     */
+    public int shardOfId(final long globalId) {
+        final int shard = (int) (globalId & SHARD_MASK);
+        if (globalId <= 0 || shard >= shardCount) {
+            throw new IllegalArgumentException("Hotel ID does not belong to any shard: " + globalId);
+        }
+        return shard;
+    }
+
+    /**
+     * @return ID of the hotel within its shard
+     */
+    public long localId(final long globalId) {
+        return globalId >>> SHARD_BITS;
+    }
+
+    /**
+     * Lower bound of the distance from the location to any hotel of each shard, i.e. the distance
+     * to the nearest cell of the shard. A shard whose bound exceeds the distance of the K-th
+     * nearest hotel found so far cannot contribute to the K nearest hotels.
+     *
+     * @return minimum distances in kilometers, indexed by shard
+     */
+    public double[] minDistances(final double longitude, final double latitude) {
+        final double[] distances = new double[shardCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        for (int cell = 0; cell < cellShards.length; cell++) {
+            final int shard = cellShards[cell];
+            if (distances[shard] == 0) {
+                continue;
+            }
+            final double west = (cell % columns) * cellSize - 180;
+            final double south = (cell / columns) * cellSize - 90;
+            final double distance = distanceToCell(longitude, latitude,
+                    west, Math.min(180, west + cellSize), south, Math.min(90, south + cellSize));
+            distances[shard] = Math.min(distances[shard], distance);
+        }
+        return distances;
+    }
+
+    /**
+     * Great-circle distance from a location to the nearest point of a cell.
+     *
+     * @return distance in kilometers
+     */
+    static double distanceToCell(
+            final double longitude,
+            final double latitude,
+            final double west,
+            final double east,
+            final double south,
+            final double north) {
+        final double lonGap = longitudeGap(longitude, west, east);
+        if (lonGap == 0) {
+            final double latGap = latitude < south ? south - latitude : latitude > north ? latitude - north : 0;
+            return GeoUtils.EARTH_RADIUS * toRadians(latGap);
+        }
+        // Nearest point lies on the nearest meridian edge. Along a meridian the distance is smallest at the
+        // foot of the perpendicular from the location, so the minimum is there or at one of the edge's ends.
+        final double phi = toRadians(latitude);
+        final double foot = toDegrees(atan2(sin(phi), cos(phi) * cos(toRadians(lonGap))));
+        double distance = Math.min(
+                GeoUtils.haversineDistance(0, latitude, lonGap, south),
+                GeoUtils.haversineDistance(0, latitude, lonGap, north));
+        if (foot > south && foot < north) {
+            distance = Math.min(distance, GeoUtils.haversineDistance(0, latitude, lonGap, foot));
+        }
+        return distance;
+    }
+
+    /**
+     * @return smallest longitude difference in degrees between the longitude and the range, across the antimeridian
+     */
+    private static double longitudeGap(final double longitude, final double west, final double east) {
+        if (longitude >= west && longitude <= east) {
+            return 0;
+        }
+        return Math.min(angle(longitude, west), angle(longitude, east));
+    }
+
+    private static double angle(final double from, final double to) {
+        final double difference = Math.abs(from - to) % 360;
+        return difference > 180 ? 360 - difference : difference;
+    }
+}
@@ -0,0 +1,115 @@
+package hr.lemax.hotel.common.admission;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limiter whose limit adapts to observed latency (gradient algorithm).
+ * <p>
+ * The limiter tracks the minimum latency seen in a sliding window of samples as the "no queueing"
+ * latency. While latency stays within {@code tolerance} times that minimum, the limit grows by
+ * roughly the square root of itself; once requests start queueing and latency rises above it,
+ * the limit shrinks proportionally (but at most by half per sample). Requests beyond the limit
+ * are rejected immediately instead of waiting, which keeps latency of admitted requests steady.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int minLatencyWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private long minLatency = Long.MAX_VALUE;
+    private int samplesInWindow;
+
+    public AdaptiveConcurrencyLimiter(
+            final int initialLimit,
+            final int minLimit,
+            final int maxLimit,
+            final double tolerance,
+            final double smoothing,
+            final int minLatencyWindow) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits: initial " + initialLimit + ", min " + minLimit + ", max " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.minLatencyWindow = minLatencyWindow;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Try to admit a request. Every successful call must be followed by {@link #release(long)}.
+     *
+     * @return {@code true} if the request is admitted, {@code false} if the limit is reached
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release admitted request and feed its latency into the limit estimation.
+     *
+     * @param latencyNanos latency of the finished request
+     */
+    public void release(final long latencyNanos) {
+        final int inFlightBeforeRelease = inFlight.getAndDecrement();
+        update(latencyNanos, inFlightBeforeRelease);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(final long latencyNanos, final int inFlightBeforeRelease) {
+        if (latencyNanos <= 0) {
+            return;
+        }
+        // Periodically forget minimum latency so the limiter follows changes in request cost
+        if (++samplesInWindow >= minLatencyWindow) {
+            samplesInWindow = 0;
+            minLatency = latencyNanos;
+        } else {
+            minLatency = Math.min(minLatency, latencyNanos);
+        }
+
+        // Latency of a mostly idle limiter says nothing about its capacity
+        if (inFlightBeforeRelease < estimatedLimit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, tolerance * minLatency / latencyNanos));
+        final double targetLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        final double newLimit = estimatedLimit * (1 - smoothing) + targetLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        final int roundedLimit = (int) estimatedLimit;
+        if (roundedLimit != limit) {
+            log.trace("Concurrency limit changed from {} to {} (latency: {} ns, min latency: {} ns)",
+                    limit, roundedLimit, latencyNanos, minLatency);
+            limit = roundedLimit;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package hr.lemax.hotel.common.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hr.lemax.hotel.common.enums.Messages;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Admission control in front of search endpoints. Requests over the adaptive concurrency limit
+ * are rejected with {@code 503 Service Unavailable} and {@code Retry-After} instead of queueing
+ * for a Tomcat thread. Cheap endpoints are not registered with this filter, so they keep being
+ * served while searches are shed.
+ */
+@Slf4j
+public class SearchAdmissionFilter extends OncePerRequestFilter {
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    public SearchAdmissionFilter(
+            final AdaptiveConcurrencyLimiter limiter,
+            final ObjectMapper objectMapper,
+            final long retryAfterSeconds) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull final HttpServletRequest request,
+            @NonNull final HttpServletResponse response,
+            @NonNull final FilterChain filterChain) throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            log.debug("Search rejected, concurrency limit {} reached", limiter.getLimit());
+            reject(request, response);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private void reject(
+            final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        final ProblemDetail body = ProblemDetail.forStatusAndDetail(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                Messages.Error.Admission.SEARCH_CAPACITY_EXCEEDED);
+        body.setInstance(URI.create(request.getRequestURI()));
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
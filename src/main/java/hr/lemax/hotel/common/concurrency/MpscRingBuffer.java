@@ -0,0 +1,116 @@
+package hr.lemax.hotel.common.concurrency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producer threads and a single consumer thread. Each slot
+ * carries a sequence number telling whether it is free for the producer claiming position
+ * {@code n} (sequence {@code n}) or holds the element of position {@code n} for the consumer
+ * (sequence {@code n + 1}), so producers only contend on a single CAS of the tail and the
+ * consumer never writes shared counters other than the slot it releases.
+ *
+ * @param <E> element type
+ */
+public class MpscRingBuffer<E> {
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only accessed by the consumer thread
+    private long head;
+
+    /**
+     * @param capacity minimum capacity, rounded up to a power of two
+     */
+    public MpscRingBuffer(final int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add element if there is room. Safe to call from any thread.
+     *
+     * @param element element to add, not {@code null}
+     * @return {@code true} if added, {@code false} if the buffer is full
+     */
+    public boolean offer(final E element) {
+        if (element == null) {
+            throw new NullPointerException("Element must not be null");
+        }
+        long position = tail.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    // Publishes the element to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                // Slot still holds the element of the previous lap
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element. Must only be called by the consumer thread.
+     *
+     * @return oldest element, or {@code null} if the buffer is empty
+     */
+    public E poll() {
+        final int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        final E element = elements.get(index);
+        elements.lazySet(index, null);
+        // Frees the slot for the producer of the next lap
+        sequences.set(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    /**
+     * Remove up to {@code limit} elements in order and pass them to the consumer. Must only be
+     * called by the consumer thread.
+     *
+     * @return number of drained elements
+     */
+    public int drain(final Consumer<? super E> consumer, final int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Check whether a published element is waiting. Must only be called by the consumer thread.
+     */
+    public boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
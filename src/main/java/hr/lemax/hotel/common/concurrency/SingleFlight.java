@@ -0,0 +1,85 @@
+package hr.lemax.hotel.common.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key. The first caller of a key (leader) runs
+ * the computation, callers arriving while it is in flight (followers) wait for and share the
+ * leader's result. Nothing is cached: once the computation completes the key is forgotten and
+ * the next caller computes again, so results are never older than the call itself.
+ *
+ * @param <K> key type, must implement {@code equals} and {@code hashCode}
+ * @param <V> result type, shared between threads so it should be immutable
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    /**
+     * Compute value for the key, or join computation of the same key already in flight.
+     *
+     * @param key key identifying the computation
+     * @param computation computation to run if no other thread is running it
+     * @return computed or shared value
+     */
+    public V execute(final K key, final Supplier<V> computation) {
+        final CompletableFuture<V> own = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            shared.incrementAndGet();
+            log.trace("Joining computation in flight for key: {}", key);
+            return await(existing);
+        }
+
+        executed.incrementAndGet();
+        try {
+            final V value = computation.get();
+            own.complete(value);
+            return value;
+        } catch (final RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * @return number of computations actually executed
+     */
+    public long getExecutedCount() {
+        return executed.get();
+    }
+
+    /**
+     * @return number of calls served by joining a computation of another thread
+     */
+    public long getSharedCount() {
+        return shared.get();
+    }
+
+    private V await(final CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException | CancellationException e) {
+            final Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
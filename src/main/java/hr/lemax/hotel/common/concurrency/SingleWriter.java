@@ -0,0 +1,175 @@
+package hr.lemax.hotel.common.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Applies mutations on a single dedicated thread. Callers on any thread submit mutations through
+ * a lock-free {@link MpscRingBuffer} and get a future completed with the mutation's result; the
+ * writer thread takes mutations in batches and applies them one after another in submission
+ * order. Mutations therefore never run concurrently and need no locks of their own, and callers
+ * do not contend on a lock while waiting. When the buffer is full, callers back off until the
+ * writer catches up.
+ */
+@Slf4j
+public class SingleWriter implements AutoCloseable {
+    // Back-off of a caller waiting for room in a full buffer
+    private static final long FULL_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final MpscRingBuffer<Mutation<?>> mutations;
+    private final int batchSize;
+    private final Thread thread;
+    // Set while the writer thread is about to park or parked, so callers only unpark it when needed
+    private final AtomicBoolean idle = new AtomicBoolean();
+    private final AtomicLong appliedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Create and start the writer thread.
+     *
+     * @param name name of the writer thread
+     * @param capacity number of mutations waiting to be applied before callers have to wait
+     * @param batchSize maximum number of mutations applied per batch
+     */
+    public SingleWriter(final String name, final int capacity, final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.mutations = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Submit mutation to be applied by the writer thread. Mutations submitted by the writer
+     * thread itself, e.g. from within another mutation, are applied right away.
+     *
+     * @param mutation mutation to apply
+     * @return future completed with the result of the mutation, or exceptionally with its exception
+     * @throws RejectedExecutionException if the writer is closed
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<T> mutation) {
+        final Mutation<T> task = new Mutation<>(mutation);
+        if (Thread.currentThread() == thread) {
+            task.apply();
+            return task.future;
+        }
+        while (!mutations.offer(task)) {
+            if (!running) {
+                throw new RejectedExecutionException("Writer " + thread.getName() + " is closed");
+            }
+            LockSupport.parkNanos(FULL_BACKOFF_NANOS);
+        }
+        if (!running) {
+            // The writer may have stopped before seeing the mutation
+            task.future.completeExceptionally(new RejectedExecutionException("Writer " + thread.getName() + " is closed"));
+        }
+        if (idle.get()) {
+            LockSupport.unpark(thread);
+        }
+        return task.future;
+    }
+
+    /**
+     * Apply mutation on the writer thread and wait for its result.
+     *
+     * @param mutation mutation to apply
+     * @return result of the mutation
+     * @throws RuntimeException exception thrown by the mutation, as thrown
+     */
+    public <T> T execute(final Supplier<T> mutation) {
+        try {
+            return submit(mutation).join();
+        } catch (final CompletionException | CancellationException e) {
+            final Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * @return number of mutations applied
+     */
+    public long getAppliedCount() {
+        return appliedCount.get();
+    }
+
+    /**
+     * @return number of batches in which the mutations were applied
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Stop accepting mutations, apply those already submitted and stop the writer thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            final int applied = mutations.drain(Mutation::apply, batchSize);
+            if (applied > 0) {
+                appliedCount.addAndGet(applied);
+                batchCount.incrementAndGet();
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+            idle.set(true);
+            // Checked again after announcing idleness, a mutation offered before it is seen here
+            if (mutations.isEmpty() && running) {
+                LockSupport.park(this);
+            }
+            idle.set(false);
+        }
+        log.debug("Writer {} stopped after {} mutations in {} batches", thread.getName(), appliedCount.get(), batchCount.get());
+    }
+
+    private static class Mutation<T> {
+        private final Supplier<T> mutation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Mutation(final Supplier<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        private void apply() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(mutation.get());
+            } catch (final RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
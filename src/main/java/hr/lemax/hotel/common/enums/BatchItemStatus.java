@@ -0,0 +1,16 @@
+package hr.lemax.hotel.common.enums;
+
+/**
+ * Outcome of a single item of a batch update or delete.
+ */
+public enum BatchItemStatus {
+    // Price changed
+    UPDATED,
+    // Price already set, nothing was stored
+    UNCHANGED,
+    DELETED,
+    // No hotel with the ID, e.g. already deleted
+    NOT_FOUND,
+    // Price not positive
+    INVALID
+}
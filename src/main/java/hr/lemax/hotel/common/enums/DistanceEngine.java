@@ -0,0 +1,35 @@
+package hr.lemax.hotel.common.enums;
+
+import hr.lemax.hotel.common.util.GeoUtils;
+
+/**
+ * Formula used to calculate distance between user and hotel.
+ */
+public enum DistanceEngine {
+    // Great-circle distance on a sphere, error up to about 0.5%
+    HAVERSINE {
+        @Override
+        public double distance(final double fromLon, final double fromLat, final double toLon, final double toLat) {
+            return GeoUtils.haversineDistance(fromLon, fromLat, toLon, toLat);
+        }
+    },
+    // Planar approximation of the haversine distance, suited for ranking candidates
+    EQUIRECTANGULAR {
+        @Override
+        public double distance(final double fromLon, final double fromLat, final double toLon, final double toLat) {
+            return GeoUtils.approximateDistance(fromLon, fromLat, toLon, toLat);
+        }
+    },
+    // Geodesic distance on the WGS 84 ellipsoid, suited for displayed distances
+    VINCENTY {
+        @Override
+        public double distance(final double fromLon, final double fromLat, final double toLon, final double toLat) {
+            return GeoUtils.ellipsoidalDistance(fromLon, fromLat, toLon, toLat);
+        }
+    };
+
+    /**
+     * @return distance in kilometers
+     */
+    public abstract double distance(double fromLon, double fromLat, double toLon, double toLat);
+}
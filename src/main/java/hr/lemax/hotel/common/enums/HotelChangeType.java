@@ -0,0 +1,12 @@
+package hr.lemax.hotel.common.enums;
+
+/**
+ * Type of modification of the hotel catalog, see {@link hr.lemax.hotel.model.HotelChange}.
+ */
+public enum HotelChangeType {
+    ADDED,
+    UPDATED,
+    DELETED,
+    // Bulk import of hotels, consumers of individual changes have to reload the catalog
+    IMPORTED
+}
@@ -0,0 +1,55 @@
+package hr.lemax.hotel.common.enums;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Property of a hotel in list and search responses, selected with the {@code fields} parameter.
+ * Names are the property names of {@link hr.lemax.hotel.dto.HotelSearchDTO}.
+ */
+public enum HotelField {
+    ID,
+    NAME,
+    PRICE,
+    LONGITUDE,
+    LATITUDE,
+    // Only set on search results
+    DISTANCE;
+
+    private final String property = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * @return property name in responses
+     */
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Parse comma separated property names, e.g. {@code id,distance}.
+     *
+     * @param fields property names, case-insensitive
+     * @param search {@code true} for search responses, which also have {@link #DISTANCE}
+     * @return selected fields, in response order
+     * @throws IllegalArgumentException if a name is unknown or no field is selected
+     */
+    public static Set<HotelField> parse(final String fields, final boolean search) {
+        final Set<HotelField> selected = EnumSet.noneOf(HotelField.class);
+        for (final String name : fields.split(",")) {
+            final String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            final HotelField field = HotelField.valueOf(trimmed.toUpperCase(Locale.ROOT));
+            if (field == DISTANCE && !search) {
+                throw new IllegalArgumentException("Field only available on search results: " + trimmed);
+            }
+            selected.add(field);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No field selected: " + fields);
+        }
+        return selected;
+    }
+}
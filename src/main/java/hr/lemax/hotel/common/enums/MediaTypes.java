@@ -0,0 +1,9 @@
+package hr.lemax.hotel.common.enums;
+
+import org.springframework.http.MediaType;
+
+public class MediaTypes {
+    public final static String APPLICATION_JSON = MediaType.APPLICATION_JSON_VALUE;
+    public final static String APPLICATION_CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    public final static String APPLICATION_SMILE = "application/x-jackson-smile";
+}
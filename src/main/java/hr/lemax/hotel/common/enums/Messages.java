@@ -7,7 +7,8 @@ public class Messages {
             public final static String HOTEL_NAME_REQUIRED = "The hotel name is required";
             public final static String HOTEL_NAME_LENGTH = "The street name cannot be shorter than 2 and longer than 1024 characters";
             public final static String HOTEL_PRICE_REQUIRED = "The hotel price is required";
-            public final static String HOTEL_PRICE_POSITIVE = "The hotel price must be positive";
+            public final static String HOTEL_PRICE_POSITIVE = "The hotel price must be positive, at least 0.01";
+            public final static String HOTEL_PRICE_MAX = "The hotel price must not be over 21474836.47";
             public final static String HOTEL_LONGITUDE_REQUIRED = "The hotel longitude is required";
             public final static String HOTEL_LATITUDE_REQUIRED = "The hotel latitude is required";
             public final static String HOTEL_GEOLOCATION_INVALID = "The hotel coordinates are invalid";
@@ -18,5 +19,58 @@ public class Messages {
             public final static String USER_LATITUDE_REQUIRED = "The user latitude is required";
             public final static String USER_GEOLOCATION_INVALID = "The user coordinates are invalid";
         }
+
+        public static class Admission {
+            public final static String SEARCH_CAPACITY_EXCEEDED = "Search capacity exceeded, retry later";
+        }
+
+        public static class Clusters {
+            public final static String BBOX_INVALID = "The bounding box must be minLongitude,minLatitude,maxLongitude,maxLatitude";
+            public final static String TOO_MANY_CLUSTERS = "Too many clusters in the bounding box, use a lower zoom";
+            public final static String CLUSTER_DISABLED = "The cluster is not enabled on this instance";
+        }
+
+        public static class Search {
+            public final static String WEIGHTS_INVALID = "The weights must not be negative and not both zero";
+            public final static String LIMIT_INVALID = "The limit must be positive and not over the maximum";
+        }
+
+        public static class Fields {
+            public final static String FIELDS_INVALID = "The fields must be a comma separated list of id, name, price, longitude, latitude and, on search results, distance";
+        }
+
+        public static class Availability {
+            public final static String HOTEL_ID_REQUIRED = "The hotel ID is required";
+            public final static String FROM_REQUIRED = "The first day is required";
+            public final static String TO_REQUIRED = "The day after the last day is required";
+            public final static String AVAILABLE_REQUIRED = "The availability is required";
+            public final static String RANGE_INVALID = "The range must end after it starts and within the booking horizon";
+            public final static String TOO_MANY_UPDATES = "Too many availability updates in a single request";
+            public final static String STAY_INVALID = "Check-in and check-out must both be set, with check-out after check-in";
+        }
+
+        public static class Batch {
+            public final static String PRICES_INVALID = "The prices must be an array of [hotelId, price] pairs";
+            public final static String IDS_REQUIRED = "The hotel IDs are required";
+            public final static String TOO_MANY_ITEMS = "Too many items in a single batch";
+        }
+
+        public static class Grpc {
+            public final static String WRITE_TO_FOLLOWER = "This instance is a follower, send modifications to the leader";
+            public final static String STAY_SEARCH_ON_FOLLOWER = "This instance is a follower without availability, send searches for a stay to the leader";
+            public final static String IMPORT_TOO_LARGE = "Too many hotels in the import, split it into smaller imports";
+        }
+
+        public static class Subscriptions {
+            public final static String RADIUS_REQUIRED = "The radius is required";
+            public final static String RADIUS_INVALID = "The radius must be positive and not over the maximum";
+            public final static String MAX_PRICE_POSITIVE = "The maximum price must be positive";
+            public final static String TOO_MANY_SUBSCRIPTIONS = "Too many subscriptions, delete unused ones or retry later";
+        }
+
+        public static class Changes {
+            public final static String TOO_MANY_SUBSCRIBERS = "Too many change feed subscribers, retry later";
+            public final static String RESYNC_REQUIRED = "Changes since the given version are no longer available, reload the catalog";
+        }
     }
 }
@@ -0,0 +1,13 @@
+package hr.lemax.hotel.common.enums;
+
+/**
+ * Role of an instance in leader-follower replication, see {@link hr.lemax.hotel.replication.ReplicationFollower}.
+ */
+public enum ReplicationRole {
+    // Not replicated
+    STANDALONE,
+    // Accepts writes and serves its changes to followers
+    LEADER,
+    // Serves reads from a copy of the leader's catalog and redirects writes to the leader
+    FOLLOWER
+}
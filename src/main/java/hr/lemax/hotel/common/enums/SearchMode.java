@@ -0,0 +1,32 @@
+package hr.lemax.hotel.common.enums;
+
+import hr.lemax.hotel.common.strategy.HotelSortStrategy;
+import hr.lemax.hotel.common.strategy.SkylineByDistanceAndPrice;
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+
+/**
+ * Kind of search result, creates the {@link HotelSortStrategy} producing it.
+ */
+public enum SearchMode {
+    // All hotels by distance, then by price
+    RANKED {
+        @Override
+        public HotelSortStrategy strategy(final DistanceEngine rankingEngine, final DistanceEngine distanceEngine) {
+            return new SortByDistanceAndPrice(rankingEngine, distanceEngine);
+        }
+    },
+    // Only hotels not beaten by another hotel on both distance and price, by distance
+    SKYLINE {
+        @Override
+        public HotelSortStrategy strategy(final DistanceEngine rankingEngine, final DistanceEngine distanceEngine) {
+            return new SkylineByDistanceAndPrice(rankingEngine, distanceEngine);
+        }
+    };
+
+    /**
+     * @param rankingEngine engine used to order hotels
+     * @param distanceEngine engine used to calculate distances of returned hotels
+     * @return strategy of the search mode
+     */
+    public abstract HotelSortStrategy strategy(DistanceEngine rankingEngine, DistanceEngine distanceEngine);
+}
@@ -0,0 +1,9 @@
+package hr.lemax.hotel.common.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+public class GeoSubscriptionNotFoundException extends EntityNotFoundException {
+    public GeoSubscriptionNotFoundException(final Long id) {
+        super("Subscription with ID " + id + " was not found");
+    }
+}
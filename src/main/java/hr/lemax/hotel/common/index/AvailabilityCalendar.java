@@ -0,0 +1,160 @@
+package hr.lemax.hotel.common.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Days on which hotels are available, indexed per day. Each hotel with availability gets a dense
+ * slot, and each day a {@link BitSet} of the slots of hotels available on it, so the hotels
+ * available for a whole stay are the intersection of a few bitsets, a word of 64 hotels at a time.
+ * Days are epoch days, see {@link java.time.LocalDate#toEpochDay()}. Days without availability
+ * set are unavailable.
+ * <p>
+ * Not thread-safe, callers guard the calendar with a lock.
+ */
+public class AvailabilityCalendar {
+    private final Map<Long, Integer> slots = new HashMap<>();
+    // Slots of removed hotels, reused before new ones are taken
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int slotCount;
+    private final TreeMap<Long, BitSet> days = new TreeMap<>();
+
+    /**
+     * Set availability of hotel on days from {@code fromDay} up to, but not including, {@code toDay}.
+     *
+     * @param hotelId hotel ID
+     * @param fromDay first day
+     * @param toDay day after the last day
+     * @param available {@code true} to make the days available, {@code false} to make them unavailable
+     */
+    public void set(final long hotelId, final long fromDay, final long toDay, final boolean available) {
+        if (fromDay >= toDay) {
+            throw new IllegalArgumentException("Range must end after it starts: " + fromDay + ", " + toDay);
+        }
+        if (!available) {
+            final Integer slot = slots.get(hotelId);
+            if (slot == null) {
+                return;
+            }
+            for (final Map.Entry<Long, BitSet> day : days.subMap(fromDay, toDay).entrySet()) {
+                day.getValue().clear(slot);
+            }
+            return;
+        }
+        final int slot = slots.computeIfAbsent(hotelId, id -> freeSlots.isEmpty() ? slotCount++ : freeSlots.pop());
+        for (long day = fromDay; day < toDay; day++) {
+            days.computeIfAbsent(day, key -> new BitSet()).set(slot);
+        }
+    }
+
+    /**
+     * Remove all availability of hotel, e.g. when the hotel is deleted.
+     *
+     * @param hotelId hotel ID
+     */
+    public void remove(final long hotelId) {
+        final Integer slot = slots.remove(hotelId);
+        if (slot == null) {
+            return;
+        }
+        for (final BitSet day : days.values()) {
+            day.clear(slot);
+        }
+        freeSlots.push(slot);
+    }
+
+    /**
+     * Drop days before the given day, which can no longer be booked.
+     *
+     * @param day first day kept
+     */
+    public void removeBefore(final long day) {
+        days.headMap(day).clear();
+    }
+
+    /**
+     * Hotels available on every night of a stay. The predicate reads the calendar and is valid
+     * only until the calendar is modified.
+     *
+     * @param checkInDay day of arrival, the first night
+     * @param checkOutDay day of departure, the day after the last night
+     * @return predicate over hotel IDs
+     */
+    public LongPredicate available(final long checkInDay, final long checkOutDay) {
+        if (checkInDay >= checkOutDay) {
+            throw new IllegalArgumentException("Check-out must be after check-in: " + checkInDay + ", " + checkOutDay);
+        }
+        final BitSet first = days.get(checkInDay);
+        if (first == null) {
+            return id -> false;
+        }
+        final BitSet available = (BitSet) first.clone();
+        for (long day = checkInDay + 1; day < checkOutDay && !available.isEmpty(); day++) {
+            final BitSet night = days.get(day);
+            if (night == null) {
+                return id -> false;
+            }
+            available.and(night);
+        }
+        return id -> {
+            final Integer slot = slots.get(id);
+            return slot != null && available.get(slot);
+        };
+    }
+
+    /**
+     * Ranges of consecutive days on which hotel is available, within the given days.
+     *
+     * @param hotelId hotel ID
+     * @param fromDay first day
+     * @param toDay day after the last day
+     * @return ranges ordered by day
+     */
+    public List<Range> ranges(final long hotelId, final long fromDay, final long toDay) {
+        final List<Range> ranges = new ArrayList<>();
+        final Integer slot = slots.get(hotelId);
+        if (slot == null) {
+            return ranges;
+        }
+        long start = Long.MIN_VALUE;
+        long previous = Long.MIN_VALUE;
+        for (final Map.Entry<Long, BitSet> day : days.subMap(fromDay, toDay).entrySet()) {
+            if (!day.getValue().get(slot)) {
+                continue;
+            }
+            if (start != Long.MIN_VALUE && day.getKey() != previous + 1) {
+                ranges.add(new Range(start, previous + 1));
+                start = Long.MIN_VALUE;
+            }
+            if (start == Long.MIN_VALUE) {
+                start = day.getKey();
+            }
+            previous = day.getKey();
+        }
+        if (start != Long.MIN_VALUE) {
+            ranges.add(new Range(start, previous + 1));
+        }
+        return ranges;
+    }
+
+    /**
+     * @return number of hotels with availability
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * @param fromDay first day
+     * @param toDay day after the last day
+     */
+    public record Range(long fromDay, long toDay) {
+    }
+}
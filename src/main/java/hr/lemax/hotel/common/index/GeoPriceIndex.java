@@ -0,0 +1,261 @@
+package hr.lemax.hotel.common.index;
+
+import hr.lemax.hotel.common.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Hotels indexed for sorted access both by distance from a location and by price, without
+ * sorting the catalog per search. Hotels are bucketed into a grid of latitude/longitude cells
+ * and walked in nearest order by a {@link NearestCursor}, and kept in a tree ordered by price.
+ * <p>
+ * Not thread-safe, callers guard the index with a lock.
+ */
+public class GeoPriceIndex {
+    private static final Comparator<HotelPoint> BY_PRICE = Comparator
+            .comparingDouble(HotelPoint::price)
+            .thenComparingLong(HotelPoint::id);
+
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final Map<Integer, List<HotelPoint>> cells = new HashMap<>();
+    private final Map<Long, HotelPoint> byId = new HashMap<>();
+    private final TreeSet<HotelPoint> byPrice = new TreeSet<>(BY_PRICE);
+
+    /**
+     * @param cellSize size of grid cells in degrees
+     */
+    public GeoPriceIndex(final double cellSize) {
+        if (!(cellSize > 0 && cellSize <= 180)) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 180 degrees: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil(360 / cellSize);
+        this.rows = (int) Math.ceil(180 / cellSize);
+    }
+
+    /**
+     * Add hotel, replacing the hotel with the same ID. A hotel that stays in its cell, e.g. when
+     * only its price changes, is replaced in place, and an unchanged hotel is not touched at all.
+     */
+    public void put(final HotelPoint hotel) {
+        final HotelPoint existing = byId.get(hotel.id());
+        if (existing != null && cellOf(existing.longitude(), existing.latitude()) == cellOf(hotel.longitude(), hotel.latitude())) {
+            if (existing.equals(hotel)) {
+                return;
+            }
+            final List<HotelPoint> points = cells.get(cellOf(hotel.longitude(), hotel.latitude()));
+            points.set(points.indexOf(existing), hotel);
+            byId.put(hotel.id(), hotel);
+            byPrice.remove(existing);
+            byPrice.add(hotel);
+            return;
+        }
+        remove(hotel.id());
+        byId.put(hotel.id(), hotel);
+        byPrice.add(hotel);
+        cells.computeIfAbsent(cellOf(hotel.longitude(), hotel.latitude()), cell -> new ArrayList<>()).add(hotel);
+    }
+
+    /**
+     * Remove hotel by ID, if present.
+     */
+    public void remove(final long id) {
+        final HotelPoint hotel = byId.remove(id);
+        if (hotel == null) {
+            return;
+        }
+        byPrice.remove(hotel);
+        final int cell = cellOf(hotel.longitude(), hotel.latitude());
+        final List<HotelPoint> points = cells.get(cell);
+        final int index = points.indexOf(hotel);
+        // Order within a cell does not matter, the last point takes the place of the removed one
+        points.set(index, points.get(points.size() - 1));
+        points.remove(points.size() - 1);
+        if (points.isEmpty()) {
+            cells.remove(cell);
+        }
+    }
+
+    public void clear() {
+        cells.clear();
+        byId.clear();
+        byPrice.clear();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * @return hotels from the cheapest, ties by ID
+     */
+    public Iterator<HotelPoint> cheapest() {
+        return byPrice.iterator();
+    }
+
+    /**
+     * @param longitude longitude of the location
+     * @param latitude latitude of the location
+     * @return cursor over hotels from the nearest to the location
+     */
+    public NearestCursor nearest(final double longitude, final double latitude) {
+        return new NearestCursor(longitude, latitude);
+    }
+
+    private int cellOf(final double longitude, final double latitude) {
+        return rowOf(latitude) * columns + columnOf(longitude);
+    }
+
+    private int columnOf(final double longitude) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((longitude + 180) / cellSize)));
+    }
+
+    private int rowOf(final double latitude) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((latitude + 90) / cellSize)));
+    }
+
+    /**
+     * Incremental nearest neighbour search. Cells are visited in rings of growing size around the
+     * cell of the location, and their hotels queued by distance. A queued hotel is returned once
+     * no hotel outside the visited rings can be nearer, which is bounded by the distance to the
+     * edges of the block of visited cells.
+     */
+    public class NearestCursor {
+        // Bounds are lowered slightly, so hotels are not returned out of order due to rounding errors
+        private static final double BOUND_TOLERANCE = 0.999_999;
+
+        private final double longitude;
+        private final double latitude;
+        private final int column;
+        private final int row;
+        private final PriorityQueue<Candidate> queue = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::distance).thenComparingLong(candidate -> candidate.hotel().id()));
+        // Rings larger than the globe wrap around the antimeridian onto cells already visited
+        private final Set<Integer> visited = new HashSet<>();
+        private int ring = -1;
+        private boolean allVisited;
+        private double distance;
+        private int cellsVisited;
+        private long distancesComputed;
+
+        private NearestCursor(final double longitude, final double latitude) {
+            this.longitude = longitude;
+            this.latitude = latitude;
+            this.column = columnOf(longitude);
+            this.row = rowOf(latitude);
+        }
+
+        /**
+         * @return next nearest hotel, {@code null} when all hotels were returned
+         */
+        public HotelPoint next() {
+            while (true) {
+                final double bound = allVisited ? Double.POSITIVE_INFINITY : boundOutside(ring);
+                if (!queue.isEmpty() && queue.peek().distance() <= bound) {
+                    final Candidate candidate = queue.poll();
+                    distance = candidate.distance();
+                    return candidate.hotel();
+                }
+                if (allVisited) {
+                    return null;
+                }
+                visitRing(++ring);
+            }
+        }
+
+        /**
+         * @return haversine distance in kilometers of the hotel last returned by {@link #next()}
+         */
+        public double distance() {
+            return distance;
+        }
+
+        public int getCellsVisited() {
+            return cellsVisited;
+        }
+
+        public long getDistancesComputed() {
+            return distancesComputed;
+        }
+
+        private void visitRing(final int ring) {
+            for (int rowOffset = -ring; rowOffset <= ring; rowOffset++) {
+                final int cellRow = row + rowOffset;
+                if (cellRow < 0 || cellRow >= rows) {
+                    continue;
+                }
+                final boolean edgeRow = Math.abs(rowOffset) == ring;
+                for (int columnOffset = -ring; columnOffset <= ring; columnOffset += edgeRow ? 1 : Math.max(1, 2 * ring)) {
+                    final int cell = cellRow * columns + Math.floorMod(column + columnOffset, columns);
+                    if (visited.add(cell)) {
+                        visitCell(cell);
+                    }
+                }
+            }
+            allVisited = row - ring <= 0 && row + ring >= rows - 1 && 2 * ring + 1 >= columns;
+        }
+
+        private void visitCell(final int cell) {
+            cellsVisited++;
+            final List<HotelPoint> points = cells.get(cell);
+            if (points == null) {
+                return;
+            }
+            distancesComputed += points.size();
+            for (final HotelPoint hotel : points) {
+                queue.add(new Candidate(hotel, GeoUtils.haversineDistance(longitude, latitude, hotel.longitude(), hotel.latitude())));
+            }
+        }
+
+        /**
+         * Lower bound of the distance to hotels outside the block of cells within the ring: any of
+         * them is south or north of the block, or west or east of it.
+         */
+        private double boundOutside(final int ring) {
+            if (ring < 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            final double south = (row - ring) * cellSize - 90;
+            final double north = (row + ring + 1) * cellSize - 90;
+            double bound = Double.POSITIVE_INFINITY;
+            if (row - ring > 0) {
+                bound = Math.min(bound, Math.toRadians(latitude - south));
+            }
+            if (row + ring < rows - 1) {
+                bound = Math.min(bound, Math.toRadians(north - latitude));
+            }
+            if (2 * ring + 1 < columns) {
+                final double west = (column - ring) * cellSize - 180;
+                final double east = (column + ring + 1) * cellSize - 180;
+                bound = Math.min(bound, angleToMeridian(longitude - west));
+                bound = Math.min(bound, angleToMeridian(east - longitude));
+            }
+            return Math.max(0, bound * GeoUtils.EARTH_RADIUS * BOUND_TOLERANCE);
+        }
+
+        /**
+         * Angular distance from the location to the half meridian {@code degrees} of longitude away.
+         * Beyond 90 degrees the nearest point of the half meridian is the nearer pole.
+         */
+        private double angleToMeridian(final double degrees) {
+            if (degrees >= 90) {
+                return Math.toRadians(90 - Math.abs(latitude));
+            }
+            return Math.asin(Math.sin(Math.toRadians(degrees)) * Math.cos(Math.toRadians(latitude)));
+        }
+    }
+
+    private record Candidate(HotelPoint hotel, double distance) {
+    }
+}
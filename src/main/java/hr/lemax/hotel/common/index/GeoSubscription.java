@@ -0,0 +1,30 @@
+package hr.lemax.hotel.common.index;
+
+import hr.lemax.hotel.common.util.GeoUtils;
+
+/**
+ * Standing query kept in a {@link GeoSubscriptionIndex}, matched by hotels within a radius of a
+ * location and, if set, at or below a price.
+ *
+ * @param id subscription ID
+ * @param longitude longitude of the location (X axis)
+ * @param latitude latitude of the location (Y axis)
+ * @param radius radius in kilometers
+ * @param maxPrice highest price matched, {@code null} for any price
+ */
+public record GeoSubscription(long id, double longitude, double latitude, double radius, Double maxPrice) {
+
+    /**
+     * @return {@code true} if a hotel at the given location and price matches the subscription
+     */
+    public boolean matches(final double hotelLongitude, final double hotelLatitude, final double hotelPrice) {
+        return (maxPrice == null || hotelPrice <= maxPrice) && distance(hotelLongitude, hotelLatitude) <= radius;
+    }
+
+    /**
+     * @return haversine distance from the location of the subscription in kilometers
+     */
+    public double distance(final double hotelLongitude, final double hotelLatitude) {
+        return GeoUtils.haversineDistance(longitude, latitude, hotelLongitude, hotelLatitude);
+    }
+}
@@ -0,0 +1,183 @@
+package hr.lemax.hotel.common.index;
+
+import hr.lemax.hotel.common.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Standing queries indexed by the area they cover, so the subscriptions matched by a hotel are
+ * found without testing every subscription. Subscriptions are registered in every cell of a grid
+ * of latitude/longitude cells that their circle overlaps, and a hotel is tested against the
+ * subscriptions of its own cell only.
+ * <p>
+ * Not thread-safe, callers guard the index with a lock.
+ */
+public class GeoSubscriptionIndex {
+    // Bounding boxes are widened slightly, so hotels on the circle are not lost to rounding errors
+    private static final double BOUND_TOLERANCE = 1.000_001;
+
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final Map<Integer, List<GeoSubscription>> cells = new HashMap<>();
+    private final Map<Long, GeoSubscription> byId = new HashMap<>();
+
+    /**
+     * @param cellSize size of grid cells in degrees
+     */
+    public GeoSubscriptionIndex(final double cellSize) {
+        if (!(cellSize > 0 && cellSize <= 180)) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 180 degrees: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil(360 / cellSize);
+        this.rows = (int) Math.ceil(180 / cellSize);
+    }
+
+    /**
+     * Add subscription, replacing the subscription with the same ID.
+     */
+    public void put(final GeoSubscription subscription) {
+        if (!(subscription.radius() >= 0)) {
+            throw new IllegalArgumentException("Radius must not be negative: " + subscription.radius());
+        }
+        remove(subscription.id());
+        byId.put(subscription.id(), subscription);
+        for (final int cell : cellsOf(subscription)) {
+            cells.computeIfAbsent(cell, key -> new ArrayList<>()).add(subscription);
+        }
+    }
+
+    /**
+     * Remove subscription by ID, if present.
+     *
+     * @return removed subscription, {@code null} if there was none
+     */
+    public GeoSubscription remove(final long id) {
+        final GeoSubscription subscription = byId.remove(id);
+        if (subscription == null) {
+            return null;
+        }
+        for (final int cell : cellsOf(subscription)) {
+            final List<GeoSubscription> subscriptions = cells.get(cell);
+            subscriptions.remove(subscription);
+            if (subscriptions.isEmpty()) {
+                cells.remove(cell);
+            }
+        }
+        return subscription;
+    }
+
+    /**
+     * @return subscription with the given ID, {@code null} if there is none
+     */
+    public GeoSubscription get(final long id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Subscriptions matched by a hotel at the given location and price.
+     *
+     * @return matched subscriptions, in no particular order
+     */
+    public List<GeoSubscription> matching(final double longitude, final double latitude, final double price) {
+        final List<GeoSubscription> candidates = cells.get(rowOf(latitude) * columns + columnOf(longitude));
+        if (candidates == null) {
+            return List.of();
+        }
+        final List<GeoSubscription> matched = new ArrayList<>();
+        for (final GeoSubscription subscription : candidates) {
+            if (subscription.matches(longitude, latitude, price)) {
+                matched.add(subscription);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * @return number of subscriptions
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * @return number of grid cells the subscription is registered in
+     */
+    public int cellCount(final GeoSubscription subscription) {
+        return cellsOf(subscription).size();
+    }
+
+    /**
+     * Cells overlapped by the bounding box of the circle. The box spans the radius in latitude, and
+     * in longitude the widest extent of the circle, which is reached off its center row; circles
+     * reaching a pole span all longitudes.
+     */
+    private Collection<Integer> cellsOf(final GeoSubscription subscription) {
+        final double angle = Math.min(Math.PI, subscription.radius() / GeoUtils.EARTH_RADIUS * BOUND_TOLERANCE);
+        final double latitudeSpan = Math.toDegrees(angle);
+        final double south = subscription.latitude() - latitudeSpan;
+        final double north = subscription.latitude() + latitudeSpan;
+        final int fromRow = rowOf(south);
+        final int toRow = rowOf(north);
+
+        final List<Integer> result = new ArrayList<>();
+        final double longitudeRatio = Math.sin(angle) / Math.cos(Math.toRadians(subscription.latitude()));
+        if (south <= -90 || north >= 90 || longitudeRatio >= 1) {
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int column = 0; column < columns; column++) {
+                    result.add(row * columns + column);
+                }
+            }
+            return result;
+        }
+        final double longitudeSpan = Math.toDegrees(Math.asin(longitudeRatio));
+        final double west = subscription.longitude() - longitudeSpan;
+        final double east = subscription.longitude() + longitudeSpan;
+        final int fromColumn = columnOf(wrap(west));
+        final int toColumn = columnOf(wrap(east));
+        final boolean crossesAntimeridian = west < -180 || east >= 180;
+        for (int row = fromRow; row <= toRow; row++) {
+            if (!crossesAntimeridian) {
+                for (int column = fromColumn; column <= toColumn; column++) {
+                    result.add(row * columns + column);
+                }
+            } else if (fromColumn <= toColumn + 1) {
+                // Box wider than the whole row
+                for (int column = 0; column < columns; column++) {
+                    result.add(row * columns + column);
+                }
+            } else {
+                for (int column = fromColumn; column < columns; column++) {
+                    result.add(row * columns + column);
+                }
+                for (int column = 0; column <= toColumn; column++) {
+                    result.add(row * columns + column);
+                }
+            }
+        }
+        return result;
+    }
+
+    private int columnOf(final double longitude) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((longitude + 180) / cellSize)));
+    }
+
+    private int rowOf(final double latitude) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((latitude + 90) / cellSize)));
+    }
+
+    private static double wrap(final double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        if (longitude >= 180) {
+            return longitude - 360;
+        }
+        return longitude;
+    }
+}
@@ -0,0 +1,27 @@
+package hr.lemax.hotel.common.index;
+
+import hr.lemax.hotel.model.Hotel;
+
+/**
+ * Searchable fields of a hotel kept in a {@link GeoPriceIndex}.
+ *
+ * @param id hotel ID
+ * @param price hotel price
+ * @param longitude hotel longitude (X axis)
+ * @param latitude hotel latitude (Y axis)
+ * @param version catalog version of the hotel the point was taken from, to tell whether the hotel
+ * changed since
+ */
+public record HotelPoint(long id, double price, double longitude, double latitude, long version) {
+
+    /**
+     * Point not taken from a stored hotel, of version 0.
+     */
+    public HotelPoint(final long id, final double price, final double longitude, final double latitude) {
+        this(id, price, longitude, latitude, 0);
+    }
+
+    public static HotelPoint of(final Hotel hotel) {
+        return new HotelPoint(hotel.getId(), hotel.getPrice(), hotel.getLongitude(), hotel.getLatitude(), hotel.getVersion());
+    }
+}
@@ -0,0 +1,181 @@
+package hr.lemax.hotel.common.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Cost breakdown of a single search, collected on the request thread. A profile is started for
+ * searches with {@code explain=true} only; code on the search path reports counters and marks the
+ * end of its stage through the static methods, which do nothing when no profile is active, so
+ * searches that are not explained pay a thread local lookup per stage.
+ * <p>
+ * Stages are timed back to back: each {@link #mark(Stage)} attributes the time since the previous
+ * mark to the given stage. Work done on another thread, e.g. by the thread leading a coalesced
+ * search, is not counted, a request joining it reports the wait and a cache hit instead.
+ */
+public final class SearchProfile {
+    private static final ThreadLocal<SearchProfile> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    public enum Stage {
+        // Request binding and validation of the body and parameters
+        VALIDATION,
+        // Waiting for an identical search already in flight
+        WAIT,
+        // Leaving out hotels not available for the stay
+        FILTER,
+        // Reading records and calculating distances
+        SCAN,
+        // Ordering the candidates
+        SORT,
+        // Cutting out the requested page
+        PAGINATION,
+        // Materializing and mapping the returned hotels
+        MAPPING
+    }
+
+    private final long startNanos;
+    private final long startAllocatedBytes;
+    private final Map<Stage, Long> stageNanos = new EnumMap<>(Stage.class);
+    private long lastMarkNanos;
+    private long candidates;
+    private long distancesComputed;
+    private long cellsVisited;
+    private long cacheHits;
+
+    private SearchProfile() {
+        this.startAllocatedBytes = THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+        this.startNanos = System.nanoTime();
+        this.lastMarkNanos = startNanos;
+    }
+
+    /**
+     * Start profiling the search on the current thread. Must be followed by {@link #clear()}.
+     *
+     * @return started profile
+     */
+    public static SearchProfile start() {
+        final SearchProfile profile = new SearchProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    /**
+     * @return profile of the search on the current thread, {@code null} if it is not profiled
+     */
+    public static SearchProfile current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop profiling on the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * End the given stage, attributing to it the time since the previous mark.
+     */
+    public static void mark(final Stage stage) {
+        final SearchProfile profile = CURRENT.get();
+        if (profile != null) {
+            final long now = System.nanoTime();
+            profile.stageNanos.merge(stage, now - profile.lastMarkNanos, Long::sum);
+            profile.lastMarkNanos = now;
+        }
+    }
+
+    /**
+     * @param count hotels considered for the result
+     */
+    public static void addCandidates(final long count) {
+        final SearchProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.candidates += count;
+        }
+    }
+
+    /**
+     * @param count distances calculated
+     */
+    public static void addDistancesComputed(final long count) {
+        final SearchProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.distancesComputed += count;
+        }
+    }
+
+    /**
+     * @param count index cells visited
+     */
+    public static void addCellsVisited(final long count) {
+        final SearchProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.cellsVisited += count;
+        }
+    }
+
+    /**
+     * Record result shared with another search instead of computed.
+     */
+    public static void addCacheHit() {
+        final SearchProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.cacheHits++;
+        }
+    }
+
+    public long getCandidates() {
+        return candidates;
+    }
+
+    public long getDistancesComputed() {
+        return distancesComputed;
+    }
+
+    public long getCellsVisited() {
+        return cellsVisited;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return nanoseconds per stage, in stage order, stages not reached are left out
+     */
+    public Map<Stage, Long> getStageNanos() {
+        return new EnumMap<>(stageNanos);
+    }
+
+    /**
+     * @return nanoseconds since the profile was started
+     */
+    public long getTotalNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return bytes allocated by the current thread since the profile was started, -1 if the JVM
+     * does not measure thread allocation
+     */
+    public long getAllocatedBytes() {
+        if (THREADS == null || startAllocatedBytes < 0) {
+            return -1;
+        }
+        return THREADS.getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean allocations
+                && allocations.isThreadAllocatedMemorySupported()
+                && allocations.isThreadAllocatedMemoryEnabled()) {
+            return allocations;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package hr.lemax.hotel.common.profile;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Starts a {@link SearchProfile} for search requests with {@code explain=true} before the request
+ * body is read and validated, so validation is part of the profile, and clears it once the
+ * request is completed.
+ */
+public class SearchProfileInterceptor implements HandlerInterceptor {
+    public static final String EXPLAIN_PARAMETER = "explain";
+
+    @Override
+    public boolean preHandle(
+            @NonNull final HttpServletRequest request,
+            @NonNull final HttpServletResponse response,
+            @NonNull final Object handler) {
+        if (Boolean.parseBoolean(request.getParameter(EXPLAIN_PARAMETER))) {
+            SearchProfile.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            @NonNull final HttpServletRequest request,
+            @NonNull final HttpServletResponse response,
+            @NonNull final Object handler,
+            final Exception ex) {
+        SearchProfile.clear();
+    }
+}
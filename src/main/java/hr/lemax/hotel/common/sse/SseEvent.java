@@ -0,0 +1,38 @@
+package hr.lemax.hotel.common.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Immutable server-sent event, which unlike {@link SseEmitter.SseEventBuilder} can be shared by
+ * any number of subscribers.
+ *
+ * @param id event ID, sent back by clients in the {@code Last-Event-ID} header when they reconnect
+ * @param name event name
+ * @param data event data, serialized by the message converters
+ * @param comment comment line, ignored by clients
+ */
+public record SseEvent(String id, String name, Object data, String comment) {
+    // Keeps idle connections from being closed by proxies and detects disconnected clients
+    public static final SseEvent HEARTBEAT = new SseEvent(null, null, null, "heartbeat");
+
+    public static SseEvent of(final long id, final String name, final Object data) {
+        return new SseEvent(Long.toString(id), name, data, null);
+    }
+
+    SseEmitter.SseEventBuilder toBuilder() {
+        final SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (id != null) {
+            builder.id(id);
+        }
+        if (name != null) {
+            builder.name(name);
+        }
+        if (comment != null) {
+            builder.comment(comment);
+        }
+        if (data != null) {
+            builder.data(data);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,147 @@
+package hr.lemax.hotel.common.sse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-sent event stream of a single subscriber. Producers offer events without blocking, the
+ * events are buffered and written to the client by a shared sender {@link Executor}. A subscriber
+ * that does not read fast enough to keep its buffer from filling up is sent an {@code overflow}
+ * event and disconnected, so slow clients can neither hold memory nor slow down producers.
+ */
+@Slf4j
+public class SseSubscription {
+    public static final String OVERFLOW_EVENT = "overflow";
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEvent> buffer;
+    private final Executor sender;
+    // Set while a send task is scheduled or running, so at most one thread writes to the emitter
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final List<Runnable> closeCallbacks = new CopyOnWriteArrayList<>();
+    private volatile boolean overflowed;
+
+    public SseSubscription(final SseEmitter emitter, final int bufferSize, final Executor sender) {
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.sender = sender;
+        emitter.onCompletion(this::closed);
+        emitter.onTimeout(this::closed);
+        emitter.onError(e -> closed());
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Register callback called once when the subscription is closed, by either side.
+     *
+     * @param callback callback to run
+     */
+    public void onClose(final Runnable callback) {
+        closeCallbacks.add(callback);
+        if (closed.get() && closeCallbacks.remove(callback)) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Buffer event for sending. If the buffer is full, the subscription is disconnected.
+     *
+     * @param event event to send
+     * @return {@code true} if event was buffered, {@code false} if the subscription is closed or overflowed
+     */
+    public boolean offer(final SseEvent event) {
+        if (closed.get() || overflowed) {
+            return false;
+        }
+        if (!buffer.offer(event)) {
+            log.debug("Subscriber buffer of {} events overflowed, disconnecting", buffer.remainingCapacity() + buffer.size());
+            overflowed = true;
+            buffer.clear();
+            scheduleSend();
+            return false;
+        }
+        scheduleSend();
+        return true;
+    }
+
+    /**
+     * Send a heartbeat comment, unless events are waiting to be sent anyway.
+     */
+    public void heartbeat() {
+        if (buffer.isEmpty() && !sending.get()) {
+            offer(SseEvent.HEARTBEAT);
+        }
+    }
+
+    public boolean isOpen() {
+        return !closed.get() && !overflowed;
+    }
+
+    /**
+     * Complete the response and close the subscription.
+     */
+    public void close() {
+        if (!closed.get()) {
+            closed();
+            emitter.complete();
+        }
+    }
+
+    private void scheduleSend() {
+        if (sending.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::send);
+            } catch (final RejectedExecutionException e) {
+                sending.set(false);
+                close();
+            }
+        }
+    }
+
+    private void send() {
+        try {
+            SseEvent event;
+            while (!closed.get() && (event = buffer.poll()) != null) {
+                emitter.send(event.toBuilder());
+            }
+            if (overflowed && !closed.get()) {
+                emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data(buffer.size() + buffer.remainingCapacity()));
+                close();
+            }
+        } catch (final IOException | IllegalStateException e) {
+            log.debug("Error while sending event to subscriber, disconnecting: {}", e.getMessage());
+            closed();
+            emitter.completeWithError(e);
+        } finally {
+            sending.set(false);
+        }
+        // Events offered after the buffer was drained, but before the flag was cleared
+        if (!closed.get() && (overflowed || !buffer.isEmpty())) {
+            scheduleSend();
+        }
+    }
+
+    private void closed() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            for (final Runnable callback : closeCallbacks) {
+                if (closeCallbacks.remove(callback)) {
+                    callback.run();
+                }
+            }
+        }
+    }
+}
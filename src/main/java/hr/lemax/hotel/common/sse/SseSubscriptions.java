@@ -0,0 +1,81 @@
+package hr.lemax.hotel.common.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open {@link SseSubscription}s of a feed, with the sender threads writing their events and the
+ * heartbeats keeping idle ones alive. Subscriptions are forgotten once closed, by either side.
+ */
+public class SseSubscriptions implements AutoCloseable {
+    private final Duration timeout;
+    private final int bufferSize;
+    private final Set<SseSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeats;
+
+    /**
+     * @param name prefix of the names of the sender and heartbeat threads
+     * @param senderThreads number of threads writing events to the subscribers
+     * @param heartbeatInterval interval of heartbeats sent to idle subscribers
+     * @param timeout timeout of each subscription
+     * @param bufferSize number of events buffered for each subscriber
+     */
+    public SseSubscriptions(
+            final String name,
+            final int senderThreads,
+            final Duration heartbeatInterval,
+            final Duration timeout,
+            final int bufferSize) {
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.sender = Executors.newFixedThreadPool(senderThreads, daemonThreads(name + "-sender"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads(name + "-heartbeat"));
+        final long heartbeatMillis = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return new subscription, open until closed by either side or by {@link #close()}
+     */
+    public SseSubscription open() {
+        final SseSubscription subscription = new SseSubscription(new SseEmitter(timeout.toMillis()), bufferSize, sender);
+        subscriptions.add(subscription);
+        subscription.onClose(() -> subscriptions.remove(subscription));
+        return subscription;
+    }
+
+    public int size() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stop the heartbeats and close all subscriptions.
+     */
+    @Override
+    public void close() {
+        heartbeats.shutdownNow();
+        subscriptions.forEach(SseSubscription::close);
+        sender.shutdown();
+    }
+
+    private void heartbeat() {
+        subscriptions.forEach(SseSubscription::heartbeat);
+    }
+
+    private static ThreadFactory daemonThreads(final String name) {
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package hr.lemax.hotel.common.strategy;
+
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.store.HotelRecordSource;
+import hr.lemax.hotel.store.HotelRecordVisitor;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.LongPredicate;
+
+/**
+ * Hotels of a list that pass a filter on their ID, read from records of the list so that hotels
+ * filtered out are never materialized. The result is a {@link HotelRecordSource} itself, so
+ * search strategies rank the remaining records only.
+ */
+public class FilteredHotelList extends AbstractList<Hotel> implements HotelRecordSource, RandomAccess {
+    private final HotelRecordSource source;
+    private int[] handles;
+    private long[] ids;
+    private double[] prices;
+    private double[] longitudes;
+    private double[] latitudes;
+    private int size;
+
+    private FilteredHotelList(final HotelRecordSource source, final int capacity) {
+        this.source = source;
+        this.handles = new int[capacity];
+        this.ids = new long[capacity];
+        this.prices = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.latitudes = new double[capacity];
+    }
+
+    /**
+     * Filter hotels in a single pass over their records.
+     *
+     * @param hotels hotels, read as records if the list is a {@link HotelRecordSource}
+     * @param filter accepts IDs of hotels to keep
+     * @return kept hotels in the order of the list
+     */
+    public static FilteredHotelList of(final List<Hotel> hotels, final LongPredicate filter) {
+        final HotelRecordSource source = hotels instanceof HotelRecordSource recordSource
+                ? recordSource
+                : new ListRecordSource(hotels);
+        final FilteredHotelList filtered = new FilteredHotelList(source, Math.min(source.size(), 1024));
+        source.forEachRecord((handle, id, price, longitude, latitude) -> {
+            if (filter.test(id)) {
+                filtered.add(handle, id, price, longitude, latitude);
+            }
+        });
+        return filtered;
+    }
+
+    private void add(final int handle, final long id, final double price, final double longitude, final double latitude) {
+        if (size == handles.length) {
+            final int capacity = Math.max(16, size * 2);
+            handles = Arrays.copyOf(handles, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+        }
+        handles[size] = handle;
+        ids[size] = id;
+        prices[size] = price;
+        longitudes[size] = longitude;
+        latitudes[size] = latitude;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEachRecord(final HotelRecordVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.visit(i, ids[i], prices[i], longitudes[i], latitudes[i]);
+        }
+    }
+
+    @Override
+    public Hotel materialize(final int handle) {
+        return source.materialize(handles[handle]);
+    }
+
+    @Override
+    public Hotel get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return materialize(index);
+    }
+}
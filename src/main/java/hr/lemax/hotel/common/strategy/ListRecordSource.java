@@ -0,0 +1,38 @@
+package hr.lemax.hotel.common.strategy;
+
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.store.HotelRecordSource;
+import hr.lemax.hotel.store.HotelRecordVisitor;
+
+import java.util.List;
+
+/**
+ * Record view of a list of hotel entities. Materializing returns a copy of the entity, as the
+ * list may hold the stored entities themselves, e.g. of the heap store, which are shared by
+ * concurrent searches and must not get the distance of one of them.
+ */
+final class ListRecordSource implements HotelRecordSource {
+    private final List<Hotel> hotels;
+
+    ListRecordSource(final List<Hotel> hotels) {
+        this.hotels = hotels;
+    }
+
+    @Override
+    public int size() {
+        return hotels.size();
+    }
+
+    @Override
+    public void forEachRecord(final HotelRecordVisitor visitor) {
+        for (int i = 0; i < hotels.size(); i++) {
+            final Hotel hotel = hotels.get(i);
+            visitor.visit(i, hotel.getId(), hotel.getPrice(), hotel.getLongitude(), hotel.getLatitude());
+        }
+    }
+
+    @Override
+    public Hotel materialize(final int handle) {
+        return hotels.get(handle).copy();
+    }
+}
@@ -0,0 +1,75 @@
+package hr.lemax.hotel.common.strategy;
+
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.store.HotelRecordSource;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Search result ranked from raw records of a {@link HotelRecordSource}. Hotels are materialized
+ * with their distance only when accessed, so paging through the result creates objects for
+ * the returned page only.
+ */
+public class RankedHotelList extends AbstractList<Hotel> implements RandomAccess {
+    private final HotelRecordSource source;
+    private final int[] handles;
+    private final double[] distances;
+    private final int[] order;
+    private final ToDoubleFunction<Hotel> distanceFunction;
+
+    /**
+     * @param source source the records were read from
+     * @param handles record handles, by record index
+     * @param distances distances from user, by record index
+     * @param order record indexes in ranked order
+     */
+    public RankedHotelList(
+            final HotelRecordSource source,
+            final int[] handles,
+            final double[] distances,
+            final int[] order) {
+        this(source, handles, distances, order, null);
+    }
+
+    /**
+     * @param source source the records were read from
+     * @param handles record handles, by record index
+     * @param order record indexes in ranked order
+     * @param distanceFunction calculates distance from user of a materialized hotel
+     */
+    public RankedHotelList(
+            final HotelRecordSource source,
+            final int[] handles,
+            final int[] order,
+            final ToDoubleFunction<Hotel> distanceFunction) {
+        this(source, handles, null, order, distanceFunction);
+    }
+
+    private RankedHotelList(
+            final HotelRecordSource source,
+            final int[] handles,
+            final double[] distances,
+            final int[] order,
+            final ToDoubleFunction<Hotel> distanceFunction) {
+        this.source = source;
+        this.handles = handles;
+        this.distances = distances;
+        this.order = order;
+        this.distanceFunction = distanceFunction;
+    }
+
+    @Override
+    public Hotel get(final int index) {
+        final int record = order[index];
+        final Hotel hotel = source.materialize(handles[record]);
+        hotel.setDistance(distanceFunction == null ? distances[record] : distanceFunction.applyAsDouble(hotel));
+        return hotel;
+    }
+
+    @Override
+    public int size() {
+        return order.length;
+    }
+}
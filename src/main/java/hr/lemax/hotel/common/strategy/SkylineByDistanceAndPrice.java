@@ -0,0 +1,163 @@
+package hr.lemax.hotel.common.strategy;
+
+import hr.lemax.hotel.common.enums.DistanceEngine;
+import hr.lemax.hotel.common.profile.SearchProfile;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.store.HotelRecordSource;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Returns the skyline of hotels over distance from the user and price: hotels for which no other
+ * hotel is both at most as far and at most as expensive, and strictly better in one of the two.
+ * Every other hotel is beaten by one of these on both counts. Hotels are returned by distance, and
+ * so from the most to the least expensive.
+ * <p>
+ * The skyline is built in a single pass over the records as a staircase, ordered by distance
+ * with strictly falling prices. Each record is checked against the closest stair not further
+ * away than itself with a binary search, and only the rare record that is not dominated is
+ * inserted, removing the stairs it dominates. Nothing is sorted or materialized beyond the
+ * skyline itself, which is usually a few dozen hotels even for millions of records.
+ */
+@Slf4j
+@EqualsAndHashCode
+public class SkylineByDistanceAndPrice implements HotelSortStrategy {
+    private final DistanceEngine rankingEngine;
+    private final DistanceEngine distanceEngine;
+
+    public SkylineByDistanceAndPrice() {
+        this(DistanceEngine.HAVERSINE, DistanceEngine.HAVERSINE);
+    }
+
+    /**
+     * @param rankingEngine engine used to compare distances of hotels
+     * @param distanceEngine engine used to calculate distances of returned hotels
+     */
+    public SkylineByDistanceAndPrice(
+            @NonNull final DistanceEngine rankingEngine,
+            @NonNull final DistanceEngine distanceEngine) {
+        this.rankingEngine = rankingEngine;
+        this.distanceEngine = distanceEngine;
+    }
+
+    @Override
+    public List<Hotel> sort(
+            final List<Hotel> hotels,
+            final Double currentLon,
+            final Double currentLat) {
+        final HotelRecordSource source = hotels instanceof HotelRecordSource recordSource
+                ? recordSource
+                : new ListRecordSource(hotels);
+        final double longitude = currentLon;
+        final double latitude = currentLat;
+
+        final Staircase staircase = new Staircase();
+        source.forEachRecord((handle, id, price, hotelLon, hotelLat) -> staircase.offer(
+                handle,
+                // Compared in hundredths, as reported, so hotels shown at equal distances compare by price alone
+                Math.round(rankingEngine.distance(longitude, latitude, hotelLon, hotelLat) * 100.0),
+                price));
+        log.debug("Skyline of {} hotel records has {} hotels", source.size(), staircase.size);
+        SearchProfile.addCandidates(source.size());
+        SearchProfile.addDistancesComputed(source.size());
+        SearchProfile.mark(SearchProfile.Stage.SCAN);
+
+        final int[] handles = Arrays.copyOf(staircase.handles, staircase.size);
+        final double[] distances = new double[staircase.size];
+        final int[] order = new int[staircase.size];
+        for (int i = 0; i < staircase.size; i++) {
+            distances[i] = staircase.distances[i] / 100.0;
+            order[i] = i;
+        }
+        if (distanceEngine == rankingEngine) {
+            return new RankedHotelList(source, handles, distances, order);
+        }
+        return new RankedHotelList(source, handles, order, hotel -> {
+            SearchProfile.addDistancesComputed(1);
+            return SortByDistanceAndPrice.round(distanceEngine.distance(longitude, latitude, hotel.getLongitude(), hotel.getLatitude()));
+        });
+    }
+
+    /**
+     * Skyline built so far: distances ascending and prices descending, except hotels equal in both,
+     * which are kept next to each other in the order they were offered.
+     */
+    static final class Staircase {
+        private int[] handles = new int[16];
+        private long[] distances = new long[16];
+        private double[] prices = new double[16];
+        private int size;
+
+        /**
+         * @param handle record handle
+         * @param distance distance in hundredths of a kilometer
+         * @param price price
+         * @return {@code true} if the hotel is in the skyline so far
+         */
+        boolean offer(final int handle, final long distance, final double price) {
+            // Last stair not further away than the hotel
+            int floor = upperBound(distance) - 1;
+            if (floor >= 0 && (prices[floor] < price || prices[floor] == price && distances[floor] < distance)) {
+                return false;
+            }
+            // Stairs at the same distance but more expensive are dominated
+            while (floor >= 0 && distances[floor] == distance && prices[floor] > price) {
+                floor--;
+            }
+            final int from = floor + 1;
+            // Following stairs are further away, those at least as expensive are dominated
+            int to = upperBound(distance);
+            while (to < size && prices[to] >= price) {
+                to++;
+            }
+            replace(from, to, handle, distance, price);
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return index of the first stair further away than the distance
+         */
+        private int upperBound(final long distance) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (distances[mid] <= distance) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Replace stairs from {@code from} to {@code to}, exclusive, with a single stair.
+         */
+        private void replace(final int from, final int to, final int handle, final long distance, final double price) {
+            final int newSize = size - (to - from) + 1;
+            if (newSize > handles.length) {
+                handles = Arrays.copyOf(handles, handles.length * 2);
+                distances = Arrays.copyOf(distances, distances.length * 2);
+                prices = Arrays.copyOf(prices, prices.length * 2);
+            }
+            if (to != from + 1) {
+                System.arraycopy(handles, to, handles, from + 1, size - to);
+                System.arraycopy(distances, to, distances, from + 1, size - to);
+                System.arraycopy(prices, to, prices, from + 1, size - to);
+            }
+            handles[from] = handle;
+            distances[from] = distance;
+            prices[from] = price;
+            size = newSize;
+        }
+    }
+}
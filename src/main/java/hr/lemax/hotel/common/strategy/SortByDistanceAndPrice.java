@@ -1,29 +1,140 @@
 package hr.lemax.hotel.common.strategy;
 
+import hr.lemax.hotel.common.enums.DistanceEngine;
+import hr.lemax.hotel.common.profile.SearchProfile;
 import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.store.HotelRecordSource;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 
-import static hr.lemax.hotel.common.util.GeoUtils.calculateDistance;
-
+/**
+ * Sorts hotels by distance from the user and then by price. Hotels are ranked by distances of
+ * the ranking engine, while distances of returned hotels are calculated with the distance engine
+ * only when they are accessed, so a fast approximation can rank the whole catalog and an accurate
+ * formula is applied to the returned page only.
+ */
 @Slf4j
+@EqualsAndHashCode
 public class SortByDistanceAndPrice implements HotelSortStrategy {
+    private final DistanceEngine rankingEngine;
+    private final DistanceEngine distanceEngine;
+
+    public SortByDistanceAndPrice() {
+        this(DistanceEngine.HAVERSINE, DistanceEngine.HAVERSINE);
+    }
+
+    /**
+     * @param rankingEngine engine used to order hotels
+     * @param distanceEngine engine used to calculate distances of returned hotels
+     */
+    public SortByDistanceAndPrice(
+            @NonNull final DistanceEngine rankingEngine,
+            @NonNull final DistanceEngine distanceEngine) {
+        this.rankingEngine = rankingEngine;
+        this.distanceEngine = distanceEngine;
+    }
+
     @Override
     public List<Hotel> sort(
             final List<Hotel> hotels,
             final Double currentLon,
             final Double currentLat) {
-        return hotels.stream().peek(
-                hotel -> {
-                    double distance = calculateDistance(currentLon, currentLat, hotel.getLongitude(), hotel.getLatitude());
-                    double roundedDistance = Math.round(distance * 100.0) / 100.0;
-                    log.debug("Calculating distance for hotel: {}", hotel.getName());
-                    log.debug("Distance: {} -> Rounded distance: {}", distance, roundedDistance);
-
-                    hotel.setDistance(roundedDistance);
-                }).sorted(Comparator.comparingDouble(Hotel::getDistance)
-                .thenComparingDouble(Hotel::getPrice)).toList();
+        final HotelRecordSource source = hotels instanceof HotelRecordSource recordSource
+                ? recordSource
+                : new ListRecordSource(hotels);
+        return sortRecords(source, currentLon, currentLat);
+    }
+
+    /**
+     * Rank hotels straight from their records, without materializing them.
+     *
+     * @param source record source
+     * @param currentLon Longitude of the user's current location (X axis).
+     * @param currentLat Latitude of the user's current location (Y axis).
+     * @return lazily materialized ranked list
+     */
+    private List<Hotel> sortRecords(
+            final HotelRecordSource source,
+            final double currentLon,
+            final double currentLat) {
+        final int size = source.size();
+        final int[] handles = new int[size];
+        final double[] distances = new double[size];
+        final double[] prices = new double[size];
+        final int[] count = new int[1];
+
+        source.forEachRecord((handle, id, price, longitude, latitude) -> {
+            final int index = count[0]++;
+            handles[index] = handle;
+            distances[index] = round(rankingEngine.distance(currentLon, currentLat, longitude, latitude));
+            prices[index] = price;
+        });
+        log.debug("Calculated {} distance for {} hotel records", rankingEngine, count[0]);
+        SearchProfile.addCandidates(count[0]);
+        SearchProfile.addDistancesComputed(count[0]);
+        SearchProfile.mark(SearchProfile.Stage.SCAN);
+
+        final int[] order = rankOrder(distances, prices, count[0]);
+        SearchProfile.mark(SearchProfile.Stage.SORT);
+        if (distanceEngine == rankingEngine) {
+            return new RankedHotelList(source, handles, distances, order);
+        }
+        return new RankedHotelList(source, handles, order, hotel -> {
+            SearchProfile.addDistancesComputed(1);
+            return round(distanceEngine.distance(currentLon, currentLat, hotel.getLongitude(), hotel.getLatitude()));
+        });
+    }
+
+    /**
+     * @param distance distance in kilometers
+     * @return distance rounded to hundredths, as reported
+     */
+    public static double round(final double distance) {
+        return Math.round(distance * 100.0) / 100.0;
+    }
+
+    /**
+     * Sort record indexes by distance and then price without boxing. Distances are rounded to
+     * hundredths, so they are packed together with the index into a single {@code long} key;
+     * runs of equal distance are then ordered by price. Equal hotels keep their insertion order.
+     */
+    private static int[] rankOrder(final double[] distances, final double[] prices, final int size) {
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = Math.round(distances[i] * 100.0) << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        final int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+        int runStart = 0;
+        for (int i = 1; i <= size; i++) {
+            if (i == size || keys[i] >>> 32 != keys[runStart] >>> 32) {
+                if (i - runStart > 1) {
+                    sortRunByPrice(order, prices, runStart, i);
+                }
+                runStart = i;
+            }
+        }
+        return order;
+    }
+
+    private static void sortRunByPrice(final int[] order, final double[] prices, final int from, final int to) {
+        // Stable insertion sort, runs of equally distant hotels are short
+        for (int i = from + 1; i < to; i++) {
+            final int current = order[i];
+            int j = i - 1;
+            while (j >= from && prices[order[j]] > prices[current]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = current;
+        }
     }
 }
@@ -0,0 +1,205 @@
+package hr.lemax.hotel.common.strategy;
+
+import hr.lemax.hotel.common.index.GeoPriceIndex;
+import hr.lemax.hotel.common.index.HotelPoint;
+import hr.lemax.hotel.common.profile.SearchProfile;
+import hr.lemax.hotel.common.util.GeoUtils;
+import hr.lemax.hotel.model.Hotel;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Returns the K hotels with the lowest weighted score of distance and price,
+ * {@code distanceWeight * distance / distanceScale + priceWeight * price / priceScale}, where the
+ * scales normalize kilometers and prices to comparable units.
+ * <p>
+ * Over a {@link GeoPriceIndex} the top K are found with the threshold algorithm: hotels are taken
+ * in nearest order and in cheapest order at the same time, and each hotel taken is scored right
+ * away. No hotel not taken yet can be nearer than the last hotel taken by distance, nor cheaper
+ * than the last one taken by price, so the score of those two values bounds the score of every
+ * remaining hotel, and the search stops once the K-th best score is below it. Hotels are ordered
+ * by score, then distance, then ID.
+ */
+@Slf4j
+@EqualsAndHashCode
+public class WeightedScoreTopK implements HotelSortStrategy {
+    public static final Comparator<Scored> BEST_FIRST = Comparator
+            .comparingDouble(Scored::score)
+            .thenComparingDouble(Scored::distance)
+            .thenComparingLong(scored -> scored.hotel().id());
+
+    private final double distanceWeight;
+    private final double priceWeight;
+    private final double distanceScale;
+    private final double priceScale;
+    private final int limit;
+
+    /**
+     * @param distanceWeight weight of the normalized distance
+     * @param priceWeight weight of the normalized price
+     * @param distanceScale kilometers worth one unit of score at weight 1
+     * @param priceScale price worth one unit of score at weight 1
+     * @param limit number of hotels to return
+     */
+    public WeightedScoreTopK(
+            final double distanceWeight,
+            final double priceWeight,
+            final double distanceScale,
+            final double priceScale,
+            final int limit) {
+        if (!(distanceWeight >= 0 && priceWeight >= 0 && distanceWeight + priceWeight > 0)) {
+            throw new IllegalArgumentException("Weights must not be negative and not both zero: " + distanceWeight + ", " + priceWeight);
+        }
+        if (!(distanceScale > 0 && priceScale > 0)) {
+            throw new IllegalArgumentException("Scales must be positive: " + distanceScale + ", " + priceScale);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        this.distanceWeight = distanceWeight;
+        this.priceWeight = priceWeight;
+        this.distanceScale = distanceScale;
+        this.priceScale = priceScale;
+        this.limit = limit;
+    }
+
+    /**
+     * Score every hotel of the list and return the top K.
+     */
+    @Override
+    public List<Hotel> sort(
+            final List<Hotel> hotels,
+            final Double currentLon,
+            final Double currentLat) {
+        final PriorityQueue<Scored> top = new PriorityQueue<>(BEST_FIRST.reversed());
+        final List<Hotel> byIndex = new ArrayList<>(hotels);
+        for (int i = 0; i < byIndex.size(); i++) {
+            final Hotel hotel = byIndex.get(i);
+            final HotelPoint point = new HotelPoint(i, hotel.getPrice(), hotel.getLongitude(), hotel.getLatitude());
+            offer(top, score(point, GeoUtils.haversineDistance(currentLon, currentLat, hotel.getLongitude(), hotel.getLatitude())));
+        }
+        SearchProfile.addCandidates(byIndex.size());
+        SearchProfile.addDistancesComputed(byIndex.size());
+        SearchProfile.mark(SearchProfile.Stage.SCAN);
+        return sorted(top).stream()
+                .map(scored -> {
+                    // Copied, the list may hold stored entities shared by concurrent searches
+                    final Hotel hotel = byIndex.get((int) scored.hotel().id()).copy();
+                    hotel.setDistance(SortByDistanceAndPrice.round(scored.distance()));
+                    return hotel;
+                })
+                .toList();
+    }
+
+    /**
+     * Find the top K with the threshold algorithm.
+     *
+     * @param index index of the catalog, not modified during the search
+     * @param longitude Longitude of the user's current location (X axis).
+     * @param latitude Latitude of the user's current location (Y axis).
+     * @return best hotels first, with the number of hotels examined
+     */
+    public TopK search(final GeoPriceIndex index, final double longitude, final double latitude) {
+        final PriorityQueue<Scored> top = new PriorityQueue<>(BEST_FIRST.reversed());
+        final Set<Long> seen = new HashSet<>();
+        final GeoPriceIndex.NearestCursor nearest = index.nearest(longitude, latitude);
+        final Iterator<HotelPoint> cheapest = index.cheapest();
+        // A stream whose weight is zero cannot raise the threshold and is not walked
+        final boolean byDistance = distanceWeight > 0;
+        final boolean byPrice = priceWeight > 0;
+        double lastDistance = 0;
+        double lastPrice = 0;
+        long distancesByPrice = 0;
+
+        while (true) {
+            if (byDistance) {
+                final HotelPoint hotel = nearest.next();
+                if (hotel == null) {
+                    break;
+                }
+                lastDistance = nearest.distance();
+                if (seen.add(hotel.id())) {
+                    offer(top, score(hotel, lastDistance));
+                }
+            }
+            if (byPrice) {
+                if (!cheapest.hasNext()) {
+                    break;
+                }
+                final HotelPoint hotel = cheapest.next();
+                lastPrice = hotel.price();
+                if (seen.add(hotel.id())) {
+                    offer(top, score(hotel, GeoUtils.haversineDistance(longitude, latitude, hotel.longitude(), hotel.latitude())));
+                    distancesByPrice++;
+                }
+            }
+            if (top.size() == limit && top.peek().score() < score(lastDistance, lastPrice)) {
+                break;
+            }
+        }
+        log.debug("Found top {} of {} hotels after examining {}", top.size(), index.size(), seen.size());
+        SearchProfile.addCandidates(seen.size());
+        SearchProfile.addDistancesComputed(nearest.getDistancesComputed() + distancesByPrice);
+        SearchProfile.addCellsVisited(nearest.getCellsVisited());
+        SearchProfile.mark(SearchProfile.Stage.SCAN);
+        final List<Scored> hotels = sorted(top);
+        SearchProfile.mark(SearchProfile.Stage.SORT);
+        return new TopK(hotels, seen.size());
+    }
+
+    private void offer(final PriorityQueue<Scored> top, final Scored scored) {
+        if (top.size() < limit) {
+            top.add(scored);
+        } else if (BEST_FIRST.compare(scored, top.peek()) < 0) {
+            top.poll();
+            top.add(scored);
+        }
+    }
+
+    /**
+     * Score a single hotel, e.g. one changed since it was found by {@link #search}.
+     *
+     * @param hotel hotel to score
+     * @param longitude Longitude of the user's current location (X axis).
+     * @param latitude Latitude of the user's current location (Y axis).
+     * @return hotel with its distance and score
+     */
+    public Scored score(final HotelPoint hotel, final double longitude, final double latitude) {
+        return score(hotel, GeoUtils.haversineDistance(longitude, latitude, hotel.longitude(), hotel.latitude()));
+    }
+
+    private Scored score(final HotelPoint hotel, final double distance) {
+        return new Scored(hotel, distance, score(distance, hotel.price()));
+    }
+
+    private double score(final double distance, final double price) {
+        return distanceWeight * distance / distanceScale + priceWeight * price / priceScale;
+    }
+
+    private static List<Scored> sorted(final PriorityQueue<Scored> top) {
+        final List<Scored> result = new ArrayList<>(top);
+        result.sort(BEST_FIRST);
+        return result;
+    }
+
+    /**
+     * Hotel with its haversine distance in kilometers and score.
+     */
+    public record Scored(HotelPoint hotel, double distance, double score) {
+    }
+
+    /**
+     * @param hotels best hotels first
+     * @param examined number of hotels scored to find them
+     */
+    public record TopK(List<Scored> hotels, int examined) {
+    }
+}
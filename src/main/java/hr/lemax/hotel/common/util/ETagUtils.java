@@ -0,0 +1,75 @@
+package hr.lemax.hotel.common.util;
+
+/**
+ * Versioned ETags of read endpoints. The ETags are weak: the same version is served as JSON, CBOR
+ * or Smile, which are equivalent but not byte-identical, so responses also carry
+ * {@code Vary: Accept} and caches keep each representation apart.
+ */
+public class ETagUtils {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    /**
+     * Build weak ETag for the whole hotel catalog.
+     *
+     * @param catalogVersion current catalog version
+     * @return quoted ETag value
+     */
+    public static String catalogETag(final long catalogVersion) {
+        return catalogETag(0, catalogVersion);
+    }
+
+    /**
+     * Build weak ETag for the whole hotel catalog at a catalog epoch, which tells apart the same
+     * version before and after a restore that did not move the version forward.
+     *
+     * @param epoch current catalog epoch
+     * @param catalogVersion current catalog version
+     * @return quoted ETag value, the same as {@link #catalogETag(long)} at epoch {@code 0}
+     */
+    public static String catalogETag(final long epoch, final long catalogVersion) {
+        return WEAK_PREFIX + "\"c" + (epoch == 0 ? "" : epoch + ".") + catalogVersion + "\"";
+    }
+
+    /**
+     * Build weak ETag for a single hotel.
+     *
+     * @param id hotel ID
+     * @param version catalog version at which the hotel was last modified
+     * @return quoted ETag value
+     */
+    public static String hotelETag(final long id, final long version) {
+        return WEAK_PREFIX + "\"h" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Check whether the value of an {@code If-None-Match} header matches the given ETag.
+     * The header may contain a list of ETags or {@code *}. ETags are compared by their opaque
+     * value, weak or not, as required for {@code If-None-Match} (RFC 9110, 13.1.2).
+     *
+     * @param ifNoneMatch raw header value, may be {@code null}
+     * @param eTag current ETag of the resource
+     * @return {@code true} if the client already has the current representation, else {@code false}
+     */
+    public static boolean matches(final String ifNoneMatch, final String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        final String opaqueTag = opaque(eTag);
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String value = candidate.trim();
+            if (ANY.equals(value)) {
+                return true;
+            }
+            if (opaque(value).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(final String eTag) {
+        return eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+    }
+}
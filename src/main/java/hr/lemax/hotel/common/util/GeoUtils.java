@@ -3,14 +3,30 @@ package hr.lemax.hotel.common.util;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
+import static java.lang.Math.abs;
+import static java.lang.Math.atan;
 import static java.lang.Math.atan2;
 import static java.lang.Math.cos;
 import static java.lang.Math.sin;
 import static java.lang.Math.sqrt;
+import static java.lang.Math.tan;
 import static java.lang.Math.toRadians;
 
 @Slf4j
 public class GeoUtils {
+    // Mean Earth radius in kilometers, used by spherical formulas
+    public static final double EARTH_RADIUS = 6371;
+    // Largest latitude and longitude difference in degrees for which the planar approximation is used
+    public static final double APPROXIMATION_WINDOW = 1.0;
+    // Upper bound of the relative difference between approximate and haversine distance
+    public static final double APPROXIMATION_MAX_RELATIVE_ERROR = 5e-5;
+
+    // WGS 84 ellipsoid, lengths in kilometers
+    private static final double WGS84_A = 6378.137;
+    private static final double WGS84_F = 1 / 298.257223563;
+    private static final double WGS84_B = (1 - WGS84_F) * WGS84_A;
+    private static final int VINCENTY_MAX_ITERATIONS = 200;
+    private static final double VINCENTY_CONVERGENCE = 1e-12;
 
     /**
      * Calculate the distance between two geographical points (user and hotel) using the Haversine formula.
@@ -29,18 +45,116 @@ public class GeoUtils {
             @NonNull final Double hotelLatitude) {
 
         try {
-            final double earthRadius = 6371; // kilometers
-            final double lonDistance = toRadians(hotelLongitude - userLon);
-            final double latDistance = toRadians(hotelLatitude - userLat);
-
-            final double a = sin(latDistance / 2) * sin(latDistance / 2)
-                    + cos(toRadians(userLat)) * cos(toRadians(hotelLatitude))
-                    * sin(lonDistance / 2) * sin(lonDistance / 2);
-            final double c = 2 * atan2(sqrt(a), sqrt(1 - a));
-            return earthRadius * c;
+            return haversineDistance(userLon, userLat, hotelLongitude, hotelLatitude);
         } catch (Exception e) {
             log.error("Error while calculating distance user: ({}, {}), error: ({}, {})", userLon, userLat, hotelLongitude, hotelLatitude );
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Great-circle distance on a sphere with {@link #EARTH_RADIUS}. Compared to the WGS 84
+     * ellipsoid the error is up to about 0.5%.
+     *
+     * @return distance in kilometers
+     */
+    public static double haversineDistance(
+            final double fromLon,
+            final double fromLat,
+            final double toLon,
+            final double toLat) {
+        final double lonDistance = toRadians(toLon - fromLon);
+        final double latDistance = toRadians(toLat - fromLat);
+
+        final double a = sin(latDistance / 2) * sin(latDistance / 2)
+                + cos(toRadians(fromLat)) * cos(toRadians(toLat))
+                * sin(lonDistance / 2) * sin(lonDistance / 2);
+        final double c = 2 * atan2(sqrt(a), sqrt(1 - a));
+        return EARTH_RADIUS * c;
+    }
+
+    /**
+     * Fast approximation of {@link #haversineDistance(double, double, double, double)}. Points less
+     * than {@link #APPROXIMATION_WINDOW} degrees apart in both latitude and longitude are projected
+     * on a plane scaled by the cosine of their mean latitude (equirectangular projection), which
+     * needs a single trigonometric function. The relative error of the projection grows with the
+     * square of the separation; within the window it stays below
+     * {@link #APPROXIMATION_MAX_RELATIVE_ERROR} at any latitude. Points further apart fall back to
+     * the haversine formula, so the bound holds for all inputs.
+     *
+     * @return distance in kilometers
+     */
+    public static double approximateDistance(
+            final double fromLon,
+            final double fromLat,
+            final double toLon,
+            final double toLat) {
+        double lonDifference = toLon - fromLon;
+        if (lonDifference > 180) {
+            lonDifference -= 360;
+        } else if (lonDifference < -180) {
+            lonDifference += 360;
+        }
+        final double latDifference = toLat - fromLat;
+        if (abs(lonDifference) > APPROXIMATION_WINDOW || abs(latDifference) > APPROXIMATION_WINDOW) {
+            return haversineDistance(fromLon, fromLat, toLon, toLat);
+        }
+        final double x = toRadians(lonDifference) * cos(toRadians((fromLat + toLat) / 2));
+        final double y = toRadians(latDifference);
+        return EARTH_RADIUS * sqrt(x * x + y * y);
+    }
+
+    /**
+     * Geodesic distance on the WGS 84 ellipsoid using Vincenty's inverse formula, accurate to
+     * within a millimeter. For nearly antipodal points, where the iteration does not converge,
+     * the haversine distance is returned.
+     *
+     * @return distance in kilometers
+     */
+    public static double ellipsoidalDistance(
+            final double fromLon,
+            final double fromLat,
+            final double toLon,
+            final double toLat) {
+        final double lonDistance = toRadians(toLon - fromLon);
+        final double reducedFromLat = atan((1 - WGS84_F) * tan(toRadians(fromLat)));
+        final double reducedToLat = atan((1 - WGS84_F) * tan(toRadians(toLat)));
+        final double sinU1 = sin(reducedFromLat);
+        final double cosU1 = cos(reducedFromLat);
+        final double sinU2 = sin(reducedToLat);
+        final double cosU2 = cos(reducedToLat);
+
+        double lambda = lonDistance;
+        for (int i = 0; i < VINCENTY_MAX_ITERATIONS; i++) {
+            final double sinLambda = sin(lambda);
+            final double cosLambda = cos(lambda);
+            final double sinSigma = sqrt((cosU2 * sinLambda) * (cosU2 * sinLambda)
+                    + (cosU1 * sinU2 - sinU1 * cosU2 * cosLambda) * (cosU1 * sinU2 - sinU1 * cosU2 * cosLambda));
+            if (sinSigma == 0) {
+                // Coincident points
+                return 0;
+            }
+            final double cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            final double sigma = atan2(sinSigma, cosSigma);
+            final double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            final double cosSqAlpha = 1 - sinAlpha * sinAlpha;
+            // Zero on the equator line
+            final double cos2SigmaM = cosSqAlpha == 0 ? 0 : cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha;
+            final double c = WGS84_F / 16 * cosSqAlpha * (4 + WGS84_F * (4 - 3 * cosSqAlpha));
+            final double previousLambda = lambda;
+            lambda = lonDistance + (1 - c) * WGS84_F * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+
+            if (abs(lambda - previousLambda) < VINCENTY_CONVERGENCE) {
+                final double uSq = cosSqAlpha * (WGS84_A * WGS84_A - WGS84_B * WGS84_B) / (WGS84_B * WGS84_B);
+                final double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+                final double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+                final double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                        - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+                return WGS84_B * a * (sigma - deltaSigma);
+            }
+        }
+        log.debug("Vincenty formula did not converge for ({}, {}) -> ({}, {})", fromLon, fromLat, toLon, toLat);
+        return haversineDistance(fromLon, fromLat, toLon, toLat);
+    }
 }
@@ -0,0 +1,60 @@
+package hr.lemax.hotel.common.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import hr.lemax.hotel.model.PriceUpdate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads batch price updates in the compact form {@code [[hotelId, price], ...]} with the streaming
+ * parser, so no tree or boxed numbers are built for the pairs.
+ */
+public final class PriceUpdateReader {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private PriceUpdateReader() {
+    }
+
+    /**
+     * @param in request body
+     * @param maxItems maximum number of pairs
+     * @return price updates in order of the body
+     * @throws IOException if the body is not an array of pairs
+     * @throws IllegalArgumentException if there are more than {@code maxItems} pairs
+     */
+    public static List<PriceUpdate> read(final InputStream in, final int maxItems) throws IOException {
+        try (JsonParser parser = JSON.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected array of pairs at " + parser.currentLocation());
+            }
+            final List<PriceUpdate> updates = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_ARRAY) {
+                if (updates.size() == maxItems) {
+                    throw new IllegalArgumentException("More than " + maxItems + " price updates");
+                }
+                if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+                    throw new IOException("Expected hotel ID at " + parser.currentLocation());
+                }
+                final long hotelId = parser.getLongValue();
+                final JsonToken price = parser.nextToken();
+                if (price != JsonToken.VALUE_NUMBER_FLOAT && price != JsonToken.VALUE_NUMBER_INT) {
+                    throw new IOException("Expected price at " + parser.currentLocation());
+                }
+                updates.add(new PriceUpdate(hotelId, parser.getDoubleValue()));
+                if (parser.nextToken() != JsonToken.END_ARRAY) {
+                    throw new IOException("Expected end of pair at " + parser.currentLocation());
+                }
+            }
+            if (token != JsonToken.END_ARRAY || parser.nextToken() != null) {
+                throw new IOException("Expected end of array at " + parser.currentLocation());
+            }
+            return updates;
+        }
+    }
+}
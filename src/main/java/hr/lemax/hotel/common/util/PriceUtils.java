@@ -0,0 +1,45 @@
+package hr.lemax.hotel.common.util;
+
+/**
+ * Prices of the catalog, kept to minor units (cents). Prices are rounded to minor units when they
+ * are stored, so every {@link hr.lemax.hotel.store.HotelStore} keeps the same price, and limited
+ * to the range of {@link hr.lemax.hotel.store.CompactHotelStore}, an {@code int} number of minor units.
+ */
+public class PriceUtils {
+    public static final String MIN_PRICE = "0.01";
+    public static final String MAX_PRICE = "21474836.47";
+
+    private static final double MINOR_UNITS = 100.0;
+
+    /**
+     * @param price price in major units
+     * @return price in minor units, rounded half up
+     */
+    public static long minorUnits(final double price) {
+        return Math.round(price * MINOR_UNITS);
+    }
+
+    /**
+     * @param price price in major units
+     * @return price rounded to minor units
+     */
+    public static double round(final double price) {
+        return minorUnits(price) / MINOR_UNITS;
+    }
+
+    /**
+     * @param price price in major units
+     * @return {@code true} if the price is at least one minor unit and within range once rounded, else {@code false}
+     */
+    public static boolean isValid(final double price) {
+        final long minorUnits = minorUnits(price);
+        return Double.isFinite(price) && minorUnits >= 1 && minorUnits <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return {@code true} if both prices round to the same minor units, else {@code false}
+     */
+    public static boolean isSame(final double price, final double other) {
+        return minorUnits(price) == minorUnits(other);
+    }
+}
@@ -0,0 +1,34 @@
+package hr.lemax.hotel.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hr.lemax.hotel.common.admission.AdaptiveConcurrencyLimiter;
+import hr.lemax.hotel.common.admission.SearchAdmissionFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AdmissionControlConfig {
+    @Bean
+    public AdaptiveConcurrencyLimiter searchConcurrencyLimiter(final AdmissionControlProperties properties) {
+        return new AdaptiveConcurrencyLimiter(
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit(),
+                properties.getTolerance(),
+                properties.getSmoothing(),
+                properties.getMinLatencyWindow());
+    }
+
+    @Bean
+    public FilterRegistrationBean<SearchAdmissionFilter> searchAdmissionFilter(
+            final AdaptiveConcurrencyLimiter searchConcurrencyLimiter,
+            final ObjectMapper objectMapper,
+            final AdmissionControlProperties properties) {
+        final FilterRegistrationBean<SearchAdmissionFilter> registration = new FilterRegistrationBean<>(
+                new SearchAdmissionFilter(searchConcurrencyLimiter, objectMapper, properties.getRetryAfterSeconds()));
+        registration.setUrlPatterns(properties.getUrlPatterns());
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Admission control of search endpoints, see {@link hr.lemax.hotel.common.admission.SearchAdmissionFilter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.admission")
+public class AdmissionControlProperties {
+    private boolean enabled = true;
+    // Servlet URL patterns (relative to the context path) guarded by the limiter
+    private List<String> urlPatterns = List.of("/hotels/search", "/hotels/search/*");
+    private int initialLimit = 20;
+    private int minLimit = 2;
+    private int maxLimit = 200;
+    // Factor by which latency may exceed the observed minimum before the limit shrinks
+    private double tolerance = 2.0;
+    // Weight of a new sample in the limit estimation, in range (0, 1]
+    private double smoothing = 0.2;
+    // Number of samples after which the minimum latency is measured again
+    private int minLatencyWindow = 1000;
+    private long retryAfterSeconds = 1;
+}
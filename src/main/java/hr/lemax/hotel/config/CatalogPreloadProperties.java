@@ -0,0 +1,15 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "hotel.catalog.preload")
+public class CatalogPreloadProperties {
+    // Catalog file (.ndjson or .snapshot) loaded on startup, takes precedence over generated catalog
+    private String file;
+    // Number of generated hotels loaded on startup, 0 disables generating
+    private long count = 0;
+    // Seed of the generated catalog
+    private long seed = 42;
+}
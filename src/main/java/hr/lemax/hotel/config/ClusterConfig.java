@@ -0,0 +1,57 @@
+package hr.lemax.hotel.config;
+
+import hr.lemax.hotel.cluster.ClusterCoordinator;
+import hr.lemax.hotel.cluster.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Beans of the cluster coordinator. Like {@link ReplicationConfig}, they are defined whether the
+ * cluster is enabled or not, and {@code hotel.cluster.enabled} is checked when they are created,
+ * so builds processed by Spring AOT decide it at runtime.
+ */
+@Configuration
+@Slf4j
+public class ClusterConfig {
+    /**
+     * @return router, {@code null} unless the cluster is enabled
+     */
+    @Bean
+    public ShardRouter shardRouter(final ClusterProperties properties) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return new ShardRouter(properties.getNodes().size(), properties.getCellSize(), properties.getCells());
+    }
+
+    /**
+     * @return coordinator, {@code null} unless the cluster is enabled
+     */
+    @Bean
+    public ClusterCoordinator clusterCoordinator(
+            final ObjectProvider<ShardRouter> shardRouter,
+            final RestClient.Builder restClientBuilder,
+            final ClusterProperties properties) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        log.info("Coordinating cluster of {} shards: {}", properties.getNodes().size(), properties.getNodes());
+        final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getConnectTimeout());
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        final List<RestClient> nodes = properties.getNodes()
+                .stream()
+                .map(url -> restClientBuilder.clone()
+                        .baseUrl(url)
+                        .requestFactory(requestFactory)
+                        .build())
+                .toList();
+        return new ClusterCoordinator(shardRouter.getObject(), nodes);
+    }
+}
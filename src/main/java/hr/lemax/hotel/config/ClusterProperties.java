@@ -0,0 +1,31 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Geo-sharded cluster coordinated by this instance, see {@link hr.lemax.hotel.cluster.ShardRouter}
+ * and {@link hr.lemax.hotel.cluster.ClusterCoordinator}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.cluster")
+public class ClusterProperties {
+    // Serve the coordinator endpoints under /cluster/hotels
+    private boolean enabled = false;
+    // Base URLs of the shard instances including the context path, the position in the list is the shard number
+    private List<String> nodes = new ArrayList<>();
+    // Size of grid cells in degrees
+    private double cellSize = 10;
+    // Shards of individual grid cells by cell number, other cells are split into longitude bands
+    private Map<Integer, Integer> cells = new HashMap<>();
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    // Number of hotels returned by a cluster search without limit
+    private int searchLimit = 20;
+}
@@ -0,0 +1,50 @@
+package hr.lemax.hotel.config;
+
+import hr.lemax.hotel.common.admission.AdaptiveConcurrencyLimiter;
+import hr.lemax.hotel.grpc.HotelGrpcServer;
+import hr.lemax.hotel.grpc.HotelGrpcService;
+import hr.lemax.hotel.service.HotelService;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import jakarta.validation.Validator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Beans of the gRPC server. They are defined whether the server is enabled or not, and the server
+ * is started only if {@code hotel.grpc.enabled} is set, so builds processed by Spring AOT decide
+ * it at runtime like {@link ReplicationConfig}.
+ */
+@Configuration
+public class GrpcConfig {
+    @Bean
+    public HotelGrpcService hotelGrpcService(
+            final HotelService hotelService,
+            final Validator validator,
+            final AdaptiveConcurrencyLimiter searchConcurrencyLimiter,
+            final AdmissionControlProperties admissionControlProperties,
+            final ReplicationProperties replicationProperties,
+            final GrpcProperties properties) {
+        return new HotelGrpcService(
+                hotelService,
+                validator,
+                admissionControlProperties.isEnabled() ? searchConcurrencyLimiter : null,
+                replicationProperties.getRole(),
+                properties.getChunkSize(),
+                properties.getMaxImportHotels());
+    }
+
+    @Bean
+    // Started on startup even with lazy initialization, like the REST endpoints
+    @Lazy(false)
+    public HotelGrpcServer hotelGrpcServer(final HotelGrpcService hotelGrpcService, final GrpcProperties properties) {
+        return new HotelGrpcServer(
+                Grpc.newServerBuilderForPort(properties.getPort(), InsecureServerCredentials.create())
+                        .addService(hotelGrpcService)
+                        .maxInboundMessageSize((int) properties.getMaxInboundMessageSize().toBytes())
+                        .build(),
+                properties.getShutdownGracePeriod(),
+                properties.isEnabled());
+    }
+}
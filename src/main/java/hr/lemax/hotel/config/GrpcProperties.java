@@ -0,0 +1,27 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * gRPC server, see {@link hr.lemax.hotel.grpc.HotelGrpcService}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.grpc")
+public class GrpcProperties {
+    // Off unless enabled, so instances do not open a second port by default
+    private boolean enabled = false;
+    // 0 picks a free port
+    private int port = 9090;
+    // Hotels per message of streamed results, unless the call asks for another size
+    private int chunkSize = 100;
+    // Largest message accepted, e.g. a chunk of an import
+    private DataSize maxInboundMessageSize = DataSize.ofMegabytes(16);
+    // Hotels accepted in a single import, which are held in memory until the import is complete
+    private int maxImportHotels = 1_000_000;
+    // Time calls in flight get to complete on shutdown
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+}
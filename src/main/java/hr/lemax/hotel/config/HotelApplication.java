@@ -3,9 +3,11 @@ package hr.lemax.hotel.config;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication(scanBasePackages = "hr.lemax.hotel")
 @EntityScan("hr.lemax.hotel")
+@ConfigurationPropertiesScan("hr.lemax.hotel")
 public class HotelApplication {
 
 	public static void main(String[] args) {
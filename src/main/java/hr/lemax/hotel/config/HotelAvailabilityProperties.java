@@ -0,0 +1,16 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Hotel availability, see {@link hr.lemax.hotel.service.HotelService#updateAvailability(java.util.List)}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.availability")
+public class HotelAvailabilityProperties {
+    // Days from today within which availability can be set, every day keeps a bitset of hotels
+    private int horizonDays = 730;
+    // Availability updates accepted in a single request
+    private int maxUpdates = 100_000;
+}
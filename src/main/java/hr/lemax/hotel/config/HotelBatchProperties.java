@@ -0,0 +1,14 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Batch updates, see {@link hr.lemax.hotel.service.HotelService#updatePrices(java.util.List)}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.batch")
+public class HotelBatchProperties {
+    // Items accepted in a single request, all of them are applied in one task of the writer
+    private int maxItems = 1_000_000;
+}
@@ -0,0 +1,27 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Catalog change log, delta sync and change feed, see {@link hr.lemax.hotel.service.HotelChangeLog} and
+ * {@link hr.lemax.hotel.service.HotelChangeFeed}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.changes")
+public class HotelChangeProperties {
+    // Number of most recent changes kept for resuming subscribers
+    private int logCapacity = 100_000;
+    // Time after which changes are dropped from the log even if there is room
+    private Duration retention = Duration.ofHours(24);
+    // Events buffered per subscriber before it is disconnected as too slow
+    private int subscriberBuffer = 1_000;
+    private int maxSubscribers = 1_000;
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    // Time after which a subscription is closed and the client has to reconnect
+    private Duration subscriptionTimeout = Duration.ofMinutes(30);
+    // Threads writing events to subscribers
+    private int senderThreads = 2;
+}
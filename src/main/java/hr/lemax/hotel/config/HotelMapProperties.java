@@ -0,0 +1,16 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Map clusters, see {@link hr.lemax.hotel.service.HotelTileIndex}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.map")
+public class HotelMapProperties {
+    // Finest zoom level of the tile pyramid, every level keeps an aggregate per non-empty tile
+    private int maxZoom = 14;
+    // Clusters returned for a viewport before the request is rejected
+    private int maxClusters = 10_000;
+}
@@ -0,0 +1,21 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Indexed searches, see {@link hr.lemax.hotel.service.HotelSearchIndex}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.search")
+public class HotelSearchProperties {
+    // Size of grid cells of the spatial index in degrees
+    private double cellSize = 1.0;
+    // Kilometers worth as much as priceScale in weighted searches with equal weights
+    private double distanceScale = 10;
+    private double priceScale = 100;
+    // Number of hotels returned by a weighted search without limit
+    private int weightedLimit = 20;
+    // Maximum number of hotels returned by a weighted search
+    private int maxWeightedLimit = 1000;
+}
@@ -0,0 +1,25 @@
+package hr.lemax.hotel.config;
+
+import hr.lemax.hotel.store.CompactHotelStore;
+import hr.lemax.hotel.store.HeapHotelStore;
+import hr.lemax.hotel.store.HotelStore;
+import hr.lemax.hotel.store.OffHeapHotelStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Slf4j
+public class HotelStoreConfig {
+    @Bean
+    public HotelStore hotelStore(final HotelStoreProperties properties) {
+        log.info("Using {} hotel store", properties.getType());
+        return switch (properties.getType()) {
+            case HEAP -> new HeapHotelStore();
+            case OFF_HEAP -> new OffHeapHotelStore();
+            case COMPACT -> new CompactHotelStore(
+                    properties.getCompact().isFloatCoordinates(),
+                    properties.getCompact().getMaxDictionarySize());
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package hr.lemax.hotel.config;
+
+import hr.lemax.hotel.store.HotelStoreType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "hotel.store")
+public class HotelStoreProperties {
+    // Storage engine of the hotel catalog
+    private HotelStoreType type = HotelStoreType.HEAP;
+    private Compact compact = new Compact();
+
+    @Data
+    public static class Compact {
+        // Store coordinates as float, with an error of at most 7.6e-6 degrees (under 0.85 m)
+        private boolean floatCoordinates = false;
+        // Maximum number of distinct hotel name prefixes shared through the name dictionary
+        private int maxDictionarySize = 1_000_000;
+    }
+}
@@ -0,0 +1,26 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Standing geo-subscriptions and their event streams, see {@link hr.lemax.hotel.service.HotelSubscriptionFeed}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.subscriptions")
+public class HotelSubscriptionProperties {
+    private int maxSubscriptions = 100_000;
+    // Largest radius in kilometers, which bounds the grid cells a subscription is registered in
+    private double maxRadius = 500;
+    // Size of grid cells of the subscription index in degrees
+    private double cellSize = 1.0;
+    // Events buffered per stream before it is disconnected as too slow
+    private int subscriberBuffer = 1_000;
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    // Time after which a stream is closed and the client has to reconnect
+    private Duration streamTimeout = Duration.ofMinutes(30);
+    // Threads writing events to streams
+    private int senderThreads = 2;
+}
@@ -0,0 +1,16 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Writer applying catalog modifications, see {@link hr.lemax.hotel.common.concurrency.SingleWriter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.writer")
+public class HotelWriterProperties {
+    // Modifications waiting to be applied before callers have to wait, rounded up to a power of two
+    private int queueCapacity = 65_536;
+    // Modifications applied per batch
+    private int batchSize = 256;
+}
@@ -0,0 +1,28 @@
+package hr.lemax.hotel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * HTTP caching policy for read endpoints. Responses carry versioned ETags, so shared caches
+ * (CDN) may keep them for {@code sharedMaxAge} seconds and afterwards revalidate them with
+ * {@code If-None-Match}, which is answered with a cheap {@code 304 Not Modified}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.http.cache")
+public class HttpCacheProperties {
+    // Seconds a browser/client may use the response without revalidation
+    private long maxAge = 0;
+    // Seconds a shared cache (CDN) may use the response without revalidation
+    private long sharedMaxAge = 5;
+
+    public CacheControl toCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(maxAge))
+                .sMaxAge(Duration.ofSeconds(sharedMaxAge))
+                .cachePublic()
+                .mustRevalidate();
+    }
+}
@@ -0,0 +1,65 @@
+package hr.lemax.hotel.config;
+
+import hr.lemax.hotel.replication.FollowerWriteFilter;
+import hr.lemax.hotel.replication.ReplicationFollower;
+import hr.lemax.hotel.service.HotelService;
+import hr.lemax.hotel.common.enums.ReplicationRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Clock;
+
+/**
+ * Beans of followers. They are defined for every role and the role is checked when they are
+ * created, not with conditions on the configuration: conditions are evaluated at build time by
+ * Spring AOT (fast-start build), which would fix the role of every instance started from the
+ * build to the role of the build.
+ */
+@Configuration
+@Slf4j
+public class ReplicationConfig {
+    /**
+     * @return follower, {@code null} unless the instance is a follower
+     */
+    @Bean
+    // Started on startup even with lazy initialization, the follower has to load the catalog before serving it
+    @Lazy(false)
+    public ReplicationFollower replicationFollower(
+            final HotelService hotelService,
+            final RestClient.Builder restClientBuilder,
+            final ReplicationProperties properties) {
+        if (properties.getRole() != ReplicationRole.FOLLOWER) {
+            return null;
+        }
+        if (properties.getLeaderUrl() == null || properties.getLeaderUrl().isBlank()) {
+            throw new IllegalStateException("hotel.replication.leader-url is required for followers");
+        }
+        log.info("Following leader {}", properties.getLeaderUrl());
+        final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getConnectTimeout());
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        final RestClient leader = restClientBuilder.clone()
+                .baseUrl(properties.getLeaderUrl())
+                .requestFactory(requestFactory)
+                .build();
+        return new ReplicationFollower(leader, hotelService, properties.getPollInterval(), properties.getPageSize(), Clock.systemUTC());
+    }
+
+    /**
+     * @return registration of the write filter, disabled unless the instance is a follower
+     */
+    @Bean
+    public FilterRegistrationBean<FollowerWriteFilter> followerWriteFilter(final ReplicationProperties properties) {
+        final boolean follower = properties.getRole() == ReplicationRole.FOLLOWER;
+        final FilterRegistrationBean<FollowerWriteFilter> registration = new FilterRegistrationBean<>(
+                new FollowerWriteFilter(follower ? properties.getLeaderUrl() : ""));
+        registration.addUrlPatterns("/hotels/*");
+        registration.setEnabled(follower);
+        return registration;
+    }
+}
@@ -0,0 +1,24 @@
+package hr.lemax.hotel.config;
+
+import hr.lemax.hotel.common.enums.ReplicationRole;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Leader-follower replication, see {@link hr.lemax.hotel.replication.ReplicationFollower}.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotel.replication")
+public class ReplicationProperties {
+    private ReplicationRole role = ReplicationRole.STANDALONE;
+    // Base URL of the leader including the context path, required for followers
+    private String leaderUrl;
+    // Delay between polls of the leader's changes
+    private Duration pollInterval = Duration.ofSeconds(1);
+    // Changes fetched per request
+    private int pageSize = 1000;
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration readTimeout = Duration.ofSeconds(30);
+}
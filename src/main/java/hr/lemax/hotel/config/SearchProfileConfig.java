@@ -0,0 +1,18 @@
+package hr.lemax.hotel.config;
+
+import hr.lemax.hotel.common.profile.SearchProfileInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Profiles searches requested with {@code explain=true}, see {@link hr.lemax.hotel.common.profile.SearchProfile}.
+ */
+@Configuration
+public class SearchProfileConfig implements WebMvcConfigurer {
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new SearchProfileInterceptor())
+                .addPathPatterns("/hotels/search", "/hotels/search/page");
+    }
+}
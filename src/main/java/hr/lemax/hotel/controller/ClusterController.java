@@ -0,0 +1,160 @@
+package hr.lemax.hotel.controller;
+
+import hr.lemax.hotel.cluster.ClusterCoordinator;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.config.ClusterProperties;
+import hr.lemax.hotel.dto.HotelDTO;
+import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.dto.HotelSearchDTO;
+import hr.lemax.hotel.dto.UserGeoModificationDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cluster/hotels")
+@Tag(name = "Cluster", description = "API for managing hotels of a geo-sharded cluster")
+@Slf4j
+public class ClusterController {
+    // Not available unless the cluster is enabled
+    private final ObjectProvider<ClusterCoordinator> clusterCoordinator;
+    private final int defaultSearchLimit;
+
+    public ClusterController(final ObjectProvider<ClusterCoordinator> clusterCoordinator, final ClusterProperties properties) {
+        this.clusterCoordinator = clusterCoordinator;
+        this.defaultSearchLimit = properties.getSearchLimit();
+    }
+
+    @Operation(summary = "Add hotel to the shard of its location")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Creation successful"),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "502", description = "Shard not available", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping
+    public ResponseEntity<HotelDTO> addHotel(@Valid @RequestBody final HotelModificationDTO hotelDto) {
+        log.info("Request received: cluster addHotel().");
+
+        return ResponseEntity.ok(coordinator().addHotel(hotelDto));
+    }
+
+    @Operation(summary = "Get single hotel by global ID")
+    @Parameter(name = "id", description = "Global hotel ID", example = "257")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Fetch successful"),
+            @ApiResponse(responseCode = "204", description = "Hotel not found", content = @Content),
+            @ApiResponse(responseCode = "502", description = "Shard not available", content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<HotelDTO> getById(@PathVariable("id") final Long id) {
+        log.info("Request received: cluster getById() for hotel with ID: {}", id);
+
+        return coordinator().getHotel(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @Operation(summary = "Update hotel", description = "A hotel moved to a region of another shard gets a new global ID.")
+    @Parameter(name = "id", description = "Global hotel ID", example = "257")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Update successful"),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "404", description = "Hotel not found", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "502", description = "Shard not available", content = @Content(mediaType = "application/json"))
+    })
+    @PutMapping("/{id}")
+    public ResponseEntity<HotelDTO> update(
+            @PathVariable("id") final Long id,
+            @Valid @RequestBody final HotelModificationDTO updateDto) {
+        log.info("Request received: cluster update() for hotel with ID: {}", id);
+
+        return ResponseEntity.ok(coordinator().updateHotel(id, updateDto));
+    }
+
+    @Operation(summary = "Delete hotel")
+    @Parameter(name = "id", description = "Global hotel ID", example = "257")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Delete successful", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Hotel not found", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "502", description = "Shard not available", content = @Content(mediaType = "application/json"))
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> delete(@PathVariable("id") final Long id) {
+        log.info("Request received: cluster delete() for hotel with ID: {}", id);
+
+        coordinator().deleteHotel(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Search nearest hotels across shards")
+    @Parameter(name = "limit", description = "Number of hotels to return", example = "20")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hotels successfully fetched"),
+            @ApiResponse(responseCode = "204", description = "No hotel found", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "502", description = "Shard not available", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/search")
+    public ResponseEntity<List<HotelSearchDTO>> searchHotels(
+            @Valid @RequestBody final UserGeoModificationDTO userGeoDto,
+            @RequestParam(value = "limit", required = false) final Integer limit) {
+        log.info("Request received: cluster searchHotels() for user with location: ({}, {})", userGeoDto.getLatitude(), userGeoDto.getLongitude());
+
+        final List<HotelSearchDTO> hotels = coordinator().search(
+                userGeoDto.getLongitude(),
+                userGeoDto.getLatitude(),
+                limit != null && limit > 0 ? limit : defaultSearchLimit);
+        if (hotels.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(hotels);
+    }
+
+    /**
+     * @return coordinator
+     * @throws ResponseStatusException with 404 status if the cluster is not enabled
+     */
+    private ClusterCoordinator coordinator() {
+        final ClusterCoordinator coordinator = clusterCoordinator.getIfAvailable();
+        if (coordinator == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, Messages.Error.Clusters.CLUSTER_DISABLED);
+        }
+        return coordinator;
+    }
+
+    /**
+     * Handle failed requests to shards.
+     *
+     * @param e the exception of the shard request
+     * @return a problem detail with a 502 Bad Gateway status
+     */
+    @ExceptionHandler(RestClientException.class)
+    public ResponseEntity<ProblemDetail> handleRestClientException(final RestClientException e) {
+        log.error("Error while calling shard: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_GATEWAY, "RestClientException: " + e.getMessage()));
+    }
+}
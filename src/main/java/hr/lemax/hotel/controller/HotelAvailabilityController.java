@@ -0,0 +1,118 @@
+package hr.lemax.hotel.controller;
+
+import hr.lemax.hotel.common.enums.MediaTypes;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.config.HotelAvailabilityProperties;
+import hr.lemax.hotel.dto.AvailabilityRangeDTO;
+import hr.lemax.hotel.dto.AvailabilityUpdateDTO;
+import hr.lemax.hotel.model.AvailabilityUpdate;
+import hr.lemax.hotel.service.HotelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/hotels")
+@Tag(name = "Hotel Availability", description = "API for managing availability of hotels")
+@Slf4j
+public class HotelAvailabilityController {
+    private final HotelService hotelService;
+    private final HotelAvailabilityProperties properties;
+
+    public HotelAvailabilityController(
+            final HotelService hotelService,
+            final HotelAvailabilityProperties properties) {
+        this.hotelService = hotelService;
+        this.properties = properties;
+    }
+
+    @Operation(summary = "Update availability of hotels in bulk",
+            description = "Each update makes a hotel available or unavailable from the first day up to, but not "
+                    + "including, the day after the last day. Updates are applied in order, so a later update of the "
+                    + "same days wins, and either all updates are applied or none. Days without availability set "
+                    + "are unavailable.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Update successful", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "404", description = "Hotel not found", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PutMapping("/availability")
+    public ResponseEntity<Void> updateAvailability(
+            @RequestBody final List<@Valid AvailabilityUpdateDTO> updateDtos) {
+        log.info("Request received: updateAvailability() with {} updates", updateDtos.size());
+
+        if (updateDtos.size() > properties.getMaxUpdates()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Availability.TOO_MANY_UPDATES);
+        }
+        final LocalDate horizon = LocalDate.now().plusDays(properties.getHorizonDays());
+        final List<AvailabilityUpdate> updates = updateDtos.stream()
+                .map(dto -> {
+                    if (!dto.getTo().isAfter(dto.getFrom()) || dto.getTo().isAfter(horizon)) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Availability.RANGE_INVALID);
+                    }
+                    return new AvailabilityUpdate(dto.getHotelId(), dto.getFrom(), dto.getTo(), dto.getAvailable());
+                })
+                .toList();
+
+        hotelService.updateAvailability(updates);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get availability of hotel",
+            description = "Ranges of consecutive days on which the hotel is available, from today up to the booking "
+                    + "horizon unless given.")
+    @Parameter(name = "id", description = "Hotel ID", example = "1")
+    @Parameter(name = "from", description = "First day", example = "2026-11-01")
+    @Parameter(name = "to", description = "Day after the last day", example = "2026-12-01")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Availability successfully fetched"),
+            @ApiResponse(responseCode = "204", description = "Hotel not available", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "404", description = "Hotel not found", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping(value = "/{id}/availability", produces = {MediaTypes.APPLICATION_JSON, MediaTypes.APPLICATION_CBOR, MediaTypes.APPLICATION_SMILE})
+    public ResponseEntity<List<AvailabilityRangeDTO>> getAvailability(
+            @PathVariable("id") final Long id,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+        log.info("Request received: getAvailability() for hotel with ID: {}", id);
+
+        final LocalDate first = from != null ? from : LocalDate.now();
+        final LocalDate last = to != null ? to : LocalDate.now().plusDays(properties.getHorizonDays());
+        if (!last.isAfter(first)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Availability.RANGE_INVALID);
+        }
+        final List<AvailabilityRangeDTO> ranges = hotelService.getAvailability(id, first, last)
+                .stream()
+                .map(range -> new AvailabilityRangeDTO(range.from(), range.to()))
+                .toList();
+        if (ranges.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(ranges);
+    }
+}
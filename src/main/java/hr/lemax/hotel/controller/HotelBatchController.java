@@ -0,0 +1,90 @@
+package hr.lemax.hotel.controller;
+
+import hr.lemax.hotel.common.enums.MediaTypes;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.util.PriceUpdateReader;
+import hr.lemax.hotel.config.HotelBatchProperties;
+import hr.lemax.hotel.dto.BatchResultDTO;
+import hr.lemax.hotel.model.PriceUpdate;
+import hr.lemax.hotel.service.HotelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/hotels")
+@Tag(name = "Hotel Batch", description = "API for modifying hotels in bulk")
+@Slf4j
+public class HotelBatchController {
+    private final HotelService hotelService;
+    private final HotelBatchProperties properties;
+
+    public HotelBatchController(
+            final HotelService hotelService,
+            final HotelBatchProperties properties) {
+        this.hotelService = hotelService;
+        this.properties = properties;
+    }
+
+    @Operation(summary = "Update prices of hotels in bulk",
+            description = "The body is an array of [hotelId, price] pairs, e.g. [[1, 120.5], [2, 99]], read as a "
+                    + "stream. Pairs are applied in order in a single step, no other modification is applied in "
+                    + "between. Prices already set are skipped, pairs with a missing hotel or a price that is not "
+                    + "positive are not applied and listed in the response.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch applied"),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PatchMapping(value = "/prices", consumes = MediaTypes.APPLICATION_JSON, produces = MediaTypes.APPLICATION_JSON)
+    public ResponseEntity<BatchResultDTO> updatePrices(final InputStream body) {
+        final List<PriceUpdate> updates;
+        try {
+            updates = PriceUpdateReader.read(body, properties.getMaxItems());
+        } catch (final IOException e) {
+            log.debug("Invalid price updates: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Batch.PRICES_INVALID);
+        } catch (final IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Batch.TOO_MANY_ITEMS);
+        }
+        log.info("Request received: updatePrices() with {} updates", updates.size());
+
+        return ResponseEntity.ok(BatchResultDTO.of(hotelService.updatePrices(updates)));
+    }
+
+    @Operation(summary = "Delete hotels in bulk",
+            description = "The body is an array of hotel IDs. Hotels are deleted in a single step, no other "
+                    + "modification is applied in between. IDs of hotels that do not exist are listed in the response.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch applied"),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PostMapping(value = "/delete-batch", consumes = MediaTypes.APPLICATION_JSON, produces = MediaTypes.APPLICATION_JSON)
+    public ResponseEntity<BatchResultDTO> deleteHotels(@RequestBody final List<Long> ids) {
+        log.info("Request received: deleteHotels() with {} IDs", ids.size());
+
+        if (ids.size() > properties.getMaxItems()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Batch.TOO_MANY_ITEMS);
+        }
+        if (ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Batch.IDS_REQUIRED);
+        }
+        return ResponseEntity.ok(BatchResultDTO.of(hotelService.deleteHotels(ids)));
+    }
+}
@@ -0,0 +1,113 @@
+package hr.lemax.hotel.controller;
+
+import hr.lemax.hotel.common.enums.MediaTypes;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.util.ETagUtils;
+import hr.lemax.hotel.config.HttpCacheProperties;
+import hr.lemax.hotel.dto.HotelDTO;
+import hr.lemax.hotel.dto.HotelDeltaDTO;
+import hr.lemax.hotel.model.HotelDelta;
+import hr.lemax.hotel.service.HotelChangeFeed;
+import hr.lemax.hotel.service.HotelChangeLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/hotels")
+@Tag(name = "Hotel Changes", description = "API for following changes of the hotel catalog")
+@Slf4j
+public class HotelChangeController {
+    private final HotelChangeFeed hotelChangeFeed;
+    private final HotelChangeLog hotelChangeLog;
+    private final ModelMapper mapper;
+    private final CacheControl cacheControl;
+
+    public HotelChangeController(
+            final HotelChangeFeed hotelChangeFeed,
+            final HotelChangeLog hotelChangeLog,
+            final ModelMapper mapper,
+            final HttpCacheProperties httpCacheProperties) {
+        this.hotelChangeFeed = hotelChangeFeed;
+        this.hotelChangeLog = hotelChangeLog;
+        this.mapper = mapper;
+        this.cacheControl = httpCacheProperties.toCacheControl();
+    }
+
+    @Operation(summary = "Get hotels changed since a catalog version",
+            description = "Hotels added or updated and IDs of hotels deleted after the given version. The toVersion "
+                    + "of the response is the sinceVersion of the next request. A 410 response means the changes are "
+                    + "no longer available and the catalog has to be reloaded with GET /hotels, whose ETag holds its version.")
+    @Parameter(name = "sinceVersion", description = "Catalog version the client last synchronized to", example = "40")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Changes successfully fetched"),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified", content = @Content),
+            @ApiResponse(responseCode = "410", description = "Changes no longer available, reload the catalog", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping(params = "sinceVersion", produces = {MediaTypes.APPLICATION_JSON, MediaTypes.APPLICATION_CBOR, MediaTypes.APPLICATION_SMILE})
+    public ResponseEntity<HotelDeltaDTO> getChangesSince(
+            @RequestParam("sinceVersion") final long sinceVersion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        log.info("Request received: getChangesSince() for version: {}", sinceVersion);
+
+        final long epoch = hotelChangeLog.getEpoch();
+        final String currentETag = ETagUtils.catalogETag(epoch, hotelChangeLog.getLatestVersion());
+        if (ETagUtils.matches(ifNoneMatch, currentETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(currentETag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+
+        final HotelDelta delta = hotelChangeLog.deltaSince(sinceVersion)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.GONE, Messages.Error.Changes.RESYNC_REQUIRED));
+        final HotelDeltaDTO body = new HotelDeltaDTO(
+                delta.fromVersion(),
+                delta.toVersion(),
+                delta.changed().stream().map(hotel -> mapper.map(hotel, HotelDTO.class)).toList(),
+                delta.deleted());
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.catalogETag(epoch, delta.toVersion()))
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    @Operation(summary = "Stream hotel changes",
+            description = "Server-sent events named added, updated, deleted or imported, with the catalog version "
+                    + "of the change as event ID. An imported event or a resync event means the catalog has to be "
+                    + "reloaded. Slow subscribers are sent an overflow event and disconnected.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Subscribed to changes"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers", content = @Content)
+    })
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(
+            @Parameter(description = "Catalog version of the last received change, to resume after reconnecting")
+            @RequestHeader(value = "Last-Event-ID", required = false) final Long lastEventIdHeader,
+            @Parameter(description = "Same as the Last-Event-ID header, for clients unable to set headers", example = "42")
+            @RequestParam(value = "lastEventId", required = false) final Long lastEventId) {
+        log.info("Request received: changes() from version: {}", lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+
+        return hotelChangeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
@@ -1,15 +1,27 @@
 package hr.lemax.hotel.controller;
 
-import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.common.enums.DistanceEngine;
+import hr.lemax.hotel.common.enums.HotelField;
+import hr.lemax.hotel.common.enums.MediaTypes;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.enums.SearchMode;
+import hr.lemax.hotel.common.profile.SearchProfile;
+import hr.lemax.hotel.common.util.ETagUtils;
+import hr.lemax.hotel.config.HttpCacheProperties;
 import hr.lemax.hotel.dto.HotelDTO;
 import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.dto.HotelProjectionDTO;
 import hr.lemax.hotel.dto.HotelSearchDTO;
+import hr.lemax.hotel.dto.SearchExplainDTO;
+import hr.lemax.hotel.dto.SearchProfileDTO;
 import hr.lemax.hotel.dto.UserGeoModificationDTO;
 import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.Stay;
 import hr.lemax.hotel.service.HotelService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,10 +29,15 @@ import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -28,34 +45,53 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
+@Lazy(false)
 @RequestMapping("/hotels")
 @Tag(name = "Hotel Management", description = "API for managing hotels")
 @Slf4j
 public class HotelController {
     private final HotelService hotelService;
     private final ModelMapper mapper;
+    private final CacheControl cacheControl;
 
-    public HotelController(final HotelService hotelService,final ModelMapper mapper) {
+    public HotelController(
+            final HotelService hotelService,
+            final ModelMapper mapper,
+            final HttpCacheProperties httpCacheProperties) {
         this.hotelService = hotelService;
         this.mapper = mapper;
+        this.cacheControl = httpCacheProperties.toCacheControl();
     }
 
     @Operation(summary = "Get all hotels")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Hotels successfully fetched"),
             @ApiResponse(responseCode = "204", description = "No hotel found", content = @Content),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
-    @GetMapping
-    public ResponseEntity<List<HotelDTO>> getAllHotels() {
+    @GetMapping(produces = {MediaTypes.APPLICATION_JSON, MediaTypes.APPLICATION_CBOR, MediaTypes.APPLICATION_SMILE})
+    public ResponseEntity<List<HotelDTO>> getAllHotels(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
         log.info("Request received: getAll() for hotels.");
 
+        // Version is read before the hotels, so the ETag can only be older than the body, never newer
+        final String eTag = ETagUtils.catalogETag(hotelService.getCatalogEpoch(), hotelService.getCatalogVersion());
+        if (ETagUtils.matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
         final List<HotelDTO> hotels = hotelService.getAllHotels()
                 .stream()
                 .map(entity -> mapper.map(entity, HotelDTO.class))
@@ -64,7 +100,49 @@ public class HotelController {
         if (hotels.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(hotels);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(hotels);
+    }
+
+    @Operation(summary = "Get selected fields of all hotels",
+            description = "Same as getting all hotels, but only the selected properties of each hotel are returned.")
+    @Parameter(name = "fields", description = "Comma separated properties to return: id, name, price, longitude, latitude",
+            example = "id,price")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hotels successfully fetched"),
+            @ApiResponse(responseCode = "204", description = "No hotel found", content = @Content),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping(params = {"fields", "!sinceVersion"}, produces = {MediaTypes.APPLICATION_JSON, MediaTypes.APPLICATION_CBOR, MediaTypes.APPLICATION_SMILE})
+    public ResponseEntity<List<HotelProjectionDTO>> getAllHotelsProjected(
+            @RequestParam("fields") final String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        log.info("Request received: getAll() for hotels with fields: {}", fields);
+
+        final Set<HotelField> selected = fields(fields, false);
+        final String eTag = ETagUtils.catalogETag(hotelService.getCatalogEpoch(), hotelService.getCatalogVersion());
+        if (ETagUtils.matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
+        final List<HotelProjectionDTO> hotels = hotelService.getAllHotels()
+                .stream()
+                .map(entity -> new HotelProjectionDTO(entity, selected))
+                .toList();
+
+        if (hotels.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(hotels);
     }
 
     @Operation(summary = "Get single hotel by ID")
@@ -72,16 +150,28 @@ public class HotelController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Fetch successful"),
             @ApiResponse(responseCode = "204", description = "Hotel not found", content = @Content),
+            @ApiResponse(responseCode = "304", description = "Hotel not modified", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = {MediaTypes.APPLICATION_JSON, MediaTypes.APPLICATION_CBOR, MediaTypes.APPLICATION_SMILE})
     public ResponseEntity<HotelDTO> getById(
-            @PathVariable("id") final Long id ) {
+            @PathVariable("id") final Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
         log.info("Request received: getById() for hotel with ID: {}", id);
 
         return hotelService.getHotelById(id)
-                .map(h -> mapper.map(h, HotelDTO.class))
-                .map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.noContent().build());
+                .map(hotel -> {
+                    final String eTag = ETagUtils.hotelETag(id, hotel.getVersion());
+                    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+                        return this.<HotelDTO>notModified(eTag);
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(eTag)
+                            .cacheControl(cacheControl)
+                            .varyBy(HttpHeaders.ACCEPT)
+                            .body(mapper.map(hotel, HotelDTO.class));
+                })
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     @Operation(summary = "Add hotel")
@@ -137,20 +227,52 @@ public class HotelController {
     }
 
     @Operation(summary = "Search hotels near user location")
+    @Parameter(name = "mode", description = "RANKED for all hotels by distance and price, SKYLINE for only the hotels "
+            + "no other hotel beats on both distance and price", example = "SKYLINE")
+    @Parameter(name = "rankingEngine", description = "Distance formula used to rank hotels", example = "EQUIRECTANGULAR")
+    @Parameter(name = "distanceEngine", description = "Distance formula used for returned distances", example = "VINCENTY")
+    @Parameter(name = "checkIn", description = "Date of arrival, only hotels available for the whole stay are returned", example = "2026-11-01")
+    @Parameter(name = "checkOut", description = "Date of departure, required with checkIn", example = "2026-11-05")
+    @Parameter(name = "limit", description = "Maximum number of hotels to return, all if not set", example = "20")
+    @Parameter(name = "fields", description = "Comma separated properties to return: id, name, price, longitude, "
+            + "latitude, distance, all if not set", example = "id,distance")
+    @Parameter(name = "explain", description = "Return the hotels as results, together with a profile of the search: "
+            + "candidates, distances computed, cache hits, nanoseconds per stage and bytes allocated", example = "true")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Hotels successfully fetched"),
+            @ApiResponse(responseCode = "200", description = "Hotels successfully fetched, with a profile of the search if explained",
+                    content = @Content(schema = @Schema(oneOf = {HotelSearchDTO[].class, HotelSearchExplain.class}))),
             @ApiResponse(responseCode = "204", description = "No hotel found", content = @Content),
             @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
-    @PostMapping("/search")
-    public ResponseEntity<List<HotelSearchDTO>> searchHotels(
-            @Valid @RequestBody final UserGeoModificationDTO userGeoDto) {
+    @PostMapping(value = "/search", produces = {MediaTypes.APPLICATION_JSON, MediaTypes.APPLICATION_CBOR, MediaTypes.APPLICATION_SMILE})
+    public ResponseEntity<?> searchHotels(
+            @Valid @RequestBody final UserGeoModificationDTO userGeoDto,
+            @RequestParam(value = "mode", defaultValue = "RANKED") final SearchMode mode,
+            @RequestParam(value = "rankingEngine", defaultValue = "HAVERSINE") final DistanceEngine rankingEngine,
+            @RequestParam(value = "distanceEngine", defaultValue = "HAVERSINE") final DistanceEngine distanceEngine,
+            @RequestParam(value = "limit", required = false) final Integer limit,
+            @RequestParam(value = "checkIn", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate checkIn,
+            @RequestParam(value = "checkOut", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate checkOut,
+            @RequestParam(value = "fields", required = false) final String fields,
+            @RequestParam(value = "explain", defaultValue = "false") final boolean explain) {
         log.info("Request received: searchHotels() for user with location: ({}, {})", userGeoDto.getLatitude(), userGeoDto.getLongitude());
-        final List<HotelSearchDTO> hotels = hotelService.searchHotels(userGeoDto.getLongitude(), userGeoDto.getLatitude(), new SortByDistanceAndPrice())
+        final Set<HotelField> selected = fields != null ? fields(fields, true) : null;
+        SearchProfile.mark(SearchProfile.Stage.VALIDATION);
+        final List<Object> hotels = hotelService.searchHotels(
+                        userGeoDto.getLongitude(),
+                        userGeoDto.getLatitude(),
+                        mode.strategy(rankingEngine, distanceEngine),
+                        stay(checkIn, checkOut))
                 .stream()
-                .map(entity -> mapper.map(entity, HotelSearchDTO.class))
+                // Hotels are materialized lazily, so only the returned ones are mapped
+                .limit(limit != null && limit > 0 ? limit : Long.MAX_VALUE)
+                .map(entity -> toSearchDto(entity, selected))
                 .toList();
+        SearchProfile.mark(SearchProfile.Stage.MAPPING);
+        if (explain && SearchProfile.current() != null) {
+            return ResponseEntity.ok(new SearchExplainDTO<>(hotels, SearchProfileDTO.of(SearchProfile.current())));
+        }
         if (hotels.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
@@ -158,37 +280,59 @@ public class HotelController {
     }
 
     @Operation(summary = "Search hotels near user location with pagination")
+    @Parameter(name = "mode", description = "RANKED for all hotels by distance and price, SKYLINE for only the hotels "
+            + "no other hotel beats on both distance and price", example = "SKYLINE")
+    @Parameter(name = "rankingEngine", description = "Distance formula used to rank hotels", example = "EQUIRECTANGULAR")
+    @Parameter(name = "distanceEngine", description = "Distance formula used for returned distances", example = "VINCENTY")
+    @Parameter(name = "checkIn", description = "Date of arrival, only hotels available for the whole stay are returned", example = "2026-11-01")
+    @Parameter(name = "checkOut", description = "Date of departure, required with checkIn", example = "2026-11-05")
+    @Parameter(name = "fields", description = "Comma separated properties to return: id, name, price, longitude, "
+            + "latitude, distance, all if not set", example = "id,distance")
+    @Parameter(name = "explain", description = "Return the page as results, together with a profile of the search: "
+            + "candidates, distances computed, cache hits, nanoseconds per stage and bytes allocated", example = "true")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Hotels successfully fetched"),
+            @ApiResponse(responseCode = "200", description = "Hotels successfully fetched, with a profile of the search if explained",
+                    content = @Content(schema = @Schema(oneOf = {HotelSearchPage.class, HotelSearchPageExplain.class}))),
             @ApiResponse(responseCode = "204", description = "No hotel found", content = @Content),
             @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
-    @PostMapping("/search/page")
-    public ResponseEntity<PagedModel<HotelSearchDTO>> searchHotelsByPage(
+    @PostMapping(value = "/search/page", produces = {MediaTypes.APPLICATION_JSON, MediaTypes.APPLICATION_CBOR, MediaTypes.APPLICATION_SMILE})
+    public ResponseEntity<?> searchHotelsByPage(
             @Valid @RequestBody final UserGeoModificationDTO userGeoDto,
-            @ParameterObject @PageableDefault(size = 20) Pageable pageable)
+            @ParameterObject @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(value = "mode", defaultValue = "RANKED") final SearchMode mode,
+            @RequestParam(value = "rankingEngine", defaultValue = "HAVERSINE") final DistanceEngine rankingEngine,
+            @RequestParam(value = "distanceEngine", defaultValue = "HAVERSINE") final DistanceEngine distanceEngine,
+            @RequestParam(value = "checkIn", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate checkIn,
+            @RequestParam(value = "checkOut", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate checkOut,
+            @RequestParam(value = "fields", required = false) final String fields,
+            @RequestParam(value = "explain", defaultValue = "false") final boolean explain)
     {
         log.info("Request received: searchHotels() for user with location: ({}, {}), page: {}, size: {}",
                 userGeoDto.getLatitude(), userGeoDto.getLongitude(), pageable.getPageNumber(), pageable.getPageSize());
+        final Set<HotelField> selected = fields != null ? fields(fields, true) : null;
+        SearchProfile.mark(SearchProfile.Stage.VALIDATION);
 
         // Fetch hotels from service with pagination
         final Page<Hotel> hotelsPage = hotelService.searchHotelsByPage(
                 userGeoDto.getLongitude(),
                 userGeoDto.getLatitude(),
-                new SortByDistanceAndPrice(),
+                mode.strategy(rankingEngine, distanceEngine),
+                stay(checkIn, checkOut),
                pageable
         );
 
         // Map Hotel entities to DTOs
-        final List<HotelSearchDTO> hotelDTOList = hotelsPage
+        final List<Object> hotelDTOList = hotelsPage
                 .getContent()
                 .stream()
-                .map(entity -> mapper.map(entity, HotelSearchDTO.class))
+                .map(entity -> toSearchDto(entity, selected))
                 .toList();
+        SearchProfile.mark(SearchProfile.Stage.MAPPING);
 
         // If no hotels found, return no content
-        if (hotelDTOList.isEmpty()) {
+        if (hotelDTOList.isEmpty() && !(explain && SearchProfile.current() != null)) {
             return ResponseEntity.noContent().build();
         }
 
@@ -200,9 +344,75 @@ public class HotelController {
                 hotelsPage.getTotalPages());
 
         // Wrap the DTOs in a PagedModel without wrapping in EntityModel
-        PagedModel<HotelSearchDTO> pagedModel = PagedModel.of(hotelDTOList, metadata);
+        PagedModel<Object> pagedModel = PagedModel.of(hotelDTOList, metadata);
+
+        if (explain && SearchProfile.current() != null) {
+            return ResponseEntity.ok(new SearchExplainDTO<>(pagedModel, SearchProfileDTO.of(SearchProfile.current())));
+        }
 
         // Return paginated hotels
         return ResponseEntity.ok(pagedModel);
     }
+
+    /**
+     * @param checkIn date of arrival
+     * @param checkOut date of departure
+     * @return stay, or {@code null} if neither date is set
+     */
+    private static Stay stay(final LocalDate checkIn, final LocalDate checkOut) {
+        if (checkIn == null && checkOut == null) {
+            return null;
+        }
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Availability.STAY_INVALID);
+        }
+        return new Stay(checkIn, checkOut);
+    }
+
+    /**
+     * @param fields comma separated property names
+     * @param search {@code true} for search responses
+     * @return selected fields
+     */
+    private static Set<HotelField> fields(final String fields, final boolean search) {
+        try {
+            return HotelField.parse(fields, search);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Fields.FIELDS_INVALID);
+        }
+    }
+
+    /**
+     * @param hotel found hotel
+     * @param selected selected fields, {@code null} for all
+     * @return hotel mapped to search DTO, or projected to the selected fields
+     */
+    private Object toSearchDto(final Hotel hotel, final Set<HotelField> selected) {
+        return selected != null ? new HotelProjectionDTO(hotel, selected) : mapper.map(hotel, HotelSearchDTO.class);
+    }
+
+    /**
+     * Build {@code 304 Not Modified} response. Nothing is mapped or serialized for it.
+     *
+     * @param eTag current ETag of the resource
+     * @return response without body
+     */
+    private <T> ResponseEntity<T> notModified(final String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    // Schemas of the search responses in the API documentation only, also of the weighted search; the
+    // search methods return untyped bodies as they may select fields or explain the search
+    static class HotelSearchExplain extends SearchExplainDTO<List<HotelSearchDTO>> {
+    }
+
+    static class HotelSearchPage extends PagedModel<HotelSearchDTO> {
+    }
+
+    static class HotelSearchPageExplain extends SearchExplainDTO<HotelSearchPage> {
+    }
 }
@@ -0,0 +1,95 @@
+package hr.lemax.hotel.controller;
+
+import hr.lemax.hotel.common.enums.MediaTypes;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.util.ETagUtils;
+import hr.lemax.hotel.config.HotelMapProperties;
+import hr.lemax.hotel.config.HttpCacheProperties;
+import hr.lemax.hotel.dto.HotelClusterDTO;
+import hr.lemax.hotel.model.HotelClusters;
+import hr.lemax.hotel.service.HotelTileIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/hotels")
+@Tag(name = "Hotel Map", description = "API for showing hotels on a map")
+@Slf4j
+public class HotelMapController {
+    private final HotelTileIndex hotelTileIndex;
+    private final int maxClusters;
+    private final CacheControl cacheControl;
+
+    public HotelMapController(
+            final HotelTileIndex hotelTileIndex,
+            final HotelMapProperties properties,
+            final HttpCacheProperties httpCacheProperties) {
+        this.hotelTileIndex = hotelTileIndex;
+        this.maxClusters = properties.getMaxClusters();
+        this.cacheControl = httpCacheProperties.toCacheControl();
+    }
+
+    @Operation(summary = "Get hotel clusters of a map viewport",
+            description = "Hotels in the Web Mercator tiles of the given zoom level intersecting the bounding box, "
+                    + "aggregated per tile into their count, mean location and minimum price. Zoom levels over the "
+                    + "finest level of the index are served from the finest level. A bounding box with minLongitude "
+                    + "greater than maxLongitude crosses the antimeridian.")
+    @Parameter(name = "bbox", description = "minLongitude,minLatitude,maxLongitude,maxLatitude", example = "13.5,42.4,19.4,46.6")
+    @Parameter(name = "zoom", description = "Zoom level of the tiles", example = "8")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Clusters successfully fetched"),
+            @ApiResponse(responseCode = "400", description = "Invalid bounding box or too many clusters in it", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping(value = "/clusters", produces = {MediaTypes.APPLICATION_JSON, MediaTypes.APPLICATION_CBOR, MediaTypes.APPLICATION_SMILE})
+    public ResponseEntity<List<HotelClusterDTO>> getClusters(
+            @RequestParam("bbox") final double[] bbox,
+            @RequestParam("zoom") final int zoom) {
+        log.debug("Request received: getClusters() for bbox: {}, zoom: {}", bbox, zoom);
+
+        if (bbox.length != 4 || !isLatitude(bbox[1]) || !isLatitude(bbox[3]) || bbox[1] > bbox[3]
+                || !isLongitude(bbox[0]) || !isLongitude(bbox[2])) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Clusters.BBOX_INVALID);
+        }
+        final HotelClusters clusters = hotelTileIndex.clusters(bbox[0], bbox[1], bbox[2], bbox[3], zoom, maxClusters)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Clusters.TOO_MANY_CLUSTERS));
+        final List<HotelClusterDTO> body = clusters.clusters()
+                .stream()
+                .map(cluster -> new HotelClusterDTO(
+                        cluster.zoom() + "/" + cluster.x() + "/" + cluster.y(),
+                        cluster.count(),
+                        cluster.longitude(),
+                        cluster.latitude(),
+                        cluster.minPrice()))
+                .toList();
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.catalogETag(clusters.epoch(), clusters.version()))
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    private static boolean isLatitude(final double latitude) {
+        return latitude >= -90 && latitude <= 90;
+    }
+
+    private static boolean isLongitude(final double longitude) {
+        return longitude >= -180 && longitude <= 180;
+    }
+}
@@ -0,0 +1,135 @@
+package hr.lemax.hotel.controller;
+
+import hr.lemax.hotel.common.index.GeoSubscription;
+import hr.lemax.hotel.dto.GeoSubscriptionDTO;
+import hr.lemax.hotel.dto.GeoSubscriptionModificationDTO;
+import hr.lemax.hotel.service.HotelSubscriptionFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/hotels")
+@Tag(name = "Hotel Subscriptions", description = "API for standing searches notified of hotels entering an area")
+@Slf4j
+public class HotelSubscriptionController {
+    private final HotelSubscriptionFeed hotelSubscriptionFeed;
+
+    public HotelSubscriptionController(final HotelSubscriptionFeed hotelSubscriptionFeed) {
+        this.hotelSubscriptionFeed = hotelSubscriptionFeed;
+    }
+
+    @Operation(summary = "Add subscription",
+            description = "Registers a standing search for hotels within a radius of a location and, if set, at or "
+                    + "below a price. Hotels entering it are sent to GET /hotels/subscriptions/{id}/events.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Creation successful"),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "503", description = "Too many subscriptions", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PostMapping("/subscriptions")
+    public ResponseEntity<GeoSubscriptionDTO> addSubscription(
+            @Valid @RequestBody final GeoSubscriptionModificationDTO subscriptionDto) {
+        log.info("Request received: addSubscription().");
+        log.debug("Body: {}", subscriptionDto);
+
+        final GeoSubscription subscription = hotelSubscriptionFeed.create(
+                subscriptionDto.getLongitude(),
+                subscriptionDto.getLatitude(),
+                subscriptionDto.getRadius(),
+                subscriptionDto.getMaxPrice());
+        return ResponseEntity.ok(GeoSubscriptionDTO.of(subscription));
+    }
+
+    @Operation(summary = "Get subscription")
+    @Parameter(name = "id", description = "Subscription ID", example = "1")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Subscription successfully fetched"),
+            @ApiResponse(responseCode = "404", description = "Subscription not found", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping("/subscriptions/{id}")
+    public ResponseEntity<GeoSubscriptionDTO> getSubscription(
+            @PathVariable("id") final Long id) {
+        log.info("Request received: getSubscription() for subscription with ID: {}", id);
+
+        return ResponseEntity.ok(GeoSubscriptionDTO.of(hotelSubscriptionFeed.get(id)));
+    }
+
+    @Operation(summary = "Update subscription",
+            description = "Replaces the location, radius and price of the subscription. A connected event stream stays connected.")
+    @Parameter(name = "id", description = "Subscription ID", example = "1")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Update successful"),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "404", description = "Subscription not found", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PutMapping("/subscriptions/{id}")
+    public ResponseEntity<GeoSubscriptionDTO> updateSubscription(
+            @PathVariable("id") final Long id,
+            @Valid @RequestBody final GeoSubscriptionModificationDTO subscriptionDto) {
+        log.info("Request received: updateSubscription() for subscription with ID: {}", id);
+        log.debug("Body: {}", subscriptionDto);
+
+        final GeoSubscription subscription = hotelSubscriptionFeed.update(
+                id,
+                subscriptionDto.getLongitude(),
+                subscriptionDto.getLatitude(),
+                subscriptionDto.getRadius(),
+                subscriptionDto.getMaxPrice());
+        return ResponseEntity.ok(GeoSubscriptionDTO.of(subscription));
+    }
+
+    @Operation(summary = "Delete subscription", description = "Deletes the subscription and closes its event stream.")
+    @Parameter(name = "id", description = "Subscription ID", example = "1")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Delete successful", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Subscription not found", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @DeleteMapping("/subscriptions/{id}")
+    public ResponseEntity<Void> deleteSubscription(
+            @PathVariable("id") final Long id) {
+        log.info("Request received: deleteSubscription() for subscription with ID: {}", id);
+
+        hotelSubscriptionFeed.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Stream hotels entering subscription",
+            description = "Server-sent events named entered, with the catalog version of the change as event ID, for "
+                    + "each hotel added within the subscription or updated to be within it, e.g. moved into the radius "
+                    + "or its price lowered to the maximum. Hotels entering while no stream is connected are not sent "
+                    + "later. Connecting again closes the previous stream. Slow subscribers are sent an overflow event "
+                    + "and disconnected.")
+    @Parameter(name = "id", description = "Subscription ID", example = "1")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Connected to the subscription"),
+            @ApiResponse(responseCode = "404", description = "Subscription not found", content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping(value = "/subscriptions/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscriptionEvents(
+            @PathVariable("id") final Long id) {
+        log.info("Request received: subscriptionEvents() for subscription with ID: {}", id);
+
+        return hotelSubscriptionFeed.stream(id);
+    }
+}
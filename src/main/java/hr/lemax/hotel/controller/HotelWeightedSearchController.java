@@ -0,0 +1,117 @@
+package hr.lemax.hotel.controller;
+
+import hr.lemax.hotel.common.enums.HotelField;
+import hr.lemax.hotel.common.enums.MediaTypes;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.profile.SearchProfile;
+import hr.lemax.hotel.common.strategy.WeightedScoreTopK;
+import hr.lemax.hotel.config.HotelSearchProperties;
+import hr.lemax.hotel.dto.HotelProjectionDTO;
+import hr.lemax.hotel.dto.HotelSearchDTO;
+import hr.lemax.hotel.dto.SearchExplainDTO;
+import hr.lemax.hotel.dto.SearchProfileDTO;
+import hr.lemax.hotel.dto.UserGeoModificationDTO;
+import hr.lemax.hotel.service.HotelSearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/hotels")
+@Tag(name = "Hotel", description = "API for managing hotels")
+@Slf4j
+public class HotelWeightedSearchController {
+    private final HotelSearchIndex hotelSearchIndex;
+    private final ModelMapper mapper;
+    private final HotelSearchProperties properties;
+
+    public HotelWeightedSearchController(
+            final HotelSearchIndex hotelSearchIndex,
+            final ModelMapper mapper,
+            final HotelSearchProperties properties) {
+        this.hotelSearchIndex = hotelSearchIndex;
+        this.mapper = mapper;
+        this.properties = properties;
+    }
+
+    @Operation(summary = "Search hotels with the best weighted score of distance and price",
+            description = "Hotels ordered by distanceWeight * distance / distanceScale + priceWeight * price / priceScale, "
+                    + "lowest first. The scales are configured, with equal weights a hotel 10 km further away scores "
+                    + "as much as one 100 more expensive by default. Only as many hotels are examined as needed to "
+                    + "find the top ones.")
+    @Parameter(name = "distanceWeight", description = "Weight of the distance", example = "0.7")
+    @Parameter(name = "priceWeight", description = "Weight of the price", example = "0.3")
+    @Parameter(name = "limit", description = "Number of hotels to return", example = "20")
+    @Parameter(name = "fields", description = "Comma separated properties to return: id, name, price, longitude, "
+            + "latitude, distance, all if not set", example = "id,distance")
+    @Parameter(name = "explain", description = "Return the hotels as results, together with a profile of the search: "
+            + "candidates, distances computed, index cells visited, nanoseconds per stage and bytes allocated", example = "true")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hotels successfully fetched, with a profile of the search if explained",
+                    content = @Content(schema = @Schema(oneOf = {HotelSearchDTO[].class, HotelController.HotelSearchExplain.class}))),
+            @ApiResponse(responseCode = "204", description = "No hotel found", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PostMapping(value = "/search", params = {"distanceWeight", "priceWeight"},
+            produces = {MediaTypes.APPLICATION_JSON, MediaTypes.APPLICATION_CBOR, MediaTypes.APPLICATION_SMILE})
+    public ResponseEntity<?> searchHotelsWeighted(
+            @Valid @RequestBody final UserGeoModificationDTO userGeoDto,
+            @RequestParam("distanceWeight") final double distanceWeight,
+            @RequestParam("priceWeight") final double priceWeight,
+            @RequestParam(value = "limit", required = false) final Integer limit,
+            @RequestParam(value = "fields", required = false) final String fields,
+            @RequestParam(value = "explain", defaultValue = "false") final boolean explain) {
+        log.info("Request received: searchHotelsWeighted() for user with location: ({}, {}), weights: {}, {}",
+                userGeoDto.getLatitude(), userGeoDto.getLongitude(), distanceWeight, priceWeight);
+
+        if (!(distanceWeight >= 0 && priceWeight >= 0 && distanceWeight + priceWeight > 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Search.WEIGHTS_INVALID);
+        }
+        final int k = limit != null ? limit : properties.getWeightedLimit();
+        if (k <= 0 || k > properties.getMaxWeightedLimit()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Search.LIMIT_INVALID);
+        }
+        final Set<HotelField> selected;
+        try {
+            selected = fields != null ? HotelField.parse(fields, true) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Fields.FIELDS_INVALID);
+        }
+        SearchProfile.mark(SearchProfile.Stage.VALIDATION);
+        final WeightedScoreTopK strategy = new WeightedScoreTopK(
+                distanceWeight, priceWeight, properties.getDistanceScale(), properties.getPriceScale(), k);
+        final List<Object> hotels = hotelSearchIndex.search(strategy, userGeoDto.getLongitude(), userGeoDto.getLatitude())
+                .stream()
+                .map(entity -> selected != null
+                        ? new HotelProjectionDTO(entity, selected)
+                        : (Object) mapper.map(entity, HotelSearchDTO.class))
+                .toList();
+        SearchProfile.mark(SearchProfile.Stage.MAPPING);
+        if (explain && SearchProfile.current() != null) {
+            return ResponseEntity.ok(new SearchExplainDTO<>(hotels, SearchProfileDTO.of(SearchProfile.current())));
+        }
+        if (hotels.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(hotels);
+    }
+}
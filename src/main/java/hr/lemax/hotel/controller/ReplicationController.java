@@ -0,0 +1,147 @@
+package hr.lemax.hotel.controller;
+
+import hr.lemax.hotel.catalog.CatalogFormat;
+import hr.lemax.hotel.catalog.CatalogWriter;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.config.ReplicationProperties;
+import hr.lemax.hotel.dto.HotelChangeDTO;
+import hr.lemax.hotel.dto.HotelDTO;
+import hr.lemax.hotel.dto.ReplicationChangesDTO;
+import hr.lemax.hotel.dto.ReplicationStatusDTO;
+import hr.lemax.hotel.model.CatalogSnapshot;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.replication.ReplicationFollower;
+import hr.lemax.hotel.service.HotelChangeLog;
+import hr.lemax.hotel.service.HotelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/replication")
+@Tag(name = "Replication", description = "API for followers replicating the hotel catalog")
+@Slf4j
+public class ReplicationController {
+    public static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+    private static final int MAX_PAGE_SIZE = 10_000;
+
+    private final HotelService hotelService;
+    private final HotelChangeLog hotelChangeLog;
+    private final ModelMapper mapper;
+    private final ReplicationProperties properties;
+    private final ObjectProvider<ReplicationFollower> follower;
+
+    public ReplicationController(
+            final HotelService hotelService,
+            final HotelChangeLog hotelChangeLog,
+            final ModelMapper mapper,
+            final ReplicationProperties properties,
+            final ObjectProvider<ReplicationFollower> follower) {
+        this.hotelService = hotelService;
+        this.hotelChangeLog = hotelChangeLog;
+        this.mapper = mapper;
+        this.properties = properties;
+        this.follower = follower;
+    }
+
+    @Operation(summary = "Get snapshot of the catalog",
+            description = "All hotels with their IDs and versions at the catalog version given by the X-Catalog-Version "
+                    + "header, as a binary snapshot (default) or NDJSON. A new follower loads the snapshot, then reads "
+                    + "the changes since its version.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Snapshot successfully streamed"),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping("/snapshot")
+    public ResponseEntity<StreamingResponseBody> getSnapshot(
+            @Parameter(description = "Format of the snapshot", example = "SNAPSHOT")
+            @RequestParam(value = "format", defaultValue = "SNAPSHOT") final CatalogFormat format) {
+        log.info("Request received: getSnapshot() in format: {}", format);
+
+        final CatalogSnapshot snapshot = hotelService.getCatalogSnapshot();
+        final StreamingResponseBody body = out -> {
+            try (CatalogWriter writer = format.writer(out, snapshot.version())) {
+                snapshot.hotels().forEach(writer::write);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(CATALOG_VERSION_HEADER, String.valueOf(snapshot.version()))
+                .body(body);
+    }
+
+    @Operation(summary = "Get changes since a catalog version",
+            description = "The changes following the given version in order of their versions, at most limit of them. "
+                    + "A 410 response means the changes are no longer available and the follower has to load a new snapshot.")
+    @Parameter(name = "sinceVersion", description = "Catalog version the follower last applied", example = "40")
+    @Parameter(name = "limit", description = "Maximum number of changes returned", example = "1000")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Changes successfully fetched"),
+            @ApiResponse(responseCode = "410", description = "Changes no longer available, load a snapshot", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping("/changes")
+    public ReplicationChangesDTO getChanges(
+            @RequestParam("sinceVersion") final long sinceVersion,
+            @RequestParam(value = "limit", defaultValue = "1000") final int limit) {
+        log.debug("Request received: getChanges() since version: {}, limit: {}", sinceVersion, limit);
+
+        final List<HotelChange> changes = hotelChangeLog.page(sinceVersion, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.GONE, Messages.Error.Changes.RESYNC_REQUIRED));
+        return new ReplicationChangesDTO(
+                hotelChangeLog.getLatestVersion(),
+                changes.stream().map(this::toDto).toList());
+    }
+
+    @Operation(summary = "Get replication status",
+            description = "Role and catalog version of the instance, and for followers the version of the leader and "
+                    + "the replication lag.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Status successfully fetched"),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping("/status")
+    public ReplicationStatusDTO getStatus() {
+        log.debug("Request received: getStatus()");
+
+        final ReplicationFollower replicationFollower = follower.getIfAvailable();
+        if (replicationFollower == null) {
+            return new ReplicationStatusDTO(properties.getRole(), null, hotelService.getCatalogVersion(),
+                    null, null, null, null, null);
+        }
+        return new ReplicationStatusDTO(
+                properties.getRole(),
+                properties.getLeaderUrl(),
+                replicationFollower.getAppliedVersion(),
+                replicationFollower.getLeaderVersion(),
+                replicationFollower.getLagVersions(),
+                replicationFollower.getLagMillis(),
+                replicationFollower.getState().name(),
+                replicationFollower.getLastError());
+    }
+
+    private HotelChangeDTO toDto(final HotelChange change) {
+        return new HotelChangeDTO(
+                change.type(),
+                change.version(),
+                change.hotelId(),
+                change.hotel() == null ? null : mapper.map(change.hotel(), HotelDTO.class));
+    }
+}
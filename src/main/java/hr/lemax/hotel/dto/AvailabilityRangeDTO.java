@@ -0,0 +1,19 @@
+package hr.lemax.hotel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityRangeDTO {
+    @Schema(description = "First available day", example = "2026-11-01")
+    private LocalDate from;
+
+    @Schema(description = "Day after the last available day", example = "2026-11-15")
+    private LocalDate to;
+}
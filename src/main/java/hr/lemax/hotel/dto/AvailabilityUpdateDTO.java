@@ -0,0 +1,31 @@
+package hr.lemax.hotel.dto;
+
+import hr.lemax.hotel.common.enums.Messages;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityUpdateDTO {
+    @Schema(description = "Hotel ID", example = "1")
+    @NotNull(message = Messages.Error.Availability.HOTEL_ID_REQUIRED)
+    private Long hotelId;
+
+    @Schema(description = "First day", example = "2026-11-01")
+    @NotNull(message = Messages.Error.Availability.FROM_REQUIRED)
+    private LocalDate from;
+
+    @Schema(description = "Day after the last day", example = "2026-11-15")
+    @NotNull(message = Messages.Error.Availability.TO_REQUIRED)
+    private LocalDate to;
+
+    @Schema(description = "Whether the hotel can be booked on the days", example = "true")
+    @NotNull(message = Messages.Error.Availability.AVAILABLE_REQUIRED)
+    private Boolean available;
+}
@@ -0,0 +1,18 @@
+package hr.lemax.hotel.dto;
+
+import hr.lemax.hotel.common.enums.BatchItemStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDTO {
+    @Schema(description = "Hotel ID of the item", example = "1")
+    private Long hotelId;
+
+    @Schema(description = "Why the item was not applied", example = "NOT_FOUND")
+    private BatchItemStatus status;
+}
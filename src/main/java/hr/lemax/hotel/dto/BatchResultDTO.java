@@ -0,0 +1,36 @@
+package hr.lemax.hotel.dto;
+
+import hr.lemax.hotel.model.BatchResult;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+    @Schema(description = "Number of items applied", example = "9998")
+    private int applied;
+
+    @Schema(description = "Number of items that did not change anything", example = "1")
+    private int unchanged;
+
+    @Schema(description = "Items not applied, in order of the batch")
+    private List<BatchItemResultDTO> rejected;
+
+    @Schema(description = "Catalog version after the batch", example = "10040")
+    private long version;
+
+    public static BatchResultDTO of(final BatchResult result) {
+        return new BatchResultDTO(
+                result.applied(),
+                result.unchanged(),
+                result.rejected().stream()
+                        .map(item -> new BatchItemResultDTO(item.hotelId(), item.status()))
+                        .toList(),
+                result.version());
+    }
+}
@@ -0,0 +1,36 @@
+package hr.lemax.hotel.dto;
+
+import hr.lemax.hotel.common.index.GeoSubscription;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoSubscriptionDTO {
+    @Schema(description = "ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Longitude (X) Coordinate", example = "15.98")
+    private Double longitude;
+
+    @Schema(description = "Latitude (Y) Coordinate", example = "45.81")
+    private Double latitude;
+
+    @Schema(description = "Radius in kilometers", example = "10")
+    private Double radius;
+
+    @Schema(description = "Highest price matched, not set for any price", example = "150.00")
+    private Double maxPrice;
+
+    public static GeoSubscriptionDTO of(final GeoSubscription subscription) {
+        return new GeoSubscriptionDTO(
+                subscription.id(),
+                subscription.longitude(),
+                subscription.latitude(),
+                subscription.radius(),
+                subscription.maxPrice());
+    }
+}
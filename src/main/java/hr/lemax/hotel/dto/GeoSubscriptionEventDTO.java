@@ -0,0 +1,20 @@
+package hr.lemax.hotel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoSubscriptionEventDTO {
+    @Schema(description = "ID of matched subscription", example = "1")
+    private Long subscriptionId;
+
+    @Schema(description = "Catalog version of the change that made the hotel match", example = "42")
+    private Long version;
+
+    @Schema(description = "Hotel with its distance from the location of the subscription")
+    private HotelSearchDTO hotel;
+}
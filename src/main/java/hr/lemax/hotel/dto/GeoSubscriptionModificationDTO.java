@@ -0,0 +1,33 @@
+package hr.lemax.hotel.dto;
+
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.validator.ValidGeolocation;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ValidGeolocation(message = Messages.Error.User.USER_GEOLOCATION_INVALID)
+public class GeoSubscriptionModificationDTO {
+    @Schema(description = "Longitude (X) Coordinate", example = "15.98")
+    @NotNull(message = Messages.Error.User.USER_LONGITUDE_REQUIRED)
+    private Double longitude;
+
+    @Schema(description = "Latitude (Y) Coordinate", example = "45.81")
+    @NotNull(message = Messages.Error.User.USER_LATITUDE_REQUIRED)
+    private Double latitude;
+
+    @Schema(description = "Radius in kilometers", example = "10")
+    @NotNull(message = Messages.Error.Subscriptions.RADIUS_REQUIRED)
+    @Positive(message = Messages.Error.Subscriptions.RADIUS_INVALID)
+    private Double radius;
+
+    @Schema(description = "Highest price matched, any price if not set", example = "150.00")
+    @Positive(message = Messages.Error.Subscriptions.MAX_PRICE_POSITIVE)
+    private Double maxPrice;
+}
@@ -0,0 +1,24 @@
+package hr.lemax.hotel.dto;
+
+import hr.lemax.hotel.common.enums.HotelChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelChangeDTO {
+    @Schema(description = "Type of change", example = "UPDATED")
+    private HotelChangeType type;
+
+    @Schema(description = "Catalog version created by the change", example = "42")
+    private Long version;
+
+    @Schema(description = "ID of changed hotel, not set for imports", example = "1")
+    private Long id;
+
+    @Schema(description = "Hotel after the change, not set for deletes and imports")
+    private HotelDTO hotel;
+}
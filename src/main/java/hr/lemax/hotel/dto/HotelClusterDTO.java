@@ -0,0 +1,26 @@
+package hr.lemax.hotel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelClusterDTO {
+    @Schema(description = "Tile of the cluster as zoom/x/y", example = "8/139/91")
+    private String tile;
+
+    @Schema(description = "Number of hotels in the cluster", example = "125")
+    private Integer count;
+
+    @Schema(description = "Mean longitude of the hotels", example = "15.98")
+    private Double longitude;
+
+    @Schema(description = "Mean latitude of the hotels", example = "45.81")
+    private Double latitude;
+
+    @Schema(description = "Price of the cheapest hotel in the cluster", example = "49.00")
+    private Double minPrice;
+}
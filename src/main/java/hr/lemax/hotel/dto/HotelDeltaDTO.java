@@ -0,0 +1,25 @@
+package hr.lemax.hotel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelDeltaDTO {
+    @Schema(description = "Catalog version the delta starts from", example = "40")
+    private Long fromVersion;
+
+    @Schema(description = "Catalog version reached by applying the delta, to be used as next sinceVersion", example = "42")
+    private Long toVersion;
+
+    @Schema(description = "Hotels added or updated since fromVersion")
+    private List<HotelDTO> hotels;
+
+    @Schema(description = "IDs of hotels deleted since fromVersion", example = "[7]")
+    private List<Long> deleted;
+}
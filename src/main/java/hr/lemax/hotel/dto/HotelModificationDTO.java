@@ -1,11 +1,13 @@
 package hr.lemax.hotel.dto;
 
 import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.util.PriceUtils;
 import hr.lemax.hotel.common.validator.ValidGeolocation;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,7 +25,8 @@ public class HotelModificationDTO {
 
     @Schema(description = "Price of Hotel", example = "100.00")
     @NotNull(message = Messages.Error.Hotel.HOTEL_PRICE_REQUIRED)
-    @Positive(message = Messages.Error.Hotel.HOTEL_PRICE_POSITIVE)
+    @DecimalMin(value = PriceUtils.MIN_PRICE, message = Messages.Error.Hotel.HOTEL_PRICE_POSITIVE)
+    @DecimalMax(value = PriceUtils.MAX_PRICE, message = Messages.Error.Hotel.HOTEL_PRICE_MAX)
     private Double price;
 
     @Schema(description = "Longitude (X) Coordinate", example = "45.123")
@@ -0,0 +1,44 @@
+package hr.lemax.hotel.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import hr.lemax.hotel.common.enums.HotelField;
+import hr.lemax.hotel.model.Hotel;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Hotel with only the selected fields, written straight from the entity. Nothing is mapped, and
+ * properties that were not selected are neither read nor serialized.
+ *
+ * @param hotel hotel to write
+ * @param fields selected fields
+ */
+@JsonSerialize(using = HotelProjectionDTO.Serializer.class)
+public record HotelProjectionDTO(Hotel hotel, Set<HotelField> fields) {
+
+    public static class Serializer extends JsonSerializer<HotelProjectionDTO> {
+        @Override
+        public void serialize(
+                final HotelProjectionDTO projection,
+                final JsonGenerator generator,
+                final SerializerProvider provider) throws IOException {
+            final Hotel hotel = projection.hotel();
+            generator.writeStartObject();
+            for (final HotelField field : projection.fields()) {
+                switch (field) {
+                    case ID -> generator.writeNumberField(field.property(), hotel.getId());
+                    case NAME -> generator.writeStringField(field.property(), hotel.getName());
+                    case PRICE -> generator.writeNumberField(field.property(), hotel.getPrice());
+                    case LONGITUDE -> generator.writeNumberField(field.property(), hotel.getLongitude());
+                    case LATITUDE -> generator.writeNumberField(field.property(), hotel.getLatitude());
+                    case DISTANCE -> generator.writeNumberField(field.property(), hotel.getDistance());
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package hr.lemax.hotel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationChangesDTO {
+    @Schema(description = "Latest catalog version of the leader", example = "42")
+    private Long latestVersion;
+
+    @Schema(description = "Changes following the requested version, in order of their versions")
+    private List<HotelChangeDTO> changes;
+}
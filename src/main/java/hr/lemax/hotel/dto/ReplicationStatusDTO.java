@@ -0,0 +1,36 @@
+package hr.lemax.hotel.dto;
+
+import hr.lemax.hotel.common.enums.ReplicationRole;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationStatusDTO {
+    @Schema(description = "Replication role of the instance", example = "FOLLOWER")
+    private ReplicationRole role;
+
+    @Schema(description = "Base URL of the leader, set for followers", example = "http://leader:8080/api")
+    private String leaderUrl;
+
+    @Schema(description = "Catalog version of the instance", example = "40")
+    private Long appliedVersion;
+
+    @Schema(description = "Latest catalog version of the leader as of the last poll, set for followers", example = "42")
+    private Long leaderVersion;
+
+    @Schema(description = "Number of catalog versions the follower is behind the leader", example = "2")
+    private Long lagVersions;
+
+    @Schema(description = "Milliseconds since the follower was last known to be caught up with the leader", example = "850")
+    private Long lagMillis;
+
+    @Schema(description = "State of the follower", example = "FOLLOWING")
+    private String state;
+
+    @Schema(description = "Error of the last failed poll of the leader, if the follower did not recover since")
+    private String lastError;
+}
@@ -0,0 +1,17 @@
+package hr.lemax.hotel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchExplainDTO<T> {
+    @Schema(description = "Search result, as returned without explain")
+    private T results;
+
+    @Schema(description = "Cost breakdown of the search")
+    private SearchProfileDTO profile;
+}
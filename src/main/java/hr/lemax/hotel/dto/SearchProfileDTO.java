@@ -0,0 +1,54 @@
+package hr.lemax.hotel.dto;
+
+import hr.lemax.hotel.common.profile.SearchProfile;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchProfileDTO {
+    @Schema(description = "Hotels considered for the result", example = "100000")
+    private Long candidates;
+
+    @Schema(description = "Distances calculated", example = "100020")
+    private Long distancesComputed;
+
+    @Schema(description = "Cells of the spatial index visited", example = "0")
+    private Long cellsVisited;
+
+    @Schema(description = "Results shared with an identical search in flight instead of computed", example = "0")
+    private Long cacheHits;
+
+    @Schema(description = "Nanoseconds per stage: VALIDATION, WAIT, FILTER, SCAN, SORT, PAGINATION, MAPPING",
+            example = "{\"VALIDATION\": 85000, \"SCAN\": 4100000, \"SORT\": 9800000, \"MAPPING\": 120000}")
+    private Map<String, Long> stageNanos;
+
+    @Schema(description = "Nanoseconds from the start of the request to the end of mapping", example = "14200000")
+    private Long totalNanos;
+
+    @Schema(description = "Bytes allocated by the request thread, -1 if not measured", example = "4812345")
+    private Long allocatedBytes;
+
+    /**
+     * @param profile profile of a search, read when the search is done
+     * @return counters and timings of the profile
+     */
+    public static SearchProfileDTO of(final SearchProfile profile) {
+        final Map<String, Long> stageNanos = new LinkedHashMap<>();
+        profile.getStageNanos().forEach((stage, nanos) -> stageNanos.put(stage.name(), nanos));
+        return new SearchProfileDTO(
+                profile.getCandidates(),
+                profile.getDistancesComputed(),
+                profile.getCellsVisited(),
+                profile.getCacheHits(),
+                stageNanos,
+                profile.getTotalNanos(),
+                profile.getAllocatedBytes());
+    }
+}
@@ -0,0 +1,89 @@
+package hr.lemax.hotel.grpc;
+
+import hr.lemax.hotel.model.Hotel;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Sends hotels to a server-streaming call in chunks, only while the transport is ready to take
+ * more. A client reading slowly holds the sender back through HTTP/2 flow control instead of the
+ * whole result piling up in buffers, and hotels of lazily materialized search results are
+ * materialized chunk by chunk, as they are sent.
+ * <p>
+ * gRPC runs the callbacks of a call one at a time, the methods are synchronized only to publish
+ * the state between the threads running them.
+ */
+@Slf4j
+final class HotelChunkSender implements Runnable {
+    private final ServerCallStreamObserver<HotelChunk> observer;
+    private final List<Hotel> hotels;
+    private final int chunkSize;
+    private int next;
+    private boolean done;
+
+    private HotelChunkSender(
+            final ServerCallStreamObserver<HotelChunk> observer,
+            final List<Hotel> hotels,
+            final int chunkSize) {
+        this.observer = observer;
+        this.hotels = hotels;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Start sending hotels. Must be called by the method handling the call, before it returns.
+     *
+     * @param responseObserver observer of the call
+     * @param hotels hotels to send, in order
+     * @param chunkSize hotels per chunk
+     */
+    static void send(
+            final StreamObserver<HotelChunk> responseObserver,
+            final List<Hotel> hotels,
+            final int chunkSize) {
+        final ServerCallStreamObserver<HotelChunk> observer = (ServerCallStreamObserver<HotelChunk>) responseObserver;
+        final HotelChunkSender sender = new HotelChunkSender(observer, hotels, chunkSize);
+        observer.setOnCancelHandler(sender::cancel);
+        observer.setOnReadyHandler(sender);
+        // The call may have become ready before the handler was set, so nothing would trigger it
+        sender.run();
+    }
+
+    @Override
+    public synchronized void run() {
+        try {
+            while (!done) {
+                if (next >= hotels.size()) {
+                    observer.onCompleted();
+                    done = true;
+                    return;
+                }
+                if (!observer.isReady()) {
+                    return;
+                }
+                final int end = Math.min(next + chunkSize, hotels.size());
+                final HotelChunk.Builder chunk = HotelChunk.newBuilder();
+                for (int i = next; i < end; i++) {
+                    chunk.addHotels(HotelMessages.toMessage(hotels.get(i)));
+                }
+                next = end;
+                observer.onNext(chunk.build());
+            }
+        } catch (final RuntimeException e) {
+            log.error("Error while sending hotels: {}", e.getMessage());
+            if (!done) {
+                observer.onError(Status.INTERNAL.withDescription(e.getMessage()).asRuntimeException());
+                done = true;
+            }
+        }
+    }
+
+    private synchronized void cancel() {
+        log.debug("Call cancelled after {} of {} hotels", next, hotels.size());
+        done = true;
+    }
+}
@@ -0,0 +1,73 @@
+package hr.lemax.hotel.grpc;
+
+import io.grpc.Server;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC server with the application context. The server is started after the context is
+ * refreshed and stopped before its beans are destroyed, giving calls in flight a grace period.
+ * Unless it is enabled, the server is not started and does not listen on its port.
+ */
+@Slf4j
+public class HotelGrpcServer implements SmartLifecycle {
+    private final Server server;
+    private final Duration shutdownGracePeriod;
+    private final boolean enabled;
+    private volatile boolean running;
+
+    public HotelGrpcServer(final Server server, final Duration shutdownGracePeriod, final boolean enabled) {
+        this.server = server;
+        this.shutdownGracePeriod = shutdownGracePeriod;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("gRPC server could not be started", e);
+        }
+        running = true;
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        log.info("Stopping gRPC server");
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return port the server listens on, e.g. the port picked for port 0
+     * @throws IllegalStateException if the server is not started
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+}
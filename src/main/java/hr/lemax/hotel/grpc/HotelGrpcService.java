@@ -0,0 +1,311 @@
+package hr.lemax.hotel.grpc;
+
+import com.google.protobuf.Empty;
+import hr.lemax.hotel.common.admission.AdaptiveConcurrencyLimiter;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.enums.ReplicationRole;
+import hr.lemax.hotel.common.exception.HotelNotFoundException;
+import hr.lemax.hotel.common.util.Validator;
+import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.Stay;
+import hr.lemax.hotel.service.HotelService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * gRPC interface of the hotel catalog. Calls go to the same {@link HotelService} as the REST
+ * controllers and are validated the same way, failures are reported with gRPC status codes:
+ * {@code INVALID_ARGUMENT} for validation errors, {@code NOT_FOUND} for missing hotels,
+ * {@code FAILED_PRECONDITION} for writes and searches for a stay on a follower, which has no
+ * availability, and {@code RESOURCE_EXHAUSTED} for searches
+ * over the admission limit.
+ */
+@Slf4j
+public class HotelGrpcService extends HotelsGrpc.HotelsImplBase {
+    private final HotelService hotelService;
+    private final jakarta.validation.Validator validator;
+    // Shared with the REST search endpoints, null if admission control is disabled
+    private final AdaptiveConcurrencyLimiter searchLimiter;
+    private final ReplicationRole role;
+    private final int chunkSize;
+    private final int maxImportHotels;
+
+    /**
+     * @param hotelService service shared with the REST controllers
+     * @param validator validator of hotel input
+     * @param searchLimiter admission limit of searches, {@code null} to admit all
+     * @param role replication role, writes are rejected on followers
+     * @param chunkSize default hotels per chunk of streamed results
+     * @param maxImportHotels hotels accepted in a single import
+     */
+    public HotelGrpcService(
+            final HotelService hotelService,
+            final jakarta.validation.Validator validator,
+            final AdaptiveConcurrencyLimiter searchLimiter,
+            final ReplicationRole role,
+            final int chunkSize,
+            final int maxImportHotels) {
+        this.hotelService = hotelService;
+        this.validator = validator;
+        this.searchLimiter = searchLimiter;
+        this.role = role;
+        this.chunkSize = chunkSize;
+        this.maxImportHotels = maxImportHotels;
+    }
+
+    @Override
+    public void listHotels(final Empty request, final StreamObserver<HotelChunk> responseObserver) {
+        log.info("gRPC call received: listHotels()");
+        HotelChunkSender.send(responseObserver, hotelService.getAllHotels(), chunkSize);
+    }
+
+    @Override
+    public void getHotel(final GetHotelRequest request, final StreamObserver<HotelMessage> responseObserver) {
+        log.info("gRPC call received: getHotel() for hotel with ID: {}", request.getId());
+        unary(responseObserver, () -> HotelMessages.toMessage(hotelService.getHotelById(request.getId())
+                .orElseThrow(() -> new HotelNotFoundException(request.getId()))));
+    }
+
+    @Override
+    public void addHotel(final HotelInput request, final StreamObserver<HotelMessage> responseObserver) {
+        log.info("gRPC call received: addHotel()");
+        unary(responseObserver, () -> {
+            checkWritable();
+            return HotelMessages.toMessage(hotelService.addHotel(validated(request)));
+        });
+    }
+
+    @Override
+    public void updateHotel(final UpdateHotelRequest request, final StreamObserver<HotelMessage> responseObserver) {
+        log.info("gRPC call received: updateHotel() for hotel with ID: {}", request.getId());
+        unary(responseObserver, () -> {
+            checkWritable();
+            return HotelMessages.toMessage(hotelService.updateHotel(validated(request.getHotel()), request.getId()));
+        });
+    }
+
+    @Override
+    public void deleteHotel(final DeleteHotelRequest request, final StreamObserver<Empty> responseObserver) {
+        log.info("gRPC call received: deleteHotel() for hotel with ID: {}", request.getId());
+        unary(responseObserver, () -> {
+            checkWritable();
+            hotelService.deleteHotel(request.getId());
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    @Override
+    public StreamObserver<HotelChunk> importHotels(final StreamObserver<ImportResult> responseObserver) {
+        log.info("gRPC call received: importHotels()");
+        try {
+            // Before anything is buffered, a follower would only reject the import once it is complete
+            checkWritable();
+        } catch (final RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return new IgnoredStream<>();
+        }
+        // Hotels are validated as they arrive, so the import fails on the first invalid one
+        final List<Hotel> hotels = new ArrayList<>();
+        return new StreamObserver<>() {
+            private boolean failed;
+
+            @Override
+            public void onNext(final HotelChunk chunk) {
+                if (failed) {
+                    return;
+                }
+                try {
+                    if (hotels.size() + chunk.getHotelsCount() > maxImportHotels) {
+                        throw invalid(Messages.Error.Grpc.IMPORT_TOO_LARGE);
+                    }
+                    chunk.getHotelsList().forEach(message -> hotels.add(validated(message)));
+                } catch (final RuntimeException e) {
+                    failed = true;
+                    hotels.clear();
+                    responseObserver.onError(toStatus(e));
+                }
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+                log.debug("Import cancelled by client after {} hotels: {}", hotels.size(), t.getMessage());
+                hotels.clear();
+            }
+
+            @Override
+            public void onCompleted() {
+                if (failed) {
+                    return;
+                }
+                unary(responseObserver, () -> {
+                    final long count = hotelService.importHotels(hotels.stream());
+                    return ImportResult.newBuilder()
+                            .setCount(count)
+                            .setVersion(hotelService.getCatalogVersion())
+                            .build();
+                });
+            }
+        };
+    }
+
+    @Override
+    public void getCatalogVersion(final Empty request, final StreamObserver<CatalogVersion> responseObserver) {
+        unary(responseObserver, () -> CatalogVersion.newBuilder().setVersion(hotelService.getCatalogVersion()).build());
+    }
+
+    @Override
+    public void search(final SearchRequest request, final StreamObserver<HotelChunk> responseObserver) {
+        log.info("gRPC call received: search() for user with location: ({}, {})", request.getLatitude(), request.getLongitude());
+        if (searchLimiter != null && !searchLimiter.tryAcquire()) {
+            log.debug("Search rejected, concurrency limit {} reached", searchLimiter.getLimit());
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                    .withDescription(Messages.Error.Admission.SEARCH_CAPACITY_EXCEEDED)
+                    .asRuntimeException());
+            return;
+        }
+        final long start = System.nanoTime();
+        List<Hotel> hotels;
+        try {
+            if (!Validator.areCoordinatesValid(request.getLongitude(), request.getLatitude())) {
+                throw invalid(Messages.Error.User.USER_GEOLOCATION_INVALID);
+            }
+            if (request.getLimit() < 0 || request.getChunkSize() < 0) {
+                throw invalid(Messages.Error.Search.LIMIT_INVALID);
+            }
+            final hr.lemax.hotel.common.enums.SearchMode mode = request.getMode() == SearchMode.SKYLINE
+                    ? hr.lemax.hotel.common.enums.SearchMode.SKYLINE
+                    : hr.lemax.hotel.common.enums.SearchMode.RANKED;
+            final Stay stay = stay(request.getCheckIn(), request.getCheckOut());
+            if (stay != null && role == ReplicationRole.FOLLOWER) {
+                throw Status.FAILED_PRECONDITION.withDescription(Messages.Error.Grpc.STAY_SEARCH_ON_FOLLOWER).asRuntimeException();
+            }
+            hotels = hotelService.searchHotels(
+                    request.getLongitude(),
+                    request.getLatitude(),
+                    mode.strategy(engine(request.getRankingEngine()), engine(request.getDistanceEngine())),
+                    stay);
+        } catch (final RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        } finally {
+            // Released once the search is done, as REST searches are: the limit adapts to the latency
+            // of searching, streaming is paced by the client
+            if (searchLimiter != null) {
+                searchLimiter.release(System.nanoTime() - start);
+            }
+        }
+        if (request.getLimit() > 0 && request.getLimit() < hotels.size()) {
+            hotels = hotels.subList(0, request.getLimit());
+        }
+        HotelChunkSender.send(responseObserver, hotels, request.getChunkSize() > 0 ? request.getChunkSize() : chunkSize);
+    }
+
+    private <T> void unary(final StreamObserver<T> responseObserver, final Supplier<T> call) {
+        final T response;
+        try {
+            response = call.get();
+        } catch (final RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private HotelModificationDTO validated(final HotelInput input) {
+        return validated(HotelMessages.toModificationDto(input));
+    }
+
+    /**
+     * Validate imported hotel the same way as an added one, its ID and version aside.
+     */
+    private Hotel validated(final HotelMessage message) {
+        final Hotel hotel = HotelMessages.toHotel(message);
+        validated(new HotelModificationDTO(hotel.getName(), hotel.getPrice(), hotel.getLongitude(), hotel.getLatitude()));
+        return hotel;
+    }
+
+    private HotelModificationDTO validated(final HotelModificationDTO dto) {
+        final Set<ConstraintViolation<HotelModificationDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw invalid(violations.iterator().next().getMessage());
+        }
+        return dto;
+    }
+
+    private void checkWritable() {
+        if (role == ReplicationRole.FOLLOWER) {
+            throw Status.FAILED_PRECONDITION.withDescription(Messages.Error.Grpc.WRITE_TO_FOLLOWER).asRuntimeException();
+        }
+    }
+
+    private static hr.lemax.hotel.common.enums.DistanceEngine engine(final DistanceEngine engine) {
+        return switch (engine) {
+            case EQUIRECTANGULAR -> hr.lemax.hotel.common.enums.DistanceEngine.EQUIRECTANGULAR;
+            case VINCENTY -> hr.lemax.hotel.common.enums.DistanceEngine.VINCENTY;
+            default -> hr.lemax.hotel.common.enums.DistanceEngine.HAVERSINE;
+        };
+    }
+
+    /**
+     * @return stay, or {@code null} if neither date is set
+     */
+    private static Stay stay(final String checkIn, final String checkOut) {
+        if (checkIn.isEmpty() && checkOut.isEmpty()) {
+            return null;
+        }
+        try {
+            final LocalDate from = LocalDate.parse(checkIn);
+            final LocalDate to = LocalDate.parse(checkOut);
+            if (!to.isAfter(from)) {
+                throw invalid(Messages.Error.Availability.STAY_INVALID);
+            }
+            return new Stay(from, to);
+        } catch (final DateTimeParseException e) {
+            throw invalid(Messages.Error.Availability.STAY_INVALID);
+        }
+    }
+
+    private static StatusRuntimeException invalid(final String message) {
+        return Status.INVALID_ARGUMENT.withDescription(message).asRuntimeException();
+    }
+
+    private static StatusRuntimeException toStatus(final RuntimeException e) {
+        if (e instanceof StatusRuntimeException status) {
+            return status;
+        }
+        if (e instanceof HotelNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.error("Error while handling gRPC call: {}", e.getMessage());
+        return Status.INTERNAL.withDescription(e.getMessage()).asRuntimeException();
+    }
+
+    /**
+     * Client stream of a call that already failed, whose remaining messages are dropped.
+     */
+    private static class IgnoredStream<T> implements StreamObserver<T> {
+        @Override
+        public void onNext(final T value) {
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package hr.lemax.hotel.grpc;
+
+import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.model.Hotel;
+
+/**
+ * Conversion between hotels and their protobuf messages.
+ */
+final class HotelMessages {
+
+    private HotelMessages() {
+    }
+
+    static HotelMessage toMessage(final Hotel hotel) {
+        return HotelMessage.newBuilder()
+                .setId(hotel.getId())
+                .setName(hotel.getName())
+                .setPrice(hotel.getPrice())
+                .setLongitude(hotel.getLongitude())
+                .setLatitude(hotel.getLatitude())
+                .setDistance(hotel.getDistance())
+                .setVersion(hotel.getVersion())
+                .build();
+    }
+
+    static Hotel toHotel(final HotelMessage message) {
+        final Hotel hotel = new Hotel(message.getId(), message.getName(), message.getPrice(), message.getLongitude(), message.getLatitude());
+        hotel.setVersion(message.getVersion());
+        return hotel;
+    }
+
+    /**
+     * @return input as the DTO validated and mapped by the service, as for REST requests
+     */
+    static HotelModificationDTO toModificationDto(final HotelInput input) {
+        return new HotelModificationDTO(input.getName(), input.getPrice(), input.getLongitude(), input.getLatitude());
+    }
+}
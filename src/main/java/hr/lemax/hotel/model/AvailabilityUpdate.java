@@ -0,0 +1,14 @@
+package hr.lemax.hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * Change of the availability of a hotel on a range of days.
+ *
+ * @param hotelId hotel ID
+ * @param from first day
+ * @param to day after the last day
+ * @param available {@code true} if the hotel can be booked on the days, else {@code false}
+ */
+public record AvailabilityUpdate(long hotelId, LocalDate from, LocalDate to, boolean available) {
+}
@@ -0,0 +1,24 @@
+package hr.lemax.hotel.model;
+
+import hr.lemax.hotel.common.enums.BatchItemStatus;
+
+import java.util.List;
+
+/**
+ * Summary of a batch update or delete. Items that were applied or left unchanged are only
+ * counted, items that could not be applied are listed with their status.
+ *
+ * @param applied number of items applied, each creating a catalog version
+ * @param unchanged number of items that did not change anything
+ * @param rejected items not applied, in order of the batch
+ * @param version catalog version after the batch
+ */
+public record BatchResult(int applied, int unchanged, List<Item> rejected, long version) {
+
+    /**
+     * @param hotelId hotel ID of the item
+     * @param status why the item was not applied
+     */
+    public record Item(long hotelId, BatchItemStatus status) {
+    }
+}
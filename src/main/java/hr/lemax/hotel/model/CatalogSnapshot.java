@@ -0,0 +1,12 @@
+package hr.lemax.hotel.model;
+
+import java.util.List;
+
+/**
+ * Hotels of the catalog at a catalog version, see {@link hr.lemax.hotel.service.HotelService#getCatalogSnapshot()}.
+ *
+ * @param version catalog version
+ * @param hotels all hotels at the version
+ */
+public record CatalogSnapshot(long version, List<Hotel> hotels) {
+}
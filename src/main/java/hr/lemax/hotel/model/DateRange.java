@@ -0,0 +1,12 @@
+package hr.lemax.hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * Consecutive days from {@code from} up to, but not including, {@code to}.
+ *
+ * @param from first day
+ * @param to day after the last day
+ */
+public record DateRange(LocalDate from, LocalDate to) {
+}
@@ -2,6 +2,7 @@ package hr.lemax.hotel.model;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,8 +26,13 @@ public class Hotel {
     // Y axis
     private double latitude;
 
+    // Distance from the searched location, only set on search results and never stored
+    @Transient
     private double distance;
 
+    // Catalog version at which this hotel was last added or modified
+    private long version;
+
     public Hotel(Long id, String name, double price, double longitude, double latitude) {
         this.id = id;
         this.name = name;
@@ -34,4 +40,15 @@ public class Hotel {
         this.longitude = longitude;
         this.latitude = latitude;
     }
+
+    /**
+     * Create a copy of this hotel, e.g. to keep its state before a modification.
+     *
+     * @return new {@link Hotel} with the same ID, data and version
+     */
+    public Hotel copy() {
+        final Hotel copy = new Hotel(id, name, price, longitude, latitude);
+        copy.setVersion(version);
+        return copy;
+    }
 }
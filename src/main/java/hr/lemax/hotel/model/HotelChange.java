@@ -0,0 +1,32 @@
+package hr.lemax.hotel.model;
+
+import hr.lemax.hotel.common.enums.HotelChangeType;
+
+/**
+ * A single modification of the hotel catalog. Changes are published in the order of their
+ * catalog versions, which makes the version the sequence number of the change.
+ *
+ * @param type type of change
+ * @param version catalog version created by the change
+ * @param hotelId ID of the changed hotel, {@code null} for {@link HotelChangeType#IMPORTED}
+ * @param hotel copy of the hotel after the change, {@code null} if deleted or imported
+ * @param previous copy of the hotel before the change, {@code null} if added or imported
+ */
+public record HotelChange(HotelChangeType type, long version, Long hotelId, Hotel hotel, Hotel previous) {
+
+    public static HotelChange added(final Hotel hotel) {
+        return new HotelChange(HotelChangeType.ADDED, hotel.getVersion(), hotel.getId(), hotel.copy(), null);
+    }
+
+    public static HotelChange updated(final Hotel hotel, final Hotel previous) {
+        return new HotelChange(HotelChangeType.UPDATED, hotel.getVersion(), hotel.getId(), hotel.copy(), previous);
+    }
+
+    public static HotelChange deleted(final long version, final Hotel previous) {
+        return new HotelChange(HotelChangeType.DELETED, version, previous.getId(), null, previous);
+    }
+
+    public static HotelChange imported(final long version) {
+        return new HotelChange(HotelChangeType.IMPORTED, version, null, null, null);
+    }
+}
@@ -0,0 +1,15 @@
+package hr.lemax.hotel.model;
+
+/**
+ * Aggregate of the hotels in a Web Mercator map tile, see {@link hr.lemax.hotel.service.HotelTileIndex}.
+ *
+ * @param zoom zoom level of the tile
+ * @param x column of the tile, from west
+ * @param y row of the tile, from north
+ * @param count number of hotels in the tile
+ * @param longitude mean longitude of the hotels
+ * @param latitude mean latitude of the hotels
+ * @param minPrice price of the cheapest hotel
+ */
+public record HotelCluster(int zoom, int x, int y, int count, double longitude, double latitude, double minPrice) {
+}
@@ -0,0 +1,15 @@
+package hr.lemax.hotel.model;
+
+import java.util.List;
+
+/**
+ * Clusters of a map viewport.
+ *
+ * @param epoch number of times the tiles were rebuilt at a version not newer than before, so the
+ *              same version at another epoch may have other clusters
+ * @param version catalog version the clusters are at
+ * @param zoom zoom level of the clustered tiles
+ * @param clusters clusters of the non-empty tiles
+ */
+public record HotelClusters(long epoch, long version, int zoom, List<HotelCluster> clusters) {
+}
@@ -0,0 +1,15 @@
+package hr.lemax.hotel.model;
+
+import java.util.List;
+
+/**
+ * Net effect of the catalog changes between two versions, see
+ * {@link hr.lemax.hotel.service.HotelChangeLog#deltaSince(long)}.
+ *
+ * @param fromVersion catalog version the delta starts from
+ * @param toVersion catalog version reached by applying the delta
+ * @param changed hotels added or updated since {@code fromVersion}, in their state at {@code toVersion}
+ * @param deleted IDs of hotels deleted since {@code fromVersion}
+ */
+public record HotelDelta(long fromVersion, long toVersion, List<Hotel> changed, List<Long> deleted) {
+}
@@ -0,0 +1,10 @@
+package hr.lemax.hotel.model;
+
+/**
+ * New price of a hotel, an item of a batch price update.
+ *
+ * @param hotelId hotel ID
+ * @param price new price
+ */
+public record PriceUpdate(long hotelId, double price) {
+}
@@ -0,0 +1,25 @@
+package hr.lemax.hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * Nights a guest stays at a hotel, from the check-in date up to the check-out date.
+ *
+ * @param checkIn date of arrival, the first night
+ * @param checkOut date of departure, the day after the last night
+ */
+public record Stay(LocalDate checkIn, LocalDate checkOut) {
+
+    public Stay {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out must be after check-in: " + checkIn + ", " + checkOut);
+        }
+    }
+
+    /**
+     * @return number of nights
+     */
+    public long nights() {
+        return checkOut.toEpochDay() - checkIn.toEpochDay();
+    }
+}
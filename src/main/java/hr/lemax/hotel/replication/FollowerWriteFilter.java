@@ -0,0 +1,80 @@
+package hr.lemax.hotel.replication;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Redirects catalog modifications sent to a follower to the leader with
+ * {@code 307 Temporary Redirect}, which clients follow with the same method and body. Reads,
+ * including {@code POST} searches, are served by the follower, and so are geo-subscriptions,
+ * which each instance keeps for itself. Availability is set on the leader only and not
+ * replicated, so searches for a stay and reads of availability are redirected to the leader as
+ * well, instead of finding no available hotel.
+ */
+@Slf4j
+public class FollowerWriteFilter extends OncePerRequestFilter {
+    private static final Set<String> READ_METHODS = Set.of(
+            HttpMethod.GET.name(),
+            HttpMethod.HEAD.name(),
+            HttpMethod.OPTIONS.name());
+    private static final String SEARCH_PATH = "/hotels/search";
+    private static final String SUBSCRIPTIONS_PATH = "/hotels/subscriptions";
+    private static final String AVAILABILITY_PATH = "/availability";
+    private static final String CHECK_IN_PARAMETER = "checkIn";
+    private static final String CHECK_OUT_PARAMETER = "checkOut";
+
+    private final String leaderUrl;
+
+    /**
+     * @param leaderUrl base URL of the leader including the context path
+     */
+    public FollowerWriteFilter(final String leaderUrl) {
+        this.leaderUrl = leaderUrl.endsWith("/") ? leaderUrl.substring(0, leaderUrl.length() - 1) : leaderUrl;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull final HttpServletRequest request,
+            @NonNull final HttpServletResponse response,
+            @NonNull final FilterChain filterChain) throws ServletException, IOException {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ((READ_METHODS.contains(request.getMethod()) || isServedLocally(path)) && !readsAvailability(request, path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String location = leaderUrl + path + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        log.debug("Redirecting {} {} to leader", request.getMethod(), path);
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, location);
+    }
+
+    /**
+     * @param path request path without the context path
+     * @return {@code true} for searches, including paged ones, and geo-subscriptions
+     */
+    static boolean isServedLocally(final String path) {
+        return path.equals(SEARCH_PATH) || path.startsWith(SEARCH_PATH + "/")
+                || path.equals(SUBSCRIPTIONS_PATH) || path.startsWith(SUBSCRIPTIONS_PATH + "/");
+    }
+
+    /**
+     * @return {@code true} for searches for a stay and reads of availability, which only the leader has
+     */
+    private static boolean readsAvailability(final HttpServletRequest request, final String path) {
+        return path.endsWith(AVAILABILITY_PATH)
+                || request.getParameter(CHECK_IN_PARAMETER) != null
+                || request.getParameter(CHECK_OUT_PARAMETER) != null;
+    }
+}
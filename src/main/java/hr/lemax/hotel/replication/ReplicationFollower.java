@@ -0,0 +1,239 @@
+package hr.lemax.hotel.replication;
+
+import hr.lemax.hotel.catalog.CatalogFormat;
+import hr.lemax.hotel.catalog.CatalogReader;
+import hr.lemax.hotel.common.enums.HotelChangeType;
+import hr.lemax.hotel.dto.HotelChangeDTO;
+import hr.lemax.hotel.dto.HotelDTO;
+import hr.lemax.hotel.dto.ReplicationChangesDTO;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.service.HotelService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the catalog of a follower instance in sync with its leader. The follower bootstraps from
+ * a binary snapshot of the leader's catalog and then tails the leader's change log, applying each
+ * change to its own {@link HotelService} under the leader's IDs and versions, so the follower's
+ * catalog at version N is the leader's catalog at version N. Changes are pulled in pages on a
+ * fixed delay; a follower that falls behind the leader's log, or sees a bulk import, bootstraps
+ * again from a new snapshot. So does a follower ahead of a restarted leader, whose log no longer
+ * knows the follower's version.
+ */
+@Slf4j
+public class ReplicationFollower implements SmartLifecycle {
+    public enum State {
+        // Loading a snapshot of the leader's catalog
+        BOOTSTRAPPING,
+        // Applying the leader's changes
+        FOLLOWING,
+        // The last poll of the leader failed, retried with the next poll
+        DISCONNECTED
+    }
+
+    private final RestClient leader;
+    private final HotelService hotelService;
+    private final Duration pollInterval;
+    private final int pageSize;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+    private volatile State state = State.BOOTSTRAPPING;
+    private volatile boolean bootstrapRequired = true;
+    private volatile long leaderVersion;
+    // Time in milliseconds at which the follower last applied the latest version of the leader
+    private volatile long caughtUpAt;
+    private volatile String lastError;
+
+    public ReplicationFollower(
+            final RestClient leader,
+            final HotelService hotelService,
+            final Duration pollInterval,
+            final int pageSize,
+            final Clock clock) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.leader = leader;
+        this.hotelService = hotelService;
+        this.pollInterval = pollInterval;
+        this.pageSize = pageSize;
+        this.clock = clock;
+        this.caughtUpAt = clock.millis();
+    }
+
+    /**
+     * Bootstrap from a snapshot if needed and apply all changes the leader made since the last
+     * poll. Errors are logged and reported by {@link #getLastError()}, the next poll retries.
+     */
+    public synchronized void poll() {
+        try {
+            if (bootstrapRequired) {
+                bootstrap();
+            }
+            pullChanges();
+            lastError = null;
+        } catch (final HttpClientErrorException.Gone e) {
+            log.info("Changes after version {} are no longer available on the leader, bootstrapping again", hotelService.getCatalogVersion());
+            bootstrapRequired = true;
+            state = State.BOOTSTRAPPING;
+        } catch (final RuntimeException e) {
+            log.warn("Error while replicating from leader: {}", e.getMessage());
+            lastError = e.getMessage();
+            state = State.DISCONNECTED;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getAppliedVersion() {
+        return hotelService.getCatalogVersion();
+    }
+
+    /**
+     * @return latest catalog version of the leader as of the last successful poll
+     */
+    public long getLeaderVersion() {
+        return leaderVersion;
+    }
+
+    /**
+     * @return number of the leader's versions not applied yet, as of the last successful poll
+     */
+    public long getLagVersions() {
+        return Math.max(0, leaderVersion - getAppliedVersion());
+    }
+
+    /**
+     * Time lag of the follower. Changes the leader made since the last poll are not known yet, so
+     * the lag is measured from the last time the follower was caught up: a follower keeping up
+     * reports at most the poll interval plus the poll duration.
+     *
+     * @return milliseconds since the follower last applied the latest version of the leader
+     */
+    public long getLagMillis() {
+        return Math.max(0, clock.millis() - caughtUpAt);
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "replication-follower");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        final ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running != null) {
+            running.shutdownNow();
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void bootstrap() {
+        state = State.BOOTSTRAPPING;
+        final long start = System.nanoTime();
+        final CatalogFormat format = CatalogFormat.SNAPSHOT;
+        final long[] restored = new long[2];
+        leader.get()
+                .uri("/replication/snapshot")
+                .accept(MediaType.parseMediaType(format.getMediaType()))
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        throw new RestClientResponseException("Snapshot request failed",
+                                response.getStatusCode(), response.getStatusText(), response.getHeaders(), null, null);
+                    }
+                    try (CatalogReader reader = format.reader(response.getBody())) {
+                        restored[0] = reader.getCatalogVersion();
+                        restored[1] = hotelService.restoreCatalog(reader.hotels(), reader.getCatalogVersion());
+                    }
+                    return null;
+                });
+        bootstrapRequired = false;
+        // A restarted leader may be at a lower version than before
+        leaderVersion = restored[0];
+        log.info("Bootstrapped {} hotels at version {} from leader in {} ms",
+                restored[1], restored[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void pullChanges() {
+        while (true) {
+            final long version = hotelService.getCatalogVersion();
+            final ReplicationChangesDTO page = leader.get()
+                    .uri(uri -> uri.path("/replication/changes")
+                            .queryParam("sinceVersion", version)
+                            .queryParam("limit", pageSize)
+                            .build())
+                    .retrieve()
+                    .body(ReplicationChangesDTO.class);
+            if (page == null || page.getChanges() == null) {
+                throw new IllegalStateException("Empty response from leader");
+            }
+            leaderVersion = page.getLatestVersion();
+            for (final HotelChangeDTO change : page.getChanges()) {
+                if (change.getType() == HotelChangeType.IMPORTED) {
+                    log.info("Leader imported a catalog at version {}, bootstrapping again", change.getVersion());
+                    bootstrapRequired = true;
+                    state = State.BOOTSTRAPPING;
+                    return;
+                }
+                hotelService.applyChange(toChange(change));
+            }
+            state = State.FOLLOWING;
+            if (hotelService.getCatalogVersion() >= page.getLatestVersion()) {
+                caughtUpAt = clock.millis();
+            }
+            if (page.getChanges().size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    private static HotelChange toChange(final HotelChangeDTO change) {
+        return new HotelChange(
+                change.getType(),
+                change.getVersion(),
+                change.getId(),
+                change.getHotel() == null ? null : toHotel(change.getHotel(), change.getVersion()),
+                null);
+    }
+
+    private static Hotel toHotel(final HotelDTO dto, final long version) {
+        final Hotel hotel = new Hotel();
+        hotel.setId(dto.getId());
+        hotel.setName(dto.getName());
+        hotel.setPrice(dto.getPrice());
+        hotel.setLongitude(dto.getLongitude());
+        hotel.setLatitude(dto.getLatitude());
+        hotel.setVersion(version);
+        return hotel;
+    }
+}
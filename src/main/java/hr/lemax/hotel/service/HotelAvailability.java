@@ -0,0 +1,96 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.common.index.AvailabilityCalendar;
+import hr.lemax.hotel.common.strategy.FilteredHotelList;
+import hr.lemax.hotel.model.AvailabilityUpdate;
+import hr.lemax.hotel.model.DateRange;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.Stay;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Availability of the hotels of {@link HotelService}, modified by its writer and read by
+ * concurrent searches. The version is incremented on every modification, so searches for a
+ * stay are coalesced only while availability is unchanged.
+ */
+final class HotelAvailability {
+    private final AvailabilityCalendar calendar = new AvailabilityCalendar();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Apply updates in the given order, later updates of the same days win. Days before today
+     * are dropped.
+     *
+     * @param updates availability updates
+     * @param today first day kept
+     */
+    void update(final List<AvailabilityUpdate> updates, final LocalDate today) {
+        lock.writeLock().lock();
+        try {
+            calendar.removeBefore(today.toEpochDay());
+            for (final AvailabilityUpdate update : updates) {
+                calendar.set(update.hotelId(), update.from().toEpochDay(), update.to().toEpochDay(), update.available());
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all availability of a deleted hotel.
+     */
+    void remove(final long hotelId) {
+        lock.writeLock().lock();
+        try {
+            calendar.remove(hotelId);
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keep only the hotels available on every night of the stay. The calendar is read once per
+     * hotel record, so filtering costs a single pass over the records.
+     *
+     * @param hotels hotels to filter
+     * @param stay nights of the stay
+     * @return available hotels, in the order of the list
+     */
+    List<Hotel> filter(final List<Hotel> hotels, final Stay stay) {
+        lock.readLock().lock();
+        try {
+            return FilteredHotelList.of(hotels, calendar.available(stay.checkIn().toEpochDay(), stay.checkOut().toEpochDay()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param hotelId hotel ID
+     * @param from first day
+     * @param to day after the last day
+     * @return ranges of days on which the hotel is available, ordered by day
+     */
+    List<DateRange> ranges(final long hotelId, final LocalDate from, final LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return calendar.ranges(hotelId, from.toEpochDay(), to.toEpochDay()).stream()
+                    .map(range -> new DateRange(LocalDate.ofEpochDay(range.fromDay()), LocalDate.ofEpochDay(range.toDay())))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long getVersion() {
+        return version.get();
+    }
+}
@@ -0,0 +1,158 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.common.enums.HotelChangeType;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.sse.SseEvent;
+import hr.lemax.hotel.common.sse.SseSubscription;
+import hr.lemax.hotel.common.sse.SseSubscriptions;
+import hr.lemax.hotel.config.HotelChangeProperties;
+import hr.lemax.hotel.dto.HotelChangeDTO;
+import hr.lemax.hotel.dto.HotelDTO;
+import hr.lemax.hotel.model.HotelChange;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streams catalog changes to subscribers as server-sent events. The ID of each event is the
+ * catalog version of the change, so a client reconnecting with {@code Last-Event-ID} is first sent
+ * the changes it missed from the {@link HotelChangeLog}. If the log no longer holds them, or there
+ * are more than fit in the subscriber's buffer, the client is sent a {@code resync} event instead
+ * and has to reload the catalog.
+ */
+@Component
+// Created on startup even with lazy initialization, together with the change log it reads
+@Lazy(false)
+@Slf4j
+public class HotelChangeFeed implements HotelChangeListener, DisposableBean {
+    public static final String CONNECTED_EVENT = "connected";
+    public static final String RESYNC_EVENT = "resync";
+
+    private final HotelService hotelService;
+    private final HotelChangeLog changeLog;
+    private final ModelMapper mapper;
+    private final HotelChangeProperties properties;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final SseSubscriptions subscriptions;
+
+    public HotelChangeFeed(
+            final HotelService hotelService,
+            final HotelChangeLog changeLog,
+            final ModelMapper mapper,
+            final HotelChangeProperties properties) {
+        this.hotelService = hotelService;
+        this.changeLog = changeLog;
+        this.mapper = mapper;
+        this.properties = properties;
+        this.subscriptions = new SseSubscriptions(
+                "hotel-change",
+                properties.getSenderThreads(),
+                properties.getHeartbeatInterval(),
+                properties.getSubscriptionTimeout(),
+                properties.getSubscriberBuffer());
+        // Registered after the change log, so the log already holds every change the feed is notified of
+        hotelService.addChangeListener(this);
+    }
+
+    /**
+     * Subscribe to catalog changes.
+     *
+     * @param lastEventId version of the last change the client received, or {@code null} to receive
+     *                    only changes made from now on
+     * @return {@link SseEmitter} streaming the changes
+     * @throws ResponseStatusException with 503 status if there are too many subscribers
+     */
+    public synchronized SseEmitter subscribe(final Long lastEventId) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, Messages.Error.Changes.TOO_MANY_SUBSCRIBERS);
+        }
+        final SseSubscription subscription = subscriptions.open();
+        // Version of the latest change sent, later changes are sent as they are made
+        long version = changeLog.getLatestVersion();
+
+        if (lastEventId == null) {
+            subscription.offer(SseEvent.of(version, CONNECTED_EVENT, version));
+        } else {
+            // At most half of the buffer is replayed, a full buffer would disconnect the subscriber right away
+            final Optional<List<HotelChange>> missed = changeLog.since(lastEventId, properties.getSubscriberBuffer() / 2);
+            if (missed.isPresent()) {
+                subscription.offer(SseEvent.of(lastEventId, CONNECTED_EVENT, lastEventId));
+                version = lastEventId;
+                for (final HotelChange change : missed.get()) {
+                    subscription.offer(toEvent(change));
+                    version = change.version();
+                }
+            } else {
+                log.debug("Changes after version {} are no longer available, requesting resync", lastEventId);
+                subscription.offer(SseEvent.of(version, RESYNC_EVENT, version));
+            }
+        }
+
+        final Subscriber subscriber = new Subscriber(subscription, version);
+        subscribers.add(subscriber);
+        subscription.onClose(() -> subscribers.remove(subscriber));
+        return subscription.getEmitter();
+    }
+
+    /**
+     * Send change to all subscribers. Subscribers not keeping up are disconnected by their
+     * {@link SseSubscription}.
+     *
+     * @param change stored change
+     */
+    @Override
+    public synchronized void onChange(final HotelChange change) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        final SseEvent event = toEvent(change);
+        for (final Subscriber subscriber : subscribers) {
+            // Changes already replayed from the log while the subscriber was connecting are skipped,
+            // imports are not, a restored catalog may be at a lower version than the last change sent
+            if (change.version() > subscriber.lastVersion || change.type() == HotelChangeType.IMPORTED) {
+                subscriber.lastVersion = change.version();
+                subscriber.subscription.offer(event);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        hotelService.removeChangeListener(this);
+        subscriptions.close();
+    }
+
+    private SseEvent toEvent(final HotelChange change) {
+        final HotelChangeDTO dto = new HotelChangeDTO(
+                change.type(),
+                change.version(),
+                change.hotelId(),
+                change.hotel() == null ? null : mapper.map(change.hotel(), HotelDTO.class));
+        return SseEvent.of(change.version(), change.type().name().toLowerCase(Locale.ROOT), dto);
+    }
+
+    private static class Subscriber {
+        private final SseSubscription subscription;
+        // Version of the latest change offered to the subscriber, guarded by the feed
+        private long lastVersion;
+
+        private Subscriber(final SseSubscription subscription, final long lastVersion) {
+            this.subscription = subscription;
+            this.lastVersion = lastVersion;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.model.HotelChange;
+
+import java.util.List;
+
+/**
+ * Listener of hotel catalog modifications, see {@link HotelService#addChangeListener(HotelChangeListener)}.
+ */
+@FunctionalInterface
+public interface HotelChangeListener {
+
+    /**
+     * Called after a change is stored, by the writer thread of {@link HotelService} while further
+     * changes wait, so implementations must be quick.
+     * Hotels of the change are shared by all listeners and must not be modified.
+     *
+     * @param change the stored change
+     */
+    void onChange(HotelChange change);
+
+    /**
+     * Called after a batch of changes is stored, e.g. by a batch price update, with the changes in
+     * order of their versions. Implementations that are read concurrently override it to apply the
+     * whole batch at once, so readers see either none or all of it.
+     *
+     * @param changes the stored changes
+     */
+    default void onChanges(final List<HotelChange> changes) {
+        for (final HotelChange change : changes) {
+            onChange(change);
+        }
+    }
+}
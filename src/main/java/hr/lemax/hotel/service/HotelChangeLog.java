@@ -0,0 +1,270 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.common.enums.HotelChangeType;
+import hr.lemax.hotel.config.HotelChangeProperties;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.model.HotelDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Log of the most recent catalog changes, kept in a ring buffer of fixed capacity. Changes are
+ * dropped when the buffer is full or when they are older than the retention. Consumers that know
+ * the version they last saw can read the changes made since, as long as the log still holds them.
+ */
+@Component
+// Created on startup even with lazy initialization, so no change is missed
+@Lazy(false)
+public class HotelChangeLog implements HotelChangeListener {
+    private final HotelChange[] changes;
+    // Time in milliseconds at which each change was logged
+    private final long[] timestamps;
+    private final long retentionMillis;
+    private final Clock clock;
+    // Index of the oldest change in the ring
+    private int head;
+    private int size;
+    // All changes after this version are in the log
+    private long horizon;
+    private long latestVersion;
+    // Incremented when the log is reset by a restored catalog, see reset(long)
+    private long epoch;
+
+    @Autowired
+    public HotelChangeLog(final HotelService hotelService, final HotelChangeProperties properties) {
+        this(properties.getLogCapacity(), properties.getRetention(), hotelService.getCatalogVersion(), Clock.systemUTC());
+        hotelService.addChangeListener(this);
+    }
+
+    public HotelChangeLog(final int capacity, final long startVersion) {
+        this(capacity, Duration.ofMillis(Long.MAX_VALUE), startVersion, Clock.systemUTC());
+    }
+
+    public HotelChangeLog(final int capacity, final Duration retention, final long startVersion, final Clock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change log capacity must be positive: " + capacity);
+        }
+        this.changes = new HotelChange[capacity];
+        this.timestamps = new long[capacity];
+        this.retentionMillis = retention.toMillis();
+        this.clock = clock;
+        this.horizon = startVersion;
+        this.latestVersion = startVersion;
+    }
+
+    @Override
+    public synchronized void onChange(final HotelChange change) {
+        if (change.type() == HotelChangeType.IMPORTED && change.version() <= latestVersion) {
+            reset(change.version());
+            return;
+        }
+        final long now = clock.millis();
+        evictExpired(now);
+        if (size == changes.length) {
+            evictOldest();
+        }
+        final int index = (head + size) % changes.length;
+        changes[index] = change;
+        timestamps[index] = now;
+        size++;
+        latestVersion = change.version();
+    }
+
+    /**
+     * Get changes made after given version, in order of their versions.
+     *
+     * @param version catalog version the consumer last saw
+     * @return changes after the version, or empty {@link Optional} if the log no longer holds all of
+     * them or the version is unknown
+     */
+    public Optional<List<HotelChange>> since(final long version) {
+        return since(version, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get at most {@code maxChanges} changes made after given version, in order of their versions.
+     *
+     * @param version catalog version the consumer last saw
+     * @param maxChanges maximum number of changes the consumer can take
+     * @return changes after the version, or empty {@link Optional} if the log no longer holds all of
+     * them, there are more than {@code maxChanges} of them or the version is unknown
+     */
+    public synchronized Optional<List<HotelChange>> since(final long version, final int maxChanges) {
+        evictExpired(clock.millis());
+        if (version < horizon || version > latestVersion) {
+            return Optional.empty();
+        }
+        final int from = firstAfter(version);
+        if (size - from > maxChanges) {
+            return Optional.empty();
+        }
+        if (from == size) {
+            return Optional.of(Collections.emptyList());
+        }
+        final List<HotelChange> result = new ArrayList<>(size - from);
+        for (int i = from; i < size; i++) {
+            result.add(get(i));
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Get a page of the changes made after given version, in order of their versions. Unlike
+     * {@link #since(long, int)}, a consumer far behind gets the oldest changes it missed and reads
+     * the rest with further pages.
+     *
+     * @param version catalog version the consumer last saw
+     * @param limit maximum number of changes in the page
+     * @return at most {@code limit} changes following the version, or empty {@link Optional} if the
+     * log no longer holds all of them or the version is unknown
+     */
+    public synchronized Optional<List<HotelChange>> page(final long version, final int limit) {
+        evictExpired(clock.millis());
+        if (version < horizon || version > latestVersion) {
+            return Optional.empty();
+        }
+        final int from = firstAfter(version);
+        final int to = (int) Math.min(size, (long) from + limit);
+        final List<HotelChange> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(get(i));
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Get the net effect of the changes made after given version: the current state of hotels
+     * added or updated since, and IDs of hotels deleted since (tombstones). Hotels changed several
+     * times are included once.
+     *
+     * @param version catalog version the consumer last saw
+     * @return delta from the version to the latest version in the log, or empty {@link Optional} if
+     * the log no longer holds all changes since, the version is unknown or the changes include an
+     * import, after which the consumer has to reload the whole catalog
+     */
+    public synchronized Optional<HotelDelta> deltaSince(final long version) {
+        evictExpired(clock.millis());
+        if (version < horizon || version > latestVersion) {
+            return Optional.empty();
+        }
+        final Map<Long, Hotel> changed = new LinkedHashMap<>();
+        final Set<Long> deleted = new LinkedHashSet<>();
+        for (int i = firstAfter(version); i < size; i++) {
+            final HotelChange change = get(i);
+            if (change.type() == HotelChangeType.IMPORTED) {
+                return Optional.empty();
+            }
+            // Removed first, so hotels are ordered by their latest change
+            changed.remove(change.hotelId());
+            deleted.remove(change.hotelId());
+            if (change.type() == HotelChangeType.DELETED) {
+                deleted.add(change.hotelId());
+            } else {
+                changed.put(change.hotelId(), change.hotel());
+            }
+        }
+        return Optional.of(new HotelDelta(version, latestVersion, List.copyOf(changed.values()), List.copyOf(deleted)));
+    }
+
+    /**
+     * Get version of the latest change, or the catalog version at which the log was created if
+     * there was no change since.
+     *
+     * @return latest catalog version in the log
+     */
+    public synchronized long getLatestVersion() {
+        return latestVersion;
+    }
+
+    /**
+     * Get the version after which all changes are available in the log.
+     *
+     * @return oldest catalog version from which the log can be read
+     */
+    public synchronized long getHorizon() {
+        evictExpired(clock.millis());
+        return horizon;
+    }
+
+    /**
+     * Get the number of times the log was reset, so the same version at another epoch may stand for
+     * another catalog.
+     *
+     * @return current epoch of the log
+     */
+    public synchronized long getEpoch() {
+        return epoch;
+    }
+
+    public synchronized int size() {
+        evictExpired(clock.millis());
+        return size;
+    }
+
+    /**
+     * Drop all changes after a catalog was restored at a version not newer than the latest one, e.g.
+     * from a restarted leader. The logged changes no longer lead to the restored catalog, and their
+     * versions would be out of order with the changes that follow.
+     *
+     * @param version catalog version of the restored catalog
+     */
+    private void reset(final long version) {
+        Arrays.fill(changes, null);
+        head = 0;
+        size = 0;
+        horizon = version;
+        latestVersion = version;
+        epoch++;
+    }
+
+    private void evictExpired(final long now) {
+        while (size > 0 && now - timestamps[head] > retentionMillis) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+        horizon = changes[head].version();
+        changes[head] = null;
+        head = (head + 1) % changes.length;
+        size--;
+    }
+
+    /**
+     * Binary search of the first change after given version. Versions are increasing, but not
+     * necessarily consecutive.
+     *
+     * @return logical index of the first change after the version, {@code size} if there is none
+     */
+    private int firstAfter(final long version) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (get(mid).version() <= version) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private HotelChange get(final int index) {
+        return changes[(head + index) % changes.length];
+    }
+}
@@ -0,0 +1,218 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.common.enums.HotelChangeType;
+import hr.lemax.hotel.common.index.GeoPriceIndex;
+import hr.lemax.hotel.common.index.HotelPoint;
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.common.strategy.WeightedScoreTopK;
+import hr.lemax.hotel.config.HotelSearchProperties;
+import hr.lemax.hotel.model.CatalogSnapshot;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.store.HotelStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * {@link GeoPriceIndex} of the catalog, kept up to date with its changes, for searches that take
+ * hotels in nearest or cheapest order without ranking the whole catalog.
+ */
+@Component
+// Created on startup even with lazy initialization, so no change is missed
+@Lazy(false)
+@Slf4j
+public class HotelSearchIndex implements HotelChangeListener {
+    // Searches of an index that lags behind the catalog, before the changed hotels are re-scored
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final GeoPriceIndex index;
+    private final Supplier<CatalogSnapshot> catalog;
+    private final LongFunction<Optional<Hotel>> hotels;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Catalog version the index is at
+    private long version;
+    // Changes received while the initial catalog is loaded, null once loaded
+    private List<HotelChange> pending = new ArrayList<>();
+
+    @Autowired
+    public HotelSearchIndex(
+            final HotelService hotelService,
+            final HotelStore hotelStore,
+            final HotelSearchProperties properties) {
+        this(properties.getCellSize(), hotelService::getCatalogSnapshot, hotelStore::findById);
+        hotelService.addChangeListener(this);
+        load();
+    }
+
+    /**
+     * Create empty index. Changes are buffered until {@link #load()} is called.
+     *
+     * @param cellSize size of grid cells in degrees
+     * @param catalog snapshot of the whole catalog, taken on load and after bulk imports
+     * @param hotels hotels of the catalog by ID, looked up for every result of a search
+     */
+    public HotelSearchIndex(
+            final double cellSize,
+            final Supplier<CatalogSnapshot> catalog,
+            final LongFunction<Optional<Hotel>> hotels) {
+        this.index = new GeoPriceIndex(cellSize);
+        this.catalog = catalog;
+        this.hotels = hotels;
+    }
+
+    /**
+     * Load the catalog and apply changes received meanwhile. The snapshot is taken outside the lock,
+     * as changes are published while the catalog is locked by its writer.
+     */
+    public void load() {
+        while (true) {
+            final CatalogSnapshot snapshot = catalog.get();
+            lock.writeLock().lock();
+            try {
+                // The snapshot may or may not include a catalog imported or restored meanwhile, whose
+                // version tells nothing if it was restored at a lower one, so it is taken again
+                if (pending.stream().anyMatch(change -> change.type() == HotelChangeType.IMPORTED)) {
+                    pending.clear();
+                    continue;
+                }
+                rebuild(snapshot);
+                for (final HotelChange change : pending) {
+                    apply(change);
+                }
+                pending = null;
+                return;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void onChange(final HotelChange change) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                apply(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onChanges(final List<HotelChange> changes) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.addAll(changes);
+            } else {
+                changes.forEach(this::apply);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the hotels with the best weighted score of distance and price. Hotels are read from the
+     * catalog after the index is searched, and if any of them changed since it was indexed, the
+     * index is searched again once the change is applied to it. If it still is not after a few
+     * attempts, the changed hotels are re-scored in their current state instead.
+     *
+     * @param strategy weights and number of hotels
+     * @param longitude Longitude of the user's current location (X axis).
+     * @param latitude Latitude of the user's current location (Y axis).
+     * @return best hotels first, with their distances; hotels deleted since they were indexed are left out
+     */
+    public List<Hotel> search(final WeightedScoreTopK strategy, final double longitude, final double latitude) {
+        for (int attempt = 1; ; attempt++) {
+            final WeightedScoreTopK.TopK top;
+            lock.readLock().lock();
+            try {
+                top = strategy.search(index, longitude, latitude);
+            } finally {
+                lock.readLock().unlock();
+            }
+            log.debug("Weighted search examined {} of {} hotels", top.examined(), size());
+
+            final List<WeightedScoreTopK.Scored> found = new ArrayList<>(top.hotels().size());
+            final Map<Long, Hotel> current = new HashMap<>();
+            boolean changed = false;
+            for (final WeightedScoreTopK.Scored scored : top.hotels()) {
+                final Optional<Hotel> hotel = hotels.apply(scored.hotel().id());
+                if (hotel.isPresent() && hotel.get().getVersion() == scored.hotel().version()) {
+                    found.add(scored);
+                } else {
+                    changed = true;
+                    // Re-scored in its current state, used only if the index still lags on the last attempt
+                    hotel.ifPresent(h -> found.add(strategy.score(HotelPoint.of(h), longitude, latitude)));
+                }
+                hotel.ifPresent(h -> current.put(h.getId(), h));
+            }
+            if (changed && attempt < MAX_ATTEMPTS) {
+                // Stored, but not yet applied to the index by the writer, which does it right after
+                Thread.yield();
+                continue;
+            }
+            if (changed) {
+                log.debug("Hotels changed since the search, re-scored after {} attempts", attempt);
+                found.sort(WeightedScoreTopK.BEST_FIRST);
+            }
+            final List<Hotel> result = new ArrayList<>(found.size());
+            for (final WeightedScoreTopK.Scored scored : found) {
+                final Hotel copy = current.get(scored.hotel().id()).copy();
+                copy.setDistance(SortByDistanceAndPrice.round(scored.distance()));
+                result.add(copy);
+            }
+            return result;
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(final HotelChange change) {
+        if (change.type() == HotelChangeType.IMPORTED) {
+            // Bulk imports are published on the writer thread, which takes the snapshot right away.
+            // Rebuilt even if not newer, a restored catalog may be at a lower version than the index
+            rebuild(catalog.get());
+            return;
+        }
+        if (change.version() <= version) {
+            return;
+        }
+        if (change.hotel() != null) {
+            // Replaces the previous hotel, in place if it stays in its cell
+            index.put(HotelPoint.of(change.hotel()));
+        } else if (change.previous() != null) {
+            index.remove(change.previous().getId());
+        }
+        version = change.version();
+    }
+
+    private void rebuild(final CatalogSnapshot snapshot) {
+        index.clear();
+        snapshot.hotels().forEach(hotel -> index.put(HotelPoint.of(hotel)));
+        version = snapshot.version();
+    }
+}
@@ -1,35 +1,87 @@
 package hr.lemax.hotel.service;
 
+import hr.lemax.hotel.common.concurrency.SingleFlight;
+import hr.lemax.hotel.common.concurrency.SingleWriter;
+import hr.lemax.hotel.common.enums.BatchItemStatus;
 import hr.lemax.hotel.common.exception.HotelNotFoundException;
+import hr.lemax.hotel.common.profile.SearchProfile;
 import hr.lemax.hotel.common.strategy.HotelSortStrategy;
+import hr.lemax.hotel.common.util.PriceUtils;
+import hr.lemax.hotel.config.HotelWriterProperties;
 import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.model.AvailabilityUpdate;
+import hr.lemax.hotel.model.BatchResult;
+import hr.lemax.hotel.model.CatalogSnapshot;
+import hr.lemax.hotel.model.DateRange;
 import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.model.PriceUpdate;
+import hr.lemax.hotel.model.Stay;
+import hr.lemax.hotel.store.HeapHotelStore;
+import hr.lemax.hotel.store.HotelStore;
 import jakarta.validation.constraints.NotNull;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @Service
+// Created on startup even with lazy initialization, so the first request does not pay for it
+@Lazy(false)
 @Slf4j
-public class HotelService implements IHotelService {
-    private final List<Hotel> hotels;
+public class HotelService implements IHotelService, DisposableBean {
+    private final HotelStore hotelStore;
+    // Only accessed by the writer
     private long idCounter;
+    private final AtomicLong catalogVersion;
+    // Incremented when a restore does not move the catalog version forward, see getCatalogEpoch()
+    private final AtomicLong catalogEpoch;
+    private final SingleFlight<SearchKey, List<Hotel>> searches;
     private final ModelMapper mapper;
+    // Applies all modifications of the catalog one after another, so versions are assigned and published in order
+    private final SingleWriter writer;
+    private final List<HotelChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    // Modified by the writer only, read by searches
+    private final HotelAvailability availability = new HotelAvailability();
 
     public HotelService(final ModelMapper mapper) {
+        this(mapper, new HeapHotelStore());
+    }
+
+    public HotelService(final ModelMapper mapper, final HotelStore hotelStore) {
+        this(mapper, hotelStore, new HotelWriterProperties());
+    }
+
+    @Autowired
+    public HotelService(
+            final ModelMapper mapper,
+            final HotelStore hotelStore,
+            final HotelWriterProperties writerProperties) {
         this.mapper = mapper;
         this.idCounter = 1;
-        this.hotels = new ArrayList<>();
+        this.catalogVersion = new AtomicLong();
+        this.catalogEpoch = new AtomicLong();
+        this.searches = new SingleFlight<>();
+        this.hotelStore = hotelStore;
+        this.writer = new SingleWriter("hotel-writer", writerProperties.getQueueCapacity(), writerProperties.getBatchSize());
     }
 
     /**
@@ -41,7 +93,7 @@ public class HotelService implements IHotelService {
     public List<Hotel> getAllHotels() {
         try {
             log.info("getAllHotels() called");
-            return hotels;
+            return hotelStore.findAll();
         } catch (final Exception e) {
             log.error("Error while fetching hotels: {}", e.getMessage());
             throw new RuntimeException(e);
@@ -59,9 +111,7 @@ public class HotelService implements IHotelService {
         try {
             log.info("getHotelById() called with ID: {}", id);
 
-            return hotels.stream()
-                    .filter(hotel -> hotel.getId().equals(id))
-                    .findFirst();
+            return hotelStore.findById(id);
         } catch (final Exception e) {
             log.error("Error while fetching hotel by ID: {}, error: {}", id, e.getMessage());
             throw new RuntimeException(e);
@@ -77,15 +127,20 @@ public class HotelService implements IHotelService {
     @Override
     public Hotel addHotel(@NonNull final HotelModificationDTO hotelDto) {
         try {
-            log.debug("addHotel() called for ID: {} with data: {}", idCounter, hotelDto);
+            log.debug("addHotel() called with data: {}", hotelDto);
 
             final Hotel hotel = mapper.map(hotelDto, Hotel.class);
-            hotel.setId(idCounter);
+            hotel.setPrice(PriceUtils.round(hotel.getPrice()));
+            return writer.execute(() -> {
+                hotel.setId(idCounter);
+                hotel.setVersion(catalogVersion.incrementAndGet());
 
-            hotels.add(hotel);
-            // If everything is fine increment id counter
-            idCounter++;
-            return hotel;
+                hotelStore.save(hotel);
+                // If everything is fine increment id counter
+                idCounter++;
+                publish(HotelChange.added(hotel));
+                return hotel;
+            });
         } catch (final Exception e) {
             log.error("Error while add new hotel: {}", e.getMessage());
             throw new RuntimeException(e);
@@ -106,14 +161,21 @@ public class HotelService implements IHotelService {
         try {
             log.debug("updateHotel() called for ID: {} with data: {}", id, updatedHotelDto);
 
-            // Fetch existing hotel
-            final Hotel hotel = getHotelById(id).orElseThrow();
-            log.debug("Existing hotel fetched: {}", hotel);
+            return writer.execute(() -> {
+                // Fetch existing hotel
+                final Hotel previous = getHotelById(id).orElseThrow();
+                log.debug("Existing hotel fetched: {}", previous);
 
-            // Map (update) fields from update DTO to hotel
-            mapper.map(updatedHotelDto, hotel);
+                // Map (update) fields from update DTO to a copy, readers may still hold the existing hotel
+                final Hotel hotel = previous.copy();
+                mapper.map(updatedHotelDto, hotel);
+                hotel.setPrice(PriceUtils.round(hotel.getPrice()));
+                hotel.setVersion(catalogVersion.incrementAndGet());
+                hotelStore.save(hotel);
+                publish(HotelChange.updated(hotel, previous));
 
-            return hotel;
+                return hotel;
+            });
         } catch (final NoSuchElementException e) {
             log.error("Error while fetching hotel with id: {}, error: {}", id, e.getMessage());
             throw new HotelNotFoundException(id);
@@ -133,10 +195,15 @@ public class HotelService implements IHotelService {
         try {
             log.info("delete() called with ID: {}", id);
 
-            final Hotel hotel = getHotelById(id).orElseThrow();
+            writer.execute(() -> {
+                final Hotel hotel = getHotelById(id).orElseThrow();
 
-            log.debug("Deleting hotel: {}", hotel);
-            hotels.removeIf(hotelForRemove -> hotelForRemove.getId().equals(id));
+                log.debug("Deleting hotel: {}", hotel);
+                hotelStore.delete(id);
+                availability.remove(id);
+                publish(HotelChange.deleted(catalogVersion.incrementAndGet(), hotel.copy()));
+                return hotel;
+            });
         } catch (final NoSuchElementException e) {
             log.error("Error while fetching hotel with id: {}, error: {}", id, e.getMessage());
             throw new HotelNotFoundException(id);
@@ -146,6 +213,337 @@ public class HotelService implements IHotelService {
         }
     }
 
+    /**
+     * Update prices of hotels in bulk, in a single task of the writer, so no other modification is
+     * applied in between. Each changed price creates a catalog version of its own, updates with the
+     * price already set are skipped without storing anything. Prices are rounded to minor units, see
+     * {@link PriceUtils}, so a price that rounds to the one set is unchanged, and one that rounds to
+     * zero or out of range is invalid. Listeners are notified of all changes of the batch at once,
+     * see {@link HotelChangeListener#onChanges(List)}, also of those stored before the store failed
+     * in the middle of the batch.
+     *
+     * @param updates price updates, applied in order, so a later update of the same hotel wins
+     * @return summary of the batch
+     */
+    public BatchResult updatePrices(@NonNull final List<PriceUpdate> updates) {
+        try {
+            log.info("updatePrices() called with {} updates", updates.size());
+
+            return writer.execute(() -> {
+                final List<HotelChange> changes = new ArrayList<>();
+                final List<BatchResult.Item> rejected = new ArrayList<>();
+                int unchanged = 0;
+                try {
+                    for (final PriceUpdate update : updates) {
+                        if (!PriceUtils.isValid(update.price())) {
+                            rejected.add(new BatchResult.Item(update.hotelId(), BatchItemStatus.INVALID));
+                            continue;
+                        }
+                        final Optional<Hotel> previous = hotelStore.findById(update.hotelId());
+                        if (previous.isEmpty()) {
+                            rejected.add(new BatchResult.Item(update.hotelId(), BatchItemStatus.NOT_FOUND));
+                            continue;
+                        }
+                        // Compared in minor units, as prices are stored
+                        if (PriceUtils.isSame(previous.get().getPrice(), update.price())) {
+                            unchanged++;
+                            continue;
+                        }
+                        // Readers may still hold the existing hotel
+                        final Hotel hotel = previous.get().copy();
+                        hotel.setPrice(PriceUtils.round(update.price()));
+                        hotel.setVersion(catalogVersion.incrementAndGet());
+                        hotelStore.save(hotel);
+                        changes.add(HotelChange.updated(hotel, previous.get()));
+                    }
+                } finally {
+                    // Also if the store fails mid-batch, the updates stored before stay
+                    publish(changes);
+                }
+                return new BatchResult(changes.size(), unchanged, rejected, catalogVersion.get());
+            });
+        } catch (final Exception e) {
+            log.error("Error while updating prices: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Delete hotels in bulk, in a single task of the writer, so no other modification is applied in
+     * between. Each deleted hotel creates a catalog version of its own. Listeners are notified of
+     * all changes of the batch at once, see {@link HotelChangeListener#onChanges(List)}, also of
+     * those applied before the store failed in the middle of the batch.
+     *
+     * @param ids IDs of hotels to delete
+     * @return summary of the batch
+     */
+    public BatchResult deleteHotels(@NonNull final List<Long> ids) {
+        try {
+            log.info("deleteHotels() called with {} IDs", ids.size());
+
+            return writer.execute(() -> {
+                final List<HotelChange> changes = new ArrayList<>();
+                final List<BatchResult.Item> rejected = new ArrayList<>();
+                try {
+                    for (final Long id : ids) {
+                        final Optional<Hotel> hotel = hotelStore.findById(id);
+                        if (hotel.isEmpty()) {
+                            rejected.add(new BatchResult.Item(id, BatchItemStatus.NOT_FOUND));
+                            continue;
+                        }
+                        hotelStore.delete(id);
+                        availability.remove(id);
+                        changes.add(HotelChange.deleted(catalogVersion.incrementAndGet(), hotel.get().copy()));
+                    }
+                } finally {
+                    // Also if the store fails mid-batch, the deletes applied before stay
+                    publish(changes);
+                }
+                return new BatchResult(changes.size(), 0, rejected, catalogVersion.get());
+            });
+        } catch (final Exception e) {
+            log.error("Error while deleting hotels: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Import hotels in bulk, e.g. a catalog preloaded on startup. Hotels keep their IDs, hotels
+     * without ID get the next free one, and all imported hotels share a single new catalog version.
+     * Hotels with an ID that is already present replace the existing hotel. Prices are rounded to
+     * minor units, see {@link PriceUtils}, and a hotel with an invalid price fails the import before
+     * it is stored. Hotels imported before it are kept, so listeners are notified with a single
+     * {@link hr.lemax.hotel.common.enums.HotelChangeType#IMPORTED} change whether the import fails or not.
+     *
+     * @param hotels {@link Stream} of hotels to import
+     * @return number of imported hotels
+     */
+    @Override
+    public long importHotels(@NonNull final Stream<Hotel> hotels) {
+        try {
+            log.info("importHotels() called");
+
+            return writer.execute(() -> {
+                final long version = catalogVersion.incrementAndGet();
+                final long[] count = new long[1];
+                try {
+                    hotels.forEach(hotel -> {
+                        if (!PriceUtils.isValid(hotel.getPrice())) {
+                            throw new IllegalArgumentException("Invalid price of imported hotel " + (count[0] + 1) + ": " + hotel.getPrice());
+                        }
+                        hotel.setPrice(PriceUtils.round(hotel.getPrice()));
+                        if (hotel.getId() == null || hotel.getId() <= 0) {
+                            hotel.setId(idCounter++);
+                        } else {
+                            idCounter = Math.max(idCounter, hotel.getId() + 1);
+                        }
+                        hotel.setVersion(version);
+                        hotelStore.save(hotel);
+                        count[0]++;
+                    });
+                } finally {
+                    // Also for a failed import, the hotels stored before the failure are at the new version
+                    publish(HotelChange.imported(version));
+                }
+                return count[0];
+            });
+        } catch (final Exception e) {
+            log.error("Error while importing hotels: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Replace the whole catalog with a snapshot of another instance, e.g. when a replica starts
+     * following its leader. Hotels keep their IDs and versions, hotels missing from the snapshot
+     * are deleted and the catalog version is set to the version of the snapshot. The version of the
+     * snapshot may not be newer than the current one, e.g. after the leader restarted, and then the
+     * catalog epoch is incremented, see {@link #getCatalogEpoch()}. Listeners are notified with a
+     * single {@link hr.lemax.hotel.common.enums.HotelChangeType#IMPORTED} change, also when it is
+     * not newer than the changes they were notified of before.
+     *
+     * @param hotels {@link Stream} of all hotels of the snapshot
+     * @param version catalog version of the snapshot
+     * @return number of restored hotels
+     */
+    public long restoreCatalog(@NonNull final Stream<Hotel> hotels, final long version) {
+        try {
+            log.info("restoreCatalog() called for version: {}", version);
+
+            return writer.execute(() -> {
+                final Set<Long> staleIds = new HashSet<>();
+                hotelStore.findAll().forEach(hotel -> staleIds.add(hotel.getId()));
+                final long[] count = new long[1];
+                hotels.forEach(hotel -> {
+                    staleIds.remove(hotel.getId());
+                    idCounter = Math.max(idCounter, hotel.getId() + 1);
+                    hotelStore.save(hotel);
+                    count[0]++;
+                });
+                staleIds.forEach(id -> {
+                    hotelStore.delete(id);
+                    availability.remove(id);
+                });
+                if (version <= catalogVersion.get()) {
+                    catalogEpoch.incrementAndGet();
+                }
+                catalogVersion.set(version);
+                publish(HotelChange.imported(version));
+                return count[0];
+            });
+        } catch (final Exception e) {
+            log.error("Error while restoring catalog: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Apply change made by another instance, e.g. a change replicated from the leader. The hotel
+     * keeps its ID and the catalog version is set to the version of the change. Changes not newer
+     * than the current catalog version were already applied and are skipped.
+     *
+     * @param change added, updated or deleted hotel with its version
+     * @return {@code true} if applied, {@code false} if skipped
+     */
+    public boolean applyChange(@NonNull final HotelChange change) {
+        try {
+            log.debug("applyChange() called for ID: {} at version: {}", change.hotelId(), change.version());
+
+            return writer.execute(() -> {
+                if (change.version() <= catalogVersion.get()) {
+                    return false;
+                }
+                final Optional<Hotel> previous = hotelStore.findById(change.hotelId());
+                switch (change.type()) {
+                    case ADDED, UPDATED -> {
+                        final Hotel hotel = change.hotel().copy();
+                        hotel.setVersion(change.version());
+                        hotelStore.save(hotel);
+                        idCounter = Math.max(idCounter, hotel.getId() + 1);
+                        catalogVersion.set(change.version());
+                        publish(previous.isPresent() ? HotelChange.updated(hotel, previous.get()) : HotelChange.added(hotel));
+                    }
+                    case DELETED -> {
+                        hotelStore.delete(change.hotelId());
+                        availability.remove(change.hotelId());
+                        catalogVersion.set(change.version());
+                        publish(new HotelChange(change.type(), change.version(), change.hotelId(), null, previous.orElse(null)));
+                    }
+                    default -> throw new IllegalArgumentException("Change can not be applied: " + change.type());
+                }
+                return true;
+            });
+        } catch (final Exception e) {
+            log.error("Error while applying change at version: {}, error: {}", change.version(), e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Update availability of hotels in bulk. Updates are applied in the given order, so a later
+     * update of the same days wins. Either all updates are applied, or none if any hotel does not
+     * exist. Availability before today is dropped.
+     *
+     * @param updates availability updates
+     * @return number of applied updates
+     */
+    public int updateAvailability(@NonNull final List<AvailabilityUpdate> updates) {
+        try {
+            log.info("updateAvailability() called with {} updates", updates.size());
+
+            return writer.execute(() -> {
+                for (final AvailabilityUpdate update : updates) {
+                    if (hotelStore.findById(update.hotelId()).isEmpty()) {
+                        throw new HotelNotFoundException(update.hotelId());
+                    }
+                }
+                availability.update(updates, LocalDate.now());
+                return updates.size();
+            });
+        } catch (final HotelNotFoundException e) {
+            log.error("Error while updating availability: {}", e.getMessage());
+            throw e;
+        } catch (final Exception e) {
+            log.error("Error while updating availability: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get days on which hotel is available.
+     *
+     * @param id Hotel ID
+     * @param from first day
+     * @param to day after the last day
+     * @return ranges of consecutive available days between the given days, ordered by day
+     */
+    public List<DateRange> getAvailability(@NonNull final Long id, @NonNull final LocalDate from, @NonNull final LocalDate to) {
+        log.info("getAvailability() called with ID: {} from: {} to: {}", id, from, to);
+
+        if (hotelStore.findById(id).isEmpty()) {
+            throw new HotelNotFoundException(id);
+        }
+        return availability.ranges(id, from, to);
+    }
+
+    /**
+     * Get all hotels together with the catalog version they are at.
+     *
+     * @return consistent {@link CatalogSnapshot}
+     */
+    public CatalogSnapshot getCatalogSnapshot() {
+        try {
+            log.info("getCatalogSnapshot() called");
+
+            // Taken by the writer, so no modification falls between reading the version and the hotels
+            return writer.execute(() -> new CatalogSnapshot(catalogVersion.get(), hotelStore.findAll()));
+        } catch (final Exception e) {
+            log.error("Error while taking catalog snapshot: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get current catalog version. The version is incremented on every add, update and delete,
+     * so it changes whenever the content of {@link #getAllHotels()} changes.
+     *
+     * @return current catalog version
+     */
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * Get current catalog epoch. The epoch is incremented when a restored catalog is not at a newer
+     * version than the current one, so the catalog at a given version and epoch always has the same
+     * content, even if it was at the same version before with other content.
+     *
+     * @return current catalog epoch, {@code 0} until such a restore
+     */
+    public long getCatalogEpoch() {
+        return catalogEpoch.get();
+    }
+
+    /**
+     * Register listener notified of every catalog change after it is stored, in the order of
+     * catalog versions.
+     *
+     * @param listener {@link HotelChangeListener} to add
+     */
+    public void addChangeListener(@NonNull final HotelChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Remove listener registered with {@link #addChangeListener(HotelChangeListener)}.
+     *
+     * @param listener {@link HotelChangeListener} to remove
+     */
+    public void removeChangeListener(@NonNull final HotelChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
     /**
      * Searches for hotels based on the user's current geographical location.
      * The method returns a list of hotels sorted primarily by distance from the user's location
@@ -162,8 +560,27 @@ public class HotelService implements IHotelService {
             @NonNull final Double currentLon,
             @NonNull final Double currentLat,
             @NotNull final HotelSortStrategy sortStrategy) {
+        return searchHotels(currentLon, currentLat, sortStrategy, null);
+    }
+
+    /**
+     * Searches for hotels available for a stay based on the user's current geographical location.
+     * Hotels not available on every night of the stay are left out before the rest are sorted.
+     *
+     * @param currentLon Longitude of the user's current location (X axis).
+     * @param currentLat Latitude of the user's current location (Y axis).
+     * @param sortStrategy Strategy of sorting hotels.
+     * @param stay Nights of the stay, all hotels if {@code null}.
+     * @return A sorted list of available {@link Hotel} objects.
+     */
+    @Override
+    public List<Hotel> searchHotels(
+            @NonNull final Double currentLon,
+            @NonNull final Double currentLat,
+            @NotNull final HotelSortStrategy sortStrategy,
+            final Stay stay) {
         try {
-            return sortStrategy.sort(hotels, currentLon, currentLat);
+            return sortCoalesced(currentLon, currentLat, sortStrategy, stay);
         } catch (final Exception e) {
             log.error("Error while searching hotels: {}", e.getMessage());
             throw new RuntimeException(e);
@@ -188,9 +605,30 @@ public class HotelService implements IHotelService {
             @NonNull final Double currentLat,
             @NotNull final HotelSortStrategy sortStrategy,
             @NonNull final Pageable pageable) {
+        return searchHotelsByPage(currentLon, currentLat, sortStrategy, null, pageable);
+    }
+
+    /**
+     * Searches for hotels available for a stay based on the user's current geographical location,
+     * paginated. Hotels not available on every night of the stay are left out before the rest are sorted.
+     *
+     * @param currentLon Longitude of the user's current location (X axis).
+     * @param currentLat Latitude of the user's current location (Y axis).
+     * @param sortStrategy Strategy of sorting hotels.
+     * @param stay Nights of the stay, all hotels if {@code null}.
+     * @param pageable Pageable object for pagination, containing page number, size, and sort.
+     * @return A paginated and sorted list of available {@link Hotel} objects.
+     */
+    @Override
+    public Page<Hotel> searchHotelsByPage(
+            @NonNull final Double currentLon,
+            @NonNull final Double currentLat,
+            @NotNull final HotelSortStrategy sortStrategy,
+            final Stay stay,
+            @NonNull final Pageable pageable) {
         try {
             // Sort hotels using the given sorting strategy
-            final List<Hotel> sortedHotels = sortStrategy.sort(hotels, currentLon, currentLat);
+            final List<Hotel> sortedHotels = sortCoalesced(currentLon, currentLat, sortStrategy, stay);
 
             // Create a paginated view of the sorted hotels list
             int pageSize = pageable.getPageSize();
@@ -206,6 +644,7 @@ public class HotelService implements IHotelService {
                 int toIndex = Math.min(startItem + pageSize, sortedHotels.size());
                 paginatedHotels = sortedHotels.subList(startItem, toIndex);
             }
+            SearchProfile.mark(SearchProfile.Stage.PAGINATION);
 
             return new PageImpl<>(paginatedHotels, pageable, sortedHotels.size());
         } catch (final Exception e) {
@@ -214,4 +653,83 @@ public class HotelService implements IHotelService {
         }
     }
 
+    /**
+     * Sort hotels with given strategy. Concurrent searches for the same location, strategy, stay,
+     * catalog version and availability version share a single sort computation instead of each
+     * sorting the catalog. Hotels not available for the stay are filtered out of the records
+     * before sorting, so they are neither ranked nor materialized.
+     *
+     * @param currentLon Longitude of the user's current location (X axis).
+     * @param currentLat Latitude of the user's current location (Y axis).
+     * @param sortStrategy Strategy of sorting hotels.
+     * @param stay Nights of the stay, all hotels if {@code null}.
+     * @return sorted hotels, shared with concurrent identical searches
+     */
+    private List<Hotel> sortCoalesced(
+            final Double currentLon,
+            final Double currentLat,
+            final HotelSortStrategy sortStrategy,
+            final Stay stay) {
+        final SearchKey key = SearchKey.of(currentLon, currentLat, sortStrategy, stay,
+                catalogVersion.get(), stay != null ? availability.getVersion() : 0);
+        final boolean[] computed = new boolean[1];
+        final List<Hotel> sorted = searches.execute(key, () -> {
+            computed[0] = true;
+            List<Hotel> hotels = hotelStore.findAll();
+            if (stay != null) {
+                hotels = availability.filter(hotels, stay);
+                SearchProfile.mark(SearchProfile.Stage.FILTER);
+            }
+            return sortStrategy.sort(hotels, currentLon, currentLat);
+        });
+        if (!computed[0]) {
+            // Joined an identical search of another thread, which did the work
+            SearchProfile.addCacheHit();
+            SearchProfile.mark(SearchProfile.Stage.WAIT);
+        }
+        return sorted;
+    }
+
+    /**
+     * Stop the writer after applying modifications already submitted.
+     */
+    @Override
+    public void destroy() {
+        writer.close();
+    }
+
+    /**
+     * Notify listeners of a stored change. Called by the writer; a failing
+     * listener does not fail the change nor other listeners.
+     *
+     * @param change stored change
+     */
+    private void publish(final HotelChange change) {
+        for (final HotelChangeListener listener : changeListeners) {
+            try {
+                listener.onChange(change);
+            } catch (final Exception e) {
+                log.error("Error while notifying listener of change at version {}: {}", change.version(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Notify listeners of a batch of stored changes, in order of their versions.
+     *
+     * @param changes stored changes
+     */
+    private void publish(final List<HotelChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (final HotelChangeListener listener : changeListeners) {
+            try {
+                listener.onChanges(changes);
+            } catch (final Exception e) {
+                log.error("Error while notifying listener of {} changes up to version {}: {}",
+                        changes.size(), changes.get(changes.size() - 1).version(), e.getMessage());
+            }
+        }
+    }
 }
@@ -0,0 +1,283 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.common.enums.HotelChangeType;
+import hr.lemax.hotel.common.enums.Messages;
+import hr.lemax.hotel.common.exception.GeoSubscriptionNotFoundException;
+import hr.lemax.hotel.common.index.GeoSubscription;
+import hr.lemax.hotel.common.index.GeoSubscriptionIndex;
+import hr.lemax.hotel.common.sse.SseEvent;
+import hr.lemax.hotel.common.sse.SseSubscription;
+import hr.lemax.hotel.common.sse.SseSubscriptions;
+import hr.lemax.hotel.config.HotelSubscriptionProperties;
+import hr.lemax.hotel.dto.GeoSubscriptionEventDTO;
+import hr.lemax.hotel.dto.HotelSearchDTO;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Standing geo-subscriptions, notified of hotels entering their area. Subscriptions are kept in a
+ * {@link GeoSubscriptionIndex}, so each added or updated hotel is tested against the subscriptions
+ * around it only, and the cost of notifying grows with the number of changes instead of the number
+ * of subscriptions times the catalog.
+ * <p>
+ * A hotel enters a subscription when it is added matching it, or updated to match it while its
+ * previous state did not, e.g. moved into the radius or its price lowered to the cap. Matches are
+ * sent as server-sent events to the stream of the subscription, if one is connected; matches made
+ * while it is not are not kept. Bulk imports replace the catalog and are not matched.
+ */
+@Component
+// Created on startup even with lazy initialization, so no change is missed
+@Lazy(false)
+@Slf4j
+public class HotelSubscriptionFeed implements HotelChangeListener, DisposableBean {
+    public static final String CONNECTED_EVENT = "connected";
+    public static final String ENTERED_EVENT = "entered";
+
+    private final HotelService hotelService;
+    private final ModelMapper mapper;
+    private final HotelSubscriptionProperties properties;
+    private final GeoSubscriptionIndex index;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong idCounter = new AtomicLong(1);
+    // Connected stream of each subscription
+    private final Map<Long, SseSubscription> streams = new ConcurrentHashMap<>();
+    private final SseSubscriptions subscriptions;
+
+    public HotelSubscriptionFeed(
+            final HotelService hotelService,
+            final ModelMapper mapper,
+            final HotelSubscriptionProperties properties) {
+        this.hotelService = hotelService;
+        this.mapper = mapper;
+        this.properties = properties;
+        this.index = new GeoSubscriptionIndex(properties.getCellSize());
+        this.subscriptions = new SseSubscriptions(
+                "hotel-subscription",
+                properties.getSenderThreads(),
+                properties.getHeartbeatInterval(),
+                properties.getStreamTimeout(),
+                properties.getSubscriberBuffer());
+        hotelService.addChangeListener(this);
+    }
+
+    /**
+     * Register a standing query.
+     *
+     * @param longitude longitude of the location
+     * @param latitude latitude of the location
+     * @param radius radius in kilometers
+     * @param maxPrice highest price matched, {@code null} for any price
+     * @return created subscription
+     * @throws ResponseStatusException with 400 status if the radius is over the maximum, or 503 status
+     * if there are too many subscriptions
+     */
+    public GeoSubscription create(final double longitude, final double latitude, final double radius, final Double maxPrice) {
+        checkRadius(radius);
+        lock.writeLock().lock();
+        try {
+            if (index.size() >= properties.getMaxSubscriptions()) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, Messages.Error.Subscriptions.TOO_MANY_SUBSCRIPTIONS);
+            }
+            final GeoSubscription subscription = new GeoSubscription(idCounter.getAndIncrement(), longitude, latitude, radius, maxPrice);
+            index.put(subscription);
+            log.debug("Subscription {} created", subscription.id());
+            return subscription;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the area and price cap of a subscription, keeping its stream connected.
+     *
+     * @return updated subscription
+     * @throws GeoSubscriptionNotFoundException if there is no subscription with the given ID
+     */
+    public GeoSubscription update(final long id, final double longitude, final double latitude, final double radius, final Double maxPrice) {
+        checkRadius(radius);
+        lock.writeLock().lock();
+        try {
+            if (index.get(id) == null) {
+                throw new GeoSubscriptionNotFoundException(id);
+            }
+            final GeoSubscription subscription = new GeoSubscription(id, longitude, latitude, radius, maxPrice);
+            index.put(subscription);
+            return subscription;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @throws GeoSubscriptionNotFoundException if there is no subscription with the given ID
+     */
+    public GeoSubscription get(final long id) {
+        lock.readLock().lock();
+        try {
+            final GeoSubscription subscription = index.get(id);
+            if (subscription == null) {
+                throw new GeoSubscriptionNotFoundException(id);
+            }
+            return subscription;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Delete a subscription and close its stream.
+     *
+     * @throws GeoSubscriptionNotFoundException if there is no subscription with the given ID
+     */
+    public void delete(final long id) {
+        lock.writeLock().lock();
+        try {
+            if (index.remove(id) == null) {
+                throw new GeoSubscriptionNotFoundException(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        final SseSubscription stream = streams.remove(id);
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Connect the event stream of a subscription. A subscription has a single stream, connecting
+     * again closes the previous one.
+     *
+     * @return {@link SseEmitter} streaming hotels entering the subscription
+     * @throws GeoSubscriptionNotFoundException if there is no subscription with the given ID
+     */
+    public SseEmitter stream(final long id) {
+        final SseSubscription stream;
+        final SseSubscription previous;
+        // Under the lock, so a stream is not connected to a subscription being deleted
+        lock.readLock().lock();
+        try {
+            // Before the stream is created, so a missing subscription leaves no emitter or send task behind
+            if (index.get(id) == null) {
+                throw new GeoSubscriptionNotFoundException(id);
+            }
+            stream = subscriptions.open();
+            final long version = hotelService.getCatalogVersion();
+            stream.offer(SseEvent.of(version, CONNECTED_EVENT, version));
+            previous = streams.put(id, stream);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (previous != null) {
+            previous.close();
+        }
+        stream.onClose(() -> streams.remove(id, stream));
+        return stream.getEmitter();
+    }
+
+    public int getSubscriptionCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Send the hotel of the change to the subscriptions it entered.
+     *
+     * @param change stored change
+     */
+    @Override
+    public void onChange(final HotelChange change) {
+        if (change.type() == HotelChangeType.DELETED || change.type() == HotelChangeType.IMPORTED || streams.isEmpty()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            notifyEntered(change);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onChanges(final List<HotelChange> changes) {
+        if (streams.isEmpty()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            for (final HotelChange change : changes) {
+                if (change.type() == HotelChangeType.ADDED || change.type() == HotelChangeType.UPDATED) {
+                    notifyEntered(change);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hotelService.removeChangeListener(this);
+        subscriptions.close();
+    }
+
+    private void notifyEntered(final HotelChange change) {
+        for (final GeoSubscription subscription : entered(change)) {
+            final SseSubscription stream = streams.get(subscription.id());
+            if (stream != null) {
+                stream.offer(toEvent(subscription, change));
+            }
+        }
+    }
+
+    /**
+     * Must be called under the lock.
+     *
+     * @param change added or updated hotel
+     * @return subscriptions the hotel entered: matched by the hotel, but not by its previous state
+     */
+    List<GeoSubscription> entered(final HotelChange change) {
+        final Hotel hotel = change.hotel();
+        final Hotel previous = change.previous();
+        final List<GeoSubscription> entered = new ArrayList<>();
+        for (final GeoSubscription subscription : index.matching(hotel.getLongitude(), hotel.getLatitude(), hotel.getPrice())) {
+            // Unless already within the subscription before the change
+            if (previous == null || !subscription.matches(previous.getLongitude(), previous.getLatitude(), previous.getPrice())) {
+                entered.add(subscription);
+            }
+        }
+        return entered;
+    }
+
+    private SseEvent toEvent(final GeoSubscription subscription, final HotelChange change) {
+        final HotelSearchDTO hotel = mapper.map(change.hotel(), HotelSearchDTO.class);
+        hotel.setDistance(subscription.distance(change.hotel().getLongitude(), change.hotel().getLatitude()));
+        return SseEvent.of(change.version(), ENTERED_EVENT, new GeoSubscriptionEventDTO(subscription.id(), change.version(), hotel));
+    }
+
+    private void checkRadius(final double radius) {
+        if (!(radius > 0 && radius <= properties.getMaxRadius())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Messages.Error.Subscriptions.RADIUS_INVALID);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.common.enums.HotelChangeType;
+import hr.lemax.hotel.config.HotelMapProperties;
+import hr.lemax.hotel.model.CatalogSnapshot;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelCluster;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.model.HotelClusters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Pyramid of hotel aggregates over Web Mercator map tiles, one level per zoom level. Each tile
+ * holds the number of hotels in it, the sum of their coordinates for the centroid and their
+ * minimum price, so a map viewport is served from a few hundred tiles instead of every hotel in it.
+ * <p>
+ * Tile {@code (x, y)} of zoom {@code z} is split into the four tiles {@code (2x + i, 2y + j)} of
+ * zoom {@code z + 1}, so a hotel is in exactly one tile of each level. Changes update the tiles of
+ * the hotel on every level; minimum prices of coarser tiles are recomputed from their four children
+ * only when the cheapest hotel is removed, and tiles of the finest level keep the prices of their
+ * hotels for that.
+ */
+@Component
+// Created on startup even with lazy initialization, so no change is missed
+@Lazy(false)
+public class HotelTileIndex implements HotelChangeListener {
+    // Latitude limit of the Web Mercator projection, hotels further north or south are in the edge tiles
+    static final double MAX_LATITUDE = 85.05112878;
+
+    private final int maxZoom;
+    private final Supplier<CatalogSnapshot> catalog;
+    // Tiles of each zoom level by tile key
+    private final List<Map<Long, Tile>> levels;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Catalog version the tiles are at
+    private long version;
+    // Incremented when the tiles are rebuilt at a version not newer than the one they were at
+    private long epoch;
+    // Changes received while the initial catalog is loaded, null once loaded
+    private List<HotelChange> pending = new ArrayList<>();
+
+    @Autowired
+    public HotelTileIndex(final HotelService hotelService, final HotelMapProperties properties) {
+        this(properties.getMaxZoom(), hotelService::getCatalogSnapshot);
+        hotelService.addChangeListener(this);
+        load();
+    }
+
+    /**
+     * Create empty index. Changes are buffered until {@link #load()} is called.
+     *
+     * @param maxZoom finest zoom level of the pyramid
+     * @param catalog snapshot of the whole catalog, taken on load and after bulk imports
+     */
+    public HotelTileIndex(final int maxZoom, final Supplier<CatalogSnapshot> catalog) {
+        if (maxZoom < 0 || maxZoom > 30) {
+            throw new IllegalArgumentException("Maximum zoom must be between 0 and 30: " + maxZoom);
+        }
+        this.maxZoom = maxZoom;
+        this.catalog = catalog;
+        this.levels = new ArrayList<>(maxZoom + 1);
+        for (int zoom = 0; zoom <= maxZoom; zoom++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Load the catalog and apply changes received meanwhile. The snapshot is taken outside the lock,
+     * as changes are published while the catalog is locked by its writer.
+     */
+    public void load() {
+        while (true) {
+            final CatalogSnapshot snapshot = catalog.get();
+            lock.writeLock().lock();
+            try {
+                // The snapshot may or may not include a catalog imported or restored meanwhile, whose
+                // version tells nothing if it was restored at a lower one, so it is taken again
+                if (pending.stream().anyMatch(change -> change.type() == HotelChangeType.IMPORTED)) {
+                    pending.clear();
+                    continue;
+                }
+                rebuild(snapshot);
+                for (final HotelChange change : pending) {
+                    apply(change);
+                }
+                pending = null;
+                return;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void onChange(final HotelChange change) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                apply(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onChanges(final List<HotelChange> changes) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.addAll(changes);
+            } else {
+                changes.forEach(this::apply);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get clusters of hotels in the tiles of given zoom level intersecting a bounding box. A box with
+     * {@code minLongitude} greater than {@code maxLongitude} crosses the antimeridian.
+     *
+     * @param minLongitude west edge of the box
+     * @param minLatitude south edge of the box
+     * @param maxLongitude east edge of the box
+     * @param maxLatitude north edge of the box
+     * @param zoom zoom level of the tiles, zoom levels over the finest one are served from the finest
+     * @param maxClusters maximum number of clusters returned
+     * @return clusters of non-empty tiles and the catalog version they are at, or empty
+     * {@link Optional} if there are more than {@code maxClusters} of them
+     */
+    public Optional<HotelClusters> clusters(
+            final double minLongitude,
+            final double minLatitude,
+            final double maxLongitude,
+            final double maxLatitude,
+            final int zoom,
+            final int maxClusters) {
+        final int z = Math.max(0, Math.min(zoom, maxZoom));
+        final int fromX = tileX(minLongitude, z);
+        final int toX = tileX(maxLongitude, z);
+        // Tile rows are numbered from north to south
+        final int fromY = tileY(maxLatitude, z);
+        final int toY = tileY(minLatitude, z);
+        final long columns = fromX <= toX ? toX - fromX + 1 : (1L << z) - fromX + toX + 1;
+        final long tilesInBox = columns * (toY - fromY + 1);
+
+        lock.readLock().lock();
+        try {
+            final Map<Long, Tile> level = levels.get(z);
+            final List<HotelCluster> clusters = new ArrayList<>();
+            if (tilesInBox <= level.size()) {
+                // Few tiles in the box, looked up one by one
+                for (long column = 0; column < columns; column++) {
+                    final int x = (int) ((fromX + column) % (1L << z));
+                    for (int y = fromY; y <= toY; y++) {
+                        final Tile tile = level.get(key(x, y));
+                        if (tile != null) {
+                            if (clusters.size() == maxClusters) {
+                                return Optional.empty();
+                            }
+                            clusters.add(tile.toCluster(z, x, y));
+                        }
+                    }
+                }
+            } else {
+                // Box larger than the populated part of the level, which is scanned instead
+                for (final Map.Entry<Long, Tile> entry : level.entrySet()) {
+                    final int x = (int) (entry.getKey() >>> 32);
+                    final int y = (int) (long) entry.getKey();
+                    final boolean inColumns = fromX <= toX ? x >= fromX && x <= toX : x >= fromX || x <= toX;
+                    if (inColumns && y >= fromY && y <= toY) {
+                        if (clusters.size() == maxClusters) {
+                            return Optional.empty();
+                        }
+                        clusters.add(entry.getValue().toCluster(z, x, y));
+                    }
+                }
+            }
+            return Optional.of(new HotelClusters(epoch, version, z, clusters));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    /**
+     * @param zoom zoom level
+     * @return number of non-empty tiles of the zoom level
+     */
+    public int tileCount(final int zoom) {
+        lock.readLock().lock();
+        try {
+            return levels.get(zoom).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(final HotelChange change) {
+        if (change.type() == HotelChangeType.IMPORTED) {
+            // Bulk imports are published on the writer thread, which takes the snapshot right away.
+            // Rebuilt even if not newer, a restored catalog may be at a lower version than the index
+            if (change.version() <= version) {
+                epoch++;
+            }
+            rebuild(catalog.get());
+            return;
+        }
+        if (change.version() <= version) {
+            return;
+        }
+        final Hotel previous = change.previous();
+        final Hotel hotel = change.hotel();
+        if (previous != null && hotel != null
+                && previous.getLongitude() == hotel.getLongitude() && previous.getLatitude() == hotel.getLatitude()) {
+            // Hotel stays in its tiles, only prices are updated, if they changed at all
+            if (previous.getPrice() != hotel.getPrice()) {
+                updatePrice(hotel, previous.getPrice());
+            }
+            version = change.version();
+            return;
+        }
+        if (previous != null) {
+            remove(previous);
+        }
+        if (hotel != null) {
+            add(hotel);
+        }
+        version = change.version();
+    }
+
+    private void rebuild(final CatalogSnapshot snapshot) {
+        levels.forEach(Map::clear);
+        snapshot.hotels().forEach(this::add);
+        version = snapshot.version();
+    }
+
+    private void add(final Hotel hotel) {
+        final int x = tileX(hotel.getLongitude(), maxZoom);
+        final int y = tileY(hotel.getLatitude(), maxZoom);
+        for (int z = maxZoom; z >= 0; z--) {
+            final int shift = maxZoom - z;
+            final Tile tile = levels.get(z).computeIfAbsent(key(x >>> shift, y >>> shift), k -> new Tile());
+            tile.count++;
+            tile.longitudeSum += hotel.getLongitude();
+            tile.latitudeSum += hotel.getLatitude();
+            tile.minPrice = Math.min(tile.minPrice, hotel.getPrice());
+            if (z == maxZoom) {
+                if (tile.prices == null) {
+                    tile.prices = new TreeMap<>();
+                }
+                tile.prices.merge(hotel.getPrice(), 1, Integer::sum);
+            }
+        }
+    }
+
+    private void remove(final Hotel hotel) {
+        final int x = tileX(hotel.getLongitude(), maxZoom);
+        final int y = tileY(hotel.getLatitude(), maxZoom);
+        // From the finest level up, so children are updated before their minimum prices are read
+        for (int z = maxZoom; z >= 0; z--) {
+            final int shift = maxZoom - z;
+            final int tileX = x >>> shift;
+            final int tileY = y >>> shift;
+            final Map<Long, Tile> level = levels.get(z);
+            final Tile tile = level.get(key(tileX, tileY));
+            if (tile == null) {
+                return;
+            }
+            if (--tile.count == 0) {
+                level.remove(key(tileX, tileY));
+                continue;
+            }
+            tile.longitudeSum -= hotel.getLongitude();
+            tile.latitudeSum -= hotel.getLatitude();
+            if (z == maxZoom) {
+                tile.prices.computeIfPresent(hotel.getPrice(), (price, count) -> count == 1 ? null : count - 1);
+                tile.minPrice = tile.prices.firstKey();
+            } else if (hotel.getPrice() <= tile.minPrice) {
+                tile.minPrice = minPriceOfChildren(z + 1, tileX, tileY);
+            }
+        }
+    }
+
+    private void updatePrice(final Hotel hotel, final double previousPrice) {
+        final int x = tileX(hotel.getLongitude(), maxZoom);
+        final int y = tileY(hotel.getLatitude(), maxZoom);
+        // From the finest level up, so children are updated before their minimum prices are read
+        for (int z = maxZoom; z >= 0; z--) {
+            final int shift = maxZoom - z;
+            final int tileX = x >>> shift;
+            final int tileY = y >>> shift;
+            final Tile tile = levels.get(z).get(key(tileX, tileY));
+            if (tile == null) {
+                return;
+            }
+            if (z == maxZoom) {
+                tile.prices.computeIfPresent(previousPrice, (price, count) -> count == 1 ? null : count - 1);
+                tile.prices.merge(hotel.getPrice(), 1, Integer::sum);
+                tile.minPrice = tile.prices.firstKey();
+            } else if (hotel.getPrice() <= tile.minPrice) {
+                tile.minPrice = hotel.getPrice();
+            } else if (previousPrice <= tile.minPrice) {
+                tile.minPrice = minPriceOfChildren(z + 1, tileX, tileY);
+            }
+        }
+    }
+
+    private double minPriceOfChildren(final int childZoom, final int x, final int y) {
+        final Map<Long, Tile> children = levels.get(childZoom);
+        double minPrice = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 2; j++) {
+                final Tile child = children.get(key(2 * x + i, 2 * y + j));
+                if (child != null) {
+                    minPrice = Math.min(minPrice, child.minPrice);
+                }
+            }
+        }
+        return minPrice;
+    }
+
+    static int tileX(final double longitude, final int zoom) {
+        final long tiles = 1L << zoom;
+        final double clamped = Math.max(-180, Math.min(180, longitude));
+        return (int) Math.min(tiles - 1, (long) Math.floor((clamped + 180) / 360 * tiles));
+    }
+
+    static int tileY(final double latitude, final int zoom) {
+        final long tiles = 1L << zoom;
+        final double radians = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        final double mercator = (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2;
+        return (int) Math.max(0, Math.min(tiles - 1, (long) Math.floor(mercator * tiles)));
+    }
+
+    private static long key(final int x, final int y) {
+        return (long) x << 32 | (y & 0xFFFFFFFFL);
+    }
+
+    private static class Tile {
+        private int count;
+        private double longitudeSum;
+        private double latitudeSum;
+        private double minPrice = Double.POSITIVE_INFINITY;
+        // Number of hotels by price, kept only for tiles of the finest level
+        private TreeMap<Double, Integer> prices;
+
+        private HotelCluster toCluster(final int zoom, final int x, final int y) {
+            return new HotelCluster(zoom, x, y, count, longitudeSum / count, latitudeSum / count, minPrice);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package hr.lemax.hotel.service;
 import hr.lemax.hotel.common.strategy.HotelSortStrategy;
 import hr.lemax.hotel.dto.HotelModificationDTO;
 import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.Stay;
 import jakarta.validation.constraints.NotNull;
 import lombok.NonNull;
 import org.springframework.data.domain.Page;
@@ -10,6 +11,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IHotelService {
     List<Hotel> getAllHotels();
@@ -22,14 +24,31 @@ public interface IHotelService {
 
     void deleteHotel(@NonNull Long id);
 
+    long importHotels(@NonNull Stream<Hotel> hotels);
+
+    long getCatalogVersion();
+
     List<Hotel> searchHotels(
             @NonNull Double currentLon,
             @NonNull Double currentLat,
             @NotNull HotelSortStrategy sortStrategy);
 
+    List<Hotel> searchHotels(
+            @NonNull Double currentLon,
+            @NonNull Double currentLat,
+            @NotNull HotelSortStrategy sortStrategy,
+            Stay stay);
+
+    Page<Hotel> searchHotelsByPage(
+            @NonNull Double currentLon,
+            @NonNull Double currentLat,
+            @NotNull HotelSortStrategy sortStrategy,
+            @NonNull Pageable pageable);
+
     Page<Hotel> searchHotelsByPage(
             @NonNull Double currentLon,
             @NonNull Double currentLat,
             @NotNull HotelSortStrategy sortStrategy,
+            Stay stay,
             @NonNull Pageable pageable);
 }
@@ -0,0 +1,44 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.common.strategy.HotelSortStrategy;
+import hr.lemax.hotel.model.Stay;
+
+/**
+ * Identity of a search for request coalescing. Two searches with equal keys produce the same
+ * result, so they can share one computation.
+ * Location is normalized to micro-degrees (about 0.1 m), far below the 10 m precision
+ * of reported distances.
+ *
+ * @param longitudeMicros user longitude in micro-degrees
+ * @param latitudeMicros user latitude in micro-degrees
+ * @param sortStrategy sort strategy, compared with {@code equals}
+ * @param stay nights the hotels must be available, {@code null} for all hotels
+ * @param catalogVersion catalog version the search runs against
+ * @param availabilityVersion availability version the search runs against, 0 without stay
+ */
+record SearchKey(
+        long longitudeMicros,
+        long latitudeMicros,
+        HotelSortStrategy sortStrategy,
+        Stay stay,
+        long catalogVersion,
+        long availabilityVersion) {
+
+    private static final double MICROS = 1_000_000.0;
+
+    static SearchKey of(
+            final double longitude,
+            final double latitude,
+            final HotelSortStrategy sortStrategy,
+            final Stay stay,
+            final long catalogVersion,
+            final long availabilityVersion) {
+        return new SearchKey(
+                Math.round(longitude * MICROS),
+                Math.round(latitude * MICROS),
+                sortStrategy,
+                stay,
+                catalogVersion,
+                availabilityVersion);
+    }
+}
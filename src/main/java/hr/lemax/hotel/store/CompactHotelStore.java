@@ -0,0 +1,462 @@
+package hr.lemax.hotel.store;
+
+import hr.lemax.hotel.common.util.PriceUtils;
+import hr.lemax.hotel.model.Hotel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * On-heap store with a compact, column-oriented encoding of hotels:
+ * <ul>
+ *     <li>price is kept as an {@code int} number of minor units (cents), so prices are rounded
+ *     to two decimals and limited to {@value #MAX_PRICE}</li>
+ *     <li>coordinates are optionally kept as {@code float}; the rounding error is at most
+ *     2<sup>-17</sup> degrees (7.6e-6&deg;, under 0.85 m on the ground) for any valid coordinate</li>
+ *     <li>names are split at the last space into a prefix (e.g. "Hilton Garden Inn") shared
+ *     through a {@link NameDictionary} and a length-prefixed UTF-8 suffix in a byte arena; names
+ *     without a space are kept whole in the arena</li>
+ *     <li>nothing request-specific such as distance is stored; search results are materialized
+ *     as new {@link Hotel} instances</li>
+ * </ul>
+ * Columns are split into small fixed-size chunks that are only appended. Like {@link OffHeapHotelStore},
+ * records are immutable once written except for their delete marker, which gives consistent
+ * snapshots without copying, and space of deleted records is reclaimed by compaction, which also
+ * drops the name prefixes only deleted records used.
+ */
+@Slf4j
+public class CompactHotelStore implements HotelStore {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int ARENA_CHUNK_BITS = 16;
+    private static final int ARENA_CHUNK_SIZE = 1 << ARENA_CHUNK_BITS;
+    private static final int MAX_NAME_LENGTH = ARENA_CHUNK_SIZE - 3;
+    private static final int NULL_NAME = -1;
+    private static final double MINOR_UNITS = 100.0;
+    static final double MAX_PRICE = Integer.MAX_VALUE / MINOR_UNITS;
+    private static final int MIN_GARBAGE_FOR_COMPACTION = 1 << 14;
+
+    private final boolean floatCoordinates;
+    private final int maxDictionarySize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Segment segment;
+    // Guarded by lock, replaced together with the segment on compaction
+    private NameDictionary dictionary;
+    private LongIntHashMap slotsById;
+    private long modificationSequence;
+    private int liveCount;
+
+    /**
+     * @param floatCoordinates store coordinates as {@code float} instead of {@code double}
+     * @param maxDictionarySize maximum number of distinct name prefixes kept in the dictionary
+     */
+    public CompactHotelStore(final boolean floatCoordinates, final int maxDictionarySize) {
+        this.floatCoordinates = floatCoordinates;
+        this.maxDictionarySize = maxDictionarySize;
+        this.dictionary = new NameDictionary(maxDictionarySize);
+        this.segment = new Segment(floatCoordinates);
+        this.slotsById = new LongIntHashMap(CHUNK_SIZE);
+    }
+
+    @Override
+    public Optional<Hotel> findById(final long id) {
+        lock.readLock().lock();
+        try {
+            final int slot = slotsById.get(id, -1);
+            return slot < 0 ? Optional.empty() : Optional.of(segment.materialize(slot, dictionary));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Hotel> findAll() {
+        lock.readLock().lock();
+        try {
+            final Segment current = segment;
+            return new Snapshot(current, dictionary, modificationSequence, current.slotCount, liveCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(final Hotel hotel) {
+        final int price = minorUnits(hotel.getPrice());
+
+        lock.writeLock().lock();
+        try {
+            final Segment current = segment;
+            final long sequence = ++modificationSequence;
+            final int existingSlot = slotsById.get(hotel.getId(), -1);
+
+            int prefixId = NameDictionary.NOT_FOUND;
+            int nameRef = NULL_NAME;
+            final String name = hotel.getName();
+            if (name != null) {
+                // A name without a space has no prefix shared with other names
+                final int split = name.lastIndexOf(' ');
+                if (split > 0) {
+                    prefixId = dictionary.idOf(name.substring(0, split));
+                }
+                final byte[] suffix = (prefixId == NameDictionary.NOT_FOUND ? name : name.substring(split))
+                        .getBytes(StandardCharsets.UTF_8);
+                if (existingSlot >= 0 && current.hasName(existingSlot, prefixId, suffix)) {
+                    nameRef = current.chunk(existingSlot).nameRefs[offset(existingSlot)];
+                } else {
+                    nameRef = current.appendName(suffix);
+                }
+            }
+
+            if (existingSlot >= 0) {
+                current.chunk(existingSlot).deletedAt[offset(existingSlot)] = sequence;
+            } else {
+                liveCount++;
+            }
+            final int slot = current.appendRecord(
+                    hotel.getId(),
+                    price,
+                    hotel.getLongitude(),
+                    hotel.getLatitude(),
+                    hotel.getVersion(),
+                    prefixId,
+                    nameRef);
+            slotsById.put(hotel.getId(), slot);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(final long id) {
+        lock.writeLock().lock();
+        try {
+            final int slot = slotsById.get(id, -1);
+            if (slot < 0) {
+                return false;
+            }
+            segment.chunk(slot).deletedAt[offset(slot)] = ++modificationSequence;
+            slotsById.remove(id);
+            liveCount--;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy live records into a new segment when deleted records outweigh live ones, with a new
+     * dictionary of the prefixes they use. Snapshots taken before keep the old segment and
+     * dictionary. Must be called with write lock held.
+     */
+    private void compactIfNeeded() {
+        final Segment current = segment;
+        final int garbage = current.slotCount - liveCount;
+        if (garbage < MIN_GARBAGE_FOR_COMPACTION || garbage < liveCount) {
+            return;
+        }
+        log.debug("Compacting store: {} live records, {} deleted records", liveCount, garbage);
+
+        final Segment compacted = new Segment(floatCoordinates);
+        final NameDictionary compactedDictionary = new NameDictionary(maxDictionarySize);
+        final LongIntHashMap compactedSlots = new LongIntHashMap(liveCount);
+        for (int slot = 0; slot < current.slotCount; slot++) {
+            final Chunk chunk = current.chunk(slot);
+            final int offset = offset(slot);
+            if (chunk.deletedAt[offset] == 0) {
+                final int nameRef = chunk.nameRefs[offset];
+                final int prefixId = chunk.prefixes[offset];
+                final int newSlot = compacted.appendRecord(
+                        chunk.ids[offset],
+                        chunk.prices[offset],
+                        chunk.longitude(offset),
+                        chunk.latitude(offset),
+                        chunk.versions[offset],
+                        prefixId == NameDictionary.NOT_FOUND ? prefixId : compactedDictionary.idOf(dictionary.prefix(prefixId)),
+                        nameRef == NULL_NAME ? NULL_NAME : compacted.appendName(current.nameBytes(nameRef)));
+                compactedSlots.put(chunk.ids[offset], newSlot);
+            }
+        }
+        slotsById = compactedSlots;
+        dictionary = compactedDictionary;
+        segment = compacted;
+    }
+
+    /**
+     * @return number of name prefixes in the dictionary
+     */
+    int dictionarySize() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int minorUnits(final double price) {
+        final long minorUnits = PriceUtils.minorUnits(price);
+        if (minorUnits < Integer.MIN_VALUE || minorUnits > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Price out of range for compact store: " + price);
+        }
+        return (int) minorUnits;
+    }
+
+    private static int offset(final int slot) {
+        return slot & (CHUNK_SIZE - 1);
+    }
+
+    /**
+     * Columns of {@code CHUNK_SIZE} records.
+     */
+    private static final class Chunk {
+        private final long[] ids = new long[CHUNK_SIZE];
+        private final int[] prices = new int[CHUNK_SIZE];
+        private final long[] versions = new long[CHUNK_SIZE];
+        private final long[] deletedAt = new long[CHUNK_SIZE];
+        private final int[] prefixes = new int[CHUNK_SIZE];
+        // Arena address of the length-prefixed name suffix
+        private final int[] nameRefs = new int[CHUNK_SIZE];
+        private final float[] floatLongitudes;
+        private final float[] floatLatitudes;
+        private final double[] longitudes;
+        private final double[] latitudes;
+
+        Chunk(final boolean floatCoordinates) {
+            this.floatLongitudes = floatCoordinates ? new float[CHUNK_SIZE] : null;
+            this.floatLatitudes = floatCoordinates ? new float[CHUNK_SIZE] : null;
+            this.longitudes = floatCoordinates ? null : new double[CHUNK_SIZE];
+            this.latitudes = floatCoordinates ? null : new double[CHUNK_SIZE];
+        }
+
+        double longitude(final int offset) {
+            return longitudes != null ? longitudes[offset] : floatLongitudes[offset];
+        }
+
+        double latitude(final int offset) {
+            return latitudes != null ? latitudes[offset] : floatLatitudes[offset];
+        }
+
+        void setCoordinates(final int offset, final double longitude, final double latitude) {
+            if (longitudes != null) {
+                longitudes[offset] = longitude;
+                latitudes[offset] = latitude;
+            } else {
+                floatLongitudes[offset] = (float) longitude;
+                floatLatitudes[offset] = (float) latitude;
+            }
+        }
+    }
+
+    /**
+     * Record chunks and name arena. Both are only appended under the store's write lock and
+     * published through volatile fields.
+     */
+    private static final class Segment {
+        private final boolean floatCoordinates;
+        private volatile Chunk[] chunks = new Chunk[0];
+        private volatile byte[][] arena = new byte[0][];
+        private int slotCount;
+        private int arenaPosition;
+
+        Segment(final boolean floatCoordinates) {
+            this.floatCoordinates = floatCoordinates;
+        }
+
+        int appendRecord(
+                final long id,
+                final int priceMinorUnits,
+                final double longitude,
+                final double latitude,
+                final long version,
+                final int prefixId,
+                final int nameRef) {
+            final int slot = slotCount;
+            if ((slot >>> CHUNK_BITS) == chunks.length) {
+                final Chunk[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+                grown[grown.length - 1] = new Chunk(floatCoordinates);
+                chunks = grown;
+            }
+            final Chunk chunk = chunk(slot);
+            final int offset = offset(slot);
+            chunk.ids[offset] = id;
+            chunk.prices[offset] = priceMinorUnits;
+            chunk.setCoordinates(offset, longitude, latitude);
+            chunk.versions[offset] = version;
+            chunk.prefixes[offset] = prefixId;
+            chunk.nameRefs[offset] = nameRef;
+            chunk.deletedAt[offset] = 0;
+            slotCount++;
+            return slot;
+        }
+
+        /**
+         * Append name prefixed by its length as one byte, or as two bytes with the high bit of
+         * the first one set when longer than 127 bytes. Names never span arena chunks.
+         *
+         * @return arena address of the name
+         */
+        int appendName(final byte[] name) {
+            if (name.length > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Hotel name is too long: " + name.length + " bytes");
+            }
+            final int encodedLength = name.length + (name.length < 0x80 ? 1 : 2);
+            byte[][] current = arena;
+            final int inChunk = arenaPosition & (ARENA_CHUNK_SIZE - 1);
+            if ((arenaPosition >>> ARENA_CHUNK_BITS) == current.length || inChunk + encodedLength > ARENA_CHUNK_SIZE) {
+                current = Arrays.copyOf(current, current.length + 1);
+                current[current.length - 1] = new byte[ARENA_CHUNK_SIZE];
+                if (current.length > 1 << (Integer.SIZE - 1 - ARENA_CHUNK_BITS)) {
+                    throw new IllegalStateException("Name arena of compact store is full");
+                }
+                arenaPosition = (current.length - 1) << ARENA_CHUNK_BITS;
+                arena = current;
+            }
+            final int address = arenaPosition;
+            final byte[] chunk = current[address >>> ARENA_CHUNK_BITS];
+            int position = address & (ARENA_CHUNK_SIZE - 1);
+            if (name.length < 0x80) {
+                chunk[position++] = (byte) name.length;
+            } else {
+                chunk[position++] = (byte) (0x80 | name.length >>> 8);
+                chunk[position++] = (byte) name.length;
+            }
+            System.arraycopy(name, 0, chunk, position, name.length);
+            arenaPosition += encodedLength;
+            return address;
+        }
+
+        byte[] nameBytes(final int nameRef) {
+            final byte[] chunk = arena[nameRef >>> ARENA_CHUNK_BITS];
+            int position = nameRef & (ARENA_CHUNK_SIZE - 1);
+            int length = chunk[position++] & 0xFF;
+            if (length >= 0x80) {
+                length = (length & 0x7F) << 8 | chunk[position++] & 0xFF;
+            }
+            return Arrays.copyOfRange(chunk, position, position + length);
+        }
+
+        boolean hasName(final int slot, final int prefixId, final byte[] suffix) {
+            final Chunk chunk = chunk(slot);
+            final int offset = offset(slot);
+            return chunk.nameRefs[offset] != NULL_NAME
+                    && chunk.prefixes[offset] == prefixId
+                    && Arrays.equals(nameBytes(chunk.nameRefs[offset]), suffix);
+        }
+
+        Chunk chunk(final int slot) {
+            return chunks[slot >>> CHUNK_BITS];
+        }
+
+        Hotel materialize(final int slot, final NameDictionary dictionary) {
+            final Chunk chunk = chunk(slot);
+            final int offset = offset(slot);
+            final Hotel hotel = new Hotel(
+                    chunk.ids[offset],
+                    name(chunk.prefixes[offset], chunk.nameRefs[offset], dictionary),
+                    chunk.prices[offset] / MINOR_UNITS,
+                    chunk.longitude(offset),
+                    chunk.latitude(offset));
+            hotel.setVersion(chunk.versions[offset]);
+            return hotel;
+        }
+
+        private String name(final int prefixId, final int nameRef, final NameDictionary dictionary) {
+            if (nameRef == NULL_NAME) {
+                return null;
+            }
+            final String suffix = new String(nameBytes(nameRef), StandardCharsets.UTF_8);
+            return prefixId == NameDictionary.NOT_FOUND ? suffix : dictionary.prefix(prefixId) + suffix;
+        }
+    }
+
+    /**
+     * Immutable view of the records visible at one modification sequence.
+     */
+    private static final class Snapshot extends AbstractList<Hotel> implements HotelRecordSource, RandomAccess {
+        private final Segment segment;
+        private final NameDictionary dictionary;
+        private final long sequence;
+        private final int slotCount;
+        private final int size;
+        // Lazily built mapping from list index to slot, only needed when deleted records are present
+        private volatile int[] visibleSlots;
+
+        Snapshot(
+                final Segment segment,
+                final NameDictionary dictionary,
+                final long sequence,
+                final int slotCount,
+                final int size) {
+            this.segment = segment;
+            this.dictionary = dictionary;
+            this.sequence = sequence;
+            this.slotCount = slotCount;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Hotel get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return materialize(slotCount == size ? index : visibleSlots()[index]);
+        }
+
+        @Override
+        public void forEachRecord(final HotelRecordVisitor visitor) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                final Chunk chunk = segment.chunk(slot);
+                final int offset = offset(slot);
+                final long deletedAt = chunk.deletedAt[offset];
+                if (deletedAt == 0 || deletedAt > sequence) {
+                    visitor.visit(slot,
+                            chunk.ids[offset],
+                            chunk.prices[offset] / MINOR_UNITS,
+                            chunk.longitude(offset),
+                            chunk.latitude(offset));
+                }
+            }
+        }
+
+        @Override
+        public Hotel materialize(final int handle) {
+            return segment.materialize(handle, dictionary);
+        }
+
+        private int[] visibleSlots() {
+            int[] slots = visibleSlots;
+            if (slots == null) {
+                final int[] collected = new int[size];
+                final int[] count = new int[1];
+                forEachRecord((handle, id, price, longitude, latitude) -> collected[count[0]++] = handle);
+                visibleSlots = slots = collected;
+            }
+            return slots;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package hr.lemax.hotel.store;
+
+import hr.lemax.hotel.model.Hotel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Store keeping {@link Hotel} entities on the Java heap, indexed by ID.
+ */
+@Slf4j
+public class HeapHotelStore implements HotelStore {
+    private final Map<Long, Hotel> hotels = new LinkedHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public Optional<Hotel> findById(final long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(hotels.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Hotel> findAll() {
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(hotels.values()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(final Hotel hotel) {
+        lock.writeLock().lock();
+        try {
+            hotels.put(hotel.getId(), hotel);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(final long id) {
+        lock.writeLock().lock();
+        try {
+            return hotels.remove(id) != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return hotels.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
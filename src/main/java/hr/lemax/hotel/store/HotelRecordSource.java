@@ -0,0 +1,30 @@
+package hr.lemax.hotel.store;
+
+import hr.lemax.hotel.model.Hotel;
+
+/**
+ * Hotel list whose numeric fields can be read without creating {@link Hotel} objects.
+ * Search strategies use it to rank the whole catalog from raw records and materialize only
+ * the hotels that are actually returned.
+ */
+public interface HotelRecordSource {
+    /**
+     * @return number of records visited by {@link #forEachRecord(HotelRecordVisitor)}
+     */
+    int size();
+
+    /**
+     * Visit all records in insertion order.
+     *
+     * @param visitor record visitor
+     */
+    void forEachRecord(HotelRecordVisitor visitor);
+
+    /**
+     * Create {@link Hotel} from record. Every call returns a new instance owned by the caller.
+     *
+     * @param handle handle passed to the visitor
+     * @return new hotel instance
+     */
+    Hotel materialize(int handle);
+}
@@ -0,0 +1,15 @@
+package hr.lemax.hotel.store;
+
+@FunctionalInterface
+public interface HotelRecordVisitor {
+    /**
+     * Visit single hotel record.
+     *
+     * @param handle opaque handle for {@link HotelRecordSource#materialize(int)}
+     * @param id hotel ID
+     * @param price hotel price
+     * @param longitude hotel longitude (X axis)
+     * @param latitude hotel latitude (Y axis)
+     */
+    void visit(int handle, long id, double price, double longitude, double latitude);
+}
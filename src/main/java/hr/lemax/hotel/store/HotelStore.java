@@ -0,0 +1,48 @@
+package hr.lemax.hotel.store;
+
+import hr.lemax.hotel.model.Hotel;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage engine of the hotel catalog used by {@link hr.lemax.hotel.service.HotelService}.
+ * Implementations are safe for concurrent use.
+ */
+public interface HotelStore {
+    /**
+     * Find hotel by ID.
+     *
+     * @param id hotel ID
+     * @return {@link Optional} hotel
+     */
+    Optional<Hotel> findById(long id);
+
+    /**
+     * Get snapshot of all hotels in insertion order. Hotels added or deleted after the call
+     * are not reflected in the returned list.
+     *
+     * @return unmodifiable {@link List} of hotels
+     */
+    List<Hotel> findAll();
+
+    /**
+     * Insert hotel, or replace hotel with the same ID.
+     *
+     * @param hotel hotel with ID set
+     */
+    void save(Hotel hotel);
+
+    /**
+     * Delete hotel by ID.
+     *
+     * @param id hotel ID
+     * @return {@code true} if hotel existed, else {@code false}
+     */
+    boolean delete(long id);
+
+    /**
+     * @return number of stored hotels
+     */
+    int size();
+}
@@ -0,0 +1,10 @@
+package hr.lemax.hotel.store;
+
+public enum HotelStoreType {
+    // Hotel entities on the Java heap
+    HEAP,
+    // Fixed-width records in direct memory, outside of the garbage collected heap
+    OFF_HEAP,
+    // Compactly encoded primitive columns on the Java heap
+    COMPACT
+}
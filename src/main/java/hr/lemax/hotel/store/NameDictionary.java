@@ -0,0 +1,54 @@
+package hr.lemax.hotel.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary of hotel name prefixes (e.g. chain names) shared by all hotels of a store.
+ * Entries are only added; lookups by ID are safe from any thread, adding requires the store's
+ * write lock. Once {@code maxEntries} is reached no new prefixes are accepted.
+ */
+class NameDictionary {
+    static final int NOT_FOUND = -1;
+
+    private final Map<String, Integer> idsByPrefix = new HashMap<>();
+    private final int maxEntries;
+    private volatile String[] prefixes = new String[16];
+    private int size;
+
+    NameDictionary(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get ID of prefix, adding it to the dictionary if there is room.
+     *
+     * @return prefix ID or {@link #NOT_FOUND} if dictionary is full
+     */
+    int idOf(final String prefix) {
+        final Integer id = idsByPrefix.get(prefix);
+        if (id != null) {
+            return id;
+        }
+        if (size >= maxEntries) {
+            return NOT_FOUND;
+        }
+        String[] current = prefixes;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length << 1);
+        }
+        current[size] = prefix;
+        prefixes = current;
+        idsByPrefix.put(prefix, size);
+        return size++;
+    }
+
+    String prefix(final int id) {
+        return prefixes[id];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,367 @@
+package hr.lemax.hotel.store;
+
+import hr.lemax.hotel.model.Hotel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Store keeping hotels as fixed-width records in direct {@link ByteBuffer} chunks, with names
+ * UTF-8 encoded in an append-only arena. The garbage collector sees a few hundred buffers
+ * instead of millions of entities, and searches read numeric fields straight from the records
+ * through {@link HotelRecordSource}; {@link Hotel} objects are only created for returned results.
+ * <p>
+ * Records are never modified after they are written, apart from being marked deleted with the
+ * modification sequence of the delete. An update appends a new record and marks the old one
+ * deleted, so a snapshot taken at sequence {@code s} sees exactly the records written before
+ * {@code s} and not deleted until after {@code s}, without copying anything. Space of deleted
+ * records and unused names is reclaimed by compaction once it outweighs the live data; snapshots
+ * taken before a compaction keep reading the old chunks until they are garbage collected.
+ * <p>
+ * Direct memory is limited by {@code -XX:MaxDirectMemorySize}, which defaults to the heap size.
+ */
+@Slf4j
+public class OffHeapHotelStore implements HotelStore {
+    // Record layout
+    private static final int ID = 0;
+    private static final int PRICE = 8;
+    private static final int LONGITUDE = 16;
+    private static final int LATITUDE = 24;
+    private static final int VERSION = 32;
+    private static final int NAME_ADDRESS = 40;
+    private static final int NAME_LENGTH = 48;
+    private static final int DELETED_AT = 56;
+    static final int RECORD_SIZE = 64;
+
+    private static final int RECORD_CHUNK_BITS = 16;
+    private static final int RECORDS_PER_CHUNK = 1 << RECORD_CHUNK_BITS;
+    private static final int NAME_CHUNK_SIZE = 1 << 20;
+    private static final int NULL_NAME = -1;
+    private static final int MIN_GARBAGE_FOR_COMPACTION = 1 << 14;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Segment segment;
+    // Guarded by lock
+    private LongIntHashMap slotsById;
+    private long modificationSequence;
+    private int liveCount;
+
+    public OffHeapHotelStore() {
+        this.segment = new Segment();
+        this.slotsById = new LongIntHashMap(RECORDS_PER_CHUNK);
+    }
+
+    @Override
+    public Optional<Hotel> findById(final long id) {
+        lock.readLock().lock();
+        try {
+            final int slot = slotsById.get(id, -1);
+            return slot < 0 ? Optional.empty() : Optional.of(segment.materialize(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Hotel> findAll() {
+        lock.readLock().lock();
+        try {
+            final Segment current = segment;
+            return new Snapshot(current, modificationSequence, current.slotCount, liveCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(final Hotel hotel) {
+        final byte[] name = hotel.getName() == null ? null : hotel.getName().getBytes(StandardCharsets.UTF_8);
+
+        lock.writeLock().lock();
+        try {
+            final Segment current = segment;
+            final long sequence = ++modificationSequence;
+            final int existingSlot = slotsById.get(hotel.getId(), -1);
+
+            long nameAddress = -1;
+            if (existingSlot >= 0) {
+                current.markDeleted(existingSlot, sequence);
+                if (current.hasName(existingSlot, name)) {
+                    nameAddress = current.nameAddress(existingSlot);
+                }
+            } else {
+                liveCount++;
+            }
+            if (nameAddress < 0 && name != null) {
+                nameAddress = current.appendName(name);
+            }
+
+            final int slot = current.appendRecord(hotel, nameAddress, name == null ? NULL_NAME : name.length);
+            slotsById.put(hotel.getId(), slot);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(final long id) {
+        lock.writeLock().lock();
+        try {
+            final int slot = slotsById.get(id, -1);
+            if (slot < 0) {
+                return false;
+            }
+            segment.markDeleted(slot, ++modificationSequence);
+            slotsById.remove(id);
+            liveCount--;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return bytes of direct memory held by the current segment
+     */
+    public long getOffHeapBytes() {
+        final Segment current = segment;
+        return (long) current.recordChunks.length * RECORDS_PER_CHUNK * RECORD_SIZE
+                + Arrays.stream(current.nameChunks).mapToLong(ByteBuffer::capacity).sum();
+    }
+
+    /**
+     * Copy live records and names into a new segment when deleted records outweigh live ones.
+     * Must be called with write lock held.
+     */
+    private void compactIfNeeded() {
+        final Segment current = segment;
+        final int garbage = current.slotCount - liveCount;
+        if (garbage < MIN_GARBAGE_FOR_COMPACTION || garbage < liveCount) {
+            return;
+        }
+        log.debug("Compacting off-heap store: {} live records, {} deleted records", liveCount, garbage);
+
+        final Segment compacted = new Segment();
+        final LongIntHashMap compactedSlots = new LongIntHashMap(liveCount);
+        for (int slot = 0; slot < current.slotCount; slot++) {
+            if (current.deletedAt(slot) == 0) {
+                final int nameLength = current.nameLength(slot);
+                final long nameAddress = nameLength == NULL_NAME ? -1 : compacted.appendName(current.nameBytes(slot));
+                final int newSlot = compacted.copyRecord(current, slot, nameAddress);
+                compactedSlots.put(current.id(slot), newSlot);
+            }
+        }
+        slotsById = compactedSlots;
+        segment = compacted;
+    }
+
+    /**
+     * Record and name chunks. Chunks are only appended, so addresses stay valid for the lifetime
+     * of the segment; chunk arrays are replaced on growth and published through volatile fields.
+     * Appending is done under the store's write lock.
+     */
+    private static final class Segment {
+        private volatile ByteBuffer[] recordChunks = new ByteBuffer[0];
+        private volatile ByteBuffer[] nameChunks = new ByteBuffer[0];
+        private int slotCount;
+        private int namePosition;
+
+        int appendRecord(final Hotel hotel, final long nameAddress, final int nameLength) {
+            final int slot = nextSlot();
+            final ByteBuffer chunk = recordChunk(slot);
+            final int offset = recordOffset(slot);
+            chunk.putLong(offset + ID, hotel.getId());
+            chunk.putDouble(offset + PRICE, hotel.getPrice());
+            chunk.putDouble(offset + LONGITUDE, hotel.getLongitude());
+            chunk.putDouble(offset + LATITUDE, hotel.getLatitude());
+            chunk.putLong(offset + VERSION, hotel.getVersion());
+            chunk.putLong(offset + NAME_ADDRESS, nameAddress);
+            chunk.putInt(offset + NAME_LENGTH, nameLength);
+            chunk.putLong(offset + DELETED_AT, 0);
+            return slot;
+        }
+
+        int copyRecord(final Segment source, final int sourceSlot, final long nameAddress) {
+            final int slot = nextSlot();
+            final ByteBuffer chunk = recordChunk(slot);
+            final int offset = recordOffset(slot);
+            chunk.put(offset, source.recordChunk(sourceSlot), recordOffset(sourceSlot), RECORD_SIZE);
+            chunk.putLong(offset + NAME_ADDRESS, nameAddress);
+            return slot;
+        }
+
+        long appendName(final byte[] name) {
+            ByteBuffer[] chunks = nameChunks;
+            if (chunks.length == 0 || namePosition + name.length > chunks[chunks.length - 1].capacity()) {
+                chunks = Arrays.copyOf(chunks, chunks.length + 1);
+                chunks[chunks.length - 1] = allocate(Math.max(NAME_CHUNK_SIZE, name.length));
+                namePosition = 0;
+                nameChunks = chunks;
+            }
+            final long address = ((long) (chunks.length - 1) << 32) | namePosition;
+            chunks[chunks.length - 1].put(namePosition, name, 0, name.length);
+            namePosition += name.length;
+            return address;
+        }
+
+        void markDeleted(final int slot, final long sequence) {
+            recordChunk(slot).putLong(recordOffset(slot) + DELETED_AT, sequence);
+        }
+
+        long deletedAt(final int slot) {
+            return recordChunk(slot).getLong(recordOffset(slot) + DELETED_AT);
+        }
+
+        long id(final int slot) {
+            return recordChunk(slot).getLong(recordOffset(slot) + ID);
+        }
+
+        long nameAddress(final int slot) {
+            return recordChunk(slot).getLong(recordOffset(slot) + NAME_ADDRESS);
+        }
+
+        int nameLength(final int slot) {
+            return recordChunk(slot).getInt(recordOffset(slot) + NAME_LENGTH);
+        }
+
+        byte[] nameBytes(final int slot) {
+            final int length = nameLength(slot);
+            if (length == NULL_NAME) {
+                return null;
+            }
+            final long address = nameAddress(slot);
+            final byte[] name = new byte[length];
+            nameChunks[(int) (address >>> 32)].get((int) address, name, 0, length);
+            return name;
+        }
+
+        boolean hasName(final int slot, final byte[] name) {
+            return Arrays.equals(nameBytes(slot), name);
+        }
+
+        Hotel materialize(final int slot) {
+            final ByteBuffer chunk = recordChunk(slot);
+            final int offset = recordOffset(slot);
+            final byte[] name = nameBytes(slot);
+            final Hotel hotel = new Hotel(
+                    chunk.getLong(offset + ID),
+                    name == null ? null : new String(name, StandardCharsets.UTF_8),
+                    chunk.getDouble(offset + PRICE),
+                    chunk.getDouble(offset + LONGITUDE),
+                    chunk.getDouble(offset + LATITUDE));
+            hotel.setVersion(chunk.getLong(offset + VERSION));
+            return hotel;
+        }
+
+        ByteBuffer recordChunk(final int slot) {
+            return recordChunks[slot >>> RECORD_CHUNK_BITS];
+        }
+
+        private int nextSlot() {
+            final int slot = slotCount;
+            if ((slot >>> RECORD_CHUNK_BITS) == recordChunks.length) {
+                final ByteBuffer[] chunks = Arrays.copyOf(recordChunks, recordChunks.length + 1);
+                chunks[chunks.length - 1] = allocate(RECORDS_PER_CHUNK * RECORD_SIZE);
+                recordChunks = chunks;
+            }
+            slotCount++;
+            return slot;
+        }
+
+        private static int recordOffset(final int slot) {
+            return (slot & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+        }
+
+        private static ByteBuffer allocate(final int capacity) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Immutable view of the records visible at one modification sequence.
+     */
+    private static final class Snapshot extends AbstractList<Hotel> implements HotelRecordSource, RandomAccess {
+        private final Segment segment;
+        private final long sequence;
+        private final int slotCount;
+        private final int size;
+        // Lazily built mapping from list index to slot, only needed when deleted records are present
+        private volatile int[] visibleSlots;
+
+        Snapshot(final Segment segment, final long sequence, final int slotCount, final int size) {
+            this.segment = segment;
+            this.sequence = sequence;
+            this.slotCount = slotCount;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Hotel get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return segment.materialize(slotCount == size ? index : visibleSlots()[index]);
+        }
+
+        @Override
+        public void forEachRecord(final HotelRecordVisitor visitor) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                final ByteBuffer chunk = segment.recordChunk(slot);
+                final int offset = Segment.recordOffset(slot);
+                if (isVisible(chunk.getLong(offset + DELETED_AT))) {
+                    visitor.visit(slot,
+                            chunk.getLong(offset + ID),
+                            chunk.getDouble(offset + PRICE),
+                            chunk.getDouble(offset + LONGITUDE),
+                            chunk.getDouble(offset + LATITUDE));
+                }
+            }
+        }
+
+        @Override
+        public Hotel materialize(final int handle) {
+            return segment.materialize(handle);
+        }
+
+        private boolean isVisible(final long deletedAt) {
+            return deletedAt == 0 || deletedAt > sequence;
+        }
+
+        private int[] visibleSlots() {
+            int[] slots = visibleSlots;
+            if (slots == null) {
+                final int[] collected = new int[size];
+                final int[] count = new int[1];
+                forEachRecord((handle, id, price, longitude, latitude) -> collected[count[0]++] = handle);
+                visibleSlots = slots = collected;
+            }
+            return slots;
+        }
+    }
+}
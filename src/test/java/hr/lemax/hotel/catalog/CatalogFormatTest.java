@@ -0,0 +1,86 @@
+package hr.lemax.hotel.catalog;
+
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CatalogFormatTest {
+
+    @Test
+    void testNdjsonRoundTrip() throws IOException {
+        final List<Hotel> hotels = new CatalogGenerator(1).hotels(500).toList();
+        final byte[] bytes = write(CatalogFormat.NDJSON, hotels, 0);
+
+        final String text = new String(bytes, StandardCharsets.UTF_8);
+        assertEquals(500, text.lines().count());
+        assertTrue(text.startsWith("{\"id\":1,\"name\":\""));
+
+        assertEquals(describe(hotels), describe(read(CatalogFormat.NDJSON, bytes)));
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws IOException {
+        final List<Hotel> hotels = new CatalogGenerator(1).hotels(500).toList();
+        hotels.get(0).setVersion(17);
+        hotels.get(1).setName(null);
+        final byte[] bytes = write(CatalogFormat.SNAPSHOT, hotels, 99);
+
+        try (CatalogReader reader = CatalogFormat.SNAPSHOT.reader(new ByteArrayInputStream(bytes))) {
+            assertEquals(99, reader.getCatalogVersion());
+            final List<Hotel> read = reader.hotels().toList();
+            assertEquals(describe(hotels), describe(read));
+            assertEquals(17, read.get(0).getVersion());
+            assertNull(read.get(1).getName());
+        }
+    }
+
+    @Test
+    void testTruncatedSnapshotIsRejected() throws IOException {
+        final byte[] bytes = write(CatalogFormat.SNAPSHOT, new CatalogGenerator(1).hotels(10).toList(), 0);
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+
+        try (CatalogReader reader = CatalogFormat.SNAPSHOT.reader(new ByteArrayInputStream(truncated))) {
+            assertThrows(UncheckedIOException.class, () -> reader.hotels().count());
+        }
+        assertThrows(IOException.class, () -> CatalogFormat.SNAPSHOT.reader(new ByteArrayInputStream(new byte[16])));
+    }
+
+    @Test
+    void testFormatFromFileName() {
+        assertEquals(CatalogFormat.NDJSON, CatalogFormat.fromFileName("/tmp/catalog.ndjson"));
+        assertEquals(CatalogFormat.SNAPSHOT, CatalogFormat.fromFileName("catalog.SNAPSHOT"));
+        assertThrows(IllegalArgumentException.class, () -> CatalogFormat.fromFileName("catalog.csv"));
+    }
+
+    private static byte[] write(final CatalogFormat format, final List<Hotel> hotels, final long catalogVersion) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CatalogWriter writer = format.writer(out, catalogVersion)) {
+            hotels.forEach(writer::write);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Hotel> read(final CatalogFormat format, final byte[] bytes) throws IOException {
+        try (CatalogReader reader = format.reader(new ByteArrayInputStream(bytes))) {
+            return reader.hotels().toList();
+        }
+    }
+
+    private static List<String> describe(final List<Hotel> hotels) {
+        return hotels.stream()
+                .map(hotel -> hotel.getId() + "|" + hotel.getName() + "|" + hotel.getPrice() + "|" + hotel.getLongitude() + "|" + hotel.getLatitude())
+                .toList();
+    }
+}
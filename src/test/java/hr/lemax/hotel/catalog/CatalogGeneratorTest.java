@@ -0,0 +1,59 @@
+package hr.lemax.hotel.catalog;
+
+import hr.lemax.hotel.common.util.GeoUtils;
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CatalogGeneratorTest {
+
+    @Test
+    void testSameSeedGeneratesSameCatalog() {
+        final List<String> first = new CatalogGenerator(7).hotels(1_000).map(Hotel::toString).toList();
+        final List<String> second = new CatalogGenerator(7).hotels(1_000).map(Hotel::toString).toList();
+        final List<String> longer = new CatalogGenerator(7).hotels(2_000).map(Hotel::toString).toList();
+        final List<String> otherSeed = new CatalogGenerator(8).hotels(1_000).map(Hotel::toString).toList();
+
+        assertEquals(first, second);
+        assertEquals(first, longer.subList(0, 1_000));
+        assertNotEquals(first, otherSeed);
+    }
+
+    @Test
+    void testHotelsAreValidAndClusteredAroundCities() {
+        final int count = 100_000;
+        final double[] prices = new double[count];
+        final int[] nearCity = new int[1];
+        new CatalogGenerator(42).hotels(count).forEach(hotel -> {
+            assertTrue(hotel.getLongitude() >= -180 && hotel.getLongitude() <= 180);
+            assertTrue(hotel.getLatitude() >= -90 && hotel.getLatitude() <= 90);
+            assertTrue(hotel.getPrice() >= 15);
+            assertTrue(hotel.getName().endsWith(" " + hotel.getId()));
+            prices[(int) (hotel.getId() - 1)] = hotel.getPrice();
+
+            final boolean near = CatalogGenerator.CITIES.stream().anyMatch(city ->
+                    GeoUtils.haversineDistance(city.longitude(), city.latitude(), hotel.getLongitude(), hotel.getLatitude())
+                            <= 3 * city.spreadKm());
+            if (near) {
+                nearCity[0]++;
+            }
+        });
+
+        // All but regional hotels and the tail of the normal distribution are within 3 sigma of their city
+        assertTrue(nearCity[0] > count * 0.93, "Hotels near city: " + nearCity[0]);
+
+        // Prices are right-skewed: median below mean, long tail of luxury hotels
+        Arrays.sort(prices);
+        final double median = prices[count / 2];
+        final double mean = Arrays.stream(prices).average().orElseThrow();
+        assertTrue(median < mean);
+        assertTrue(median > 50 && median < 250, "Median price: " + median);
+        assertTrue(prices[(int) (count * 0.99)] > 3 * median);
+    }
+}
@@ -0,0 +1,169 @@
+package hr.lemax.hotel.cluster;
+
+import hr.lemax.hotel.common.exception.HotelNotFoundException;
+import hr.lemax.hotel.dto.HotelDTO;
+import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.dto.HotelSearchDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class ClusterCoordinatorTest {
+    // Longitude bands: shard 0 west of -60, shard 1 between -60 and 60, shard 2 east of 60
+    private final ShardRouter router = new ShardRouter(3, 10, Map.of());
+    private final List<MockRestServiceServer> servers = new ArrayList<>();
+    private ClusterCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        final List<RestClient> nodes = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            final RestClient.Builder builder = RestClient.builder().baseUrl(url(shard, ""));
+            servers.add(MockRestServiceServer.bindTo(builder).build());
+            nodes.add(builder.build());
+        }
+        coordinator = new ClusterCoordinator(router, nodes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinator.close();
+    }
+
+    @Test
+    void testSearchSkipsShardsBeyondTopK() {
+        servers.get(1).expect(requestTo(url(1, "/hotels/search?limit=2"))).andExpect(method(HttpMethod.POST))
+                .andRespond(json("[" + searchResult(1, 20.0, 1.0) + "," + searchResult(2, 80.0, 2.0) + "]"));
+
+        final List<HotelSearchDTO> hotels = coordinator.search(15.0, 45.0, 2);
+
+        // Shards 0 and 2 are thousands of kilometers away, further than the second hotel of shard 1
+        servers.forEach(MockRestServiceServer::verify);
+        assertEquals(List.of(router.globalId(1, 1), router.globalId(1, 2)), hotels.stream().map(HotelSearchDTO::getId).toList());
+    }
+
+    @Test
+    void testSearchMergesShardsByDistanceAndPrice() {
+        servers.get(1).expect(requestTo(url(1, "/hotels/search?limit=3")))
+                .andRespond(json("[" + searchResult(1, 20.0, 1.0) + "]"));
+        servers.get(0).expect(requestTo(url(0, "/hotels/search?limit=3")))
+                .andRespond(json("[" + searchResult(7, 50.0, 5000.0) + "," + searchResult(8, 10.0, 6000.0) + "]"));
+        servers.get(2).expect(requestTo(url(2, "/hotels/search?limit=3")))
+                .andRespond(json("[" + searchResult(3, 40.0, 5000.0) + "]"));
+
+        final List<HotelSearchDTO> hotels = coordinator.search(15.0, 45.0, 3);
+
+        // Fewer hotels than the limit in the nearest shard, so the others are searched too
+        servers.forEach(MockRestServiceServer::verify);
+        assertEquals(
+                List.of(router.globalId(1, 1), router.globalId(2, 3), router.globalId(0, 7)),
+                hotels.stream().map(HotelSearchDTO::getId).toList());
+    }
+
+    @Test
+    void testGlobalIds() {
+        servers.get(2).expect(requestTo(url(2, "/hotels"))).andExpect(method(HttpMethod.POST))
+                .andRespond(json(hotel(5, 100.0)));
+        servers.get(2).expect(requestTo(url(2, "/hotels/5"))).andExpect(method(HttpMethod.GET))
+                .andRespond(json(hotel(5, 100.0)));
+        servers.get(2).expect(requestTo(url(2, "/hotels/5"))).andExpect(method(HttpMethod.DELETE))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        final HotelDTO added = coordinator.addHotel(new HotelModificationDTO("Tokyo", 100.0, 139.69, 35.69));
+        assertEquals(router.globalId(2, 5), added.getId());
+        assertEquals(added.getId(), coordinator.getHotel(added.getId()).orElseThrow().getId());
+        assertThrows(HotelNotFoundException.class, () -> coordinator.deleteHotel(added.getId()));
+        // Not an ID of any shard
+        assertThrows(HotelNotFoundException.class, () -> coordinator.getHotel(router.globalId(2, 5) + 1));
+        servers.forEach(MockRestServiceServer::verify);
+    }
+
+    @Test
+    void testMovedHotelIsAddedToNewShardAndDeletedFromOld() {
+        final long id = router.globalId(0, 4);
+        expectMove();
+        servers.get(0).expect(requestTo(url(0, "/hotels/4"))).andExpect(method(HttpMethod.DELETE))
+                .andRespond(withNoContent());
+
+        final HotelDTO moved = coordinator.updateHotel(id, new HotelModificationDTO("Moved", 100.0, 15.0, 45.0));
+
+        servers.forEach(MockRestServiceServer::verify);
+        assertEquals(router.globalId(1, 9), moved.getId());
+    }
+
+    @Test
+    void testMovedHotelCopyIsDeletedIfOldCannotBe() {
+        final long id = router.globalId(0, 4);
+        expectMove();
+        servers.get(0).expect(requestTo(url(0, "/hotels/4"))).andExpect(method(HttpMethod.DELETE))
+                .andRespond(withServerError());
+        servers.get(1).expect(requestTo(url(1, "/hotels/9"))).andExpect(method(HttpMethod.DELETE))
+                .andRespond(withNoContent());
+
+        assertThrows(HttpServerErrorException.class,
+                () -> coordinator.updateHotel(id, new HotelModificationDTO("Moved", 100.0, 15.0, 45.0)));
+        servers.forEach(MockRestServiceServer::verify);
+    }
+
+    @Test
+    void testMovedHotelCopyIsDeletedIfOldIsGone() {
+        final long id = router.globalId(0, 4);
+        expectMove();
+        // Deleted concurrently after it was found
+        servers.get(0).expect(requestTo(url(0, "/hotels/4"))).andExpect(method(HttpMethod.DELETE))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        servers.get(1).expect(requestTo(url(1, "/hotels/9"))).andExpect(method(HttpMethod.DELETE))
+                .andRespond(withNoContent());
+
+        assertThrows(HotelNotFoundException.class,
+                () -> coordinator.updateHotel(id, new HotelModificationDTO("Moved", 100.0, 15.0, 45.0)));
+        servers.forEach(MockRestServiceServer::verify);
+    }
+
+    /**
+     * Hotel 4 of shard 0 found and added to shard 1 as hotel 9.
+     */
+    private void expectMove() {
+        servers.get(0).expect(requestTo(url(0, "/hotels/4"))).andExpect(method(HttpMethod.GET))
+                .andRespond(json(hotel(4, 100.0)));
+        servers.get(1).expect(requestTo(url(1, "/hotels"))).andExpect(method(HttpMethod.POST))
+                .andRespond(json(hotel(9, 100.0)));
+    }
+
+    private static String url(final int shard, final String path) {
+        return "http://shard" + shard + "/api" + path;
+    }
+
+    private static ResponseCreator json(final String body) {
+        return withSuccess(body, MediaType.APPLICATION_JSON);
+    }
+
+    private static String hotel(final long id, final double price) {
+        return "{\"id\":" + id + ",\"name\":\"Hotel " + id + "\",\"price\":" + price + ",\"longitude\":15.0,\"latitude\":45.0}";
+    }
+
+    private static String searchResult(final long id, final double price, final double distance) {
+        return "{\"id\":" + id + ",\"name\":\"Hotel " + id + "\",\"price\":" + price
+                + ",\"longitude\":15.0,\"latitude\":45.0,\"distance\":" + distance + "}";
+    }
+}
@@ -0,0 +1,88 @@
+package hr.lemax.hotel.cluster;
+
+import hr.lemax.hotel.common.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardRouterTest {
+
+    @Test
+    void testLongitudeBandsByDefault() {
+        final ShardRouter router = new ShardRouter(3, 10, Map.of());
+
+        assertEquals(0, router.shardOf(-100, 40));
+        assertEquals(1, router.shardOf(15.98, 45.81));
+        assertEquals(2, router.shardOf(139.69, 35.69));
+        assertEquals(0, router.shardOf(-180, -90));
+        assertEquals(2, router.shardOf(180, 90));
+    }
+
+    @Test
+    void testCellOverrides() {
+        final ShardRouter router = new ShardRouter(3, 10, Map.of());
+        final int zagreb = router.cellOf(15.98, 45.81);
+        final ShardRouter overridden = new ShardRouter(3, 10, Map.of(zagreb, 2));
+
+        assertEquals(13 * 36 + 19, zagreb);
+        assertEquals(2, overridden.shardOf(15.98, 45.81));
+        assertEquals(1, overridden.shardOf(2.35, 48.86));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRouter(3, 10, Map.of(zagreb, 3)));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRouter(3, 10, Map.of(648, 0)));
+    }
+
+    @Test
+    void testGlobalIds() {
+        final ShardRouter router = new ShardRouter(3, 10, Map.of());
+        final long id = router.globalId(2, 12345);
+
+        assertEquals(2, router.shardOfId(id));
+        assertEquals(12345, router.localId(id));
+        assertEquals(1L << ShardRouter.SHARD_BITS | 1, router.globalId(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> router.shardOfId(router.globalId(1, 1) + 2));
+        assertThrows(IllegalArgumentException.class, () -> router.shardOfId(0));
+        assertThrows(IllegalArgumentException.class, () -> router.globalId(0, 0));
+    }
+
+    @Test
+    void testMinDistancesAreLowerBounds() {
+        final ShardRouter router = new ShardRouter(4, 15, Map.of(100, 3, 101, 0));
+        final Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            final double userLon = random.nextDouble(-180, 180);
+            final double userLat = random.nextDouble(-90, 90);
+            final double[] minDistances = router.minDistances(userLon, userLat);
+            assertEquals(0, minDistances[router.shardOf(userLon, userLat)]);
+
+            for (int j = 0; j < 200; j++) {
+                final double lon = random.nextDouble(-180, 180);
+                final double lat = random.nextDouble(-90, 90);
+                final double distance = GeoUtils.haversineDistance(userLon, userLat, lon, lat);
+                assertTrue(minDistances[router.shardOf(lon, lat)] <= distance + 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void testDistanceToCell() {
+        // Inside, straight south and across the antimeridian
+        assertEquals(0, ShardRouter.distanceToCell(15, 45, 10, 20, 40, 50));
+        assertEquals(GeoUtils.haversineDistance(15, 30, 15, 40), ShardRouter.distanceToCell(15, 30, 10, 20, 40, 50), 1e-6);
+        assertEquals(GeoUtils.haversineDistance(-179, 0, 180, 0), ShardRouter.distanceToCell(-179, 0, 170, 180, -10, 10), 1e-6);
+        // Nearest point of a high latitude cell is poleward of the user's latitude
+        final double distance = ShardRouter.distanceToCell(0, 60, 40, 50, 50, 70);
+        assertTrue(distance < GeoUtils.haversineDistance(0, 60, 40, 60));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardRouter(0, 10, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRouter(ShardRouter.MAX_SHARDS + 1, 10, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRouter(2, 0, Map.of()));
+    }
+}
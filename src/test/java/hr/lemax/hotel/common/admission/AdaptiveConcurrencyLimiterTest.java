@@ -0,0 +1,73 @@
+package hr.lemax.hotel.common.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+    private static final long BASE_LATENCY = 1_000_000;
+
+    @Test
+    void testRejectsOverLimit() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.2, 100);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(BASE_LATENCY);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyIsStable() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 2.0, 0.2, 1000);
+
+        for (int i = 0; i < 200; i++) {
+            saturateAndRelease(limiter, BASE_LATENCY);
+        }
+
+        assertTrue(limiter.getLimit() > 10, "Limit should grow, was " + limiter.getLimit());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 2, 100, 2.0, 0.2, 1000);
+        saturateAndRelease(limiter, BASE_LATENCY);
+
+        for (int i = 0; i < 200; i++) {
+            saturateAndRelease(limiter, BASE_LATENCY * 20);
+        }
+
+        assertTrue(limiter.getLimit() < 50, "Limit should shrink, was " + limiter.getLimit());
+    }
+
+    @Test
+    void testLimitStaysWithinBounds() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(6, 5, 8, 2.0, 1.0, 1000);
+        saturateAndRelease(limiter, BASE_LATENCY);
+
+        for (int i = 0; i < 100; i++) {
+            saturateAndRelease(limiter, BASE_LATENCY * 100);
+        }
+        assertEquals(5, limiter.getLimit());
+
+        for (int i = 0; i < 1000; i++) {
+            saturateAndRelease(limiter, BASE_LATENCY);
+        }
+        assertEquals(8, limiter.getLimit());
+    }
+
+    private static void saturateAndRelease(final AdaptiveConcurrencyLimiter limiter, final long latency) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(latency);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package hr.lemax.hotel.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MpscRingBufferTest {
+    private static final int PRODUCERS = 4;
+    private static final int PER_PRODUCER = 100_000;
+
+    @Test
+    void testOfferAndPollInOrder() {
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(i));
+            }
+            assertFalse(buffer.offer(4));
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i, buffer.poll());
+            }
+            assertTrue(buffer.isEmpty());
+        }
+    }
+
+    @Test
+    void testDrainRespectsLimit() {
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+        final List<Integer> drained = new ArrayList<>();
+
+        assertEquals(3, buffer.drain(drained::add, 3));
+        assertEquals(2, buffer.drain(drained::add, 3));
+        assertEquals(0, buffer.drain(drained::add, 3));
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(0));
+        assertThrows(NullPointerException.class, () -> new MpscRingBuffer<>(4).offer(null));
+    }
+
+    @Test
+    void testConcurrentProducersKeepTheirOrder() throws Exception {
+        final MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(1024);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        try {
+            for (int producer = 0; producer < PRODUCERS; producer++) {
+                final long id = producer;
+                producers.submit(() -> {
+                    start.await();
+                    for (long sequence = 0; sequence < PER_PRODUCER; sequence++) {
+                        final long[] element = {id, sequence};
+                        while (!buffer.offer(element)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+
+            final long[] next = new long[PRODUCERS];
+            int received = 0;
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received < PRODUCERS * PER_PRODUCER && System.nanoTime() < deadline) {
+                final long[] element = buffer.poll();
+                if (element == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                assertEquals(next[(int) element[0]]++, element[1]);
+                received++;
+            }
+            assertEquals(PRODUCERS * PER_PRODUCER, received);
+            assertTrue(buffer.isEmpty());
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+}
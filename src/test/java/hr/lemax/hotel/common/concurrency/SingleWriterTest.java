@@ -0,0 +1,96 @@
+package hr.lemax.hotel.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleWriterTest {
+    private static final int CALLERS = 8;
+    private static final int PER_CALLER = 10_000;
+
+    @Test
+    void testMutationsRunOnWriterThread() {
+        try (SingleWriter writer = new SingleWriter("test-writer", 16, 4)) {
+            final Thread caller = Thread.currentThread();
+            final Thread applier = writer.execute(Thread::currentThread);
+
+            assertNotEquals(caller, applier);
+            assertEquals("test-writer", applier.getName());
+            // Nested mutations are applied right away instead of waiting for themselves
+            assertEquals(42, writer.execute(() -> writer.execute(() -> 42)));
+        }
+    }
+
+    @Test
+    void testExceptionIsThrownToCaller() {
+        try (SingleWriter writer = new SingleWriter("test-writer", 16, 4)) {
+            assertThrows(NoSuchElementException.class, () -> writer.execute(() -> {
+                throw new NoSuchElementException("Missing");
+            }));
+            assertEquals(1, writer.execute(() -> 1));
+        }
+    }
+
+    @Test
+    void testConcurrentMutationsAreAppliedOneAtATime() throws Exception {
+        final List<Integer> applied = new ArrayList<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try (SingleWriter writer = new SingleWriter("test-writer", 64, 16)) {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int caller = 0; caller < CALLERS; caller++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    final List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+                    for (int i = 0; i < PER_CALLER; i++) {
+                        // Not thread-safe, only correct if mutations never overlap
+                        futures.add(writer.submit(() -> applied.add(applied.size())));
+                    }
+                    futures.forEach(CompletableFuture::join);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertEquals(CALLERS * PER_CALLER, applied.size());
+            for (int i = 0; i < applied.size(); i++) {
+                assertEquals(i, applied.get(i));
+            }
+            assertEquals(CALLERS * PER_CALLER, writer.getAppliedCount());
+            assertTrue(writer.getBatchCount() <= writer.getAppliedCount());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testClosedWriterRejectsMutations() {
+        final SingleWriter writer = new SingleWriter("test-writer", 4, 4);
+        final CompletableFuture<Integer> pending = writer.submit(() -> 1);
+        writer.close();
+
+        assertEquals(1, pending.join());
+        // Fill the buffer, so the next submission cannot be queued
+        for (int i = 0; i < 4; i++) {
+            writer.submit(() -> 0);
+        }
+        assertThrows(RejectedExecutionException.class, () -> writer.execute(() -> 2));
+    }
+}
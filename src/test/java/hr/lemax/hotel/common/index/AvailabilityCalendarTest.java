@@ -0,0 +1,79 @@
+package hr.lemax.hotel.common.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityCalendarTest {
+
+    @Test
+    void testAvailableOnEveryNightOfStay() {
+        final AvailabilityCalendar calendar = new AvailabilityCalendar();
+        calendar.set(1, 100, 110, true);
+        calendar.set(2, 100, 105, true);
+        calendar.set(3, 100, 110, true);
+        calendar.set(3, 104, 105, false);
+
+        final LongPredicate available = calendar.available(101, 104);
+        assertTrue(available.test(1));
+        assertTrue(available.test(2));
+        assertTrue(available.test(3));
+        assertFalse(available.test(4));
+
+        final LongPredicate longStay = calendar.available(101, 107);
+        assertTrue(longStay.test(1));
+        assertFalse(longStay.test(2));
+        assertFalse(longStay.test(3));
+
+        // The check-out day itself is not a night of the stay
+        assertTrue(calendar.available(103, 105).test(2));
+        assertFalse(calendar.available(109, 111).test(1));
+        assertThrows(IllegalArgumentException.class, () -> calendar.available(105, 105));
+    }
+
+    @Test
+    void testRemoveReusesSlot() {
+        final AvailabilityCalendar calendar = new AvailabilityCalendar();
+        calendar.set(1, 100, 102, true);
+        calendar.set(2, 100, 102, true);
+        calendar.remove(1);
+        calendar.set(3, 101, 102, true);
+
+        assertEquals(2, calendar.size());
+        assertFalse(calendar.available(100, 101).test(1));
+        assertFalse(calendar.available(100, 101).test(3));
+        assertTrue(calendar.available(101, 102).test(3));
+        assertTrue(calendar.available(100, 102).test(2));
+    }
+
+    @Test
+    void testRanges() {
+        final AvailabilityCalendar calendar = new AvailabilityCalendar();
+        calendar.set(1, 100, 110, true);
+        calendar.set(1, 103, 105, false);
+        calendar.set(1, 120, 121, true);
+        calendar.set(2, 100, 130, true);
+
+        assertEquals(List.of(
+                        new AvailabilityCalendar.Range(100, 103),
+                        new AvailabilityCalendar.Range(105, 110),
+                        new AvailabilityCalendar.Range(120, 121)),
+                calendar.ranges(1, 0, 200));
+        assertEquals(List.of(new AvailabilityCalendar.Range(106, 110)), calendar.ranges(1, 106, 115));
+        assertEquals(List.of(), calendar.ranges(3, 0, 200));
+    }
+
+    @Test
+    void testRemoveBefore() {
+        final AvailabilityCalendar calendar = new AvailabilityCalendar();
+        calendar.set(1, 100, 110, true);
+        calendar.removeBefore(105);
+
+        assertFalse(calendar.available(104, 106).test(1));
+        assertTrue(calendar.available(105, 110).test(1));
+        assertEquals(List.of(new AvailabilityCalendar.Range(105, 110)), calendar.ranges(1, 0, 200));
+    }
+}
@@ -0,0 +1,103 @@
+package hr.lemax.hotel.common.index;
+
+import hr.lemax.hotel.common.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeoPriceIndexTest {
+
+    @Test
+    void testNearestOrderMatchesDistances() {
+        final Random random = new Random(3);
+        final GeoPriceIndex index = new GeoPriceIndex(1.0);
+        final List<HotelPoint> hotels = new ArrayList<>();
+        for (long id = 1; id <= 3_000; id++) {
+            final HotelPoint hotel = new HotelPoint(id, 50 + random.nextInt(200),
+                    random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90);
+            hotels.add(hotel);
+            index.put(hotel);
+        }
+
+        // Including locations near the poles and the antimeridian
+        final double[][] locations = {{15.98, 45.81}, {179.9, -10.0}, {-179.9, 89.5}, {0.0, -89.9}};
+        for (final double[] location : locations) {
+            final List<Double> expected = hotels.stream()
+                    .map(hotel -> GeoUtils.haversineDistance(location[0], location[1], hotel.longitude(), hotel.latitude()))
+                    .sorted()
+                    .toList();
+            final GeoPriceIndex.NearestCursor cursor = index.nearest(location[0], location[1]);
+            final List<Double> actual = new ArrayList<>();
+            while (cursor.next() != null) {
+                actual.add(cursor.distance());
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void testNearestVisitsOnlyCellsAroundLocation() {
+        final GeoPriceIndex index = new GeoPriceIndex(1.0);
+        for (long id = 0; id < 10_000; id++) {
+            index.put(new HotelPoint(id, 100, -180 + (id % 360), -80 + (id / 360) * 5.0));
+        }
+
+        final GeoPriceIndex.NearestCursor cursor = index.nearest(15.5, 45.5);
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(cursor.next());
+        }
+        assertTrue(cursor.getCellsVisited() < 200, "visited " + cursor.getCellsVisited());
+    }
+
+    @Test
+    void testCheapestAndRemove() {
+        final GeoPriceIndex index = new GeoPriceIndex(10.0);
+        index.put(new HotelPoint(1, 120, 15.98, 45.81));
+        index.put(new HotelPoint(2, 80, 16.44, 43.51));
+        index.put(new HotelPoint(3, 100, 15.98, 45.81));
+        // Replaces the hotel with the same ID
+        index.put(new HotelPoint(1, 60, 15.98, 45.81));
+        index.remove(3);
+
+        final List<Long> ids = new ArrayList<>();
+        final Iterator<HotelPoint> cheapest = index.cheapest();
+        cheapest.forEachRemaining(hotel -> ids.add(hotel.id()));
+        assertEquals(List.of(1L, 2L), ids);
+        assertEquals(2, index.size());
+        final GeoPriceIndex.NearestCursor cursor = index.nearest(15.98, 45.81);
+        assertEquals(1, cursor.next().id());
+        assertEquals(2, cursor.next().id());
+        assertNull(cursor.next());
+    }
+
+    @Test
+    void testPriceChangeReplacesHotelInPlace() {
+        final GeoPriceIndex index = new GeoPriceIndex(10.0);
+        index.put(new HotelPoint(1, 120, 15.98, 45.81));
+        index.put(new HotelPoint(2, 80, 15.97, 45.80));
+        index.put(new HotelPoint(1, 60, 15.98, 45.81));
+        // Unchanged hotel is left as it is
+        index.put(new HotelPoint(2, 80, 15.97, 45.80));
+        // Moved within its cell
+        index.put(new HotelPoint(2, 80, 15.99, 45.82));
+
+        final Iterator<HotelPoint> cheapest = index.cheapest();
+        assertEquals(new HotelPoint(1, 60, 15.98, 45.81), cheapest.next());
+        assertEquals(new HotelPoint(2, 80, 15.99, 45.82), cheapest.next());
+        assertFalse(cheapest.hasNext());
+        final GeoPriceIndex.NearestCursor cursor = index.nearest(15.99, 45.82);
+        assertEquals(new HotelPoint(2, 80, 15.99, 45.82), cursor.next());
+        assertEquals(1, cursor.next().id());
+        assertNull(cursor.next());
+    }
+
+    @Test
+    void testInvalidCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> new GeoPriceIndex(0));
+    }
+}
@@ -0,0 +1,88 @@
+package hr.lemax.hotel.common.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeoSubscriptionIndexTest {
+
+    @Test
+    void testMatchingEqualsFullScan() {
+        final Random random = new Random(5);
+        final GeoSubscriptionIndex index = new GeoSubscriptionIndex(1.0);
+        final List<GeoSubscription> subscriptions = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            final GeoSubscription subscription = new GeoSubscription(id,
+                    random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90,
+                    random.nextDouble() * 1_000, random.nextBoolean() ? null : 50.0 + random.nextInt(200));
+            subscriptions.add(subscription);
+            index.put(subscription);
+        }
+        // Near the poles and the antimeridian as well
+        subscriptions.add(new GeoSubscription(2_001, 179.9, -10.0, 300, null));
+        subscriptions.add(new GeoSubscription(2_002, -179.9, 89.5, 300, null));
+        subscriptions.forEach(index::put);
+
+        for (int i = 0; i < 5_000; i++) {
+            final double longitude = random.nextDouble() * 360 - 180;
+            final double latitude = random.nextDouble() * 180 - 90;
+            final double price = 50 + random.nextInt(200);
+            final List<GeoSubscription> expected = subscriptions.stream()
+                    .filter(subscription -> subscription.matches(longitude, latitude, price))
+                    .sorted(Comparator.comparingLong(GeoSubscription::id))
+                    .toList();
+            final List<GeoSubscription> actual = index.matching(longitude, latitude, price).stream()
+                    .sorted(Comparator.comparingLong(GeoSubscription::id))
+                    .toList();
+            assertEquals(expected, actual);
+        }
+        for (final double[] hotel : new double[][]{{-179.95, -10.0}, {179.99, -10.5}, {0.0, 89.9}, {-179.0, 88.0}}) {
+            assertEquals(
+                    subscriptions.stream().filter(s -> s.matches(hotel[0], hotel[1], 100)).count(),
+                    index.matching(hotel[0], hotel[1], 100).size());
+        }
+    }
+
+    @Test
+    void testPriceCapAndRadius() {
+        final GeoSubscriptionIndex index = new GeoSubscriptionIndex(1.0);
+        // Zagreb, 50 km, up to 100
+        index.put(new GeoSubscription(1, 15.98, 45.81, 50, 100.0));
+
+        assertEquals(1, index.matching(16.0, 45.8, 100).size());
+        assertTrue(index.matching(16.0, 45.8, 100.01).isEmpty());
+        // Rijeka is about 130 km away
+        assertTrue(index.matching(14.44, 45.33, 80).isEmpty());
+    }
+
+    @Test
+    void testReplaceAndRemove() {
+        final GeoSubscriptionIndex index = new GeoSubscriptionIndex(1.0);
+        index.put(new GeoSubscription(1, 15.98, 45.81, 50, null));
+        index.put(new GeoSubscription(1, 14.44, 45.33, 50, null));
+
+        assertEquals(1, index.size());
+        assertTrue(index.matching(16.0, 45.8, 100).isEmpty());
+        assertEquals(1, index.matching(14.4, 45.3, 100).size());
+
+        assertNotNull(index.remove(1));
+        assertNull(index.remove(1));
+        assertEquals(0, index.size());
+        assertTrue(index.matching(14.4, 45.3, 100).isEmpty());
+    }
+
+    @Test
+    void testCellsCoverCircleOnly() {
+        final GeoSubscriptionIndex index = new GeoSubscriptionIndex(1.0);
+
+        // About 0.27 degrees of latitude and 0.39 of longitude around the center of a cell
+        assertEquals(1, index.cellCount(new GeoSubscription(1, 15.5, 45.5, 30, null)));
+        // Circle around the pole spans all longitudes
+        assertEquals(360 * 2, index.cellCount(new GeoSubscription(2, 0, 89.5, 100, null)));
+    }
+}
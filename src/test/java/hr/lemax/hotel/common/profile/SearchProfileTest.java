@@ -0,0 +1,76 @@
+package hr.lemax.hotel.common.profile;
+
+import hr.lemax.hotel.common.index.GeoPriceIndex;
+import hr.lemax.hotel.common.index.HotelPoint;
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.common.strategy.WeightedScoreTopK;
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchProfileTest {
+
+    @AfterEach
+    void clear() {
+        SearchProfile.clear();
+    }
+
+    @Test
+    void testNothingIsRecordedWithoutProfile() {
+        SearchProfile.addCandidates(10);
+        SearchProfile.mark(SearchProfile.Stage.SCAN);
+
+        assertNull(SearchProfile.current());
+    }
+
+    @Test
+    void testStagesAreTimedBackToBack() {
+        final SearchProfile profile = SearchProfile.start();
+        SearchProfile.mark(SearchProfile.Stage.VALIDATION);
+        SearchProfile.addCandidates(3);
+        SearchProfile.addCandidates(2);
+        SearchProfile.addCacheHit();
+        SearchProfile.mark(SearchProfile.Stage.SCAN);
+        SearchProfile.mark(SearchProfile.Stage.SCAN);
+
+        assertSame(profile, SearchProfile.current());
+        assertEquals(5, profile.getCandidates());
+        assertEquals(1, profile.getCacheHits());
+        final Map<SearchProfile.Stage, Long> stages = profile.getStageNanos();
+        assertEquals(List.of(SearchProfile.Stage.VALIDATION, SearchProfile.Stage.SCAN), new ArrayList<>(stages.keySet()));
+        assertTrue(stages.values().stream().mapToLong(Long::longValue).sum() <= profile.getTotalNanos());
+
+        SearchProfile.clear();
+        assertNull(SearchProfile.current());
+    }
+
+    @Test
+    void testStrategiesReportCounters() {
+        final List<Hotel> hotels = new ArrayList<>();
+        final GeoPriceIndex index = new GeoPriceIndex(1.0);
+        for (long id = 1; id <= 1_000; id++) {
+            final Hotel hotel = new Hotel(id, "Hotel " + id, 50 + id % 200, 10 + id % 20, 40 + id % 10);
+            hotels.add(hotel);
+            index.put(HotelPoint.of(hotel));
+        }
+
+        final SearchProfile ranked = SearchProfile.start();
+        new SortByDistanceAndPrice().sort(hotels, 15.0, 45.0);
+        assertEquals(1_000, ranked.getCandidates());
+        assertEquals(1_000, ranked.getDistancesComputed());
+        assertTrue(ranked.getStageNanos().containsKey(SearchProfile.Stage.SCAN));
+        assertTrue(ranked.getStageNanos().containsKey(SearchProfile.Stage.SORT));
+
+        final SearchProfile weighted = SearchProfile.start();
+        final WeightedScoreTopK.TopK top = new WeightedScoreTopK(0.5, 0.5, 10, 100, 5).search(index, 15.0, 45.0);
+        assertEquals(top.examined(), weighted.getCandidates());
+        assertTrue(weighted.getCellsVisited() > 0);
+        assertTrue(weighted.getDistancesComputed() >= top.examined());
+    }
+}
@@ -0,0 +1,104 @@
+package hr.lemax.hotel.common.sse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SseSubscriptionTest {
+
+    @Test
+    void testEventsAreSentByOneTask() {
+        final ManualExecutor sender = new ManualExecutor();
+        final SseSubscription subscription = new SseSubscription(new SseEmitter(), 10, sender);
+
+        assertTrue(subscription.offer(SseEvent.of(1, "added", "first")));
+        assertTrue(subscription.offer(SseEvent.of(2, "added", "second")));
+        assertEquals(1, sender.tasks.size());
+
+        sender.runAll();
+        assertTrue(subscription.isOpen());
+        assertTrue(subscription.offer(SseEvent.of(3, "added", "third")));
+        assertEquals(1, sender.tasks.size());
+    }
+
+    @Test
+    void testSlowSubscriberIsDisconnected() {
+        final ManualExecutor sender = new ManualExecutor();
+        final SseSubscription subscription = new SseSubscription(new SseEmitter(), 3, sender);
+        final AtomicInteger closed = new AtomicInteger();
+        subscription.onClose(closed::incrementAndGet);
+
+        for (long id = 1; id <= 3; id++) {
+            assertTrue(subscription.offer(SseEvent.of(id, "added", id)));
+        }
+        assertFalse(subscription.offer(SseEvent.of(4, "added", 4L)));
+        assertFalse(subscription.isOpen());
+        assertFalse(subscription.offer(SseEvent.of(5, "added", 5L)));
+        assertEquals(0, closed.get());
+
+        sender.runAll();
+        assertEquals(1, closed.get());
+        subscription.close();
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void testClosedWhenSenderRejects() {
+        final SseSubscription subscription = new SseSubscription(new SseEmitter(), 3, task -> {
+            throw new RejectedExecutionException("Shut down");
+        });
+        final AtomicInteger closed = new AtomicInteger();
+        subscription.onClose(closed::incrementAndGet);
+
+        subscription.offer(SseEvent.of(1, "added", 1L));
+        assertFalse(subscription.isOpen());
+        assertEquals(1, closed.get());
+
+        // Callbacks registered after closing run right away
+        subscription.onClose(closed::incrementAndGet);
+        assertEquals(2, closed.get());
+    }
+
+    @Test
+    void testHeartbeatOnlyWhenIdle() {
+        final ManualExecutor sender = new ManualExecutor();
+        final SseSubscription subscription = new SseSubscription(new SseEmitter(), 2, sender);
+
+        subscription.offer(SseEvent.of(1, "added", 1L));
+        subscription.heartbeat();
+        subscription.offer(SseEvent.of(2, "added", 2L));
+        // Heartbeat did not take room in the buffer
+        assertTrue(subscription.isOpen());
+
+        sender.runAll();
+        subscription.heartbeat();
+        assertEquals(1, sender.tasks.size());
+        sender.runAll();
+        assertTrue(subscription.isOpen());
+    }
+
+    private static class ManualExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(final Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
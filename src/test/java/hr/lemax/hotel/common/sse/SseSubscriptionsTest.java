@@ -0,0 +1,28 @@
+package hr.lemax.hotel.common.sse;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SseSubscriptionsTest {
+
+    @Test
+    void testClosedSubscriptionsAreForgotten() {
+        final SseSubscriptions subscriptions = new SseSubscriptions("test", 1, Duration.ofMinutes(1), Duration.ofMinutes(1), 10);
+        final SseSubscription first = subscriptions.open();
+        final SseSubscription second = subscriptions.open();
+        assertTrue(second.offer(SseEvent.of(1, "added", "first")));
+        assertEquals(2, subscriptions.size());
+
+        first.close();
+        assertEquals(1, subscriptions.size());
+
+        subscriptions.close();
+        assertFalse(second.isOpen());
+        assertEquals(0, subscriptions.size());
+    }
+}
@@ -0,0 +1,48 @@
+package hr.lemax.hotel.common.strategy;
+
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class FilteredHotelListTest {
+
+    @Test
+    void testFilteredHotelsAreRankedAlone() {
+        final Hotel near = new Hotel(1L, "Near", 300.0, 15.98, 45.81);
+        final Hotel middle = new Hotel(2L, "Middle", 100.0, 16.10, 45.90);
+        final Hotel far = new Hotel(3L, "Far", 50.0, 16.44, 43.51);
+        final List<Hotel> hotels = List.of(far, near, middle);
+
+        final FilteredHotelList filtered = FilteredHotelList.of(hotels, id -> id != 1L);
+
+        assertEquals(2, filtered.size());
+        assertEquals(far.getId(), filtered.get(0).getId());
+        assertEquals(middle.getId(), filtered.get(1).getId());
+        final List<Hotel> ranked = new SortByDistanceAndPrice().sort(filtered, 15.98, 45.81);
+        assertEquals(List.of(2L, 3L), ranked.stream().map(Hotel::getId).toList());
+        assertEquals(List.of(), new SortByDistanceAndPrice().sort(FilteredHotelList.of(hotels, id -> false), 15.98, 45.81));
+    }
+
+    @Test
+    void testSearchesDoNotShareEntities() {
+        final Hotel zagreb = new Hotel(1L, "Zagreb", 100.0, 15.98, 45.81);
+        final Hotel split = new Hotel(2L, "Split", 100.0, 16.44, 43.51);
+        final List<Hotel> stored = List.of(zagreb, split);
+
+        final List<Hotel> nearZagreb = new SortByDistanceAndPrice().sort(stored, 15.98, 45.81);
+        final Hotel first = nearZagreb.get(0);
+        final List<Hotel> nearSplit = new SortByDistanceAndPrice().sort(stored, 16.44, 43.51);
+        nearSplit.get(1);
+
+        // A search at another location does not change the distance of an earlier result
+        assertNotSame(zagreb, first);
+        assertEquals(0.0, first.getDistance());
+        assertEquals(0.0, nearZagreb.get(0).getDistance());
+        assertEquals(0.0, zagreb.getDistance());
+        assertEquals(0.0, split.getDistance());
+    }
+}
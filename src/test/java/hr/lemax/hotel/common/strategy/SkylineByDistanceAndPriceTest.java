@@ -0,0 +1,93 @@
+package hr.lemax.hotel.common.strategy;
+
+import hr.lemax.hotel.common.enums.DistanceEngine;
+import hr.lemax.hotel.common.util.GeoUtils;
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SkylineByDistanceAndPriceTest {
+
+    @Test
+    void testReturnsHotelsNotBeatenOnDistanceAndPrice() {
+        final List<Hotel> hotels = List.of(
+                new Hotel(1L, "Far cheap", 50.0, 16.44, 43.51),
+                new Hotel(2L, "Near expensive", 200.0, 15.98, 45.81),
+                new Hotel(3L, "Near cheaper", 100.0, 15.98, 45.81),
+                new Hotel(4L, "Far expensive", 150.0, 16.44, 43.51),
+                new Hotel(5L, "Middle", 80.0, 15.0, 45.0));
+
+        final List<Hotel> skyline = new SkylineByDistanceAndPrice().sort(hotels, 15.97, 45.80);
+
+        assertEquals(List.of(3L, 5L, 1L), skyline.stream().map(Hotel::getId).toList());
+        assertEquals(Math.round(GeoUtils.haversineDistance(15.97, 45.80, 15.98, 45.81) * 100) / 100.0, skyline.get(0).getDistance());
+    }
+
+    @Test
+    void testHotelsEqualInBothAreKept() {
+        final List<Hotel> hotels = List.of(
+                new Hotel(1L, "Twin", 100.0, 15.98, 45.81),
+                new Hotel(2L, "Twin", 100.0, 15.98, 45.81),
+                new Hotel(3L, "Same distance, more expensive", 120.0, 15.98, 45.81));
+
+        assertEquals(List.of(1L, 2L), new SkylineByDistanceAndPrice().sort(hotels, 15.97, 45.80)
+                .stream().map(Hotel::getId).toList());
+    }
+
+    @Test
+    void testMatchesPairwiseComparison() {
+        final Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            final List<Hotel> hotels = new ArrayList<>();
+            for (long id = 1; id <= 2_000; id++) {
+                hotels.add(new Hotel(id, "Hotel " + id, 50 + random.nextInt(50) * 5,
+                        15 + random.nextDouble() * 2, 45 + random.nextDouble() * 2));
+            }
+
+            final List<Long> skyline = new SkylineByDistanceAndPrice().sort(hotels, 16.0, 46.0)
+                    .stream().map(Hotel::getId).toList();
+
+            final List<Long> expected = new ArrayList<>();
+            final List<Hotel> ranked = new SortByDistanceAndPrice().sort(hotels, 16.0, 46.0);
+            for (final Hotel hotel : ranked) {
+                final boolean dominated = ranked.stream().anyMatch(other -> other.getDistance() <= hotel.getDistance()
+                        && other.getPrice() <= hotel.getPrice()
+                        && (other.getDistance() < hotel.getDistance() || other.getPrice() < hotel.getPrice()));
+                if (!dominated) {
+                    expected.add(hotel.getId());
+                }
+            }
+            assertEquals(expected, skyline);
+            assertFalse(skyline.isEmpty());
+        }
+    }
+
+    @Test
+    void testStaircaseReplacesDominatedStairs() {
+        final SkylineByDistanceAndPrice.Staircase staircase = new SkylineByDistanceAndPrice.Staircase();
+        for (int i = 0; i < 100; i++) {
+            // Each further hotel cheaper, all in the skyline
+            assertTrue(staircase.offer(i, 100 + i, 1_000 - i));
+        }
+        assertEquals(100, staircase.size());
+        assertFalse(staircase.offer(100, 150, 1_000));
+        // Nearer and cheaper than all
+        assertTrue(staircase.offer(101, 50, 1));
+        assertEquals(1, staircase.size());
+    }
+
+    @Test
+    void testEqualityDependsOnEngines() {
+        assertEquals(new SkylineByDistanceAndPrice(), new SkylineByDistanceAndPrice(DistanceEngine.HAVERSINE, DistanceEngine.HAVERSINE));
+        assertNotEquals(new SkylineByDistanceAndPrice(), new SkylineByDistanceAndPrice(DistanceEngine.EQUIRECTANGULAR, DistanceEngine.VINCENTY));
+        assertNotEquals(new SkylineByDistanceAndPrice(), new SortByDistanceAndPrice());
+    }
+}
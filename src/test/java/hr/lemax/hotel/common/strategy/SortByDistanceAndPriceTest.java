@@ -0,0 +1,64 @@
+package hr.lemax.hotel.common.strategy;
+
+import hr.lemax.hotel.common.enums.DistanceEngine;
+import hr.lemax.hotel.common.util.GeoUtils;
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SortByDistanceAndPriceTest {
+
+    @Test
+    void testSortsByDistanceAndThenPrice() {
+        final List<Hotel> hotels = List.of(
+                new Hotel(1L, "Far", 50.0, 16.44, 43.51),
+                new Hotel(2L, "Near expensive", 200.0, 15.98, 45.81),
+                new Hotel(3L, "Near cheap", 100.0, 15.98, 45.81));
+
+        final List<Hotel> sorted = new SortByDistanceAndPrice().sort(hotels, 15.97, 45.80);
+
+        assertEquals(List.of(3L, 2L, 1L), sorted.stream().map(Hotel::getId).toList());
+        assertEquals(Math.round(GeoUtils.haversineDistance(15.97, 45.80, 15.98, 45.81) * 100) / 100.0, sorted.get(0).getDistance());
+    }
+
+    @Test
+    void testRankingAndDistanceEngines() {
+        final Random random = new Random(13);
+        final List<Hotel> hotels = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            hotels.add(new Hotel(id, "Hotel " + id, 50 + random.nextInt(10) * 10,
+                    15 + random.nextDouble() * 2, 45 + random.nextDouble() * 2));
+        }
+
+        final List<Hotel> fast = new SortByDistanceAndPrice(DistanceEngine.EQUIRECTANGULAR, DistanceEngine.VINCENTY)
+                .sort(hotels, 16.0, 46.0);
+        final List<Hotel> exact = new SortByDistanceAndPrice(DistanceEngine.HAVERSINE, DistanceEngine.HAVERSINE)
+                .sort(hotels, 16.0, 46.0);
+
+        assertEquals(hotels.size(), fast.size());
+        for (int i = 0; i < 20; i++) {
+            final Hotel hotel = fast.get(i);
+            final double ellipsoidal = GeoUtils.ellipsoidalDistance(16.0, 46.0, hotel.getLongitude(), hotel.getLatitude());
+            assertEquals(Math.round(ellipsoidal * 100) / 100.0, hotel.getDistance());
+            // Approximate ranking differs from haversine ranking by at most the rounding to hundredths
+            final Hotel expected = exact.get(i);
+            assertTrue(Math.abs(GeoUtils.haversineDistance(16.0, 46.0, hotel.getLongitude(), hotel.getLatitude())
+                    - GeoUtils.haversineDistance(16.0, 46.0, expected.getLongitude(), expected.getLatitude())) <= 0.01);
+        }
+    }
+
+    @Test
+    void testEqualityDependsOnEngines() {
+        assertEquals(new SortByDistanceAndPrice(), new SortByDistanceAndPrice(DistanceEngine.HAVERSINE, DistanceEngine.HAVERSINE));
+        assertEquals(new SortByDistanceAndPrice().hashCode(),
+                new SortByDistanceAndPrice(DistanceEngine.HAVERSINE, DistanceEngine.HAVERSINE).hashCode());
+        assertNotEquals(new SortByDistanceAndPrice(), new SortByDistanceAndPrice(DistanceEngine.EQUIRECTANGULAR, DistanceEngine.VINCENTY));
+    }
+}
@@ -0,0 +1,61 @@
+package hr.lemax.hotel.common.strategy;
+
+import hr.lemax.hotel.common.index.GeoPriceIndex;
+import hr.lemax.hotel.common.index.HotelPoint;
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WeightedScoreTopKTest {
+
+    @Test
+    void testThresholdAlgorithmMatchesFullScan() {
+        final Random random = new Random(11);
+        final List<Hotel> hotels = new ArrayList<>();
+        final GeoPriceIndex index = new GeoPriceIndex(1.0);
+        for (long id = 1; id <= 50_000; id++) {
+            final Hotel hotel = new Hotel(id, "Hotel " + id, 30 + random.nextDouble() * 500,
+                    10 + random.nextDouble() * 20, 40 + random.nextDouble() * 10);
+            hotels.add(hotel);
+            index.put(HotelPoint.of(hotel));
+        }
+
+        final double[][] weights = {{0.5, 0.5}, {0.9, 0.1}, {0.1, 0.9}, {1, 0}, {0, 1}};
+        for (final double[] weight : weights) {
+            final WeightedScoreTopK strategy = new WeightedScoreTopK(weight[0], weight[1], 10, 100, 20);
+
+            final WeightedScoreTopK.TopK top = strategy.search(index, 16.0, 45.8);
+            final List<Long> expected = strategy.sort(hotels, 16.0, 45.8).stream().map(Hotel::getId).toList();
+
+            assertEquals(expected, top.hotels().stream().map(scored -> scored.hotel().id()).toList());
+            assertTrue(top.examined() < hotels.size() / 10, "examined " + top.examined());
+        }
+    }
+
+    @Test
+    void testFewerHotelsThanLimit() {
+        final GeoPriceIndex index = new GeoPriceIndex(1.0);
+        index.put(new HotelPoint(1, 100, 15.98, 45.81));
+        index.put(new HotelPoint(2, 50, 16.44, 43.51));
+
+        final WeightedScoreTopK.TopK top = new WeightedScoreTopK(1, 1, 10, 100, 20).search(index, 15.98, 45.81);
+
+        assertEquals(List.of(1L, 2L), top.hotels().stream().map(scored -> scored.hotel().id()).toList());
+        assertEquals(0.0, top.hotels().get(0).distance());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new WeightedScoreTopK(0, 0, 10, 100, 20));
+        assertThrows(IllegalArgumentException.class, () -> new WeightedScoreTopK(-1, 1, 10, 100, 20));
+        assertThrows(IllegalArgumentException.class, () -> new WeightedScoreTopK(1, 1, 0, 100, 20));
+        assertThrows(IllegalArgumentException.class, () -> new WeightedScoreTopK(1, 1, 10, 100, 0));
+    }
+}
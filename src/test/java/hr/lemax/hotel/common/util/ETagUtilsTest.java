@@ -0,0 +1,39 @@
+package hr.lemax.hotel.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ETagUtilsTest {
+    @Test
+    public void testMatches() {
+        final String eTag = ETagUtils.catalogETag(5L);
+
+        assertTrue(ETagUtils.matches(eTag, eTag));
+        assertTrue(ETagUtils.matches("\"c1\", " + eTag, eTag));
+        assertTrue(ETagUtils.matches("\"c5\"", eTag));
+        assertTrue(ETagUtils.matches("W/\"c5\"", eTag));
+        assertTrue(ETagUtils.matches("*", eTag));
+
+        assertFalse(ETagUtils.matches(null, eTag));
+        assertFalse(ETagUtils.matches("", eTag));
+        assertFalse(ETagUtils.matches(ETagUtils.catalogETag(4L), eTag));
+        assertFalse(ETagUtils.matches(ETagUtils.hotelETag(5L, 5L), eTag));
+    }
+
+    @Test
+    public void testCatalogETagsOfEpochs() {
+        assertEquals(ETagUtils.catalogETag(5L), ETagUtils.catalogETag(0L, 5L));
+        assertFalse(ETagUtils.matches(ETagUtils.catalogETag(5L), ETagUtils.catalogETag(1L, 5L)));
+        assertFalse(ETagUtils.matches(ETagUtils.catalogETag(1L, 5L), ETagUtils.catalogETag(2L, 5L)));
+    }
+
+    @Test
+    public void testETagsAreWeak() {
+        // Same version is served as JSON, CBOR and Smile, which are not byte-identical
+        assertTrue(ETagUtils.catalogETag(5L).startsWith("W/\""));
+        assertTrue(ETagUtils.hotelETag(1L, 5L).startsWith("W/\""));
+    }
+}
@@ -2,6 +2,8 @@ package hr.lemax.hotel.common.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -29,4 +31,59 @@ public class GeoUtilsTest {
         distance = GeoUtils.calculateDistance(0.0, 0.0, 180.0, 90.0); // Equator to North Pole
         assertEquals(10007.5, distance, 0.1, "Distance between the equator and North Pole should be around 10007.5 km");
     }
+
+    @Test
+    public void testApproximateDistanceStaysWithinErrorBound() {
+        final Random random = new Random(5);
+        double maxRelativeError = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            final double fromLon = random.nextDouble(-180, 180);
+            final double fromLat = random.nextDouble(-90, 90);
+            // Mostly points inside the approximation window, some of them across the antimeridian
+            final double window = i % 10 == 0 ? 30 : GeoUtils.APPROXIMATION_WINDOW;
+            final double toLon = fromLon + random.nextDouble(-window, window);
+            final double toLat = Math.max(-90, Math.min(90, fromLat + random.nextDouble(-window, window)));
+
+            final double exact = GeoUtils.haversineDistance(fromLon, fromLat, toLon, toLat);
+            if (exact > 0.001) {
+                final double approximate = GeoUtils.approximateDistance(fromLon, fromLat, toLon, toLat);
+                maxRelativeError = Math.max(maxRelativeError, Math.abs(approximate - exact) / exact);
+            }
+        }
+        assertTrue(maxRelativeError <= GeoUtils.APPROXIMATION_MAX_RELATIVE_ERROR,
+                "Relative error " + maxRelativeError + " exceeds bound");
+
+        // Worst case is at the corner of the window
+        final double exact = GeoUtils.haversineDistance(0, 89, 1, 90);
+        assertEquals(exact, GeoUtils.approximateDistance(0, 89, 1, 90), exact * GeoUtils.APPROXIMATION_MAX_RELATIVE_ERROR);
+        assertEquals(GeoUtils.haversineDistance(179.5, 10, -179.5, 10), GeoUtils.approximateDistance(179.5, 10, -179.5, 10), 0.01);
+        assertEquals(0.0, GeoUtils.approximateDistance(15.98, 45.81, 15.98, 45.81));
+    }
+
+    @Test
+    public void testEllipsoidalDistance() {
+        // Flinders Peak to Buninyong, reference example of Vincenty's paper: 54972.271 m
+        assertEquals(54.972271, GeoUtils.ellipsoidalDistance(144.42486788888888, -37.95103341666667, 143.92649552777777, -37.65282113888889), 1e-6);
+        // One degree along the equator is the equatorial radius times pi / 180
+        assertEquals(111.319491, GeoUtils.ellipsoidalDistance(0.0, 0.0, 1.0, 0.0), 1e-6);
+        // Meridian quadrant of WGS 84
+        assertEquals(10001.965729, GeoUtils.ellipsoidalDistance(0.0, 0.0, 0.0, 90.0), 1e-6);
+        assertEquals(0.0, GeoUtils.ellipsoidalDistance(15.98, 45.81, 15.98, 45.81));
+        // Nearly antipodal points fall back to spherical distance
+        assertEquals(GeoUtils.haversineDistance(0.0, 0.0, 179.7, 0.5), GeoUtils.ellipsoidalDistance(0.0, 0.0, 179.7, 0.5), 40.0);
+    }
+
+    @Test
+    public void testHaversineErrorAgainstEllipsoid() {
+        final Random random = new Random(9);
+        for (int i = 0; i < 100_000; i++) {
+            final double fromLon = random.nextDouble(-180, 180);
+            final double fromLat = random.nextDouble(-89, 89);
+            final double toLon = random.nextDouble(-180, 180);
+            final double toLat = random.nextDouble(-89, 89);
+            final double ellipsoidal = GeoUtils.ellipsoidalDistance(fromLon, fromLat, toLon, toLat);
+            final double spherical = GeoUtils.haversineDistance(fromLon, fromLat, toLon, toLat);
+            assertTrue(Math.abs(spherical - ellipsoidal) <= ellipsoidal * 0.006);
+        }
+    }
 }
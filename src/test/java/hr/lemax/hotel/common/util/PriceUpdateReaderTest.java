@@ -0,0 +1,39 @@
+package hr.lemax.hotel.common.util;
+
+import hr.lemax.hotel.model.PriceUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceUpdateReaderTest {
+
+    @Test
+    void testReadPairs() throws IOException {
+        assertEquals(
+                List.of(new PriceUpdate(1, 120.5), new PriceUpdate(2, 99)),
+                PriceUpdateReader.read(body("[[1, 120.5], [2, 99]]"), 10));
+        assertEquals(List.of(), PriceUpdateReader.read(body("[]"), 10));
+    }
+
+    @Test
+    void testRejectMalformedBodies() {
+        for (final String json : List.of("", "{}", "[[1]]", "[[1, 2, 3]]", "[[\"1\", 2]]", "[[1, null]]", "[[1, 2]", "[[1, 2]] []")) {
+            assertThrows(IOException.class, () -> PriceUpdateReader.read(body(json), 10), json);
+        }
+    }
+
+    @Test
+    void testRejectTooManyPairs() {
+        assertThrows(IllegalArgumentException.class, () -> PriceUpdateReader.read(body("[[1, 2], [2, 3], [3, 4]]"), 2));
+    }
+
+    private static InputStream body(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
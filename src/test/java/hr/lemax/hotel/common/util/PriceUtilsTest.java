@@ -0,0 +1,31 @@
+package hr.lemax.hotel.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceUtilsTest {
+
+    @Test
+    void testRoundToMinorUnits() {
+        assertEquals(30, PriceUtils.minorUnits(0.1 + 0.2));
+        assertEquals(0.3, PriceUtils.round(0.1 + 0.2));
+        assertEquals(20.0, PriceUtils.round(19.999));
+        assertTrue(PriceUtils.isSame(20.0, 20.001));
+        assertFalse(PriceUtils.isSame(20.0, 20.01));
+    }
+
+    @Test
+    void testValidRange() {
+        assertTrue(PriceUtils.isValid(0.01));
+        assertTrue(PriceUtils.isValid(Double.parseDouble(PriceUtils.MAX_PRICE)));
+        assertEquals(Integer.MAX_VALUE, PriceUtils.minorUnits(Double.parseDouble(PriceUtils.MAX_PRICE)));
+        assertFalse(PriceUtils.isValid(0.001));
+        assertFalse(PriceUtils.isValid(-1));
+        assertFalse(PriceUtils.isValid(21_474_836.48));
+        assertFalse(PriceUtils.isValid(Double.NaN));
+        assertFalse(PriceUtils.isValid(Double.POSITIVE_INFINITY));
+    }
+}
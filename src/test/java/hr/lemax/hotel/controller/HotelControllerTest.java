@@ -1,6 +1,8 @@
 package hr.lemax.hotel.controller;
 
 import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.common.util.ETagUtils;
+import hr.lemax.hotel.config.HttpCacheProperties;
 import hr.lemax.hotel.dto.HotelDTO;
 import hr.lemax.hotel.dto.HotelModificationDTO;
 import hr.lemax.hotel.dto.HotelSearchDTO;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -20,6 +23,7 @@ import java.util.Objects;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HotelControllerTest {
@@ -38,7 +42,7 @@ public class HotelControllerTest {
     void setUp() {
         hotelService = Mockito.mock(HotelService.class);
         modelMapper = Mockito.mock(ModelMapper.class);
-        hotelController = new HotelController(hotelService, modelMapper);
+        hotelController = new HotelController(hotelService, modelMapper, new HttpCacheProperties());
     }
 
     @Test
@@ -47,7 +51,7 @@ public class HotelControllerTest {
         Mockito.when(hotelService.getAllHotels()).thenReturn(hotels);
         Mockito.when(modelMapper.map(VALID_HOTEL, HotelDTO.class)).thenReturn(VALID_HOTEL_DTO);
 
-        ResponseEntity<List<HotelDTO>> response = hotelController.getAllHotels();
+        ResponseEntity<List<HotelDTO>> response = hotelController.getAllHotels(null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, Objects.requireNonNull(response.getBody()).size());
@@ -58,7 +62,7 @@ public class HotelControllerTest {
     void testGetAllHotelsNoContent() {
         Mockito.when(hotelService.getAllHotels()).thenReturn(Collections.emptyList());
 
-        ResponseEntity<List<HotelDTO>> response = hotelController.getAllHotels();
+        ResponseEntity<List<HotelDTO>> response = hotelController.getAllHotels(null);
 
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     }
@@ -68,7 +72,7 @@ public class HotelControllerTest {
         Mockito.when(hotelService.getHotelById(VALID_HOTEL_ID)).thenReturn(Optional.of(VALID_HOTEL));
         Mockito.when(modelMapper.map(VALID_HOTEL, HotelDTO.class)).thenReturn(VALID_HOTEL_DTO);
 
-        ResponseEntity<HotelDTO> response = hotelController.getById(VALID_HOTEL_ID);
+        ResponseEntity<HotelDTO> response = hotelController.getById(VALID_HOTEL_ID, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(VALID_HOTEL_DTO, response.getBody());
@@ -78,11 +82,61 @@ public class HotelControllerTest {
     void testGetByIdNoContent() {
         Mockito.when(hotelService.getHotelById(VALID_HOTEL_ID)).thenReturn(Optional.empty());
 
-        ResponseEntity<HotelDTO> response = hotelController.getById(VALID_HOTEL_ID);
+        ResponseEntity<HotelDTO> response = hotelController.getById(VALID_HOTEL_ID, null);
 
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     }
 
+    @Test
+    void testGetAllHotelsETag() {
+        Mockito.when(hotelService.getCatalogVersion()).thenReturn(7L);
+        Mockito.when(hotelService.getAllHotels()).thenReturn(List.of(VALID_HOTEL));
+        Mockito.when(modelMapper.map(VALID_HOTEL, HotelDTO.class)).thenReturn(VALID_HOTEL_DTO);
+
+        ResponseEntity<List<HotelDTO>> response = hotelController.getAllHotels(null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETagUtils.catalogETag(7L), response.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT), response.getHeaders().getVary());
+    }
+
+    @Test
+    void testGetAllHotelsNotModified() {
+        Mockito.when(hotelService.getCatalogVersion()).thenReturn(7L);
+
+        ResponseEntity<List<HotelDTO>> response = hotelController.getAllHotels(ETagUtils.catalogETag(7L));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        Mockito.verify(hotelService, Mockito.never()).getAllHotels();
+        Mockito.verifyNoInteractions(modelMapper);
+    }
+
+    @Test
+    void testGetByIdNotModified() {
+        final Hotel hotel = new Hotel(VALID_HOTEL_ID, "Hilton", 150.0, 50.0, 10.0);
+        hotel.setVersion(3L);
+        Mockito.when(hotelService.getHotelById(VALID_HOTEL_ID)).thenReturn(Optional.of(hotel));
+
+        ResponseEntity<HotelDTO> response = hotelController.getById(VALID_HOTEL_ID, ETagUtils.hotelETag(VALID_HOTEL_ID, 3L));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        Mockito.verifyNoInteractions(modelMapper);
+    }
+
+    @Test
+    void testGetByIdModified() {
+        final Hotel hotel = new Hotel(VALID_HOTEL_ID, "Hilton", 150.0, 50.0, 10.0);
+        hotel.setVersion(4L);
+        Mockito.when(hotelService.getHotelById(VALID_HOTEL_ID)).thenReturn(Optional.of(hotel));
+        Mockito.when(modelMapper.map(hotel, HotelDTO.class)).thenReturn(VALID_HOTEL_DTO);
+
+        ResponseEntity<HotelDTO> response = hotelController.getById(VALID_HOTEL_ID, ETagUtils.hotelETag(VALID_HOTEL_ID, 3L));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETagUtils.hotelETag(VALID_HOTEL_ID, 4L), response.getHeaders().getETag());
+    }
+
     @Test
     void testAddHotelSuccess() {
         Mockito.when(hotelService.addHotel(VALID_HOTEL_MODIFICATION_DTO)).thenReturn(VALID_HOTEL);
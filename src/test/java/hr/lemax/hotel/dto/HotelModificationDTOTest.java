@@ -83,6 +83,18 @@ public class HotelModificationDTOTest {
         assertEquals(Messages.Error.Hotel.HOTEL_PRICE_POSITIVE, violations.iterator().next().getMessage());
     }
 
+    @Test
+    void testPriceOutOfMinorUnits() {
+        Set<ConstraintViolation<HotelModificationDTO>> violations = validator.validate(
+                new HotelModificationDTO(VALID_HOTEL_NAME, 0.001, VALID_LONGITUDE, VALID_LATITUDE));
+        assertEquals(1, violations.size());
+        assertEquals(Messages.Error.Hotel.HOTEL_PRICE_POSITIVE, violations.iterator().next().getMessage());
+
+        violations = validator.validate(new HotelModificationDTO(VALID_HOTEL_NAME, 1e12, VALID_LONGITUDE, VALID_LATITUDE));
+        assertEquals(1, violations.size());
+        assertEquals(Messages.Error.Hotel.HOTEL_PRICE_MAX, violations.iterator().next().getMessage());
+    }
+
     @Test
     void testInvalidGeolocation() {
         HotelModificationDTO dto = new HotelModificationDTO(VALID_HOTEL_NAME, VALID_PRICE, INVALID_LONGITUDE, INVALID_LATITUDE);
@@ -0,0 +1,33 @@
+package hr.lemax.hotel.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hr.lemax.hotel.common.enums.HotelField;
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HotelProjectionDTOTest {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Test
+    void testOnlySelectedFieldsAreWrittenInResponseOrder() throws Exception {
+        final Hotel hotel = new Hotel(7L, "Hotel Esplanade", 120.5, 15.9775, 45.8050);
+        hotel.setDistance(1250.0);
+
+        final String json = JSON.writeValueAsString(new HotelProjectionDTO(hotel, HotelField.parse("distance, ID", true)));
+
+        assertEquals("{\"id\":7,\"distance\":1250.0}", json);
+    }
+
+    @Test
+    void testParseRejectsUnknownAndMissingFields() {
+        assertEquals(EnumSet.of(HotelField.NAME, HotelField.PRICE), HotelField.parse("price,name,", false));
+        assertThrows(IllegalArgumentException.class, () -> HotelField.parse("id,rating", true));
+        assertThrows(IllegalArgumentException.class, () -> HotelField.parse("id,distance", false));
+        assertThrows(IllegalArgumentException.class, () -> HotelField.parse(" , ", true));
+    }
+}
@@ -0,0 +1,84 @@
+package hr.lemax.hotel.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares payload size and serialization CPU of JSON and the binary encodings offered by
+ * content negotiation, for a search page of 1,000 results.
+ */
+@Slf4j
+public class HotelSearchDTOSerializationTest {
+    private static final int RESULTS = 1_000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 200;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+    private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory());
+
+    @Test
+    void testBinaryEncodingsRoundTrip() throws Exception {
+        final List<HotelSearchDTO> results = createResults();
+
+        for (final ObjectMapper mapper : List.of(JSON, CBOR, SMILE)) {
+            final byte[] payload = mapper.writeValueAsBytes(results);
+            final List<HotelSearchDTO> decoded = mapper.readValue(payload, new TypeReference<>() {});
+            assertEquals(results, decoded);
+        }
+    }
+
+    @Test
+    void testBinaryEncodingsAreSmallerThanJson() throws Exception {
+        final List<HotelSearchDTO> results = createResults();
+
+        final int jsonSize = JSON.writeValueAsBytes(results).length;
+        final int cborSize = CBOR.writeValueAsBytes(results).length;
+        final int smileSize = SMILE.writeValueAsBytes(results).length;
+
+        log.info("Payload size for {} results: JSON {} B, CBOR {} B, Smile {} B", RESULTS, jsonSize, cborSize, smileSize);
+        log.info("Serialization per {} results: JSON {} us, CBOR {} us, Smile {} us", RESULTS,
+                measureMicros(JSON, results), measureMicros(CBOR, results), measureMicros(SMILE, results));
+
+        assertTrue(cborSize < jsonSize, "CBOR payload should be smaller than JSON");
+        assertTrue(smileSize < jsonSize, "Smile payload should be smaller than JSON");
+    }
+
+    private static long measureMicros(final ObjectMapper mapper, final List<HotelSearchDTO> results) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.writeValueAsBytes(results);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            mapper.writeValueAsBytes(results);
+        }
+        return (System.nanoTime() - start) / MEASURED_ROUNDS / 1_000;
+    }
+
+    private static List<HotelSearchDTO> createResults() {
+        final Random random = new Random(42);
+        final List<HotelSearchDTO> results = new ArrayList<>(RESULTS);
+        for (int i = 0; i < RESULTS; i++) {
+            final HotelSearchDTO dto = new HotelSearchDTO();
+            dto.setId((long) i + 1);
+            dto.setName("Hotel " + (i + 1));
+            dto.setPrice(Math.round((50 + random.nextDouble() * 450) * 100.0) / 100.0);
+            dto.setLongitude(-180 + random.nextDouble() * 360);
+            dto.setLatitude(-90 + random.nextDouble() * 180);
+            dto.setDistance(Math.round(random.nextDouble() * 20_000 * 100.0) / 100.0);
+            results.add(dto);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,281 @@
+package hr.lemax.hotel.grpc;
+
+import com.google.protobuf.Empty;
+import hr.lemax.hotel.common.admission.AdaptiveConcurrencyLimiter;
+import hr.lemax.hotel.common.enums.ReplicationRole;
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.service.HotelService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotelGrpcServiceTest {
+    private final HotelService hotelService = new HotelService(new ModelMapper());
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 2.0, 0.2, 100);
+    private Server server;
+    private ManagedChannel channel;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        hotelService.destroy();
+    }
+
+    @Test
+    void testCrudOperations() {
+        final HotelsGrpc.HotelsBlockingStub stub = HotelsGrpc.newBlockingStub(start(ReplicationRole.STANDALONE));
+
+        final HotelMessage added = stub.addHotel(input("Hilton", 150.0));
+        assertEquals("Hilton", added.getName());
+        assertEquals(added, stub.getHotel(GetHotelRequest.newBuilder().setId(added.getId()).build()));
+
+        final HotelMessage updated = stub.updateHotel(UpdateHotelRequest.newBuilder()
+                .setId(added.getId())
+                .setHotel(input("Hilton Updated", 200.0))
+                .build());
+        assertEquals(200.0, updated.getPrice());
+        assertEquals(2, stub.getCatalogVersion(Empty.getDefaultInstance()).getVersion());
+
+        stub.deleteHotel(DeleteHotelRequest.newBuilder().setId(added.getId()).build());
+        assertStatus(Status.Code.NOT_FOUND, () -> stub.getHotel(GetHotelRequest.newBuilder().setId(added.getId()).build()));
+        assertStatus(Status.Code.NOT_FOUND, () -> stub.deleteHotel(DeleteHotelRequest.newBuilder().setId(added.getId()).build()));
+        // Validated as REST requests are
+        assertStatus(Status.Code.INVALID_ARGUMENT, () -> stub.addHotel(input("Hilton", -1.0)));
+    }
+
+    @Test
+    void testSearchStreamsRankedHotelsInChunks() {
+        for (int i = 0; i < 25; i++) {
+            hotelService.addHotel(new HotelModificationDTO("Hotel " + i, 100.0 + i, 15.0 + i * 0.1, 45.0));
+        }
+        final HotelsGrpc.HotelsBlockingStub stub = HotelsGrpc.newBlockingStub(start(ReplicationRole.STANDALONE));
+
+        final List<Long> expected = hotelService.searchHotels(15.5, 45.0, new SortByDistanceAndPrice())
+                .stream().map(Hotel::getId).toList();
+        final List<HotelChunk> chunks = new ArrayList<>();
+        stub.search(SearchRequest.newBuilder().setLongitude(15.5).setLatitude(45.0).setChunkSize(10).build())
+                .forEachRemaining(chunks::add);
+
+        assertEquals(List.of(10, 10, 5), chunks.stream().map(HotelChunk::getHotelsCount).toList());
+        assertEquals(expected, chunks.stream().flatMap(chunk -> chunk.getHotelsList().stream()).map(HotelMessage::getId).toList());
+        assertTrue(chunks.get(0).getHotels(0).getDistance() >= 0);
+
+        final List<HotelMessage> limited = new ArrayList<>();
+        stub.search(SearchRequest.newBuilder().setLongitude(15.5).setLatitude(45.0).setLimit(12).build())
+                .forEachRemaining(chunk -> limited.addAll(chunk.getHotelsList()));
+        assertEquals(expected.subList(0, 12), limited.stream().map(HotelMessage::getId).toList());
+
+        assertStatus(Status.Code.INVALID_ARGUMENT, () -> stub.search(SearchRequest.newBuilder()
+                .setLongitude(200).setLatitude(45.0).build()).hasNext());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testSearchIsReleasedBeforeStreaming() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            hotelService.addHotel(new HotelModificationDTO("Hotel " + i, 100.0 + i, 15.0 + i * 0.1, 45.0));
+        }
+        final HotelsGrpc.HotelsStub stub = HotelsGrpc.newStub(start(ReplicationRole.STANDALONE));
+        final CountDownLatch firstChunk = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        final List<HotelChunk> received = new ArrayList<>();
+        final ClientCallStreamObserver<?>[] call = new ClientCallStreamObserver<?>[1];
+
+        stub.search(SearchRequest.newBuilder().setLongitude(15.5).setLatitude(45.0).setChunkSize(1).build(),
+                new ClientResponseObserver<SearchRequest, HotelChunk>() {
+                    @Override
+                    public void beforeStart(final ClientCallStreamObserver<SearchRequest> requestStream) {
+                        // Read one chunk only, the server has to wait for the client
+                        requestStream.disableAutoRequestWithInitial(1);
+                        call[0] = requestStream;
+                    }
+
+                    @Override
+                    public void onNext(final HotelChunk chunk) {
+                        received.add(chunk);
+                        firstChunk.countDown();
+                    }
+
+                    @Override
+                    public void onError(final Throwable t) {
+                        closed.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        closed.countDown();
+                    }
+                });
+        assertTrue(firstChunk.await(5, TimeUnit.SECONDS));
+        // The stream waits for the client, the permit was released when the search returned
+        assertEquals(0, limiter.getInFlight());
+        call[0].cancel("Enough hotels", null);
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, received.size());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testImportAndListHotels() throws Exception {
+        final ManagedChannel channel = start(ReplicationRole.STANDALONE);
+        final List<Long> imported = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final ImportResult[] result = new ImportResult[1];
+        final StreamObserver<HotelChunk> upload = HotelsGrpc.newStub(channel).importHotels(new StreamObserver<>() {
+            @Override
+            public void onNext(final ImportResult value) {
+                result[0] = value;
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+                done.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                done.countDown();
+            }
+        });
+        for (int chunk = 0; chunk < 3; chunk++) {
+            final HotelChunk.Builder hotels = HotelChunk.newBuilder();
+            for (int i = 0; i < 100; i++) {
+                final long id = 1000L + chunk * 100 + i;
+                hotels.addHotels(HotelMessage.newBuilder().setId(id).setName("Hotel " + id).setPrice(100.0)
+                        .setLongitude(15.0).setLatitude(45.0));
+                imported.add(id);
+            }
+            upload.onNext(hotels.build());
+        }
+        upload.onCompleted();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(300, result[0].getCount());
+        assertEquals(1, result[0].getVersion());
+        final List<Long> ids = new ArrayList<>();
+        HotelsGrpc.newBlockingStub(channel).listHotels(Empty.getDefaultInstance())
+                .forEachRemaining(chunk -> chunk.getHotelsList().forEach(hotel -> ids.add(hotel.getId())));
+        assertEquals(imported, ids);
+    }
+
+    @Test
+    void testImportIsValidatedAndLimited() throws Exception {
+        final ManagedChannel channel = start(ReplicationRole.STANDALONE);
+
+        final HotelChunk invalid = HotelChunk.newBuilder()
+                .addHotels(HotelMessage.newBuilder().setId(1).setName("Hilton").setPrice(150.0).setLongitude(15.0).setLatitude(45.0))
+                .addHotels(HotelMessage.newBuilder().setId(2).setName("Sheraton").setPrice(-1.0).setLongitude(15.0).setLatitude(45.0))
+                .build();
+        assertEquals(Status.Code.INVALID_ARGUMENT, importStatus(channel, invalid));
+
+        final HotelChunk.Builder hotels = HotelChunk.newBuilder();
+        for (int i = 0; i < 300; i++) {
+            hotels.addHotels(HotelMessage.newBuilder().setName("Hotel " + i).setPrice(100.0).setLongitude(15.0).setLatitude(45.0));
+        }
+        // 600 hotels, over the limit of 500
+        assertEquals(Status.Code.INVALID_ARGUMENT, importStatus(channel, hotels.build(), hotels.build()));
+
+        assertEquals(0, hotelService.getCatalogVersion());
+        assertTrue(hotelService.getAllHotels().isEmpty());
+    }
+
+    @Test
+    void testFollowerRejectsImportBeforeItIsSent() throws Exception {
+        final ManagedChannel channel = start(ReplicationRole.FOLLOWER);
+
+        assertEquals(Status.Code.FAILED_PRECONDITION, importStatus(channel));
+    }
+
+    @Test
+    void testFollowerRejectsWrites() {
+        final HotelsGrpc.HotelsBlockingStub stub = HotelsGrpc.newBlockingStub(start(ReplicationRole.FOLLOWER));
+
+        assertStatus(Status.Code.FAILED_PRECONDITION, () -> stub.addHotel(input("Hilton", 150.0)));
+        assertEquals(0, stub.getCatalogVersion(Empty.getDefaultInstance()).getVersion());
+        // Availability is not replicated, searches for a stay are refused instead of finding nothing
+        assertStatus(Status.Code.FAILED_PRECONDITION, () -> stub.search(SearchRequest.newBuilder()
+                .setLongitude(15.98).setLatitude(45.81)
+                .setCheckIn("2026-11-01").setCheckOut("2026-11-03")
+                .build()).hasNext());
+    }
+
+    private ManagedChannel start(final ReplicationRole role) {
+        final String name = InProcessServerBuilder.generateName();
+        try {
+            server = InProcessServerBuilder.forName(name)
+                    .addService(new HotelGrpcService(
+                            hotelService,
+                            Validation.buildDefaultValidatorFactory().getValidator(),
+                            limiter,
+                            role,
+                            100,
+                            500))
+                    .build()
+                    .start();
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+        channel = InProcessChannelBuilder.forName(name).build();
+        return channel;
+    }
+
+    /**
+     * @return status code the import of the chunks fails with, {@code OK} if it does not
+     */
+    private static Status.Code importStatus(final ManagedChannel channel, final HotelChunk... chunks) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        final Status.Code[] code = {Status.Code.OK};
+        final StreamObserver<HotelChunk> upload = HotelsGrpc.newStub(channel).importHotels(new StreamObserver<>() {
+            @Override
+            public void onNext(final ImportResult value) {
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+                code[0] = Status.fromThrowable(t).getCode();
+                done.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                done.countDown();
+            }
+        });
+        for (final HotelChunk chunk : chunks) {
+            upload.onNext(chunk);
+        }
+        upload.onCompleted();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return code[0];
+    }
+
+    private static HotelInput input(final String name, final double price) {
+        return HotelInput.newBuilder().setName(name).setPrice(price).setLongitude(15.98).setLatitude(45.81).build();
+    }
+
+    private static void assertStatus(final Status.Code code, final Runnable call) {
+        final StatusRuntimeException e = assertThrows(StatusRuntimeException.class, call::run);
+        assertEquals(code, e.getStatus().getCode());
+    }
+}
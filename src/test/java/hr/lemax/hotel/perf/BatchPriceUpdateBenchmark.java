@@ -0,0 +1,87 @@
+package hr.lemax.hotel.perf;
+
+import hr.lemax.hotel.catalog.CatalogGenerator;
+import hr.lemax.hotel.config.ModelMapperConfig;
+import hr.lemax.hotel.model.BatchResult;
+import hr.lemax.hotel.model.PriceUpdate;
+import hr.lemax.hotel.service.HotelChangeLog;
+import hr.lemax.hotel.service.HotelSearchIndex;
+import hr.lemax.hotel.service.HotelService;
+import hr.lemax.hotel.service.HotelTileIndex;
+import hr.lemax.hotel.store.CompactHotelStore;
+import hr.lemax.hotel.store.HeapHotelStore;
+import hr.lemax.hotel.store.HotelStore;
+import hr.lemax.hotel.store.HotelStoreType;
+import hr.lemax.hotel.store.OffHeapHotelStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Measures throughput of batch price updates through {@link HotelService}, with the search index,
+ * tile index and change log attached as in the application:
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.mainClass=hr.lemax.hotel.perf.BatchPriceUpdateBenchmark \
+ *     -Dbenchmark.store=HEAP -Dbenchmark.hotels=1000000 -Dbenchmark.batch=100000 -Dbenchmark.minRate=500000
+ * </pre>
+ * A tenth of the updates set the price already set, as rate feeds repeat unchanged rates. With
+ * {@code benchmark.minRate} set the benchmark exits with status 1 below that many updates per second.
+ */
+public class BatchPriceUpdateBenchmark {
+
+    public static void main(final String[] args) {
+        final HotelStoreType type = HotelStoreType.valueOf(System.getProperty("benchmark.store", "HEAP"));
+        final int hotels = Integer.getInteger("benchmark.hotels", 1_000_000);
+        final int batch = Integer.getInteger("benchmark.batch", 100_000);
+        final int batches = Integer.getInteger("benchmark.batches", 20);
+        final long minRate = Long.getLong("benchmark.minRate", 0);
+        final SplittableRandom random = new SplittableRandom(42);
+
+        final HotelStore store = switch (type) {
+            case HEAP -> new HeapHotelStore();
+            case OFF_HEAP -> new OffHeapHotelStore();
+            case COMPACT -> new CompactHotelStore(false, Math.max(hotels, 1_024));
+        };
+        final HotelService service = new HotelService(new ModelMapperConfig().modelMapperBean(), store);
+        service.importHotels(new CatalogGenerator(42).hotels(hotels));
+        final HotelSearchIndex searchIndex = new HotelSearchIndex(1.0, service::getCatalogSnapshot, store::findById);
+        service.addChangeListener(searchIndex);
+        searchIndex.load();
+        final HotelTileIndex tileIndex = new HotelTileIndex(14, service::getCatalogSnapshot);
+        service.addChangeListener(tileIndex);
+        tileIndex.load();
+        service.addChangeListener(new HotelChangeLog(100_000, service.getCatalogVersion()));
+
+        long applied = 0;
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int round = 0; round < batches; round++) {
+            final List<PriceUpdate> updates = new ArrayList<>(batch);
+            for (int i = 0; i < batch; i++) {
+                final long id = 1 + random.nextInt(hotels);
+                final double price = random.nextInt(10) == 0
+                        ? service.getHotelById(id).orElseThrow().getPrice()
+                        : Math.round((40 + random.nextDouble() * 460) * 100) / 100.0;
+                updates.add(new PriceUpdate(id, price));
+            }
+            final long start = System.nanoTime();
+            final BatchResult result = service.updatePrices(updates);
+            final long elapsed = System.nanoTime() - start;
+            applied += result.applied();
+            total += elapsed;
+            best = Math.min(best, elapsed);
+        }
+        service.destroy();
+
+        final double rate = (double) batch * batches / (total / 1e9);
+        System.out.printf(Locale.ROOT, "store=%s hotels=%d batch=%d%n", type, hotels, batch);
+        System.out.printf(Locale.ROOT, "%.0f updates/s on average, %.0f updates/s best batch, %d prices changed%n",
+                rate, batch / (best / 1e9), applied);
+        if (rate < minRate) {
+            System.out.printf(Locale.ROOT, "below the minimum of %d updates/s%n", minRate);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package hr.lemax.hotel.perf;
+
+import hr.lemax.hotel.common.enums.DistanceEngine;
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.model.Hotel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Measures throughput of the distance engines, alone and as ranking engines of a search:
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.mainClass=hr.lemax.hotel.perf.DistanceEngineBenchmark \
+ *     -Dbenchmark.points=1000000 -Dbenchmark.radius=2
+ * </pre>
+ * Points are spread within {@code benchmark.radius} degrees of the searched location, so the
+ * share of points inside the equirectangular approximation window can be varied.
+ */
+public class DistanceEngineBenchmark {
+
+    public static void main(final String[] args) {
+        final int points = Integer.getInteger("benchmark.points", 1_000_000);
+        final double radius = Double.parseDouble(System.getProperty("benchmark.radius", "2"));
+        final int rounds = Integer.getInteger("benchmark.rounds", 10);
+        final SplittableRandom random = new SplittableRandom(42);
+        final double originLon = 15.98;
+        final double originLat = 45.81;
+
+        final double[] longitudes = new double[points];
+        final double[] latitudes = new double[points];
+        final List<Hotel> hotels = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            longitudes[i] = originLon + random.nextDouble(-radius, radius);
+            latitudes[i] = Math.max(-90, Math.min(90, originLat + random.nextDouble(-radius, radius)));
+            hotels.add(new Hotel((long) i + 1, "Hotel " + i, 40 + random.nextDouble() * 460, longitudes[i], latitudes[i]));
+        }
+
+        for (final DistanceEngine engine : DistanceEngine.values()) {
+            double checksum = 0;
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < rounds; round++) {
+                final long start = System.nanoTime();
+                for (int i = 0; i < points; i++) {
+                    checksum += engine.distance(originLon, originLat, longitudes[i], latitudes[i]);
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf(Locale.ROOT, "%-16s %8.1f M distances/s (checksum %.0f)%n",
+                    engine, points / (best / 1e3), checksum);
+        }
+
+        for (final DistanceEngine engine : DistanceEngine.values()) {
+            final SortByDistanceAndPrice strategy = new SortByDistanceAndPrice(engine, DistanceEngine.VINCENTY);
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < rounds; round++) {
+                final long start = System.nanoTime();
+                final List<Hotel> sorted = strategy.sort(hotels, originLon, originLat);
+                sorted.subList(0, Math.min(20, sorted.size())).forEach(Hotel::getDistance);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf(Locale.ROOT, "search ranked by %-16s %8.1f ms%n", engine, best / 1e6);
+        }
+    }
+}
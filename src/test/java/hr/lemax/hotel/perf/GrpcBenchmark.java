@@ -0,0 +1,161 @@
+package hr.lemax.hotel.perf;
+
+import hr.lemax.hotel.config.HotelApplication;
+import hr.lemax.hotel.grpc.GetHotelRequest;
+import hr.lemax.hotel.grpc.HotelChunk;
+import hr.lemax.hotel.grpc.HotelGrpcServer;
+import hr.lemax.hotel.grpc.HotelsGrpc;
+import hr.lemax.hotel.grpc.SearchRequest;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Compares latency of the same calls over REST and gRPC, from a single client thread against the
+ * application started in-process with a preloaded catalog:
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.mainClass=hr.lemax.hotel.perf.GrpcBenchmark \
+ *     -Dbenchmark.hotels=100000 -Dbenchmark.calls=5000
+ * </pre>
+ * Calls are a read by ID, a search returning the top {@code benchmark.limit} hotels, and a search
+ * returning the whole catalog, for which the time to the first hotel is reported as well: gRPC
+ * streams chunks as they are ranked, REST sends the list once it is serialized.
+ */
+public class GrpcBenchmark {
+    private static final String JSON = "application/json";
+
+    public static void main(final String[] args) throws Exception {
+        final int hotels = Integer.getInteger("benchmark.hotels", 100_000);
+        final int calls = Integer.getInteger("benchmark.calls", 5_000);
+        final int fullSearches = Integer.getInteger("benchmark.fullSearches", 20);
+        final int limit = Integer.getInteger("benchmark.limit", 20);
+        final ConfigurableApplicationContext context = SpringApplication.run(HotelApplication.class,
+                "--server.port=0",
+                "--hotel.grpc.enabled=true",
+                "--hotel.grpc.port=0",
+                "--hotel.catalog.preload.count=" + hotels,
+                "--hotel.admission.enabled=false",
+                "--logging.level.hr.lemax.hotel=WARN",
+                "--spring.devtools.restart.enabled=false");
+        ManagedChannel channel = null;
+        try {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final String baseUrl = "http://localhost:" + port + context.getEnvironment().getProperty("server.servlet.context-path", "");
+            final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            channel = Grpc.newChannelBuilderForAddress("localhost", context.getBean(HotelGrpcServer.class).getPort(),
+                    InsecureChannelCredentials.create()).build();
+            final HotelsGrpc.HotelsBlockingStub grpc = HotelsGrpc.newBlockingStub(channel);
+
+            System.out.printf(Locale.ROOT, "hotels=%d calls=%d%n", hotels, calls);
+            System.out.println("call                      transport    p50 us    p99 us   mean us");
+            for (int round = 0; round < 2; round++) {
+                // First round warms up both transports and is not reported
+                final boolean report = round == 1;
+                final SplittableRandom random = new SplittableRandom(42);
+
+                measure(report, "get by ID", "REST", calls, latency -> {
+                    final long start = System.nanoTime();
+                    send(http, HttpRequest.newBuilder(URI.create(baseUrl + "/hotels/" + (1 + random.nextInt(hotels))))
+                            .header("Accept", JSON).GET().build());
+                    latency.accept(System.nanoTime() - start);
+                });
+                measure(report, "get by ID", "gRPC", calls, latency -> {
+                    final long start = System.nanoTime();
+                    grpc.getHotel(GetHotelRequest.newBuilder().setId(1 + random.nextInt(hotels)).build());
+                    latency.accept(System.nanoTime() - start);
+                });
+                measure(report, "search top " + limit, "REST", calls, latency -> {
+                    final long start = System.nanoTime();
+                    send(http, search(baseUrl + "/hotels/search?limit=" + limit, random));
+                    latency.accept(System.nanoTime() - start);
+                });
+                measure(report, "search top " + limit, "gRPC", calls, latency -> {
+                    final long start = System.nanoTime();
+                    grpc.search(searchRequest(random).setLimit(limit).build()).forEachRemaining(chunk -> {
+                    });
+                    latency.accept(System.nanoTime() - start);
+                });
+                measure(report, "search all", "REST", fullSearches, latency -> {
+                    final long start = System.nanoTime();
+                    send(http, search(baseUrl + "/hotels/search", random));
+                    latency.accept(System.nanoTime() - start);
+                });
+                final LatencyHistogram firstChunk = new LatencyHistogram();
+                measure(report, "search all", "gRPC", fullSearches, latency -> {
+                    final long start = System.nanoTime();
+                    final Iterator<HotelChunk> chunks = grpc.search(searchRequest(random).build());
+                    chunks.next();
+                    firstChunk.record(System.nanoTime() - start);
+                    chunks.forEachRemaining(chunk -> {
+                    });
+                    latency.accept(System.nanoTime() - start);
+                });
+                if (report) {
+                    print("search all, first chunk", "gRPC", firstChunk);
+                }
+            }
+        } finally {
+            if (channel != null) {
+                channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            }
+            context.close();
+            System.exit(0);
+        }
+    }
+
+    private interface Call {
+        void run(LongConsumer latency) throws Exception;
+    }
+
+    private static void measure(final boolean report, final String name, final String transport, final int calls, final Call call)
+            throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < calls; i++) {
+            call.run(histogram::record);
+        }
+        if (report) {
+            print(name, transport, histogram);
+        }
+    }
+
+    private static void print(final String name, final String transport, final LatencyHistogram histogram) {
+        System.out.printf(Locale.ROOT, "%-25s %-9s %9.1f %9.1f %9.1f%n", name, transport,
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3, histogram.getMean() / 1e3);
+    }
+
+    private static HttpRequest search(final String url, final SplittableRandom random) {
+        final SearchRequest location = searchRequest(random).build();
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", JSON)
+                .header("Accept", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(String.format(Locale.ROOT,
+                        "{\"longitude\": %.6f, \"latitude\": %.6f}", location.getLongitude(), location.getLatitude())))
+                .build();
+    }
+
+    private static SearchRequest.Builder searchRequest(final SplittableRandom random) {
+        return SearchRequest.newBuilder()
+                .setLongitude(random.nextDouble(-180, 180))
+                .setLatitude(random.nextDouble(-90, 90));
+    }
+
+    private static void send(final HttpClient http, final HttpRequest request) throws Exception {
+        final HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Request failed with status " + response.statusCode() + ": " + request.uri());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package hr.lemax.hotel.perf;
+
+import hr.lemax.hotel.catalog.CatalogGenerator;
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.store.CompactHotelStore;
+import hr.lemax.hotel.store.HeapHotelStore;
+import hr.lemax.hotel.store.HotelStore;
+import hr.lemax.hotel.store.HotelStoreType;
+import hr.lemax.hotel.store.OffHeapHotelStore;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Compares heap footprint and GC time of the hotel store engines. Each store type should be
+ * measured in a fresh JVM with the same heap settings, for example:
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.mainClass=hr.lemax.hotel.perf.HotelStoreFootprintBenchmark \
+ *     -Dbenchmark.store=OFF_HEAP -Dbenchmark.hotels=5000000
+ * </pre>
+ * The benchmark loads a {@link CatalogGenerator} catalog, reports heap used after a full GC, then runs a mix of
+ * updates and searches and reports the number and total time of GC collections during it.
+ */
+public class HotelStoreFootprintBenchmark {
+    private static final SortByDistanceAndPrice STRATEGY = new SortByDistanceAndPrice();
+
+    public static void main(final String[] args) {
+        final HotelStoreType type = HotelStoreType.valueOf(System.getProperty("benchmark.store", "HEAP"));
+        final int hotels = Integer.getInteger("benchmark.hotels", 1_000_000);
+        final int updates = Integer.getInteger("benchmark.updates", 1_000_000);
+        final int searches = Integer.getInteger("benchmark.searches", 20);
+        final SplittableRandom random = new SplittableRandom(42);
+
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final long heapBefore = usedHeapAfterGc(memory);
+
+        final HotelStore store = switch (type) {
+            case HEAP -> new HeapHotelStore();
+            case OFF_HEAP -> new OffHeapHotelStore();
+            case COMPACT -> new CompactHotelStore(Boolean.getBoolean("benchmark.floatCoordinates"), 1_000_000);
+        };
+        final CatalogGenerator generator = new CatalogGenerator(42);
+        generator.hotels(hotels).forEach(store::save);
+        final long heapAfter = usedHeapAfterGc(memory);
+
+        final long gcCountBefore = gcCount();
+        final long gcTimeBefore = gcTimeMillis();
+        final long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            store.save(generator.next(1 + random.nextInt(hotels)));
+            if (searches > 0 && i % Math.max(1, updates / searches) == 0) {
+                final List<Hotel> sorted = STRATEGY.sort(store.findAll(), random.nextDouble(-180, 180), random.nextDouble(-90, 90));
+                sorted.subList(0, Math.min(20, sorted.size())).forEach(Hotel::getName);
+            }
+        }
+        final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf(Locale.ROOT, "store=%s hotels=%d%n", type, hotels);
+        System.out.printf(Locale.ROOT, "heap used by catalog: %.1f MB (%.1f B/hotel)%n",
+                (heapAfter - heapBefore) / 1e6, (heapAfter - heapBefore) / (double) hotels);
+        if (store instanceof OffHeapHotelStore offHeapStore) {
+            System.out.printf(Locale.ROOT, "direct memory used by catalog: %.1f MB%n", offHeapStore.getOffHeapBytes() / 1e6);
+        }
+        System.out.printf(Locale.ROOT, "churn: %d updates, %d searches in %d ms, %d collections, %d ms total GC time%n",
+                updates, searches, elapsedMillis, gcCount() - gcCountBefore, gcTimeMillis() - gcTimeBefore);
+    }
+
+    private static long usedHeapAfterGc(final MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+
+    private static long gcTimeMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+}
@@ -0,0 +1,49 @@
+package hr.lemax.hotel.perf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+    @Test
+    void testBucketBoundsContainValue() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            final long value = random.nextLong() >>> (1 + random.nextInt(63));
+            final int index = LatencyHistogram.indexOf(value);
+            final long lowest = index == 0 ? 0 : LatencyHistogram.highestEquivalentValue(index - 1) + 1;
+            assertTrue(value >= lowest && value <= LatencyHistogram.highestEquivalentValue(index), "Value " + value);
+        }
+    }
+
+    @Test
+    void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5_000_000, histogram.getValueAtPercentile(50), 5_000_000 * 0.008);
+        assertEquals(9_900_000, histogram.getValueAtPercentile(99), 9_900_000 * 0.008);
+        assertEquals(9_990_000, histogram.getValueAtPercentile(99.9), 9_990_000 * 0.008);
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testMerge() {
+        final LatencyHistogram first = new LatencyHistogram();
+        final LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(1_000_000);
+
+        first.add(second);
+
+        assertEquals(2, first.getCount());
+        assertEquals(1_000_000, first.getMax());
+        assertEquals(10, first.getValueAtPercentile(50));
+    }
+}
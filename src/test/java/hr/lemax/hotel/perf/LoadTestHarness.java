@@ -0,0 +1,339 @@
+package hr.lemax.hotel.perf;
+
+import hr.lemax.hotel.catalog.CatalogGenerator;
+import hr.lemax.hotel.config.HotelApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end HTTP load generator. Starts the application on a free local port with a preloaded
+ * {@link CatalogGenerator} catalog and runs mixed scenarios against it with a closed-loop worker pool, recording latency
+ * of every request per endpoint.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:java}. Configuration is read from system
+ * properties, e.g. {@code -Dloadtest.hotels=50000 -Dloadtest.concurrency=32}:
+ * <ul>
+ *     <li>{@code loadtest.hotels} - size of the seeded catalog (default 10000)</li>
+ *     <li>{@code loadtest.seed} - random seed for catalog and request mix (default 42)</li>
+ *     <li>{@code loadtest.concurrency} - number of concurrent workers (default 16)</li>
+ *     <li>{@code loadtest.warmup} - warmup seconds per scenario, not reported (default 5)</li>
+ *     <li>{@code loadtest.duration} - measured seconds per scenario (default 30)</li>
+ *     <li>{@code loadtest.scenarios} - comma separated list of {@link Scenario} (default all)</li>
+ *     <li>{@code loadtest.burst.size} - concurrent requests per burst (default 64)</li>
+ *     <li>{@code loadtest.burst.pause} - milliseconds between bursts (default 200)</li>
+ *     <li>{@code loadtest.report} - optional file the report is also written to</li>
+ * </ul>
+ */
+public class LoadTestHarness {
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String JSON = "application/json";
+    private static final int PAGE_SIZE = 20;
+
+    enum Scenario {
+        // Mix of reads and writes on single hotels
+        CRUD,
+        // Full sorted search from random user locations
+        SEARCH,
+        // Paged search hitting random, mostly deep pages
+        DEEP_PAGING,
+        // Synchronized bursts of concurrent searches followed by idle pauses
+        BURST
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int hotels;
+    private final long seed;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int burstSize;
+    private final long burstPauseMillis;
+    private final AtomicLong maxHotelId = new AtomicLong();
+
+    public LoadTestHarness(final String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.hotels = Integer.getInteger("loadtest.hotels", 10_000);
+        this.seed = Long.getLong("loadtest.seed", 42L);
+        this.concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        this.warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 5L));
+        this.duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 30L));
+        this.burstSize = Integer.getInteger("loadtest.burst.size", 64);
+        this.burstPauseMillis = Long.getLong("loadtest.burst.pause", 200L);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency)))
+                .build();
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final ConfigurableApplicationContext context = SpringApplication.run(HotelApplication.class,
+                "--server.port=0",
+                "--hotel.catalog.preload.count=" + Integer.getInteger("loadtest.hotels", 10_000),
+                "--hotel.catalog.preload.seed=" + Long.getLong("loadtest.seed", 42L),
+                "--logging.level.hr.lemax.hotel=WARN",
+                "--spring.devtools.restart.enabled=false");
+        try {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+            final LoadTestHarness harness = new LoadTestHarness("http://localhost:" + port + contextPath);
+
+            harness.seedCatalog();
+            final StringBuilder report = new StringBuilder();
+            for (final Scenario scenario : parseScenarios(System.getProperty("loadtest.scenarios"))) {
+                harness.run(scenario, harness.warmup);
+                report.append(harness.run(scenario, harness.duration).format(scenario, harness.duration));
+            }
+            print(report.toString());
+        } finally {
+            context.close();
+            System.exit(0);
+        }
+    }
+
+    private static List<Scenario> parseScenarios(final String value) {
+        if (value == null || value.isBlank()) {
+            return List.of(Scenario.values());
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .map(name -> Scenario.valueOf(name.toUpperCase(Locale.ROOT)))
+                .toList();
+    }
+
+    private static void print(final String report) throws IOException {
+        final PrintStream out = System.out;
+        out.println(Results.header());
+        out.print(report);
+        final String reportFile = System.getProperty("loadtest.report");
+        if (reportFile != null) {
+            Files.writeString(Path.of(reportFile), Results.header() + System.lineSeparator() + report);
+        }
+    }
+
+    /**
+     * Use the catalog preloaded on startup, whose hotels have IDs from 1 to the catalog size.
+     */
+    void seedCatalog() {
+        maxHotelId.set(hotels);
+        System.out.printf(Locale.ROOT, "Preloaded %d hotels%n", hotels);
+    }
+
+    /**
+     * Run one scenario for the given duration.
+     *
+     * @return recorded latencies per endpoint
+     */
+    Results run(final Scenario scenario, final Duration runFor) throws Exception {
+        final Results results = new Results();
+        final long deadline = System.nanoTime() + runFor.toNanos();
+
+        if (scenario == Scenario.BURST) {
+            runBursts(results, deadline);
+            return results;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (int worker = 0; worker < concurrency; worker++) {
+                final SplittableRandom random = new SplittableRandom(seed * 31 + worker);
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        switch (scenario) {
+                            case CRUD -> crudOperation(random, results);
+                            case SEARCH -> send(post("/hotels/search", userBody(random)), "POST /hotels/search", results);
+                            case DEEP_PAGING -> send(
+                                    post("/hotels/search/page?size=" + PAGE_SIZE + "&page=" + randomPage(random), userBody(random)),
+                                    "POST /hotels/search/page", results);
+                            default -> throw new IllegalStateException("Unexpected scenario: " + scenario);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        return results;
+    }
+
+    private void runBursts(final Results results, final long deadline) throws InterruptedException {
+        final SplittableRandom random = new SplittableRandom(seed);
+        while (System.nanoTime() < deadline) {
+            final List<CompletableFuture<?>> burst = new ArrayList<>(burstSize);
+            for (int i = 0; i < burstSize; i++) {
+                final HttpRequest request = post("/hotels/search", userBody(random));
+                final long start = System.nanoTime();
+                burst.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .handle((response, error) -> {
+                            results.record("POST /hotels/search (burst)", System.nanoTime() - start,
+                                    error == null && response.statusCode() < 400);
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(burst.toArray(CompletableFuture[]::new)).join();
+            Thread.sleep(burstPauseMillis);
+        }
+    }
+
+    private void crudOperation(final SplittableRandom random, final Results results) {
+        final int operation = random.nextInt(100);
+        final long id = 1 + random.nextLong(Math.max(1, maxHotelId.get()));
+        if (operation < 48) {
+            send(get("/hotels/" + id), "GET /hotels/{id}", results);
+        } else if (operation < 68) {
+            send(post("/hotels", hotelBody(random, id)), "POST /hotels", results);
+        } else if (operation < 88) {
+            send(put("/hotels/" + id, hotelBody(random, id)), "PUT /hotels/{id}", results);
+        } else if (operation < 98) {
+            send(delete("/hotels/" + id), "DELETE /hotels/{id}", results);
+        } else {
+            send(get("/hotels"), "GET /hotels", results);
+        }
+    }
+
+    private long randomPage(final SplittableRandom random) {
+        final long pages = Math.max(1, maxHotelId.get() / PAGE_SIZE);
+        return random.nextLong(pages);
+    }
+
+    private void send(final HttpRequest request, final String endpoint, final Results results) {
+        final long start = System.nanoTime();
+        boolean success;
+        try {
+            final HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            // Updates and deletes of hotels removed by other workers are expected in the CRUD mix
+            success = response.statusCode() < 400 || response.statusCode() == 404;
+            if (response.statusCode() == 200 && "POST".equals(request.method()) && request.uri().getPath().endsWith("/hotels")) {
+                final Matcher matcher = ID_PATTERN.matcher(response.body());
+                if (matcher.find()) {
+                    maxHotelId.accumulateAndGet(Long.parseLong(matcher.group(1)), Math::max);
+                }
+            }
+        } catch (final IOException e) {
+            success = false;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (results != null) {
+            results.record(endpoint, System.nanoTime() - start, success);
+        }
+    }
+
+    private HttpRequest get(final String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Accept", JSON).GET().build();
+    }
+
+    private HttpRequest delete(final String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).DELETE().build();
+    }
+
+    private HttpRequest post(final String path, final String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", JSON)
+                .header("Accept", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest put(final String path, final String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", JSON)
+                .header("Accept", JSON)
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String hotelBody(final SplittableRandom random, final long index) {
+        final CatalogGenerator.City city = CatalogGenerator.randomCity(random);
+        return String.format(Locale.ROOT, "{\"name\":\"Hotel %s %d\",\"price\":%.2f,\"longitude\":%.6f,\"latitude\":%.6f}",
+                city.name(), index, city.priceLevel() * (0.5 + random.nextDouble() * 1.5),
+                clamp(city.longitude() + random.nextGaussian() * 0.2, 180),
+                clamp(city.latitude() + random.nextGaussian() * 0.2, 90));
+    }
+
+    private static String userBody(final SplittableRandom random) {
+        final CatalogGenerator.City city = CatalogGenerator.randomCity(random);
+        return String.format(Locale.ROOT, "{\"longitude\":%.6f,\"latitude\":%.6f}",
+                clamp(city.longitude() + random.nextGaussian() * 0.1, 180),
+                clamp(city.latitude() + random.nextGaussian() * 0.1, 90));
+    }
+
+    private static double clamp(final double value, final double limit) {
+        return Math.max(-limit, Math.min(limit, value));
+    }
+
+    /**
+     * Latency histograms and error counts per endpoint of one scenario run.
+     */
+    static class Results {
+        private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+        void record(final String endpoint, final long nanos, final boolean success) {
+            latencies.computeIfAbsent(endpoint, key -> new LatencyHistogram()).record(nanos);
+            if (!success) {
+                errors.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+            }
+        }
+
+        static String header() {
+            return String.format(Locale.ROOT, "%-12s %-30s %10s %10s %9s %9s %9s %9s %8s",
+                    "scenario", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        }
+
+        String format(final Scenario scenario, final Duration runFor) {
+            final StringBuilder builder = new StringBuilder();
+            for (final Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(latencies).entrySet()) {
+                final LatencyHistogram histogram = entry.getValue();
+                builder.append(String.format(Locale.ROOT, "%-12s %-30s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                        scenario, entry.getKey(), histogram.getCount(),
+                        histogram.getCount() / (runFor.toNanos() / 1e9),
+                        millis(histogram.getValueAtPercentile(50)),
+                        millis(histogram.getValueAtPercentile(99)),
+                        millis(histogram.getValueAtPercentile(99.9)),
+                        millis(histogram.getMax()),
+                        errors.getOrDefault(entry.getKey(), new AtomicLong()).get()));
+            }
+            return builder.toString();
+        }
+
+        private static double millis(final long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
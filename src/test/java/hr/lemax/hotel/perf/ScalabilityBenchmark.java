@@ -0,0 +1,386 @@
+package hr.lemax.hotel.perf;
+
+import hr.lemax.hotel.catalog.CatalogGenerator;
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.config.HotelWriterProperties;
+import hr.lemax.hotel.config.ModelMapperConfig;
+import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.service.HotelService;
+import hr.lemax.hotel.store.CompactHotelStore;
+import hr.lemax.hotel.store.HeapHotelStore;
+import hr.lemax.hotel.store.HotelStore;
+import hr.lemax.hotel.store.HotelStoreType;
+import hr.lemax.hotel.store.OffHeapHotelStore;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Scalability curve of {@link HotelService} under contending searches and writes, driven in-process
+ * without HTTP. For every store, catalog size, read/write mix and access pattern the benchmark runs
+ * 1 to N threads in a closed loop and reports throughput, speedup over a single thread, read and
+ * write latency percentiles and anomalies found while running:
+ * <ul>
+ *     <li>duplicate IDs - the same ID returned for two added hotels</li>
+ *     <li>lost updates - a hotel whose stored version or name differs from the newest acknowledged update</li>
+ *     <li>inconsistent searches - results not ordered by distance and price, or holding a hotel twice,
+ *     and hotels read by ID under another ID</li>
+ * </ul>
+ * Run with {@code mvn -Ploadtest test-compile exec:java -Dexec.mainClass=hr.lemax.hotel.perf.ScalabilityBenchmark}.
+ * Configuration is read from system properties:
+ * <ul>
+ *     <li>{@code scalability.stores} - comma separated {@link HotelStoreType}s (default HEAP)</li>
+ *     <li>{@code scalability.hotels} - comma separated catalog sizes (default 10000,100000)</li>
+ *     <li>{@code scalability.threads} - comma separated thread counts (default powers of two up to the number of processors)</li>
+ *     <li>{@code scalability.mixes} - comma separated read/write percentages (default 99/1,90/10,50/50)</li>
+ *     <li>{@code scalability.access} - comma separated {@link Access} patterns (default UNIFORM,HOT)</li>
+ *     <li>{@code scalability.hotKeys} - number of hotels hit by {@link Access#HOT} access (default 16)</li>
+ *     <li>{@code scalability.searchShare} - percentage of reads that are searches, the rest read by ID (default 50)</li>
+ *     <li>{@code scalability.warmup} - warmup seconds per run, not reported (default 1)</li>
+ *     <li>{@code scalability.duration} - measured seconds per run (default 5)</li>
+ *     <li>{@code scalability.seed} - random seed for catalog and operations (default 42)</li>
+ *     <li>{@code scalability.report} - optional file the report is also written to</li>
+ * </ul>
+ * The process exits with status 1 if any anomaly was found.
+ */
+public class ScalabilityBenchmark {
+    // Hotels of a search result checked for order, as many as a search page returns
+    private static final int CHECKED_RESULTS = 20;
+
+    enum Access {
+        // Every hotel of the catalog equally likely
+        UNIFORM,
+        // 90% of operations on a few hot hotels
+        HOT
+    }
+
+    /**
+     * @param reads percentage of read operations
+     */
+    record Mix(int reads) {
+        static Mix parse(final String value) {
+            final String[] parts = value.split("/");
+            final int reads = Integer.parseInt(parts[0].trim());
+            if (reads < 0 || reads > 100 || parts.length == 2 && reads + Integer.parseInt(parts[1].trim()) != 100) {
+                throw new IllegalArgumentException("Mix must be reads/writes adding up to 100: " + value);
+            }
+            return new Mix(reads);
+        }
+
+        @Override
+        public String toString() {
+            return reads + "/" + (100 - reads);
+        }
+    }
+
+    private final int hotKeys;
+    private final int searchShare;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final long seed;
+
+    public ScalabilityBenchmark() {
+        this.hotKeys = Integer.getInteger("scalability.hotKeys", 16);
+        this.searchShare = Integer.getInteger("scalability.searchShare", 50);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Long.getLong("scalability.warmup", 1L));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Long.getLong("scalability.duration", 5L));
+        this.seed = Long.getLong("scalability.seed", 42L);
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final List<HotelStoreType> stores = parse(System.getProperty("scalability.stores", "HEAP"), HotelStoreType::valueOf);
+        final List<Integer> catalogs = parse(System.getProperty("scalability.hotels", "10000,100000"), Integer::valueOf);
+        final List<Integer> threads = parse(System.getProperty("scalability.threads", defaultThreads()), Integer::valueOf);
+        final List<Mix> mixes = parse(System.getProperty("scalability.mixes", "99/1,90/10,50/50"), Mix::parse);
+        final List<Access> accesses = parse(System.getProperty("scalability.access", "UNIFORM,HOT"), Access::valueOf);
+        final ScalabilityBenchmark benchmark = new ScalabilityBenchmark();
+
+        System.out.println(Result.header());
+        final StringBuilder report = new StringBuilder(Result.header()).append(System.lineSeparator());
+        long anomalies = 0;
+        for (final HotelStoreType store : stores) {
+            for (final int hotels : catalogs) {
+                for (final Mix mix : mixes) {
+                    for (final Access access : accesses) {
+                        double singleThreadThroughput = 0;
+                        for (final int threadCount : threads) {
+                            final Result result = benchmark.run(store, hotels, mix, access, threadCount);
+                            if (singleThreadThroughput == 0) {
+                                singleThreadThroughput = result.throughput() / threadCount;
+                            }
+                            final String line = result.format(singleThreadThroughput);
+                            System.out.print(line);
+                            report.append(line);
+                            anomalies += result.anomalies();
+                        }
+                    }
+                }
+            }
+        }
+        final String reportFile = System.getProperty("scalability.report");
+        if (reportFile != null) {
+            Files.writeString(Path.of(reportFile), report);
+        }
+        System.exit(anomalies == 0 ? 0 : 1);
+    }
+
+    private static String defaultThreads() {
+        final List<String> threads = new ArrayList<>();
+        final int processors = Runtime.getRuntime().availableProcessors();
+        for (int count = 1; count < processors; count *= 2) {
+            threads.add(String.valueOf(count));
+        }
+        threads.add(String.valueOf(processors));
+        return String.join(",", threads);
+    }
+
+    private static <T> List<T> parse(final String value, final Function<String, T> parser) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .map(item -> parser.apply(item.toUpperCase(Locale.ROOT)))
+                .toList();
+    }
+
+    /**
+     * Load a fresh catalog into a new service and run the operation mix on it, first to warm up,
+     * then measured, and check the stored hotels against the acknowledged updates.
+     */
+    Result run(final HotelStoreType storeType, final int hotels, final Mix mix, final Access access, final int threads)
+            throws Exception {
+        final HotelStore store = switch (storeType) {
+            case HEAP -> new HeapHotelStore();
+            case OFF_HEAP -> new OffHeapHotelStore();
+            case COMPACT -> new CompactHotelStore(false, Math.max(hotels, 1_024));
+        };
+        final HotelService service = new HotelService(new ModelMapperConfig().modelMapperBean(), store, new HotelWriterProperties());
+        try {
+            service.importHotels(new CatalogGenerator(seed).hotels(hotels));
+            final Run run = new Run(service, hotels, mix, access);
+            run.execute(threads, warmupNanos, null);
+            final Result result = new Result(storeType, hotels, mix, access, threads);
+            run.execute(threads, durationNanos, result);
+            result.lostUpdates = run.countLostUpdates();
+            return result;
+        } finally {
+            service.destroy();
+        }
+    }
+
+    /**
+     * Operations against one service. State used to find anomalies is kept across the warmup and
+     * measured execution, as both modify the same catalog.
+     */
+    private final class Run {
+        private final HotelService service;
+        private final int hotels;
+        private final Mix mix;
+        private final Access access;
+        private final SortByDistanceAndPrice strategy = new SortByDistanceAndPrice();
+        // IDs returned by adds, with the number of times each was returned
+        private final Map<Long, AtomicLong> addedIds = new ConcurrentHashMap<>();
+        // Newest acknowledged update of catalog hotels, which are never deleted
+        private final Map<Long, Hotel> acknowledged = new ConcurrentHashMap<>();
+        private final AtomicLong duplicateIds = new AtomicLong();
+        private final AtomicLong inconsistentReads = new AtomicLong();
+        private final AtomicLong updateSequence = new AtomicLong();
+
+        private Run(final HotelService service, final int hotels, final Mix mix, final Access access) {
+            this.service = service;
+            this.hotels = hotels;
+            this.mix = mix;
+            this.access = access;
+        }
+
+        void execute(final int threads, final long nanos, final Result result) throws Exception {
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            final CountDownLatch start = new CountDownLatch(1);
+            try {
+                final List<Future<Long>> futures = new ArrayList<>(threads);
+                for (int thread = 0; thread < threads; thread++) {
+                    final SplittableRandom random = new SplittableRandom(seed * 31 + thread);
+                    futures.add(executor.submit(() -> {
+                        // Hotels added by this thread, the only ones it deletes
+                        final List<Long> own = new ArrayList<>();
+                        start.await();
+                        final long deadline = System.nanoTime() + nanos;
+                        long operations = 0;
+                        while (System.nanoTime() < deadline) {
+                            operate(random, own, result);
+                            operations++;
+                        }
+                        return operations;
+                    }));
+                }
+                final long startNanos = System.nanoTime();
+                start.countDown();
+                long operations = 0;
+                for (final Future<Long> future : futures) {
+                    operations += future.get();
+                }
+                if (result != null) {
+                    result.operations = operations;
+                    result.elapsedNanos = System.nanoTime() - startNanos;
+                    result.duplicateIds = duplicateIds.get();
+                    result.inconsistentReads = inconsistentReads.get();
+                }
+            } finally {
+                executor.shutdownNow();
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        }
+
+        private void operate(final SplittableRandom random, final List<Long> own, final Result result) {
+            final boolean read = random.nextInt(100) < mix.reads();
+            final long start = System.nanoTime();
+            if (read) {
+                if (random.nextInt(100) < searchShare) {
+                    search(random);
+                } else {
+                    getById(random);
+                }
+            } else {
+                write(random, own);
+            }
+            if (result != null) {
+                (read ? result.readLatencies : result.writeLatencies).record(System.nanoTime() - start);
+            }
+        }
+
+        private long catalogId(final SplittableRandom random) {
+            if (access == Access.HOT && random.nextInt(10) < 9) {
+                return 1 + random.nextInt(Math.min(hotKeys, hotels));
+            }
+            return 1 + random.nextInt(hotels);
+        }
+
+        private void search(final SplittableRandom random) {
+            final CatalogGenerator.City city = CatalogGenerator.randomCity(random);
+            final List<Hotel> sorted = service.searchHotels(city.longitude(), city.latitude(), strategy);
+            final Set<Long> ids = new HashSet<>();
+            Hotel previous = null;
+            for (final Hotel hotel : sorted.subList(0, Math.min(CHECKED_RESULTS, sorted.size()))) {
+                if (!ids.add(hotel.getId()) || previous != null && (hotel.getDistance() < previous.getDistance()
+                        || hotel.getDistance() == previous.getDistance() && hotel.getPrice() < previous.getPrice())) {
+                    inconsistentReads.incrementAndGet();
+                    return;
+                }
+                previous = hotel;
+            }
+        }
+
+        private void getById(final SplittableRandom random) {
+            final long id = catalogId(random);
+            final Optional<Hotel> hotel = service.getHotelById(id);
+            if (hotel.isPresent() && hotel.get().getId() != id) {
+                inconsistentReads.incrementAndGet();
+            }
+        }
+
+        private void write(final SplittableRandom random, final List<Long> own) {
+            final int operation = random.nextInt(100);
+            if (operation < 70) {
+                final long id = catalogId(random);
+                final HotelModificationDTO update = new HotelModificationDTO("Update " + updateSequence.incrementAndGet(),
+                        50.0 + random.nextInt(500), -180 + random.nextDouble() * 360, -90 + random.nextDouble() * 180);
+                final Hotel updated = service.updateHotel(update, id);
+                acknowledged.merge(id, updated, (current, next) -> next.getVersion() > current.getVersion() ? next : current);
+            } else if (operation < 90 || own.isEmpty()) {
+                final Hotel added = service.addHotel(new HotelModificationDTO("Added", 100.0, 15.98, 45.81));
+                if (addedIds.computeIfAbsent(added.getId(), key -> new AtomicLong()).incrementAndGet() > 1) {
+                    duplicateIds.incrementAndGet();
+                }
+                own.add(added.getId());
+            } else {
+                service.deleteHotel(own.remove(own.size() - 1));
+            }
+        }
+
+        long countLostUpdates() {
+            long lost = 0;
+            for (final Map.Entry<Long, Hotel> entry : new HashMap<>(acknowledged).entrySet()) {
+                final Optional<Hotel> stored = service.getHotelById(entry.getKey());
+                if (stored.isEmpty()
+                        || stored.get().getVersion() != entry.getValue().getVersion()
+                        || !stored.get().getName().equals(entry.getValue().getName())) {
+                    lost++;
+                }
+            }
+            return lost;
+        }
+    }
+
+    /**
+     * Throughput, latencies and anomalies of one measured run.
+     */
+    static final class Result {
+        private final HotelStoreType store;
+        private final int hotels;
+        private final Mix mix;
+        private final Access access;
+        private final int threads;
+        private final LatencyHistogram readLatencies = new LatencyHistogram();
+        private final LatencyHistogram writeLatencies = new LatencyHistogram();
+        private long operations;
+        private long elapsedNanos;
+        private long duplicateIds;
+        private long lostUpdates;
+        private long inconsistentReads;
+
+        Result(final HotelStoreType store, final int hotels, final Mix mix, final Access access, final int threads) {
+            this.store = store;
+            this.hotels = hotels;
+            this.mix = mix;
+            this.access = access;
+            this.threads = threads;
+        }
+
+        double throughput() {
+            return operations / (elapsedNanos / 1e9);
+        }
+
+        long anomalies() {
+            return duplicateIds + lostUpdates + inconsistentReads;
+        }
+
+        static String header() {
+            return String.format(Locale.ROOT, "%-9s %9s %6s %-7s %7s %11s %7s %9s %9s %9s %9s %5s %5s %5s",
+                    "store", "hotels", "mix", "access", "threads", "ops/s", "speedup",
+                    "rd p50", "rd p99", "wr p50", "wr p99", "dup", "lost", "inc");
+        }
+
+        /**
+         * @param singleThreadThroughput throughput per thread of the run with the fewest threads
+         */
+        String format(final double singleThreadThroughput) {
+            return String.format(Locale.ROOT, "%-9s %9d %6s %-7s %7d %11.0f %7.2f %9.3f %9.3f %9.3f %9.3f %5d %5d %5d%n",
+                    store, hotels, mix, access, threads, throughput(), throughput() / singleThreadThroughput,
+                    millis(readLatencies.getValueAtPercentile(50)), millis(readLatencies.getValueAtPercentile(99)),
+                    millis(writeLatencies.getValueAtPercentile(50)), millis(writeLatencies.getValueAtPercentile(99)),
+                    duplicateIds, lostUpdates, inconsistentReads);
+        }
+
+        private static double millis(final long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package hr.lemax.hotel.perf;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures time-to-first-request of the packaged application: the time from launching the JVM
+ * until {@code GET /api/hotels} is answered successfully. Each mode is started several times in
+ * a fresh JVM and the median is reported:
+ * <ul>
+ *     <li>{@code default}: plain startup of the extracted jar</li>
+ *     <li>{@code fast-start}: {@code prod} profile with Spring AOT and the AppCDS archive</li>
+ * </ul>
+ * Run as part of {@code mvn -Pfast-start verify}, or directly with system properties:
+ * {@code startup.jar} (required), {@code startup.archive}, {@code startup.runs} (default 5),
+ * {@code startup.timeoutSeconds} (default 60) and {@code startup.maxMillis}, a budget for the
+ * median of the fast-start mode that fails the run when exceeded (0 disables the check).
+ */
+public class StartupBenchmark {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    public static void main(final String[] args) throws Exception {
+        final Path jar = Path.of(System.getProperty("startup.jar"));
+        final String archive = System.getProperty("startup.archive", "");
+        final int runs = Integer.getInteger("startup.runs", 5);
+        final long timeoutMillis = Long.getLong("startup.timeoutSeconds", 60L) * 1000;
+        final long maxMillis = Long.getLong("startup.maxMillis", 0L);
+
+        final List<String> fastStartOptions = new ArrayList<>(List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=prod"));
+        if (!archive.isEmpty() && Files.exists(Path.of(archive))) {
+            fastStartOptions.add("-XX:SharedArchiveFile=" + archive);
+        } else {
+            System.out.println("No AppCDS archive found, fast-start mode runs without it");
+        }
+
+        final long defaultMedian = measure("default", jar, List.of(), runs, timeoutMillis);
+        final long fastStartMedian = measure("fast-start", jar, fastStartOptions, runs, timeoutMillis);
+        System.out.printf(Locale.ROOT, "time-to-first-request speedup: %.2fx%n", defaultMedian / (double) fastStartMedian);
+
+        if (maxMillis > 0 && fastStartMedian > maxMillis) {
+            throw new IllegalStateException("Median time-to-first-request " + fastStartMedian
+                    + " ms exceeds budget of " + maxMillis + " ms");
+        }
+    }
+
+    private static long measure(
+            final String mode,
+            final Path jar,
+            final List<String> options,
+            final int runs,
+            final long timeoutMillis) throws Exception {
+        final long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = timeToFirstRequest(jar, options, timeoutMillis);
+        }
+        Arrays.sort(millis);
+        final long median = millis[runs / 2];
+        System.out.printf(Locale.ROOT, "%-10s time-to-first-request: median %d ms, min %d ms, max %d ms (%d runs)%n",
+                mode, median, millis[0], millis[runs - 1], runs);
+        return median;
+    }
+
+    private static long timeToFirstRequest(
+            final Path jar,
+            final List<String> options,
+            final long timeoutMillis) throws Exception {
+        final int port = freePort();
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options);
+        command.add("-Dserver.port=" + port);
+        command.add("-jar");
+        command.add(jar.toString());
+
+        final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/hotels")).GET().build();
+
+        final long start = System.nanoTime();
+        final Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try {
+            while (System.nanoTime() - start < timeoutMillis * 1_000_000) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue());
+                }
+                try {
+                    final HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() < 500) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (final IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException("Application did not answer within " + timeoutMillis + " ms");
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
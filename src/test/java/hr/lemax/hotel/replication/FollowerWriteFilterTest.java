@@ -0,0 +1,78 @@
+package hr.lemax.hotel.replication;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FollowerWriteFilterTest {
+    private final FollowerWriteFilter filter = new FollowerWriteFilter("http://leader:8080/api/");
+
+    @Test
+    void testReadsAndSearchesAreServedLocally() throws Exception {
+        assertServedLocally("GET", "/api/hotels/1");
+        assertServedLocally("POST", "/api/hotels/search");
+        assertServedLocally("POST", "/api/hotels/search/page");
+        assertServedLocally("POST", "/api/hotels/subscriptions");
+        assertServedLocally("PUT", "/api/hotels/subscriptions/1");
+        assertServedLocally("DELETE", "/api/hotels/subscriptions/1");
+    }
+
+    @Test
+    void testWritesAreRedirectedToLeader() throws Exception {
+        assertRedirected("POST", "/api/hotels", null, "http://leader:8080/api/hotels");
+        assertRedirected("PUT", "/api/hotels/1", null, "http://leader:8080/api/hotels/1");
+        assertRedirected("DELETE", "/api/hotels/1", null, "http://leader:8080/api/hotels/1");
+        assertRedirected("PATCH", "/api/hotels/prices", null, "http://leader:8080/api/hotels/prices");
+        assertRedirected("PUT", "/api/hotels/availability", null, "http://leader:8080/api/hotels/availability");
+        assertRedirected("POST", "/api/hotels/import", "format=ndjson", "http://leader:8080/api/hotels/import?format=ndjson");
+        // Only the search routes, not any path ending in /search
+        assertRedirected("POST", "/api/hotels/1/search", null, "http://leader:8080/api/hotels/1/search");
+        assertRedirected("POST", "/api/hotels/searches", null, "http://leader:8080/api/hotels/searches");
+    }
+
+    @Test
+    void testAvailabilityReadsAreRedirectedToLeader() throws Exception {
+        assertRedirected("POST", "/api/hotels/search", "checkIn=2026-11-01&checkOut=2026-11-03",
+                "http://leader:8080/api/hotels/search?checkIn=2026-11-01&checkOut=2026-11-03");
+        assertRedirected("POST", "/api/hotels/search/page", "page=1&checkIn=2026-11-01&checkOut=2026-11-03",
+                "http://leader:8080/api/hotels/search/page?page=1&checkIn=2026-11-01&checkOut=2026-11-03");
+        assertRedirected("GET", "/api/hotels/1/availability", null, "http://leader:8080/api/hotels/1/availability");
+    }
+
+    private void assertServedLocally(final String method, final String uri) throws Exception {
+        final MockFilterChain chain = new MockFilterChain();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri, null), response, chain);
+
+        assertNotNull(chain.getRequest(), method + " " + uri);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    private void assertRedirected(final String method, final String uri, final String query, final String location) throws Exception {
+        final MockFilterChain chain = new MockFilterChain();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri, query), response, chain);
+
+        assertNull(chain.getRequest(), method + " " + uri);
+        assertEquals(HttpStatus.TEMPORARY_REDIRECT.value(), response.getStatus());
+        assertEquals(location, response.getHeader(HttpHeaders.LOCATION));
+    }
+
+    private static MockHttpServletRequest request(final String method, final String uri, final String query) {
+        final MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setContextPath("/api");
+        request.setQueryString(query);
+        if (query != null) {
+            for (final String parameter : query.split("&")) {
+                final String[] pair = parameter.split("=", 2);
+                request.addParameter(pair[0], pair[1]);
+            }
+        }
+        return request;
+    }
+}
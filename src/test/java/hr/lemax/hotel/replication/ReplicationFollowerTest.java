@@ -0,0 +1,176 @@
+package hr.lemax.hotel.replication;
+
+import hr.lemax.hotel.catalog.CatalogFormat;
+import hr.lemax.hotel.catalog.CatalogWriter;
+import hr.lemax.hotel.common.strategy.WeightedScoreTopK;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.service.HotelChangeLog;
+import hr.lemax.hotel.service.HotelSearchIndex;
+import hr.lemax.hotel.service.HotelService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class ReplicationFollowerTest {
+    private static final String LEADER = "http://leader/api";
+
+    private MockRestServiceServer server;
+    private HotelService hotelService;
+    private ReplicationFollower follower;
+
+    @BeforeEach
+    void setUp() {
+        final RestClient.Builder builder = RestClient.builder().baseUrl(LEADER);
+        server = MockRestServiceServer.bindTo(builder).build();
+        hotelService = new HotelService(new ModelMapper());
+        follower = new ReplicationFollower(builder.build(), hotelService, Duration.ofSeconds(1), 10, Clock.systemUTC());
+    }
+
+    @AfterEach
+    void tearDown() {
+        hotelService.destroy();
+    }
+
+    @Test
+    void testBootstrapsAndFollowsChanges() throws IOException {
+        expectSnapshot(2, hotel(1L, "Hilton", 1), hotel(2L, "Sheraton", 2));
+        expectChanges(2, "{\"latestVersion\":4,\"changes\":["
+                + change("UPDATED", 3, 1L, "Hilton Garden") + ","
+                + "{\"type\":\"DELETED\",\"version\":4,\"id\":2}]}");
+
+        follower.poll();
+
+        server.verify();
+        assertEquals(ReplicationFollower.State.FOLLOWING, follower.getState());
+        assertEquals(4, follower.getAppliedVersion());
+        assertEquals(4, follower.getLeaderVersion());
+        assertEquals(0, follower.getLagVersions());
+        assertEquals("Hilton Garden", hotelService.getHotelById(1L).orElseThrow().getName());
+        assertEquals(3, hotelService.getHotelById(1L).orElseThrow().getVersion());
+        assertTrue(hotelService.getHotelById(2L).isEmpty());
+    }
+
+    @Test
+    void testBootstrapsAgainAfterImport() throws IOException {
+        expectSnapshot(2, hotel(1L, "Hilton", 1), hotel(2L, "Sheraton", 2));
+        expectChanges(2, "{\"latestVersion\":3,\"changes\":[{\"type\":\"IMPORTED\",\"version\":3}]}");
+        expectSnapshot(3, hotel(1L, "Hilton", 3), hotel(5L, "Imported", 3));
+        expectChanges(3, "{\"latestVersion\":3,\"changes\":[]}");
+
+        follower.poll();
+
+        assertEquals(ReplicationFollower.State.BOOTSTRAPPING, follower.getState());
+        assertEquals(2, follower.getAppliedVersion());
+
+        follower.poll();
+
+        server.verify();
+        assertEquals(ReplicationFollower.State.FOLLOWING, follower.getState());
+        assertEquals(3, follower.getAppliedVersion());
+        assertEquals(List.of(1L, 5L), hotelService.getAllHotels().stream().map(Hotel::getId).sorted().toList());
+    }
+
+    @Test
+    void testBootstrapsAgainWhenChangesAreGone() throws IOException {
+        expectSnapshot(2, hotel(1L, "Hilton", 1), hotel(2L, "Sheraton", 2));
+        expectChanges(2, "{\"latestVersion\":2,\"changes\":[]}");
+        // The follower was away for longer than the leader keeps its changes
+        expectGone(2);
+        expectSnapshot(9, hotel(2L, "Sheraton", 2), hotel(3L, "Marriott", 9));
+        expectChanges(9, "{\"latestVersion\":9,\"changes\":[]}");
+
+        follower.poll();
+        follower.poll();
+
+        assertEquals(ReplicationFollower.State.BOOTSTRAPPING, follower.getState());
+
+        follower.poll();
+
+        server.verify();
+        assertEquals(ReplicationFollower.State.FOLLOWING, follower.getState());
+        assertEquals(9, follower.getAppliedVersion());
+        assertEquals(List.of(2L, 3L), hotelService.getAllHotels().stream().map(Hotel::getId).sorted().toList());
+    }
+
+    @Test
+    void testFollowsRestartedLeader() throws IOException {
+        final HotelChangeLog changeLog = new HotelChangeLog(100, hotelService.getCatalogVersion());
+        hotelService.addChangeListener(changeLog);
+        final HotelSearchIndex searchIndex = new HotelSearchIndex(1.0, hotelService::getCatalogSnapshot, hotelService::getHotelById);
+        hotelService.addChangeListener(searchIndex);
+        searchIndex.load();
+        expectSnapshot(5, hotel(1L, "Hilton", 4), hotel(2L, "Sheraton", 5));
+        expectChanges(5, "{\"latestVersion\":5,\"changes\":[]}");
+        // The restarted leader does not know version 5, and is at version 1 with other hotels
+        expectGone(5);
+        expectSnapshot(1, hotel(1L, "Restarted", 1));
+        expectChanges(1, "{\"latestVersion\":2,\"changes\":[" + change("ADDED", 2, 2L, "Added") + "]}");
+
+        follower.poll();
+        follower.poll();
+        follower.poll();
+
+        server.verify();
+        assertEquals(ReplicationFollower.State.FOLLOWING, follower.getState());
+        assertEquals(2, follower.getAppliedVersion());
+        assertEquals(2, follower.getLeaderVersion());
+        assertEquals(1, hotelService.getCatalogEpoch());
+        // The change log starts over from the restored version, with the changes that follow it
+        assertEquals(1, changeLog.getEpoch());
+        assertEquals(1, changeLog.getHorizon());
+        assertEquals(List.of(2L), changeLog.since(1).orElseThrow().stream().map(HotelChange::version).toList());
+        // The index is rebuilt from the restored catalog although its version is lower
+        final List<Hotel> found = searchIndex.search(new WeightedScoreTopK(1, 1, 10, 100, 10), 15.0, 45.0);
+        assertEquals(List.of("Added", "Restarted"), found.stream().map(Hotel::getName).sorted().toList());
+    }
+
+    private void expectSnapshot(final long version, final Hotel... hotels) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CatalogWriter writer = CatalogFormat.SNAPSHOT.writer(out, version)) {
+            for (final Hotel hotel : hotels) {
+                writer.write(hotel);
+            }
+        }
+        server.expect(requestTo(LEADER + "/replication/snapshot"))
+                .andRespond(withSuccess(out.toByteArray(), MediaType.parseMediaType(CatalogFormat.SNAPSHOT.getMediaType())));
+    }
+
+    private void expectChanges(final long sinceVersion, final String body) {
+        server.expect(requestTo(LEADER + "/replication/changes?sinceVersion=" + sinceVersion + "&limit=10"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+    }
+
+    private void expectGone(final long sinceVersion) {
+        server.expect(requestTo(LEADER + "/replication/changes?sinceVersion=" + sinceVersion + "&limit=10"))
+                .andRespond(withStatus(HttpStatus.GONE));
+    }
+
+    private static String change(final String type, final long version, final long id, final String name) {
+        return "{\"type\":\"" + type + "\",\"version\":" + version + ",\"id\":" + id + ",\"hotel\":{\"id\":" + id
+                + ",\"name\":\"" + name + "\",\"price\":100.0,\"longitude\":15.0,\"latitude\":45.0}}";
+    }
+
+    private static Hotel hotel(final Long id, final String name, final long version) {
+        final Hotel hotel = new Hotel(id, name, 100.0, 15.0, 45.0);
+        hotel.setVersion(version);
+        return hotel;
+    }
+}
@@ -0,0 +1,191 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.model.HotelDelta;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HotelChangeLogTest {
+
+    @Test
+    void testSinceReturnsChangesAfterVersion() {
+        final HotelChangeLog changeLog = new HotelChangeLog(10, 0);
+        for (long version = 1; version <= 5; version++) {
+            changeLog.onChange(added(version));
+        }
+
+        assertEquals(List.of(3L, 4L, 5L), versions(changeLog.since(2)));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), versions(changeLog.since(0)));
+        assertEquals(List.of(), versions(changeLog.since(5)));
+        assertEquals(5, changeLog.getLatestVersion());
+    }
+
+    @Test
+    void testSinceIsEmptyWhenChangesAgedOut() {
+        final HotelChangeLog changeLog = new HotelChangeLog(3, 0);
+        for (long version = 1; version <= 10; version++) {
+            changeLog.onChange(added(version));
+        }
+
+        assertEquals(3, changeLog.size());
+        assertEquals(7, changeLog.getHorizon());
+        assertEquals(List.of(8L, 9L, 10L), versions(changeLog.since(7)));
+        assertTrue(changeLog.since(6).isEmpty());
+        // Unknown version, e.g. seen before a restart
+        assertTrue(changeLog.since(11).isEmpty());
+    }
+
+    @Test
+    void testSinceIsEmptyWhenOverLimit() {
+        final HotelChangeLog changeLog = new HotelChangeLog(10, 0);
+        for (long version = 1; version <= 5; version++) {
+            changeLog.onChange(added(version));
+        }
+
+        assertEquals(List.of(4L, 5L), versions(changeLog.since(3, 2)));
+        assertTrue(changeLog.since(2, 2).isEmpty());
+    }
+
+    @Test
+    void testPageReturnsOldestChangesFirst() {
+        final HotelChangeLog changeLog = new HotelChangeLog(10, 0);
+        for (long version = 1; version <= 5; version++) {
+            changeLog.onChange(added(version));
+        }
+
+        assertEquals(List.of(1L, 2L), versions(changeLog.page(0, 2)));
+        assertEquals(List.of(3L, 4L), versions(changeLog.page(2, 2)));
+        assertEquals(List.of(5L), versions(changeLog.page(4, 2)));
+        assertEquals(List.of(), versions(changeLog.page(5, 2)));
+        assertTrue(changeLog.page(6, 2).isEmpty());
+    }
+
+    @Test
+    void testVersionsWithGaps() {
+        final HotelChangeLog changeLog = new HotelChangeLog(4, 100);
+        changeLog.onChange(added(102));
+        changeLog.onChange(added(105));
+        changeLog.onChange(added(106));
+        changeLog.onChange(added(110));
+        changeLog.onChange(added(111));
+
+        assertEquals(102, changeLog.getHorizon());
+        assertEquals(List.of(106L, 110L, 111L), versions(changeLog.since(105)));
+        assertEquals(List.of(110L, 111L), versions(changeLog.since(107)));
+        assertTrue(changeLog.since(101).isEmpty());
+    }
+
+    @Test
+    void testChangesExpireAfterRetention() {
+        final MutableClock clock = new MutableClock();
+        final HotelChangeLog changeLog = new HotelChangeLog(10, Duration.ofMinutes(10), 0, clock);
+        changeLog.onChange(added(1));
+        clock.advance(Duration.ofMinutes(6));
+        changeLog.onChange(added(2));
+        clock.advance(Duration.ofMinutes(6));
+
+        assertEquals(List.of(2L), versions(changeLog.since(1)));
+        assertTrue(changeLog.since(0).isEmpty());
+        assertEquals(1, changeLog.size());
+
+        clock.advance(Duration.ofMinutes(6));
+        assertEquals(0, changeLog.size());
+        assertEquals(2, changeLog.getHorizon());
+        assertEquals(List.of(), versions(changeLog.since(2)));
+    }
+
+    @Test
+    void testDeltaSinceCollapsesChanges() {
+        final HotelChangeLog changeLog = new HotelChangeLog(10, 0);
+        final Hotel hilton = new Hotel(1L, "Hilton", 100.0, 15.98, 45.81);
+        final Hotel sheraton = new Hotel(2L, "Sheraton", 200.0, 15.98, 45.81);
+        changeLog.onChange(HotelChange.added(versioned(hilton, 1)));
+        changeLog.onChange(HotelChange.added(versioned(sheraton, 2)));
+        final Hotel previous = hilton.copy();
+        hilton.setName("Hilton Garden");
+        changeLog.onChange(HotelChange.updated(versioned(hilton, 3), previous));
+        changeLog.onChange(HotelChange.deleted(4, sheraton.copy()));
+        changeLog.onChange(HotelChange.added(versioned(new Hotel(3L, "Westin", 300.0, 15.98, 45.81), 5)));
+
+        final HotelDelta delta = changeLog.deltaSince(2).orElseThrow();
+        assertEquals(2, delta.fromVersion());
+        assertEquals(5, delta.toVersion());
+        assertEquals(List.of(1L, 3L), delta.changed().stream().map(Hotel::getId).toList());
+        assertEquals("Hilton Garden", delta.changed().get(0).getName());
+        assertEquals(List.of(2L), delta.deleted());
+
+        final HotelDelta full = changeLog.deltaSince(0).orElseThrow();
+        assertEquals(List.of(1L, 3L), full.changed().stream().map(Hotel::getId).toList());
+        assertEquals(List.of(2L), full.deleted());
+
+        final HotelDelta empty = changeLog.deltaSince(5).orElseThrow();
+        assertTrue(empty.changed().isEmpty());
+        assertTrue(empty.deleted().isEmpty());
+    }
+
+    @Test
+    void testDeltaSinceIsEmptyAcrossImport() {
+        final HotelChangeLog changeLog = new HotelChangeLog(10, 0);
+        changeLog.onChange(added(1));
+        changeLog.onChange(HotelChange.imported(2));
+        changeLog.onChange(added(3));
+
+        assertTrue(changeLog.deltaSince(0).isEmpty());
+        assertTrue(changeLog.deltaSince(1).isEmpty());
+        assertEquals(List.of(3L), changeLog.deltaSince(2).orElseThrow().changed().stream().map(Hotel::getId).toList());
+        assertTrue(changeLog.deltaSince(4).isEmpty());
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new HotelChangeLog(0, 0));
+    }
+
+    private static HotelChange added(final long version) {
+        return HotelChange.added(versioned(new Hotel(version, "Hotel " + version, 100.0, 15.98, 45.81), version));
+    }
+
+    private static Hotel versioned(final Hotel hotel, final long version) {
+        hotel.setVersion(version);
+        return hotel;
+    }
+
+    private static List<Long> versions(final Optional<List<HotelChange>> changes) {
+        return changes.orElseThrow().stream().map(HotelChange::version).toList();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(final Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.common.strategy.WeightedScoreTopK;
+import hr.lemax.hotel.model.CatalogSnapshot;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotelSearchIndexTest {
+
+    @Test
+    void testResultsKeepScoreOrder() {
+        final Map<Long, Hotel> store = store(
+                hotel(1L, 15.98, 45.81, 100.0, 1),
+                hotel(2L, 15.97, 45.80, 80.0, 2),
+                hotel(3L, 16.44, 43.51, 120.0, 3));
+        final HotelSearchIndex index = loaded(store, 3);
+
+        final List<Hotel> hotels = index.search(new WeightedScoreTopK(1, 1, 10, 100, 3), 15.98, 45.81);
+
+        assertEquals(List.of(2L, 1L, 3L), hotels.stream().map(Hotel::getId).toList());
+        assertEquals("Hotel 2", hotels.get(0).getName());
+        assertTrue(hotels.get(0).getDistance() > 0);
+        // Copies, the stored hotels are not given distances
+        assertEquals(0, store.get(2L).getDistance());
+    }
+
+    @Test
+    void testHotelsChangedSinceScoringAreSearchedAgain() {
+        final Map<Long, Hotel> store = store(
+                hotel(1L, 15.98, 45.81, 100.0, 1),
+                hotel(2L, 15.97, 45.80, 80.0, 2),
+                hotel(3L, 16.44, 43.51, 120.0, 3));
+        final List<Hotel> hotels = store.values().stream().map(Hotel::copy).toList();
+        final HotelSearchIndex[] index = new HotelSearchIndex[1];
+        final Hotel previous = store.get(2L);
+        final Hotel moved = hotel(2L, -74.00, 40.71, 300.0, 4);
+        index[0] = new HotelSearchIndex(1.0, () -> new CatalogSnapshot(3, hotels), id -> {
+            // The writer applies the change stored meanwhile once the stale hotel is read
+            if (id == 2L && store.get(2L) != moved) {
+                store.put(2L, moved);
+                index[0].onChange(HotelChange.updated(moved, previous));
+            }
+            return Optional.ofNullable(store.get(id));
+        });
+        index[0].load();
+
+        final List<Hotel> found = index[0].search(new WeightedScoreTopK(1, 1, 10, 100, 2), 15.98, 45.81);
+
+        // Not shrunk to hotel 1, the hotel next in score takes the place of the moved one
+        assertEquals(List.of(1L, 3L), found.stream().map(Hotel::getId).toList());
+    }
+
+    @Test
+    void testHotelsChangedSinceScoringAreRescoredIfIndexLags() {
+        final Map<Long, Hotel> store = store(
+                hotel(1L, 15.98, 45.81, 100.0, 1),
+                hotel(2L, 15.97, 45.80, 80.0, 2),
+                hotel(3L, 16.44, 43.51, 120.0, 3));
+        final HotelSearchIndex index = loaded(store, 3);
+        // Stored by the writer, but never applied to the index
+        store.put(2L, hotel(2L, -74.00, 40.71, 300.0, 4));
+        store.remove(3L);
+
+        final List<Hotel> hotels = index.search(new WeightedScoreTopK(1, 1, 10, 100, 3), 15.98, 45.81);
+
+        // Moved hotel in its current place and price, deleted one left out
+        assertEquals(List.of(1L, 2L), hotels.stream().map(Hotel::getId).toList());
+        assertEquals(300.0, hotels.get(1).getPrice());
+        assertTrue(hotels.get(1).getDistance() > 5000);
+    }
+
+    private static HotelSearchIndex loaded(final Map<Long, Hotel> store, final long version) {
+        final List<Hotel> hotels = store.values().stream().map(Hotel::copy).toList();
+        final HotelSearchIndex index = new HotelSearchIndex(1.0,
+                () -> new CatalogSnapshot(version, hotels),
+                id -> Optional.ofNullable(store.get(id)));
+        index.load();
+        return index;
+    }
+
+    private static Map<Long, Hotel> store(final Hotel... hotels) {
+        final Map<Long, Hotel> store = new HashMap<>();
+        for (final Hotel hotel : hotels) {
+            store.put(hotel.getId(), hotel);
+        }
+        return store;
+    }
+
+    private static Hotel hotel(final Long id, final double longitude, final double latitude, final double price, final long version) {
+        final Hotel hotel = new Hotel(id, "Hotel " + id, price, longitude, latitude);
+        hotel.setVersion(version);
+        return hotel;
+    }
+}
@@ -1,9 +1,20 @@
 package hr.lemax.hotel.service;
 
+import hr.lemax.hotel.common.enums.BatchItemStatus;
+import hr.lemax.hotel.common.enums.HotelChangeType;
 import hr.lemax.hotel.common.exception.HotelNotFoundException;
 import hr.lemax.hotel.common.strategy.HotelSortStrategy;
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
 import hr.lemax.hotel.dto.HotelModificationDTO;
+import hr.lemax.hotel.model.AvailabilityUpdate;
+import hr.lemax.hotel.model.BatchResult;
+import hr.lemax.hotel.model.DateRange;
 import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.model.PriceUpdate;
+import hr.lemax.hotel.model.Stay;
+import hr.lemax.hotel.store.CompactHotelStore;
+import hr.lemax.hotel.store.HeapHotelStore;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeAll;
@@ -14,9 +25,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -110,6 +130,310 @@ public class HotelServiceTest {
         assertEquals(0, hotelPage.getTotalElements());
     }
 
+    @Test
+    void testCatalogVersionIncrementsOnModification() {
+        final long initialVersion = hotelService.getCatalogVersion();
+        final Hotel addedHotel = hotelService.addHotel(VALID_HOTEL_DTO);
+        assertEquals(initialVersion + 1, hotelService.getCatalogVersion());
+        assertEquals(hotelService.getCatalogVersion(), addedHotel.getVersion());
+
+        hotelService.updateHotel(new HotelModificationDTO("Hilton Updated", 200.0, 60.0, 20.0), addedHotel.getId());
+        assertEquals(initialVersion + 2, hotelService.getCatalogVersion());
+
+        hotelService.deleteHotel(addedHotel.getId());
+        assertEquals(initialVersion + 3, hotelService.getCatalogVersion());
+    }
+
+    @Test
+    void testImportHotelsKeepsIdsAndSharesVersion() {
+        final HotelService service = new HotelService(new ModelMapper());
+        final long imported = service.importHotels(Stream.of(
+                new Hotel(5L, "Hilton", 150.0, 50.0, 10.0),
+                new Hotel(null, "Sheraton", 120.0, 51.0, 11.0)));
+
+        assertEquals(2, imported);
+        assertEquals(1, service.getCatalogVersion());
+        assertEquals("Hilton", service.getHotelById(5L).orElseThrow().getName());
+        assertEquals("Sheraton", service.getHotelById(6L).orElseThrow().getName());
+        assertEquals(1, service.getHotelById(6L).orElseThrow().getVersion());
+        assertEquals(7L, service.addHotel(VALID_HOTEL_DTO).getId());
+    }
+
+    @Test
+    void testImportHotelsRoundsAndValidatesPrices() {
+        final HotelService service = new HotelService(new ModelMapper());
+        final List<HotelChange> changes = new ArrayList<>();
+        service.addChangeListener(changes::add);
+
+        assertThrows(RuntimeException.class, () -> service.importHotels(Stream.of(
+                new Hotel(5L, "Hilton", 149.999, 50.0, 10.0),
+                new Hotel(6L, "Sheraton", 0.001, 51.0, 11.0),
+                new Hotel(7L, "Marriott", 120.0, 52.0, 12.0))));
+
+        // Hotels before the invalid one are kept, and listeners are notified of them
+        assertEquals(150.0, service.getHotelById(5L).orElseThrow().getPrice());
+        assertTrue(service.getHotelById(6L).isEmpty());
+        assertTrue(service.getHotelById(7L).isEmpty());
+        assertEquals(List.of(HotelChangeType.IMPORTED), changes.stream().map(HotelChange::type).toList());
+        assertEquals(service.getCatalogVersion(), changes.get(0).version());
+    }
+
+    @Test
+    void testChangeListenersAreNotifiedInVersionOrder() {
+        final HotelService service = new HotelService(new ModelMapper());
+        final List<HotelChange> changes = new ArrayList<>();
+        service.addChangeListener(change -> {
+            throw new IllegalStateException("Failing listener");
+        });
+        service.addChangeListener(changes::add);
+
+        final Hotel added = service.addHotel(VALID_HOTEL_DTO);
+        service.updateHotel(new HotelModificationDTO("Hilton Updated", 200.0, 60.0, 20.0), added.getId());
+        service.deleteHotel(added.getId());
+        service.importHotels(Stream.of(new Hotel(5L, "Sheraton", 120.0, 51.0, 11.0)));
+
+        assertEquals(4, changes.size());
+        assertEquals(HotelChangeType.ADDED, changes.get(0).type());
+        assertEquals("Hilton", changes.get(0).hotel().getName());
+        assertEquals(HotelChangeType.UPDATED, changes.get(1).type());
+        assertEquals("Hilton Updated", changes.get(1).hotel().getName());
+        assertEquals("Hilton", changes.get(1).previous().getName());
+        assertEquals(HotelChangeType.DELETED, changes.get(2).type());
+        assertEquals(added.getId(), changes.get(2).hotelId());
+        assertNull(changes.get(2).hotel());
+        assertEquals(HotelChangeType.IMPORTED, changes.get(3).type());
+        for (int i = 0; i < changes.size(); i++) {
+            assertEquals(i + 1, changes.get(i).version());
+        }
+        // Events hold copies, unaffected by later modifications
+        assertNotSame(added, changes.get(0).hotel());
+    }
+
+    @Test
+    void testRestoreCatalogReplacesHotelsAndVersion() {
+        final HotelService service = new HotelService(new ModelMapper());
+        final Hotel stale = service.addHotel(VALID_HOTEL_DTO);
+        final List<HotelChange> changes = new ArrayList<>();
+        service.addChangeListener(changes::add);
+
+        final Hotel hotel = new Hotel(7L, "Sheraton", 120.0, 51.0, 11.0);
+        hotel.setVersion(35);
+        final long restored = service.restoreCatalog(Stream.of(hotel), 40);
+
+        assertEquals(1, restored);
+        assertEquals(40, service.getCatalogVersion());
+        assertTrue(service.getHotelById(stale.getId()).isEmpty());
+        assertEquals(35, service.getHotelById(7L).orElseThrow().getVersion());
+        assertEquals(List.of(HotelChangeType.IMPORTED), changes.stream().map(HotelChange::type).toList());
+        assertEquals(8L, service.addHotel(VALID_HOTEL_DTO).getId());
+    }
+
+    @Test
+    void testApplyChangeKeepsIdsAndVersionsOfChange() {
+        final HotelService leader = new HotelService(new ModelMapper());
+        final HotelService follower = new HotelService(new ModelMapper());
+        final List<HotelChange> replicated = new ArrayList<>();
+        leader.addChangeListener(change -> {
+            if (follower.applyChange(change)) {
+                replicated.add(change);
+            }
+        });
+        final List<HotelChange> followerChanges = new ArrayList<>();
+        follower.addChangeListener(followerChanges::add);
+
+        final Hotel added = leader.addHotel(VALID_HOTEL_DTO);
+        leader.addHotel(VALID_HOTEL_DTO);
+        leader.updateHotel(new HotelModificationDTO("Hilton Updated", 200.0, 60.0, 20.0), added.getId());
+        leader.deleteHotel(2L);
+
+        assertEquals(4, replicated.size());
+        assertEquals(leader.getCatalogVersion(), follower.getCatalogVersion());
+        final Hotel copy = follower.getHotelById(added.getId()).orElseThrow();
+        assertEquals("Hilton Updated", copy.getName());
+        assertEquals(3, copy.getVersion());
+        assertTrue(follower.getHotelById(2L).isEmpty());
+        assertEquals(List.of(HotelChangeType.ADDED, HotelChangeType.ADDED, HotelChangeType.UPDATED, HotelChangeType.DELETED),
+                followerChanges.stream().map(HotelChange::type).toList());
+        assertEquals("Hilton", followerChanges.get(2).previous().getName());
+        // Changes already applied are skipped
+        assertFalse(follower.applyChange(replicated.get(1)));
+        assertThrows(RuntimeException.class, () -> follower.applyChange(HotelChange.imported(5)));
+    }
+
+    @Test
+    void testConcurrentModificationsGetUniqueIdsAndVersions() throws Exception {
+        final HotelService service = new HotelService(new ModelMapper());
+        final List<HotelChange> changes = new ArrayList<>();
+        // Not thread-safe, only correct if changes are published one at a time
+        service.addChangeListener(changes::add);
+        final ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Hotel>> results = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                results.add(callers.submit(() -> {
+                    final Hotel hotel = service.addHotel(VALID_HOTEL_DTO);
+                    return service.updateHotel(new HotelModificationDTO("Hilton Updated", 200.0, 60.0, 20.0), hotel.getId());
+                }));
+            }
+            final Set<Long> ids = new HashSet<>();
+            for (final Future<Hotel> result : results) {
+                ids.add(result.get(30, TimeUnit.SECONDS).getId());
+            }
+
+            assertEquals(1_000, ids.size());
+            assertEquals(2_000, service.getCatalogVersion());
+            assertEquals(2_000, changes.size());
+            for (int i = 0; i < changes.size(); i++) {
+                assertEquals(i + 1, changes.get(i).version());
+            }
+        } finally {
+            callers.shutdownNow();
+            service.destroy();
+        }
+    }
+
+    @Test
+    void testSearchHotelsForStayLeavesOutUnavailableHotels() {
+        final HotelService service = new HotelService(new ModelMapper());
+        final Hotel near = service.addHotel(new HotelModificationDTO("Near", 300.0, 15.98, 45.81));
+        final Hotel far = service.addHotel(new HotelModificationDTO("Far", 50.0, 16.44, 43.51));
+        final LocalDate checkIn = LocalDate.now().plusDays(10);
+        service.updateAvailability(List.of(
+                new AvailabilityUpdate(near.getId(), checkIn, checkIn.plusDays(7), true),
+                new AvailabilityUpdate(near.getId(), checkIn.plusDays(3), checkIn.plusDays(4), false),
+                new AvailabilityUpdate(far.getId(), checkIn, checkIn.plusDays(7), true)));
+
+        final SortByDistanceAndPrice strategy = new SortByDistanceAndPrice();
+        assertEquals(List.of(near.getId(), far.getId()), service.searchHotels(15.98, 45.81, strategy,
+                new Stay(checkIn, checkIn.plusDays(3))).stream().map(Hotel::getId).toList());
+        assertEquals(List.of(far.getId()), service.searchHotels(15.98, 45.81, strategy,
+                new Stay(checkIn, checkIn.plusDays(5))).stream().map(Hotel::getId).toList());
+        assertEquals(2, service.searchHotels(15.98, 45.81, strategy).size());
+        assertEquals(List.of(new DateRange(checkIn, checkIn.plusDays(3)), new DateRange(checkIn.plusDays(4), checkIn.plusDays(7))),
+                service.getAvailability(near.getId(), LocalDate.now(), checkIn.plusDays(30)));
+
+        // Availability of deleted hotels is removed with them
+        service.deleteHotel(far.getId());
+        assertEquals(List.of(), service.searchHotels(15.98, 45.81, strategy, new Stay(checkIn, checkIn.plusDays(5))));
+    }
+
+    @Test
+    void testUpdateAvailabilityOfMissingHotelAppliesNothing() {
+        final HotelService service = new HotelService(new ModelMapper());
+        final Hotel hotel = service.addHotel(VALID_HOTEL_DTO);
+        final LocalDate from = LocalDate.now().plusDays(1);
+
+        assertThrows(HotelNotFoundException.class, () -> service.updateAvailability(List.of(
+                new AvailabilityUpdate(hotel.getId(), from, from.plusDays(2), true),
+                new AvailabilityUpdate(99L, from, from.plusDays(2), true))));
+        assertTrue(service.getAvailability(hotel.getId(), from, from.plusDays(2)).isEmpty());
+        assertThrows(HotelNotFoundException.class, () -> service.getAvailability(99L, from, from.plusDays(2)));
+    }
+
+    @Test
+    void testUpdatePricesSkipsUnchangedAndReportsRejected() {
+        final HotelService service = new HotelService(new ModelMapper());
+        final Hotel first = service.addHotel(VALID_HOTEL_DTO);
+        final Hotel second = service.addHotel(new HotelModificationDTO("Sheraton", 120.0, 51.0, 11.0));
+        final List<List<HotelChange>> batches = new ArrayList<>();
+        service.addChangeListener(new HotelChangeListener() {
+            @Override
+            public void onChange(final HotelChange change) {
+                batches.add(List.of(change));
+            }
+
+            @Override
+            public void onChanges(final List<HotelChange> changes) {
+                batches.add(changes);
+            }
+        });
+
+        final BatchResult result = service.updatePrices(List.of(
+                new PriceUpdate(first.getId(), 99.0),
+                new PriceUpdate(second.getId(), 120.0),
+                new PriceUpdate(42L, 80.0),
+                new PriceUpdate(second.getId(), -1.0)));
+
+        assertEquals(1, result.applied());
+        assertEquals(1, result.unchanged());
+        assertEquals(List.of(
+                new BatchResult.Item(42L, BatchItemStatus.NOT_FOUND),
+                new BatchResult.Item(second.getId(), BatchItemStatus.INVALID)), result.rejected());
+        assertEquals(3, result.version());
+        assertEquals(99.0, service.getHotelById(first.getId()).orElseThrow().getPrice());
+        assertEquals(3, service.getHotelById(first.getId()).orElseThrow().getVersion());
+        // Coordinates and name are kept, the unchanged hotel keeps its version
+        assertEquals("Hilton", service.getHotelById(first.getId()).orElseThrow().getName());
+        assertEquals(2, service.getHotelById(second.getId()).orElseThrow().getVersion());
+        // Readers holding the hotel from before are unaffected
+        assertEquals(150.0, first.getPrice());
+        assertEquals(1, batches.size());
+        assertEquals(150.0, batches.get(0).get(0).previous().getPrice());
+    }
+
+    @Test
+    void testPricesAreKeptInMinorUnits() {
+        final HotelService service = new HotelService(new ModelMapper(), new CompactHotelStore(false, 100));
+        final Hotel hotel = service.addHotel(new HotelModificationDTO("Hilton", 19.999, 50.0, 10.0));
+        assertEquals(20.0, hotel.getPrice());
+
+        final BatchResult result = service.updatePrices(List.of(
+                new PriceUpdate(hotel.getId(), 20.001),
+                new PriceUpdate(hotel.getId(), 0.001),
+                new PriceUpdate(hotel.getId(), 1e12)));
+
+        // Rounds to the price set, and to zero or out of range of the store
+        assertEquals(0, result.applied());
+        assertEquals(1, result.unchanged());
+        assertEquals(List.of(
+                new BatchResult.Item(hotel.getId(), BatchItemStatus.INVALID),
+                new BatchResult.Item(hotel.getId(), BatchItemStatus.INVALID)), result.rejected());
+        assertEquals(20.0, service.getHotelById(hotel.getId()).orElseThrow().getPrice());
+    }
+
+    @Test
+    void testDeleteHotelsInOneBatch() {
+        final HotelService service = new HotelService(new ModelMapper());
+        final Hotel first = service.addHotel(VALID_HOTEL_DTO);
+        final Hotel second = service.addHotel(new HotelModificationDTO("Sheraton", 120.0, 51.0, 11.0));
+        final List<HotelChange> changes = new ArrayList<>();
+        service.addChangeListener(changes::add);
+
+        final BatchResult result = service.deleteHotels(List.of(first.getId(), 42L, second.getId(), first.getId()));
+
+        assertEquals(2, result.applied());
+        assertEquals(List.of(
+                new BatchResult.Item(42L, BatchItemStatus.NOT_FOUND),
+                new BatchResult.Item(first.getId(), BatchItemStatus.NOT_FOUND)), result.rejected());
+        assertTrue(service.getAllHotels().isEmpty());
+        assertEquals(List.of(3L, 4L), changes.stream().map(HotelChange::version).toList());
+        assertTrue(changes.stream().allMatch(change -> change.type() == HotelChangeType.DELETED));
+    }
+
+    @Test
+    void testBatchChangesStoredBeforeStoreFailureArePublished() {
+        final HotelService service = new HotelService(new ModelMapper(), new HeapHotelStore() {
+            @Override
+            public void save(final Hotel hotel) {
+                if ("Failing".equals(hotel.getName()) && hotel.getPrice() > 500) {
+                    throw new IllegalStateException("Store failure");
+                }
+                super.save(hotel);
+            }
+        });
+        final Hotel first = service.addHotel(VALID_HOTEL_DTO);
+        final Hotel failing = service.addHotel(new HotelModificationDTO("Failing", 120.0, 51.0, 11.0));
+        final List<HotelChange> changes = new ArrayList<>();
+        service.addChangeListener(changes::add);
+
+        assertThrows(RuntimeException.class, () -> service.updatePrices(List.of(
+                new PriceUpdate(first.getId(), 200.0),
+                new PriceUpdate(failing.getId(), 600.0))));
+
+        assertEquals(200.0, service.getHotelById(first.getId()).orElseThrow().getPrice());
+        assertEquals(List.of(first.getId()), changes.stream().map(HotelChange::hotelId).toList());
+    }
+
     @Test
     void testSearchHotelsException() {
         Mockito.when(mockSortStrategy.sort(Mockito.anyList(), Mockito.anyDouble(), Mockito.anyDouble()))
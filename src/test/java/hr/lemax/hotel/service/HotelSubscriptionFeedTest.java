@@ -0,0 +1,78 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.common.exception.GeoSubscriptionNotFoundException;
+import hr.lemax.hotel.common.index.GeoSubscription;
+import hr.lemax.hotel.config.HotelSubscriptionProperties;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotelSubscriptionFeedTest {
+    private HotelSubscriptionFeed feed;
+    private GeoSubscription zagreb;
+    private GeoSubscription cheapZagreb;
+    private GeoSubscription split;
+
+    @BeforeEach
+    void setUp() {
+        feed = new HotelSubscriptionFeed(new HotelService(new ModelMapper()), new ModelMapper(), new HotelSubscriptionProperties());
+        zagreb = feed.create(15.98, 45.81, 10, null);
+        cheapZagreb = feed.create(15.98, 45.81, 10, 100.0);
+        split = feed.create(16.44, 43.51, 10, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    void testAddedHotelEntersMatchingSubscriptions() {
+        assertEquals(List.of(zagreb.id(), cheapZagreb.id()), ids(feed.entered(HotelChange.added(hotel(15.97, 45.80, 80.0)))));
+        assertEquals(List.of(zagreb.id()), ids(feed.entered(HotelChange.added(hotel(15.97, 45.80, 150.0)))));
+        assertTrue(feed.entered(HotelChange.added(hotel(-74.00, 40.71, 80.0))).isEmpty());
+    }
+
+    @Test
+    void testUpdatedHotelEntersOnlySubscriptionsItDidNotMatch() {
+        final Hotel expensive = hotel(15.97, 45.80, 150.0);
+
+        // Price lowered to the cap of the cheap subscription, already within the other one
+        assertEquals(List.of(cheapZagreb.id()), ids(feed.entered(HotelChange.updated(hotel(15.97, 45.80, 100.0), expensive))));
+        // Renamed or moved within the radius
+        assertTrue(feed.entered(HotelChange.updated(hotel(15.99, 45.82, 150.0), expensive)).isEmpty());
+        // Moved to another city
+        assertEquals(List.of(split.id()), ids(feed.entered(HotelChange.updated(hotel(16.44, 43.51, 150.0), expensive))));
+    }
+
+    @Test
+    void testSubscriptionsAreValidatedAndFound() {
+        assertThrows(ResponseStatusException.class, () -> feed.create(15.98, 45.81, 0, null));
+        assertThrows(ResponseStatusException.class, () -> feed.create(15.98, 45.81, 501, null));
+        assertEquals(3, feed.getSubscriptionCount());
+
+        feed.delete(split.id());
+        assertThrows(GeoSubscriptionNotFoundException.class, () -> feed.get(split.id()));
+        assertThrows(GeoSubscriptionNotFoundException.class, () -> feed.delete(split.id()));
+        assertThrows(GeoSubscriptionNotFoundException.class, () -> feed.stream(split.id()));
+        assertTrue(feed.entered(HotelChange.added(hotel(16.44, 43.51, 80.0))).isEmpty());
+    }
+
+    private static List<Long> ids(final List<GeoSubscription> subscriptions) {
+        return subscriptions.stream().map(GeoSubscription::id).sorted().toList();
+    }
+
+    private static Hotel hotel(final double longitude, final double latitude, final double price) {
+        final Hotel hotel = new Hotel(1L, "Hilton", price, longitude, latitude);
+        hotel.setVersion(1);
+        return hotel;
+    }
+}
@@ -0,0 +1,168 @@
+package hr.lemax.hotel.service;
+
+import hr.lemax.hotel.model.CatalogSnapshot;
+import hr.lemax.hotel.model.Hotel;
+import hr.lemax.hotel.model.HotelChange;
+import hr.lemax.hotel.model.HotelCluster;
+import hr.lemax.hotel.model.HotelClusters;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotelTileIndexTest {
+    private static final Hotel ZAGREB = hotel(1L, 15.98, 45.81, 100.0);
+    private static final Hotel ZAGREB_CENTER = hotel(2L, 15.97, 45.80, 80.0);
+    private static final Hotel SPLIT = hotel(3L, 16.44, 43.51, 120.0);
+    private static final Hotel NEW_YORK = hotel(4L, -74.00, 40.71, 300.0);
+
+    @Test
+    void testTileCoordinates() {
+        assertEquals(0, HotelTileIndex.tileX(-180, 1));
+        assertEquals(1, HotelTileIndex.tileX(180, 1));
+        assertEquals(0, HotelTileIndex.tileY(89, 1));
+        assertEquals(1, HotelTileIndex.tileY(-89, 1));
+        // Zagreb in tile 8/139/91 of OpenStreetMap
+        assertEquals(139, HotelTileIndex.tileX(15.98, 8));
+        assertEquals(91, HotelTileIndex.tileY(45.81, 8));
+    }
+
+    @Test
+    void testClustersAggregateHotelsPerTile() {
+        final HotelTileIndex index = loaded(List.of(ZAGREB, ZAGREB_CENTER, SPLIT, NEW_YORK), 3);
+
+        final HotelClusters world = index.clusters(-180, -90, 180, 90, 0, 100).orElseThrow();
+        assertEquals(3, world.version());
+        assertEquals(1, world.clusters().size());
+        assertEquals(4, world.clusters().get(0).count());
+        assertEquals(80.0, world.clusters().get(0).minPrice());
+
+        final List<HotelCluster> croatia = index.clusters(13.5, 42.4, 19.4, 46.6, 8, 100).orElseThrow().clusters();
+        assertEquals(2, croatia.size());
+        final HotelCluster zagreb = croatia.stream().filter(cluster -> cluster.count() == 2).findFirst().orElseThrow();
+        assertEquals(15.975, zagreb.longitude(), 1e-9);
+        assertEquals(45.805, zagreb.latitude(), 1e-9);
+        assertEquals(80.0, zagreb.minPrice());
+    }
+
+    @Test
+    void testChangesUpdateEveryLevel() {
+        final HotelTileIndex index = loaded(List.of(ZAGREB, ZAGREB_CENTER), 2);
+
+        // Cheapest hotel moves to Split
+        final Hotel moved = hotel(2L, 16.44, 43.51, 80.0);
+        moved.setVersion(3);
+        index.onChange(HotelChange.updated(moved, ZAGREB_CENTER));
+        for (int zoom = 0; zoom <= index.getMaxZoom(); zoom++) {
+            final int total = index.clusters(-180, -90, 180, 90, zoom, 100_000).orElseThrow()
+                    .clusters().stream().mapToInt(HotelCluster::count).sum();
+            assertEquals(2, total);
+        }
+        final List<HotelCluster> tiles = index.clusters(15.9, 45.7, 16.0, 45.9, 12, 100).orElseThrow().clusters();
+        assertEquals(1, tiles.size());
+        assertEquals(100.0, tiles.get(0).minPrice());
+        assertEquals(80.0, index.clusters(-180, -90, 180, 90, 0, 100).orElseThrow().clusters().get(0).minPrice());
+
+        index.onChange(HotelChange.deleted(4, moved));
+        assertEquals(100.0, index.clusters(-180, -90, 180, 90, 0, 100).orElseThrow().clusters().get(0).minPrice());
+        index.onChange(HotelChange.deleted(5, ZAGREB));
+        for (int zoom = 0; zoom <= index.getMaxZoom(); zoom++) {
+            assertEquals(0, index.tileCount(zoom));
+        }
+    }
+
+    @Test
+    void testPriceChangesKeepHotelInItsTiles() {
+        final HotelTileIndex index = loaded(List.of(ZAGREB, ZAGREB_CENTER, SPLIT), 3);
+
+        final Hotel cheaper = hotel(1L, 15.98, 45.81, 50.0);
+        cheaper.setVersion(4);
+        final Hotel dearer = hotel(2L, 15.97, 45.80, 200.0);
+        dearer.setVersion(5);
+        index.onChanges(List.of(HotelChange.updated(cheaper, ZAGREB), HotelChange.updated(dearer, ZAGREB_CENTER)));
+
+        final HotelClusters world = index.clusters(-180, -90, 180, 90, 0, 100).orElseThrow();
+        assertEquals(5, world.version());
+        assertEquals(3, world.clusters().get(0).count());
+        assertEquals(50.0, world.clusters().get(0).minPrice());
+        final HotelCluster zagreb = index.clusters(15.9, 45.7, 16.0, 45.9, 8, 100).orElseThrow()
+                .clusters().stream().filter(cluster -> cluster.count() == 2).findFirst().orElseThrow();
+        assertEquals(50.0, zagreb.minPrice());
+        assertEquals(15.975, zagreb.longitude(), 1e-9);
+
+        // Cheapest hotel gets dearer, minimum prices are taken from the remaining ones
+        final Hotel restored = hotel(1L, 15.98, 45.81, 250.0);
+        restored.setVersion(6);
+        index.onChange(HotelChange.updated(restored, cheaper));
+        assertEquals(120.0, index.clusters(-180, -90, 180, 90, 0, 100).orElseThrow().clusters().get(0).minPrice());
+    }
+
+    @Test
+    void testChangesBeforeLoadAreApplied() {
+        final List<Hotel> catalog = new ArrayList<>(List.of(ZAGREB));
+        final HotelTileIndex index = new HotelTileIndex(10, () -> new CatalogSnapshot(1, List.copyOf(catalog)));
+        // Published before the snapshot is taken, contained in it
+        index.onChange(HotelChange.added(versioned(ZAGREB, 1)));
+        // Published after the snapshot is taken
+        index.onChange(HotelChange.added(versioned(SPLIT, 2)));
+        index.load();
+
+        final HotelClusters clusters = index.clusters(-180, -90, 180, 90, 0, 100).orElseThrow();
+        assertEquals(2, clusters.version());
+        assertEquals(2, clusters.clusters().get(0).count());
+    }
+
+    @Test
+    void testImportRebuildsFromCatalog() {
+        final List<Hotel> catalog = new ArrayList<>(List.of(ZAGREB));
+        final long[] version = {1};
+        final HotelTileIndex index = new HotelTileIndex(10, () -> new CatalogSnapshot(version[0], List.copyOf(catalog)));
+        index.load();
+
+        catalog.add(SPLIT);
+        catalog.add(NEW_YORK);
+        version[0] = 2;
+        index.onChange(HotelChange.imported(2));
+
+        assertEquals(3, index.clusters(-180, -90, 180, 90, 0, 100).orElseThrow().clusters().get(0).count());
+    }
+
+    @Test
+    void testBoundingBoxAcrossAntimeridian() {
+        final Hotel fiji = hotel(5L, 178.44, -18.14, 90.0);
+        final Hotel samoa = hotel(6L, -171.76, -13.83, 95.0);
+        final HotelTileIndex index = loaded(List.of(fiji, samoa, ZAGREB), 3);
+
+        // Two tiles in the box, looked up one by one
+        final List<HotelCluster> pacific = index.clusters(170, -25, -165, -10, 3, 100).orElseThrow().clusters();
+        assertEquals(2, pacific.size());
+        // More tiles in the box than in the level, which is scanned instead
+        assertEquals(2, index.clusters(170, -85, -165, 85, 6, 100).orElseThrow().clusters().size());
+    }
+
+    @Test
+    void testTooManyClusters() {
+        final HotelTileIndex index = loaded(List.of(ZAGREB, SPLIT, NEW_YORK), 3);
+
+        assertTrue(index.clusters(-180, -90, 180, 90, 10, 2).isEmpty());
+        assertEquals(3, index.clusters(-180, -90, 180, 90, 10, 3).orElseThrow().clusters().size());
+    }
+
+    private static HotelTileIndex loaded(final List<Hotel> hotels, final long version) {
+        final HotelTileIndex index = new HotelTileIndex(14, () -> new CatalogSnapshot(version, hotels));
+        index.load();
+        return index;
+    }
+
+    private static Hotel hotel(final Long id, final double longitude, final double latitude, final double price) {
+        return new Hotel(id, "Hotel " + id, price, longitude, latitude);
+    }
+
+    private static Hotel versioned(final Hotel hotel, final long version) {
+        final Hotel copy = hotel.copy();
+        copy.setVersion(version);
+        return copy;
+    }
+}
@@ -0,0 +1,235 @@
+package hr.lemax.hotel.store;
+
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactHotelStoreTest {
+    private static final String[] CHAINS = {"Hilton", "Sheraton", "Westin", "Marriott", "Radisson Blu", "Best Western"};
+    private static final String[] CITIES = {"Zagreb", "Split", "Rijeka", "Osijek", "Zadar", "Pula", "Dubrovnik"};
+
+    @Test
+    void testSaveAndFind() {
+        final CompactHotelStore store = new CompactHotelStore(false, 100);
+        final Hotel hotel = hotel(1L, "Hotel Ćevapčići ☕", 120.5);
+        hotel.setVersion(3L);
+        store.save(hotel);
+        store.save(hotel(2L, "Hilton", 99.99));
+        store.save(hotel(3L, null, 10.0));
+
+        final Optional<Hotel> found = store.findById(1L);
+        assertTrue(found.isPresent());
+        assertEquals("Hotel Ćevapčići ☕", found.get().getName());
+        assertEquals(120.5, found.get().getPrice());
+        assertEquals(15.98, found.get().getLongitude());
+        assertEquals(45.81, found.get().getLatitude());
+        assertEquals(3L, found.get().getVersion());
+        assertEquals("Hilton", store.findById(2L).orElseThrow().getName());
+        assertNull(store.findById(3L).orElseThrow().getName());
+        assertEquals(Optional.empty(), store.findById(4L));
+    }
+
+    @Test
+    void testPriceIsRoundedToMinorUnits() {
+        final CompactHotelStore store = new CompactHotelStore(false, 100);
+        store.save(hotel(1L, "Hilton", 0.1 + 0.2));
+        store.save(hotel(2L, "Hilton", 19.999));
+
+        assertEquals(0.3, store.findById(1L).orElseThrow().getPrice());
+        assertEquals(20.0, store.findById(2L).orElseThrow().getPrice());
+        assertThrows(IllegalArgumentException.class, () -> store.save(hotel(3L, "Hilton", 1e12)));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void testFloatCoordinatesStayWithinPrecisionBound() {
+        final CompactHotelStore store = new CompactHotelStore(true, 100);
+        final Random random = new Random(11);
+        final List<Hotel> hotels = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            final Hotel hotel = new Hotel(id, "Hotel " + id, 100.0,
+                    random.nextDouble(-180, 180), random.nextDouble(-90, 90));
+            hotels.add(hotel);
+            store.save(hotel);
+        }
+
+        final double bound = Math.scalb(1.0, -17);
+        for (final Hotel hotel : hotels) {
+            final Hotel found = store.findById(hotel.getId()).orElseThrow();
+            assertTrue(Math.abs(found.getLongitude() - hotel.getLongitude()) <= bound);
+            assertTrue(Math.abs(found.getLatitude() - hotel.getLatitude()) <= bound);
+        }
+    }
+
+    @Test
+    void testNamesAreStoredWithoutDictionaryWhenFull() {
+        final CompactHotelStore store = new CompactHotelStore(false, 2);
+        store.save(hotel(1L, "Hilton Zagreb 1", 100.0));
+        store.save(hotel(2L, "Hilton Zagreb 2", 100.0));
+        store.save(hotel(3L, "Sheraton Split 3", 100.0));
+        store.save(hotel(4L, "Westin Pula 4", 100.0));
+
+        assertEquals("Hilton Zagreb 2", store.findById(2L).orElseThrow().getName());
+        assertEquals("Sheraton Split 3", store.findById(3L).orElseThrow().getName());
+        assertEquals("Westin Pula 4", store.findById(4L).orElseThrow().getName());
+    }
+
+    @Test
+    void testDictionaryHoldsPrefixesOfLiveNames() {
+        final CompactHotelStore store = new CompactHotelStore(false, 100);
+        store.save(hotel(1L, "Hilton", 100.0));
+        store.save(hotel(2L, "Sheraton", 100.0));
+        // Only names with a space share a prefix
+        assertEquals(0, store.dictionarySize());
+
+        final int count = 40_000;
+        for (long id = 3; id <= count; id++) {
+            store.save(hotel(id, "Chain" + id % 50 + " Hotel " + id, 100.0));
+        }
+        assertEquals(50, store.dictionarySize());
+        for (long id = 3; id <= count; id++) {
+            if (id % 50 != 0) {
+                store.delete(id);
+            }
+        }
+        // Updates of the hotels of the remaining chain leave enough deleted records to compact the store
+        for (int update = 0; update < 25; update++) {
+            for (long id = 50; id <= count; id += 50) {
+                store.save(hotel(id, "Chain0 Hotel " + id, 100.0 + update));
+            }
+        }
+
+        assertEquals(1, store.dictionarySize());
+        assertEquals("Chain0 Hotel 40000", store.findById(40_000L).orElseThrow().getName());
+        assertEquals("Hilton", store.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void testUpdateAndDelete() {
+        final CompactHotelStore store = new CompactHotelStore(false, 100);
+        store.save(hotel(1L, "Hilton", 100.0));
+        store.save(hotel(2L, "Sheraton", 200.0));
+
+        store.save(hotel(1L, "Hilton Garden", 110.0));
+        assertEquals("Hilton Garden", store.findById(1L).orElseThrow().getName());
+        assertEquals(110.0, store.findById(1L).orElseThrow().getPrice());
+        assertEquals(2, store.size());
+
+        assertTrue(store.delete(2L));
+        assertFalse(store.delete(2L));
+        assertEquals(1, store.size());
+        assertEquals(List.of(1L), ids(store.findAll()));
+    }
+
+    @Test
+    void testSnapshotIsNotAffectedByLaterModifications() {
+        final CompactHotelStore store = new CompactHotelStore(false, 100);
+        store.save(hotel(1L, "Hilton", 100.0));
+        store.save(hotel(2L, "Sheraton", 200.0));
+        final List<Hotel> snapshot = store.findAll();
+
+        store.save(hotel(1L, "Hilton Garden", 110.0));
+        store.delete(2L);
+        store.save(hotel(3L, "Westin", 300.0));
+
+        assertEquals(List.of(1L, 2L), ids(snapshot));
+        assertEquals("Hilton", snapshot.get(0).getName());
+        assertEquals(List.of(1L, 3L), ids(store.findAll()));
+    }
+
+    @Test
+    void testCompactionKeepsLiveHotels() {
+        final CompactHotelStore store = new CompactHotelStore(true, 100);
+        final int count = 50_000;
+        for (long id = 1; id <= count; id++) {
+            store.save(hotel(id, "Hotel " + id, id));
+        }
+        final List<Hotel> snapshot = store.findAll();
+        for (long id = 1; id <= count; id++) {
+            if (id % 10 != 0) {
+                store.delete(id);
+            }
+        }
+
+        assertEquals(count / 10, store.size());
+        assertEquals(count, snapshot.size());
+        assertEquals("Hotel 1", snapshot.get(0).getName());
+        final List<Hotel> remaining = store.findAll();
+        assertEquals(count / 10, remaining.size());
+        assertEquals("Hotel 10", remaining.get(0).getName());
+        assertEquals("Hotel 50000", store.findById(50_000L).orElseThrow().getName());
+    }
+
+    @Test
+    void testSortedFromRecordsLikeHeapHotels() {
+        final CompactHotelStore compactStore = new CompactHotelStore(false, 100);
+        final HeapHotelStore heapStore = new HeapHotelStore();
+        final Random random = new Random(7);
+        for (long id = 1; id <= 2_000; id++) {
+            final Hotel hotel = new Hotel(id, "Hotel " + id, 50 + random.nextInt(5) * 10,
+                    15 + random.nextDouble(), 45 + random.nextDouble());
+            compactStore.save(hotel);
+            heapStore.save(hotel);
+        }
+        compactStore.delete(5L);
+        heapStore.delete(5L);
+
+        final List<Hotel> compactHotels = compactStore.findAll();
+        assertInstanceOf(HotelRecordSource.class, compactHotels);
+
+        final SortByDistanceAndPrice strategy = new SortByDistanceAndPrice();
+        final List<Hotel> expected = strategy.sort(heapStore.findAll(), 15.5, 45.5);
+        final List<Hotel> actual = strategy.sort(compactHotels, 15.5, 45.5);
+
+        assertEquals(ids(expected), ids(actual));
+        assertEquals(expected.get(0).getDistance(), actual.get(0).getDistance());
+    }
+
+    @Test
+    void testUsesLessThanHalfOfHeapStoreMemory() {
+        final int count = 100_000;
+        final HeapHotelStore heapStore = new HeapHotelStore();
+        final CompactHotelStore compactStore = new CompactHotelStore(false, 1_000);
+        final CompactHotelStore compactFloatStore = new CompactHotelStore(true, 1_000);
+        final Random random = new Random(3);
+        for (long id = 1; id <= count; id++) {
+            final Hotel hotel = new Hotel(id,
+                    CHAINS[random.nextInt(CHAINS.length)] + " " + CITIES[random.nextInt(CITIES.length)] + " " + id,
+                    Math.round((40 + random.nextDouble() * 460) * 100) / 100.0,
+                    random.nextDouble(-180, 180),
+                    random.nextDouble(-90, 90));
+            heapStore.save(hotel);
+            compactStore.save(hotel);
+            compactFloatStore.save(hotel);
+        }
+
+        final double heapBytesPerHotel = GraphLayout.parseInstance(heapStore).totalSize() / (double) count;
+        final double compactBytesPerHotel = GraphLayout.parseInstance(compactStore).totalSize() / (double) count;
+        final double compactFloatBytesPerHotel = GraphLayout.parseInstance(compactFloatStore).totalSize() / (double) count;
+        assertTrue(compactBytesPerHotel * 2 <= heapBytesPerHotel);
+        assertTrue(compactFloatBytesPerHotel < compactBytesPerHotel);
+    }
+
+    private static Hotel hotel(final long id, final String name, final double price) {
+        return new Hotel(id, name, price, 15.98, 45.81);
+    }
+
+    private static List<Long> ids(final List<Hotel> hotels) {
+        final List<Long> ids = new ArrayList<>();
+        hotels.forEach(hotel -> ids.add(hotel.getId()));
+        return ids;
+    }
+}
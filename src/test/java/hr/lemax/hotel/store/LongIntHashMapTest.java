@@ -0,0 +1,34 @@
+package hr.lemax.hotel.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LongIntHashMapTest {
+    @Test
+    void testMatchesHashMap() {
+        final LongIntHashMap map = new LongIntHashMap(16);
+        final Map<Long, Integer> expected = new HashMap<>();
+        final Random random = new Random(3);
+
+        for (int i = 0; i < 200_000; i++) {
+            final long key = 1 + random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 20_000; key++) {
+            final int expectedValue = expected.getOrDefault(key, -1);
+            assertEquals(expectedValue, map.get(key, -1));
+        }
+    }
+}
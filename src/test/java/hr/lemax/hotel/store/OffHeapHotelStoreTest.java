@@ -0,0 +1,127 @@
+package hr.lemax.hotel.store;
+
+import hr.lemax.hotel.common.strategy.SortByDistanceAndPrice;
+import hr.lemax.hotel.model.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapHotelStoreTest {
+
+    @Test
+    void testSaveAndFind() {
+        final OffHeapHotelStore store = new OffHeapHotelStore();
+        final Hotel hotel = hotel(1L, "Hotel Ćevapčići ☕", 120.5);
+        hotel.setVersion(3L);
+        store.save(hotel);
+
+        final Optional<Hotel> found = store.findById(1L);
+        assertTrue(found.isPresent());
+        assertEquals("Hotel Ćevapčići ☕", found.get().getName());
+        assertEquals(120.5, found.get().getPrice());
+        assertEquals(15.98, found.get().getLongitude());
+        assertEquals(45.81, found.get().getLatitude());
+        assertEquals(3L, found.get().getVersion());
+        assertNotSame(found.get(), store.findById(1L).orElseThrow());
+        assertEquals(Optional.empty(), store.findById(2L));
+    }
+
+    @Test
+    void testUpdateAndDelete() {
+        final OffHeapHotelStore store = new OffHeapHotelStore();
+        store.save(hotel(1L, "Hilton", 100.0));
+        store.save(hotel(2L, "Sheraton", 200.0));
+
+        store.save(hotel(1L, "Hilton Garden", 110.0));
+        assertEquals("Hilton Garden", store.findById(1L).orElseThrow().getName());
+        assertEquals(2, store.size());
+
+        assertTrue(store.delete(2L));
+        assertFalse(store.delete(2L));
+        assertEquals(1, store.size());
+        assertEquals(List.of(1L), ids(store.findAll()));
+    }
+
+    @Test
+    void testSnapshotIsNotAffectedByLaterModifications() {
+        final OffHeapHotelStore store = new OffHeapHotelStore();
+        store.save(hotel(1L, "Hilton", 100.0));
+        store.save(hotel(2L, "Sheraton", 200.0));
+        final List<Hotel> snapshot = store.findAll();
+
+        store.save(hotel(1L, "Hilton Garden", 110.0));
+        store.delete(2L);
+        store.save(hotel(3L, "Westin", 300.0));
+
+        assertEquals(List.of(1L, 2L), ids(snapshot));
+        assertEquals("Hilton", snapshot.get(0).getName());
+        assertEquals(List.of(1L, 3L), ids(store.findAll()));
+    }
+
+    @Test
+    void testCompactionKeepsLiveHotels() {
+        final OffHeapHotelStore store = new OffHeapHotelStore();
+        final int count = 50_000;
+        for (long id = 1; id <= count; id++) {
+            store.save(hotel(id, "Hotel " + id, id));
+        }
+        final List<Hotel> snapshot = store.findAll();
+        for (long id = 1; id <= count; id++) {
+            if (id % 10 != 0) {
+                store.delete(id);
+            }
+        }
+
+        assertEquals(count / 10, store.size());
+        assertEquals(count, snapshot.size());
+        assertEquals("Hotel 1", snapshot.get(0).getName());
+        final List<Hotel> remaining = store.findAll();
+        assertEquals(count / 10, remaining.size());
+        assertEquals("Hotel 10", remaining.get(0).getName());
+        assertEquals("Hotel 50000", store.findById(50_000L).orElseThrow().getName());
+    }
+
+    @Test
+    void testSortedFromRecordsLikeHeapHotels() {
+        final OffHeapHotelStore offHeapStore = new OffHeapHotelStore();
+        final HeapHotelStore heapStore = new HeapHotelStore();
+        final Random random = new Random(7);
+        for (long id = 1; id <= 2_000; id++) {
+            final Hotel hotel = new Hotel(id, "Hotel " + id, 50 + random.nextInt(5) * 10,
+                    15 + random.nextDouble(), 45 + random.nextDouble());
+            offHeapStore.save(hotel);
+            heapStore.save(hotel);
+        }
+        offHeapStore.delete(5L);
+        heapStore.delete(5L);
+
+        final List<Hotel> offHeapHotels = offHeapStore.findAll();
+        assertInstanceOf(HotelRecordSource.class, offHeapHotels);
+
+        final SortByDistanceAndPrice strategy = new SortByDistanceAndPrice();
+        final List<Hotel> expected = strategy.sort(heapStore.findAll(), 15.5, 45.5);
+        final List<Hotel> actual = strategy.sort(offHeapHotels, 15.5, 45.5);
+
+        assertEquals(ids(expected), ids(actual));
+        assertEquals(expected.get(0).getDistance(), actual.get(0).getDistance());
+    }
+
+    private static Hotel hotel(final long id, final String name, final double price) {
+        return new Hotel(id, name, price, 15.98, 45.81);
+    }
+
+    private static List<Long> ids(final List<Hotel> hotels) {
+        final List<Long> ids = new ArrayList<>();
+        hotels.forEach(hotel -> ids.add(hotel.getId()));
+        return ids;
+    }
+}